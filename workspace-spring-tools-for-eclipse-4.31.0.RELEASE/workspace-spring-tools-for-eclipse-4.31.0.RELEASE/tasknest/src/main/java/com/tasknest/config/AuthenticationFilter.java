@@ -0,0 +1,108 @@
+package com.tasknest.config;
+
+import com.tasknest.repository.AdminRepository;
+import com.tasknest.service.RequestUser;
+import com.tasknest.service.TokenRevocations;
+import com.tasknest.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Resolves the caller once per request from "Authorization: Bearer <access token>":
+ * one HMAC check and an in-memory revocation lookup, no database access. The
+ * user's email and id go into {@link RequestUser} for the rest of the request.
+ *
+ * A present but invalid token is always a 401. Requests without one pass
+ * through while tasknest.auth.required is false, so clients that still only
+ * send an email parameter keep working during the switch; once it is true
+ * only the public paths below are open.
+ *
+ * The admin routes always need a token, whatever tasknest.auth.required
+ * says, and the caller's email must be listed in the admin table: admins
+ * sign in like any user. That check reads the database, but only for
+ * admin requests. The contact inbox is an admin route too; only posting
+ * the contact form is public.
+ */
+public class AuthenticationFilter extends OncePerRequestFilter {
+
+    private static final List<String> PUBLIC = List.of(
+            "/api/users/signup", "/api/users/login", "/api/users/forgot-password",
+            "/api/users/verify-reset-token", "/api/users/*/reset-password", "/api/auth/**",
+            "/ws/**", "/error");
+
+    private static final List<String> ADMIN = List.of("/api/admin/**", "/api/contact/**");
+
+    private static final String CONTACT_FORM = "/api/contact/submit";
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final TokenService tokens;
+    private final TokenRevocations revocations;
+    private final AdminRepository admins;
+    private final boolean required;
+
+    public AuthenticationFilter(TokenService tokens, TokenRevocations revocations, AdminRepository admins,
+                                boolean required) {
+        this.tokens = tokens;
+        this.revocations = revocations;
+        this.admins = admins;
+        this.required = required;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith("Bearer ")) {
+            TokenService.Claims claims = tokens.verify(header.substring(7).trim(), TokenService.ACCESS);
+            if (claims == null || revocations.isRevoked(claims.id())) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired access token");
+                return;
+            }
+            RequestUser.authenticate(claims.email(), claims.userId());
+        }
+        try {
+            boolean admin = !isContactForm(request) && matches(ADMIN, path(request));
+            if (!"OPTIONS".equals(request.getMethod()) && !RequestUser.isAuthenticated()
+                    && (admin || required && !isPublic(request))) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Access token required");
+                return;
+            }
+            if (admin && RequestUser.isAuthenticated() && !admins.existsByAdminEmail(RequestUser.current())) {
+                response.sendError(HttpServletResponse.SC_FORBIDDEN, "Admin access required");
+                return;
+            }
+            chain.doFilter(request, response);
+        } finally {
+            RequestUser.clear();
+        }
+    }
+
+    private boolean isPublic(HttpServletRequest request) {
+        return isContactForm(request) || matches(PUBLIC, path(request));
+    }
+
+    private boolean isContactForm(HttpServletRequest request) {
+        return "POST".equals(request.getMethod()) && matcher.match(CONTACT_FORM, path(request));
+    }
+
+    private boolean matches(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (matcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,160 @@
+package com.tasknest.config;
+
+import com.tasknest.service.ReadYourWrites;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primary pool from spring.datasource.*, plus read replicas from
+ * tasknest.datasource.replicas[n].* and extra shards from
+ * tasknest.sharding.shards[n].*. Shard 0 is the primary (behind the replica
+ * router when replicas are configured). Without replicas and shards the
+ * primary pool is used directly and nothing changes. Every pool gets the
+ * tasknest.pool.* profile and is registered with {@link PoolDiagnostics}.
+ */
+@Configuration
+@EnableConfigurationProperties({ReplicaProperties.class, ShardingProperties.class, PoolProperties.class})
+public class DataSourceConfig {
+
+    // auto_increment stride; ids stay unique across shards, so rows can move without renumbering
+    public static final int MAX_SHARDS = 64;
+
+    @Bean
+    public PoolDiagnostics poolDiagnostics() {
+        return new PoolDiagnostics();
+    }
+
+    // tuned here, before spring.datasource.hikari.* is bound, so explicit Hikari settings still win
+    // Flyway migrates the primary itself, never through the routers
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, ShardingProperties sharding,
+                                              PoolProperties pool, PoolDiagnostics diagnostics) {
+        TrackedHikariDataSource primary = properties.initializeDataSourceBuilder()
+                .type(TrackedHikariDataSource.class).build();
+        primary.setPoolName("primary");
+        tune(primary, pool, pool.getMaximumPoolSize(), diagnostics);
+        if (sharding.isEnabled()) {
+            primary.setConnectionInitSql(autoIncrementSql(0));
+        }
+        return primary;
+    }
+
+    @Bean
+    public ReplicaLagProbe replicaLagProbe() {
+        return new MySqlReplicaLagProbe();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaProperties properties,
+                                                             ReplicaLagProbe replicaLagProbe,
+                                                             ReadYourWrites readYourWrites,
+                                                             PoolProperties poolProperties,
+                                                             PoolDiagnostics diagnostics) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReplicaProperties.Replica replica = properties.getReplicas().get(i);
+            TrackedHikariDataSource pool = new TrackedHikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : primaryDataSource.getUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : primaryDataSource.getPassword());
+            tune(pool, poolProperties, replica.getPoolSize(), diagnostics);
+            pool.setReadOnly(true);
+            pool.setConnectionTimeout(2_000);
+            // a replica that is down at startup just stays out of rotation
+            pool.setInitializationFailTimeout(-1);
+            replicas.add(pool);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, replicaLagProbe, readYourWrites,
+                properties.getMaxLag());
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource primaryDataSource,
+                                                         ReplicaProperties replicaProperties,
+                                                         ShardingProperties properties,
+                                                         ObjectProvider<ReplicaRoutingDataSource> replicaRouting,
+                                                         PoolProperties poolProperties,
+                                                         PoolDiagnostics diagnostics) {
+        if (properties.getShards().size() >= MAX_SHARDS) {
+            throw new IllegalStateException("At most " + MAX_SHARDS + " shards are supported");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(replicaProperties.getReplicas().isEmpty() ? primaryDataSource : replicaRouting.getObject());
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            TrackedHikariDataSource pool = new TrackedHikariDataSource();
+            pool.setPoolName("shard-" + (i + 1));
+            pool.setJdbcUrl(shard.getUrl());
+            pool.setUsername(shard.getUsername() != null ? shard.getUsername() : primaryDataSource.getUsername());
+            pool.setPassword(shard.getPassword() != null ? shard.getPassword() : primaryDataSource.getPassword());
+            tune(pool, poolProperties, shard.getPoolSize(), diagnostics);
+            pool.setConnectionInitSql(autoIncrementSql(i + 1));
+            shards.add(pool);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ReplicaProperties replicaProperties,
+                                 ShardingProperties shardingProperties,
+                                 ObjectProvider<ReplicaRoutingDataSource> replicaRouting,
+                                 ObjectProvider<ShardRoutingDataSource> shardRouting) {
+        if (shardingProperties.isEnabled()) {
+            return new LazyConnectionDataSourceProxy(shardRouting.getObject());
+        }
+        if (replicaProperties.getReplicas().isEmpty()) {
+            return primaryDataSource;
+        }
+        return new LazyConnectionDataSourceProxy(replicaRouting.getObject());
+    }
+
+    private static void tune(TrackedHikariDataSource pool, PoolProperties properties, int size,
+                             PoolDiagnostics diagnostics) {
+        pool.setMaximumPoolSize(size);
+        pool.setMinimumIdle(properties.getMinimumIdle() != null ? Math.min(properties.getMinimumIdle(), size) : size);
+        pool.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        pool.setIdleTimeout(properties.getIdleTimeout().toMillis());
+        pool.setMaxLifetime(properties.getMaxLifetime().toMillis());
+        pool.setKeepaliveTime(properties.getKeepaliveTime().toMillis());
+        pool.setLeakDetectionThreshold(properties.getLeakDetectionThreshold().toMillis());
+        pool.setTracking(properties.isTrackConnections());
+
+        if (pool.getJdbcUrl() != null && pool.getJdbcUrl().startsWith("jdbc:mysql:")) {
+            PoolProperties.Mysql mysql = properties.getMysql();
+            pool.addDataSourceProperty("cachePrepStmts", mysql.isCachePrepStmts());
+            pool.addDataSourceProperty("prepStmtCacheSize", mysql.getPrepStmtCacheSize());
+            pool.addDataSourceProperty("prepStmtCacheSqlLimit", mysql.getPrepStmtCacheSqlLimit());
+            pool.addDataSourceProperty("useServerPrepStmts", mysql.isUseServerPrepStmts());
+            pool.addDataSourceProperty("rewriteBatchedStatements", mysql.isRewriteBatchedStatements());
+            pool.addDataSourceProperty("useLocalSessionState", mysql.isUseLocalSessionState());
+            pool.addDataSourceProperty("cacheResultSetMetadata", mysql.isCacheResultSetMetadata());
+            pool.addDataSourceProperty("cacheServerConfiguration", mysql.isCacheServerConfiguration());
+            pool.addDataSourceProperty("elideSetAutoCommits", mysql.isElideSetAutoCommits());
+            pool.addDataSourceProperty("maintainTimeStats", mysql.isMaintainTimeStats());
+        }
+        diagnostics.register(pool);
+    }
+
+    // shard n hands out ids n+1, n+1+64, n+1+128, ...; ShardIdRanges checks this at startup
+    private static String autoIncrementSql(int shard) {
+        return "SET SESSION auto_increment_increment = " + MAX_SHARDS + ", auto_increment_offset = " + (shard + 1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.tasknest.config;
+
+import com.tasknest.service.RequestUser;
+import com.tasknest.service.ShardContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Bounded pool for splitting long report ranges into parallel partitions
+    @Bean
+    public ThreadPoolTaskExecutor reportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("report-");
+        executor.setTaskDecorator(task -> RequestUser.wrap(ShardContext.wrap(task)));
+        return executor;
+    }
+
+    // Dashboard sections (tasks, budget, expenses, mood) side by side; a full pool leaves sections out
+    @Bean
+    public ThreadPoolTaskExecutor dashboardExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(16);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setTaskDecorator(task -> RequestUser.wrap(ShardContext.wrap(task)));
+        return executor;
+    }
+
+    // Runs one query per shard for scatter-gather reads
+    @Bean
+    public ThreadPoolTaskExecutor shardExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(1_000);
+        executor.setThreadNamePrefix("shard-");
+        executor.setTaskDecorator(RequestUser::wrap);
+        return executor;
+    }
+
+    // Shard moves, one at a time; they mostly wait for directory caches to expire
+    @Bean
+    public ThreadPoolTaskExecutor rebalanceExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(100_000);
+        executor.setThreadNamePrefix("rebalance-");
+        return executor;
+    }
+
+    // Writes streamed (Flux) responses and other async MVC results; bounded so a
+    // burst of slow streaming clients cannot grow the thread count without limit
+    @Bean
+    public ThreadPoolTaskExecutor streamingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(16);
+        executor.setMaxPoolSize(64);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("stream-");
+        return executor;
+    }
+}
@@ -0,0 +1,42 @@
+package com.tasknest.config;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Schema changes live in db/migration and are applied by Flyway before JPA
+ * starts; Hibernate only validates. Every shard carries the same schema, so
+ * the migrations that run on the primary run on each extra shard too.
+ *
+ * V1 is the schema of the release before Flyway, so databases from that
+ * release are baselined there and pick up every later change; a database
+ * must not be baselined from any other state.
+ */
+@Configuration
+public class FlywayConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(FlywayConfig.class);
+
+    @Bean
+    public FlywayMigrationStrategy shardedMigration(ShardRoutingDataSource shardRouting) {
+        return flyway -> {
+            flyway.migrate();
+            List<DataSource> shards = shardRouting.extraShards();
+            for (int i = 0; i < shards.size(); i++) {
+                log.info("Migrating shard {}", i + 1);
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shards.get(i))
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+}
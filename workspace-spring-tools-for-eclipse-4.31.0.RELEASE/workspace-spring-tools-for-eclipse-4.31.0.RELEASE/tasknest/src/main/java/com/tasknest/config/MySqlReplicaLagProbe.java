@@ -0,0 +1,29 @@
+package com.tasknest.config;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Reads Seconds_Behind_Source from SHOW REPLICA STATUS (MySQL 8.0.22+).
+ * A server without replication configured reports no rows and counts as
+ * current; a stopped SQL thread reports NULL and counts as unusable.
+ */
+public class MySqlReplicaLagProbe implements ReplicaLagProbe {
+
+    @Override
+    public Duration lag(DataSource replica) throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                return Duration.ZERO;
+            }
+            long seconds = rs.getLong("Seconds_Behind_Source");
+            return rs.wasNull() ? null : Duration.ofSeconds(seconds);
+        }
+    }
+}
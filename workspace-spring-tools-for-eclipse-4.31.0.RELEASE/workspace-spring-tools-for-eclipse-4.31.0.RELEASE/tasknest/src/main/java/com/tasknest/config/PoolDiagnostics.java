@@ -0,0 +1,20 @@
+package com.tasknest.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Every pool DataSourceConfig builds, for /api/admin/pools
+public class PoolDiagnostics {
+
+    private final List<TrackedHikariDataSource> pools = new CopyOnWriteArrayList<>();
+
+    void register(TrackedHikariDataSource pool) {
+        pools.add(pool);
+    }
+
+    public List<Map<String, Object>> snapshot(Duration heldLongerThan) {
+        return pools.stream().map(pool -> pool.snapshot(heldLongerThan)).toList();
+    }
+}
@@ -0,0 +1,118 @@
+package com.tasknest.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * tasknest.pool.*: one tuning profile for every Hikari pool (primary,
+ * replicas, shards). Explicit spring.datasource.hikari.* settings still win
+ * for the primary; replica and shard pool-size settings win for theirs.
+ */
+@ConfigurationProperties(prefix = "tasknest.pool")
+public class PoolProperties {
+
+    // (cores * 2) + spindles is the usual starting point; bursts should queue, not open more sockets
+    private int maximumPoolSize = 20;
+
+    // null = same as maximumPoolSize, i.e. a fixed-size pool with no ramp-up under a burst
+    private Integer minimumIdle;
+
+    // fail fast instead of piling up request threads for Hikari's default 30s
+    private Duration connectionTimeout = Duration.ofSeconds(3);
+
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    // keep below MySQL's wait_timeout so the server never closes a pooled connection first
+    private Duration maxLifetime = Duration.ofMinutes(30);
+
+    private Duration keepaliveTime = Duration.ofMinutes(2);
+
+    // Hikari logs the borrowing stack of any connection held longer than this; 0 turns it off
+    private Duration leakDetectionThreshold = Duration.ofSeconds(20);
+
+    // wrap connections so /api/admin/pools can show waiters and holders; a reflective proxy on every JDBC
+    // call, so it is meant to be switched on while diagnosing a saturated pool
+    private boolean trackConnections = false;
+
+    private Mysql mysql = new Mysql();
+
+    public int getMaximumPoolSize() { return maximumPoolSize; }
+    public void setMaximumPoolSize(int maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+
+    public Integer getMinimumIdle() { return minimumIdle; }
+    public void setMinimumIdle(Integer minimumIdle) { this.minimumIdle = minimumIdle; }
+
+    public Duration getConnectionTimeout() { return connectionTimeout; }
+    public void setConnectionTimeout(Duration connectionTimeout) { this.connectionTimeout = connectionTimeout; }
+
+    public Duration getIdleTimeout() { return idleTimeout; }
+    public void setIdleTimeout(Duration idleTimeout) { this.idleTimeout = idleTimeout; }
+
+    public Duration getMaxLifetime() { return maxLifetime; }
+    public void setMaxLifetime(Duration maxLifetime) { this.maxLifetime = maxLifetime; }
+
+    public Duration getKeepaliveTime() { return keepaliveTime; }
+    public void setKeepaliveTime(Duration keepaliveTime) { this.keepaliveTime = keepaliveTime; }
+
+    public Duration getLeakDetectionThreshold() { return leakDetectionThreshold; }
+    public void setLeakDetectionThreshold(Duration leakDetectionThreshold) { this.leakDetectionThreshold = leakDetectionThreshold; }
+
+    public boolean isTrackConnections() { return trackConnections; }
+    public void setTrackConnections(boolean trackConnections) { this.trackConnections = trackConnections; }
+
+    public Mysql getMysql() { return mysql; }
+    public void setMysql(Mysql mysql) { this.mysql = mysql; }
+
+    // Connector/J settings, only applied to jdbc:mysql URLs
+    public static class Mysql {
+
+        // client-side cache of parsed statements, per connection
+        private boolean cachePrepStmts = true;
+        private int prepStmtCacheSize = 250;
+        private int prepStmtCacheSqlLimit = 2048;
+
+        // server-side prepared statements, reused through the cache above
+        private boolean useServerPrepStmts = true;
+
+        // turns JDBC batches (recurrence inserts, shard moves) into multi-row INSERTs
+        private boolean rewriteBatchedStatements = true;
+
+        // skip round trips for autocommit/isolation/metadata the driver already knows
+        private boolean useLocalSessionState = true;
+        private boolean cacheResultSetMetadata = true;
+        private boolean cacheServerConfiguration = true;
+        private boolean elideSetAutoCommits = true;
+        private boolean maintainTimeStats = false;
+
+        public boolean isCachePrepStmts() { return cachePrepStmts; }
+        public void setCachePrepStmts(boolean cachePrepStmts) { this.cachePrepStmts = cachePrepStmts; }
+
+        public int getPrepStmtCacheSize() { return prepStmtCacheSize; }
+        public void setPrepStmtCacheSize(int prepStmtCacheSize) { this.prepStmtCacheSize = prepStmtCacheSize; }
+
+        public int getPrepStmtCacheSqlLimit() { return prepStmtCacheSqlLimit; }
+        public void setPrepStmtCacheSqlLimit(int prepStmtCacheSqlLimit) { this.prepStmtCacheSqlLimit = prepStmtCacheSqlLimit; }
+
+        public boolean isUseServerPrepStmts() { return useServerPrepStmts; }
+        public void setUseServerPrepStmts(boolean useServerPrepStmts) { this.useServerPrepStmts = useServerPrepStmts; }
+
+        public boolean isRewriteBatchedStatements() { return rewriteBatchedStatements; }
+        public void setRewriteBatchedStatements(boolean rewriteBatchedStatements) { this.rewriteBatchedStatements = rewriteBatchedStatements; }
+
+        public boolean isUseLocalSessionState() { return useLocalSessionState; }
+        public void setUseLocalSessionState(boolean useLocalSessionState) { this.useLocalSessionState = useLocalSessionState; }
+
+        public boolean isCacheResultSetMetadata() { return cacheResultSetMetadata; }
+        public void setCacheResultSetMetadata(boolean cacheResultSetMetadata) { this.cacheResultSetMetadata = cacheResultSetMetadata; }
+
+        public boolean isCacheServerConfiguration() { return cacheServerConfiguration; }
+        public void setCacheServerConfiguration(boolean cacheServerConfiguration) { this.cacheServerConfiguration = cacheServerConfiguration; }
+
+        public boolean isElideSetAutoCommits() { return elideSetAutoCommits; }
+        public void setElideSetAutoCommits(boolean elideSetAutoCommits) { this.elideSetAutoCommits = elideSetAutoCommits; }
+
+        public boolean isMaintainTimeStats() { return maintainTimeStats; }
+        public void setMaintainTimeStats(boolean maintainTimeStats) { this.maintainTimeStats = maintainTimeStats; }
+    }
+}
@@ -0,0 +1,87 @@
+package com.tasknest.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Non-blocking connection pool for the /reactive read endpoints.
+ *
+ * The pool is kept out of the context on purpose: Boot backs off the JDBC
+ * DataSource (and with it JPA) as soon as a ConnectionFactory bean exists,
+ * so only the DatabaseClient is exposed. Boot's own R2DBC auto-configuration
+ * is excluded in application.properties for the same reason. Every extra
+ * shard from tasknest.sharding.shards[n] gets a pool of the same size.
+ */
+@Configuration
+public class R2dbcConfig implements DisposableBean {
+
+    private final List<ConnectionPool> pools = new ArrayList<>();
+
+    @Bean
+    public ReactiveShardClients reactiveShardClients(
+            ShardingProperties sharding,
+            @Value("${tasknest.r2dbc.url:r2dbc:mysql://localhost:3306/tasknest}") String url,
+            @Value("${tasknest.r2dbc.username:${spring.datasource.username}}") String username,
+            @Value("${tasknest.r2dbc.password:${spring.datasource.password}}") String password,
+            @Value("${tasknest.r2dbc.pool.initial-size:10}") int initialSize,
+            @Value("${tasknest.r2dbc.pool.max-size:50}") int maxSize,
+            @Value("${tasknest.r2dbc.pool.max-acquire-ms:5000}") long maxAcquireMillis) {
+
+        List<DatabaseClient> clients = new ArrayList<>();
+        clients.add(client("tasknest-r2dbc", url, username, password, initialSize, maxSize, maxAcquireMillis));
+        for (int i = 0; i < sharding.getShards().size(); i++) {
+            ShardingProperties.Shard shard = sharding.getShards().get(i);
+            String shardUrl = shard.getR2dbcUrl() != null ? shard.getR2dbcUrl() : toR2dbcUrl(shard.getUrl());
+            clients.add(client("tasknest-r2dbc-shard-" + (i + 1), shardUrl,
+                    shard.getUsername() != null ? shard.getUsername() : username,
+                    shard.getPassword() != null ? shard.getPassword() : password,
+                    initialSize, maxSize, maxAcquireMillis));
+        }
+        return new ReactiveShardClients(clients);
+    }
+
+    private DatabaseClient client(String name, String url, String username, String password,
+                                  int initialSize, int maxSize, long maxAcquireMillis) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name(name)
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMinutes(10))
+                // fail fast instead of queueing forever when the pool is exhausted
+                .maxAcquireTime(Duration.ofMillis(maxAcquireMillis))
+                .validationQuery("SELECT 1")
+                .build());
+        pools.add(pool);
+        return DatabaseClient.create(pool);
+    }
+
+    // jdbc:mysql://host:3306/db?useSSL=false -> r2dbc:mysql://host:3306/db (JDBC-only parameters dropped)
+    static String toR2dbcUrl(String jdbcUrl) {
+        String url = jdbcUrl.startsWith("jdbc:") ? "r2dbc:" + jdbcUrl.substring("jdbc:".length()) : jdbcUrl;
+        int query = url.indexOf('?');
+        return query < 0 ? url : url.substring(0, query);
+    }
+
+    @Override
+    public void destroy() {
+        for (ConnectionPool pool : pools) {
+            pool.dispose();
+        }
+    }
+}
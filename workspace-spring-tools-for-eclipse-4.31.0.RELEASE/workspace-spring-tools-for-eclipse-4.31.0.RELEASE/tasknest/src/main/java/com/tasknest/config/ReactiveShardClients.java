@@ -0,0 +1,19 @@
+package com.tasknest.config;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.List;
+
+// One R2DBC client per shard, indexed like ShardContext (0 = spring.datasource's database)
+public class ReactiveShardClients {
+
+    private final List<DatabaseClient> clients;
+
+    public ReactiveShardClients(List<DatabaseClient> clients) {
+        this.clients = List.copyOf(clients);
+    }
+
+    public DatabaseClient forShard(int shard) {
+        return clients.get(shard);
+    }
+}
@@ -0,0 +1,12 @@
+package com.tasknest.config;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// How far a replica is behind its primary; null when it is not replicating at all
+@FunctionalInterface
+public interface ReplicaLagProbe {
+
+    Duration lag(DataSource replica) throws SQLException;
+}
@@ -0,0 +1,116 @@
+package com.tasknest.config;
+
+import com.tasknest.service.ReadYourWrites;
+import com.tasknest.service.RequestUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the
+ * primary.
+ *
+ * A read goes to the primary anyway when the request user wrote within the
+ * read-your-writes window, or when no replica is currently within
+ * {@code maxLag}. Replica lag is probed on a schedule; until the first probe
+ * succeeds a replica is not used. Must sit behind a
+ * LazyConnectionDataSourceProxy so the read-only flag is known by the time a
+ * connection is picked.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final ReplicaLagProbe lagProbe;
+    private final ReadYourWrites readYourWrites;
+    private final Duration maxLag;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> usable = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReplicaLagProbe lagProbe,
+                                    ReadYourWrites readYourWrites, Duration maxLag) {
+        this.replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.put("replica-" + i, replicas.get(i));
+        }
+        this.lagProbe = lagProbe;
+        this.readYourWrites = readYourWrites;
+        this.maxLag = maxLag;
+
+        Map<Object, Object> targets = new HashMap<>(this.replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = RequestUser.current();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.recordWrite(user);
+            }
+            return PRIMARY;
+        }
+        if (readYourWrites.isSticky(user)) {
+            return PRIMARY;
+        }
+        List<String> candidates = usable;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${tasknest.datasource.lag-check-ms:2000}")
+    public void refreshLag() {
+        List<String> ok = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            try {
+                Duration lag = lagProbe.lag(replica.getValue());
+                if (lag != null && lag.compareTo(maxLag) <= 0) {
+                    ok.add(replica.getKey());
+                } else if (usable.contains(replica.getKey())) {
+                    log.warn("{} is {} behind, reads fall back to the primary", replica.getKey(),
+                            lag == null ? "not replicating and" : lag);
+                }
+            } catch (Exception e) {
+                log.warn("Lag probe for {} failed: {}", replica.getKey(), e.getMessage());
+            }
+        }
+        usable = List.copyOf(ok);
+    }
+
+    List<String> usableReplicas() {
+        return usable;
+    }
+
+    // picked up as the bean's destroy method
+    public void close() {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.debug("Closing replica pool failed", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.tasknest.config;
+
+import com.tasknest.service.RequestUser;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Fills {@link RequestUser} from the email the endpoint is called for: the
+ * email, userEmail or emailId request parameter or path variable, which is
+ * how every per-user route in the API identifies its user.
+ *
+ * When {@link AuthenticationFilter} already resolved the caller from an
+ * access token, that email must match: acting for another user is a 403.
+ * Routes that name their user only in the body or through a row id are
+ * checked by the services with {@link RequestUser#checkOwns}.
+ */
+public class RequestUserInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String[] NAMES = { "email", "userEmail", "emailId" };
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        String email = resolve(request);
+        if (!RequestUser.isAuthenticated()) {
+            RequestUser.set(email);
+        } else if (email != null && !email.trim().equalsIgnoreCase(RequestUser.current())) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Token does not belong to " + email);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestUser.clear();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        RequestUser.clear();
+    }
+
+    private static String resolve(HttpServletRequest request) {
+        Object vars = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        for (String name : NAMES) {
+            if (vars instanceof Map<?, ?> map && map.get(name) instanceof String value) {
+                return value;
+            }
+            String param = request.getParameter(name);
+            if (param != null) {
+                return param;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.tasknest.config;
+
+import com.tasknest.service.ShardContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks the shard from {@link ShardContext}. Like the replica router it must
+ * sit behind a LazyConnectionDataSourceProxy, so a transaction binds to the
+ * shard that is current at its first statement rather than at begin.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRoutingDataSource.class);
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        // an unknown shard number is a bug; never fall back to shard 0 silently
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    // every shard but shard 0, which is the primary
+    public List<DataSource> extraShards() {
+        return shards.subList(1, shards.size());
+    }
+
+    // picked up as the bean's destroy method; shard 0 is closed by its own bean
+    public void close() {
+        for (DataSource shard : extraShards()) {
+            if (shard instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.debug("Closing shard pool failed", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.tasknest.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// tasknest.sharding.*: extra databases for per-user data; shard 0 is always spring.datasource
+@ConfigurationProperties(prefix = "tasknest.sharding")
+public class ShardingProperties {
+
+    // shards[0] is shard 1, shards[1] is shard 2, ...
+    private List<Shard> shards = new ArrayList<>();
+
+    // virtual nodes of shard 0 on the hash ring
+    private int homeWeight = 100;
+
+    // how long a node may act on a cached directory entry; moves wait this long between steps
+    private Duration directoryCache = Duration.ofSeconds(10);
+
+    public List<Shard> getShards() { return shards; }
+    public void setShards(List<Shard> shards) { this.shards = shards; }
+
+    public int getHomeWeight() { return homeWeight; }
+    public void setHomeWeight(int homeWeight) { this.homeWeight = homeWeight; }
+
+    public Duration getDirectoryCache() { return directoryCache; }
+    public void setDirectoryCache(Duration directoryCache) { this.directoryCache = directoryCache; }
+
+    public boolean isEnabled() {
+        return !shards.isEmpty();
+    }
+
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        // derived from url (jdbc:mysql: -> r2dbc:mysql:) when not set
+        private String r2dbcUrl;
+        private int poolSize = 10;
+        private int weight = 100;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public String getR2dbcUrl() { return r2dbcUrl; }
+        public void setR2dbcUrl(String r2dbcUrl) { this.r2dbcUrl = r2dbcUrl; }
+
+        public int getPoolSize() { return poolSize; }
+        public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+
+        public int getWeight() { return weight; }
+        public void setWeight(int weight) { this.weight = weight; }
+    }
+}
@@ -0,0 +1,67 @@
+package com.tasknest.config;
+
+import com.tasknest.service.TokenRevocations;
+import com.tasknest.service.TokenService;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+import java.util.Map;
+
+/**
+ * The STOMP side of {@link AuthenticationFilter}. Browsers cannot set headers
+ * on the WebSocket handshake, so the access token comes with the CONNECT frame
+ * as an Authorization native header; the email it names is kept on the session,
+ * and a SUBSCRIBE to another user's /topic/users/{email}/ feed is refused.
+ */
+public class StompAuthInterceptor implements ChannelInterceptor {
+
+    private static final String USER = "tasknest.user";
+    private static final String USER_TOPICS = "/topic/users/";
+
+    private final TokenService tokens;
+    private final TokenRevocations revocations;
+    private final boolean required;
+
+    public StompAuthInterceptor(TokenService tokens, TokenRevocations revocations, boolean required) {
+        this.tokens = tokens;
+        this.revocations = revocations;
+        this.required = required;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        Map<String, Object> session = accessor.getSessionAttributes();
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            String header = accessor.getFirstNativeHeader("Authorization");
+            if (header != null && header.startsWith("Bearer ")) {
+                TokenService.Claims claims = tokens.verify(header.substring(7).trim(), TokenService.ACCESS);
+                if (claims == null || revocations.isRevoked(claims.id())) {
+                    throw new MessageDeliveryException("Invalid or expired access token");
+                }
+                if (session != null) {
+                    session.put(USER, claims.email());
+                }
+            }
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            String destination = accessor.getDestination();
+            if (destination != null && destination.startsWith(USER_TOPICS)) {
+                Object user = session != null ? session.get(USER) : null;
+                int end = destination.indexOf('/', USER_TOPICS.length());
+                String email = destination.substring(USER_TOPICS.length(), end < 0 ? destination.length() : end);
+                if (user == null ? required : !email.equalsIgnoreCase((String) user)) {
+                    throw new MessageDeliveryException("Not allowed to subscribe to " + destination);
+                }
+            }
+        }
+        return message;
+    }
+}
@@ -0,0 +1,127 @@
+package com.tasknest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A Hikari pool that remembers which threads are waiting for a connection
+ * and which ones hold one, so a saturated pool can be diagnosed while it is
+ * saturated. Hikari itself only counts waiters. Off by default: tracked
+ * connections are JDK proxies, which adds a reflective call to every JDBC
+ * method, on top of two map updates per borrow. The stacks are taken only
+ * when {@link #snapshot} is called. Untracked pools report counters only.
+ */
+public class TrackedHikariDataSource extends HikariDataSource {
+
+    private static final int MAX_FRAMES = 25;
+
+    private record Holder(Thread thread, long since) {}
+
+    private final ConcurrentMap<Thread, Long> waiting = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Connection, Holder> held = new ConcurrentHashMap<>();
+    private volatile boolean tracking;
+
+    public void setTracking(boolean tracking) {
+        this.tracking = tracking;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!tracking) {
+            return super.getConnection();
+        }
+        Thread thread = Thread.currentThread();
+        waiting.put(thread, System.currentTimeMillis());
+        Connection connection;
+        try {
+            connection = super.getConnection();
+        } finally {
+            waiting.remove(thread);
+        }
+        held.put(connection, new Holder(thread, System.currentTimeMillis()));
+        return track(connection);
+    }
+
+    // Closing the proxy returns the connection to Hikari and forgets the holder
+    private Connection track(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[] { ConnectionProxy.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getTargetConnection" -> connection;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> {
+                        if (method.getName().equals("close")) {
+                            held.remove(connection);
+                        }
+                        try {
+                            yield method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Pool counters plus every waiting thread and every connection held for
+     * longer than {@code heldLongerThan}, each with the thread's current stack.
+     */
+    public Map<String, Object> snapshot(Duration heldLongerThan) {
+        long now = System.currentTimeMillis();
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("pool", getPoolName());
+        pool.put("maximumPoolSize", getMaximumPoolSize());
+        pool.put("tracking", tracking);
+        HikariPoolMXBean mx = getHikariPoolMXBean();
+        if (mx != null) {
+            pool.put("active", mx.getActiveConnections());
+            pool.put("idle", mx.getIdleConnections());
+            pool.put("total", mx.getTotalConnections());
+            pool.put("threadsAwaitingConnection", mx.getThreadsAwaitingConnection());
+        }
+
+        List<Map<String, Object>> waiters = new ArrayList<>();
+        waiting.forEach((thread, since) -> waiters.add(describe(thread, "waitingMillis", now - since)));
+        waiters.sort((a, b) -> Long.compare((Long) b.get("waitingMillis"), (Long) a.get("waitingMillis")));
+        pool.put("waiters", waiters);
+
+        List<Map<String, Object>> longHeld = new ArrayList<>();
+        long threshold = heldLongerThan.toMillis();
+        for (Holder holder : held.values()) {
+            if (now - holder.since() >= threshold) {
+                longHeld.add(describe(holder.thread(), "heldMillis", now - holder.since()));
+            }
+        }
+        longHeld.sort((a, b) -> Long.compare((Long) b.get("heldMillis"), (Long) a.get("heldMillis")));
+        pool.put("held", held.size());
+        pool.put("longHeld", longHeld);
+        return pool;
+    }
+
+    private static Map<String, Object> describe(Thread thread, String key, long millis) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("thread", thread.getName());
+        entry.put(key, millis);
+        entry.put("state", thread.getState().toString());
+        entry.put("stack", Arrays.stream(thread.getStackTrace())
+                .limit(MAX_FRAMES)
+                .map(StackTraceElement::toString)
+                .toList());
+        return entry;
+    }
+}
@@ -1,12 +1,28 @@
 package com.tasknest.config;
 
+import com.tasknest.repository.AdminRepository;
+import com.tasknest.service.TokenRevocations;
+import com.tasknest.service.TokenService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ThreadPoolTaskExecutor streamingExecutor;
+
+    public WebConfig(@Qualifier("streamingExecutor") ThreadPoolTaskExecutor streamingExecutor) {
+        this.streamingExecutor = streamingExecutor;
+    }
+
     @Override  // MAKE SURE THIS IS HERE
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -16,4 +32,27 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true)
                 .maxAge(3600);
     }
-}
\ No newline at end of file
+
+    @Bean
+    public FilterRegistrationBean<AuthenticationFilter> authenticationFilter(TokenService tokens,
+            TokenRevocations revocations, AdminRepository admins,
+            @Value("${tasknest.auth.required:false}") boolean required) {
+        FilterRegistrationBean<AuthenticationFilter> registration =
+                new FilterRegistrationBean<>(new AuthenticationFilter(tokens, revocations, admins, required));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // admin routes name the user they act on, not the caller
+        registry.addInterceptor(new RequestUserInterceptor()).excludePathPatterns("/api/admin/**", "/api/contact/**");
+    }
+
+    // Flux/Mono results from /reactive; without this MVC falls back to an unbounded SimpleAsyncTaskExecutor
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+        configurer.setDefaultTimeout(30_000);
+    }
+}
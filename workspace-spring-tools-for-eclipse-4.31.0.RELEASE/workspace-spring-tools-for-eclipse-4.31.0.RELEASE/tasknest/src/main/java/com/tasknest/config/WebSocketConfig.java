@@ -0,0 +1,77 @@
+package com.tasknest.config;
+
+import com.tasknest.service.TokenRevocations;
+import com.tasknest.service.TokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final TokenService tokens;
+    private final TokenRevocations revocations;
+    private final boolean authRequired;
+    private TaskScheduler brokerScheduler;
+
+    public WebSocketConfig(TokenService tokens, TokenRevocations revocations,
+                           @Value("${tasknest.auth.required:false}") boolean authRequired) {
+        this.tokens = tokens;
+        this.revocations = revocations;
+        this.authRequired = authRequired;
+    }
+
+    // the broker's own scheduler, used for STOMP heartbeats
+    @Autowired
+    public void setBrokerScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler brokerScheduler) {
+        this.brokerScheduler = brokerScheduler;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws")
+                .setAllowedOriginPatterns("http://localhost:3000");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        // per-user change feeds live under /topic/users/{email}/...
+        registry.enableSimpleBroker("/topic")
+                .setHeartbeatValue(new long[] {10000, 10000})
+                .setTaskScheduler(brokerScheduler);
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Slow consumers: a session whose send stalls for 10s or buffers more
+        // than 512KB is closed; the client reconnects and refetches.
+        registration.setSendTimeLimit(10_000)
+                .setSendBufferSizeLimit(512 * 1024)
+                .setMessageSizeLimit(64 * 1024);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new StompAuthInterceptor(tokens, revocations, authRequired));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // bounded fan-out pool so a burst of events cannot grow threads without limit
+        registration.taskExecutor()
+                .corePoolSize(8)
+                .maxPoolSize(8)
+                .queueCapacity(50_000);
+    }
+}
@@ -0,0 +1,64 @@
+package com.tasknest.controller;
+
+import com.tasknest.service.TokenRevocations;
+import com.tasknest.service.TokenService;
+import com.tasknest.service.UserIds;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// Tokens come from POST /api/users/login; these keep a session going and end it
+@RestController
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AuthController {
+
+    private final TokenService tokens;
+    private final TokenRevocations revocations;
+    private final UserIds userIds;
+
+    public AuthController(TokenService tokens, TokenRevocations revocations, UserIds userIds) {
+        this.tokens = tokens;
+        this.revocations = revocations;
+        this.userIds = userIds;
+    }
+
+    // Trades a refresh token for a new pair; the old refresh token stops working
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> body) {
+        TokenService.Claims claims = tokens.verify(body.get("refreshToken"), TokenService.REFRESH);
+        if (claims == null || revocations.isRevokedNow(claims.id())) {
+            return ResponseEntity.status(401).body("Invalid or expired refresh token");
+        }
+        // the account may have been deleted since login
+        Long id = userIds.idOf(claims.email());
+        if (id == null || id != claims.userId()) {
+            return ResponseEntity.status(401).body("Invalid or expired refresh token");
+        }
+        if (!revocations.revoke(claims.id(), claims.expiresAt())) {
+            return ResponseEntity.status(401).body("Refresh token already used");
+        }
+        return ResponseEntity.ok(tokens.issue(claims.userId(), claims.email()));
+    }
+
+    // Revokes the refresh token in the body and the access token in the Authorization header
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) Map<String, String> body,
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (body != null) {
+            revoke(tokens.verify(body.get("refreshToken"), TokenService.REFRESH));
+        }
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            revoke(tokens.verify(authorization.substring(7).trim(), TokenService.ACCESS));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private void revoke(TokenService.Claims claims) {
+        if (claims != null) {
+            revocations.revoke(claims.id(), claims.expiresAt());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.tasknest.controller;
 
+import com.tasknest.service.BudgetReportService;
 import com.tasknest.service.BudgetService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -12,9 +14,11 @@ import java.util.Map;
 public class BudgetController {
 
     private final BudgetService service;
+    private final BudgetReportService reportService;
 
-    public BudgetController(BudgetService service) {
+    public BudgetController(BudgetService service, BudgetReportService reportService) {
         this.service = service;
+        this.reportService = reportService;
     }
 
     @GetMapping("/{email}/{month}")
@@ -33,4 +37,18 @@ public class BudgetController {
             @PathVariable String month) {
         return service.getMonthlyStats(email, month);
     }
+
+    // Multi-month report: /api/budgets/report?email=..&from=YYYY-MM&to=YYYY-MM. Only a bad month or range is
+    // the caller's fault; anything else goes on to the error handling as a 500.
+    @GetMapping("/report")
+    public ResponseEntity<?> getReport(
+            @RequestParam String email,
+            @RequestParam String from,
+            @RequestParam String to) {
+        try {
+            return ResponseEntity.ok(reportService.getReport(email, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 }
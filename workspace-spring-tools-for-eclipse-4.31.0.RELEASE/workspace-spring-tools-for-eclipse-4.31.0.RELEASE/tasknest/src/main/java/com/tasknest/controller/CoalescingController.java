@@ -0,0 +1,24 @@
+package com.tasknest.controller;
+
+import com.tasknest.service.ReadCoalescing;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// How many aggregate reads were served by another caller's computation or the micro-cache
+@RestController
+@RequestMapping("/api/admin/coalescing")
+@CrossOrigin(origins = "http://localhost:3000")
+public class CoalescingController {
+
+    private final ReadCoalescing coalescing;
+
+    public CoalescingController(ReadCoalescing coalescing) {
+        this.coalescing = coalescing;
+    }
+
+    @GetMapping
+    public Map<String, Object> stats() {
+        return coalescing.stats();
+    }
+}
@@ -1,5 +1,6 @@
 package com.tasknest.controller;
 
+import com.tasknest.dto.ContactMessageResponse;
 import com.tasknest.entity.ContactMessage;
 import com.tasknest.service.ContactMessageService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -37,7 +38,7 @@ public class ContactController {
             
             response.put("success", true);
             response.put("message", "Your message has been sent successfully! We'll get back to you soon.");
-            response.put("data", savedMessage);
+            response.put("data", ContactMessageResponse.from(savedMessage));
             response.put("timestamp", java.time.LocalDateTime.now());
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -72,7 +73,7 @@ public class ContactController {
             
             response.put("success", true);
             response.put("count", messages.size());
-            response.put("data", messages);
+            response.put("data", messages.stream().map(ContactMessageResponse::from).toList());
             response.put("timestamp", java.time.LocalDateTime.now());
             
             return ResponseEntity.ok(response);
@@ -99,7 +100,7 @@ public class ContactController {
             ContactMessage message = contactMessageService.getContactMessageById(id);
             
             response.put("success", true);
-            response.put("data", message);
+            response.put("data", ContactMessageResponse.from(message));
             response.put("timestamp", java.time.LocalDateTime.now());
             
             return ResponseEntity.ok(response);
@@ -134,7 +135,7 @@ public class ContactController {
             
             response.put("success", true);
             response.put("count", messages.size());
-            response.put("data", messages);
+            response.put("data", messages.stream().map(ContactMessageResponse::from).toList());
             response.put("timestamp", java.time.LocalDateTime.now());
             
             return ResponseEntity.ok(response);
@@ -166,7 +167,7 @@ public class ContactController {
             
             response.put("success", true);
             response.put("message", "Message status updated successfully");
-            response.put("data", updatedMessage);
+            response.put("data", ContactMessageResponse.from(updatedMessage));
             response.put("timestamp", java.time.LocalDateTime.now());
             
             return ResponseEntity.ok(response);
@@ -201,7 +202,7 @@ public class ContactController {
             
             response.put("success", true);
             response.put("message", "Message marked as read");
-            response.put("data", message);
+            response.put("data", ContactMessageResponse.from(message));
             response.put("timestamp", java.time.LocalDateTime.now());
             
             return ResponseEntity.ok(response);
@@ -236,7 +237,7 @@ public class ContactController {
             
             response.put("success", true);
             response.put("message", "Message marked as responded");
-            response.put("data", message);
+            response.put("data", ContactMessageResponse.from(message));
             response.put("timestamp", java.time.LocalDateTime.now());
             
             return ResponseEntity.ok(response);
@@ -0,0 +1,24 @@
+package com.tasknest.controller;
+
+import com.tasknest.service.DashboardService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// The home screen's tasks, budget, expenses and mood in one round trip
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "http://localhost:3000")
+public class DashboardController {
+
+    private final DashboardService service;
+
+    public DashboardController(DashboardService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/{email}")
+    public Map<String, Object> getDashboard(@PathVariable String email) {
+        return service.getDashboard(email);
+    }
+}
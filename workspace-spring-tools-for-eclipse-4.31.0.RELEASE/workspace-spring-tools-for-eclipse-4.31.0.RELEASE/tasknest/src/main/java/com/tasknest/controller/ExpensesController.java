@@ -3,8 +3,11 @@ package com.tasknest.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.tasknest.entity.Expenses;
+import com.tasknest.service.ChangeEvent;
+import com.tasknest.service.CollectionVersions;
 import com.tasknest.service.ExpensesService;
 
 import java.util.List;
@@ -17,6 +20,9 @@ public class ExpensesController {
     @Autowired
     private ExpensesService expensesService;
 
+    @Autowired
+    private CollectionVersions versions;
+
     @PostMapping
     public ResponseEntity<Expenses> createExpense(@RequestBody Expenses expense) {
         return ResponseEntity.ok(expensesService.createExpense(expense));
@@ -35,7 +41,11 @@ public class ExpensesController {
     }
 
     @GetMapping("/user/{email}")
-    public ResponseEntity<List<Expenses>> getExpensesByUserEmail(@PathVariable String email) {
+    public ResponseEntity<List<Expenses>> getExpensesByUserEmail(@PathVariable String email,
+                                                                 ServletWebRequest request) {
+        if (versions.checkNotModified(request, email, ChangeEvent.EXPENSES)) {
+            return null;
+        }
         return ResponseEntity.ok(expensesService.getExpensesByUserEmail(email));
     }
 
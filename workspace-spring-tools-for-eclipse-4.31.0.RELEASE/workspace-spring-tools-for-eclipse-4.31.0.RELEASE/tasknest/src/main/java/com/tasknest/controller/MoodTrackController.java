@@ -1,8 +1,12 @@
 package com.tasknest.controller;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import com.tasknest.entity.MoodTrack;
+import com.tasknest.service.ChangeEvent;
+import com.tasknest.service.CollectionVersions;
 import com.tasknest.service.MoodTrackService;
+import com.tasknest.service.NotOwnerException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 
@@ -16,9 +20,11 @@ import java.util.Optional;
 public class MoodTrackController {
 
     private final MoodTrackService moodTrackService;
+    private final CollectionVersions versions;
 
-    public MoodTrackController(MoodTrackService moodTrackService) {
+    public MoodTrackController(MoodTrackService moodTrackService, CollectionVersions versions) {
         this.moodTrackService = moodTrackService;
+        this.versions = versions;
     }
 
     @PostMapping
@@ -26,15 +32,22 @@ public class MoodTrackController {
         try {
             MoodTrack savedEntry = moodTrackService.saveMoodEntry(moodTrack);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedEntry);
+        } catch (NotOwnerException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
-    // Fetch mood history for user
+    // Fetch mood history for user; 304 while the history is unchanged
     @GetMapping
     public ResponseEntity<List<MoodTrack>> getMoodHistory(
-            @RequestParam String userEmail) {
+            @RequestParam String userEmail,
+            ServletWebRequest request) {
+
+        if (versions.checkNotModified(request, userEmail, ChangeEvent.MOODS)) {
+            return null;
+        }
 
         return ResponseEntity.ok(
                 moodTrackService.getMoodHistory(userEmail)
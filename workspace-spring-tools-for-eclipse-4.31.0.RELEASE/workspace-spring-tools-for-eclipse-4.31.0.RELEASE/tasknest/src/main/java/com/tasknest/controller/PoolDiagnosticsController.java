@@ -0,0 +1,25 @@
+package com.tasknest.controller;
+
+import com.tasknest.config.PoolDiagnostics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+// Connection pool state: counters, threads waiting for a connection and connections held too long
+@RestController
+@RequestMapping("/api/admin/pools")
+@CrossOrigin(origins = "http://localhost:3000")
+public class PoolDiagnosticsController {
+
+    private final PoolDiagnostics diagnostics;
+
+    public PoolDiagnosticsController(PoolDiagnostics diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> pools(@RequestParam(defaultValue = "5000") long heldLongerThanMs) {
+        return ResponseEntity.ok(diagnostics.snapshot(Duration.ofMillis(heldLongerThanMs)));
+    }
+}
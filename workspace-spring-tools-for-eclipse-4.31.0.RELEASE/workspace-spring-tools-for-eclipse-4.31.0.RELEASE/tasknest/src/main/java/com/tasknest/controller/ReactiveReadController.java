@@ -0,0 +1,60 @@
+package com.tasknest.controller;
+
+import com.tasknest.entity.Expenses;
+import com.tasknest.entity.MoodTrack;
+import com.tasknest.entity.Task;
+import com.tasknest.service.ReactiveReadService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking variants of the list/stat reads, backed by R2DBC.
+ *
+ * With {@code Accept: application/x-ndjson} rows are streamed one JSON object
+ * per line and pulled from the database only as fast as the client reads;
+ * plain {@code application/json} returns the same array as the MVC endpoints.
+ */
+@RestController
+@RequestMapping("/reactive")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ReactiveReadController {
+
+    // the Smile converter's type; Spring has no MediaType constant for it
+    private static final String SMILE = "application/x-jackson-smile";
+
+    private final ReactiveReadService service;
+
+    public ReactiveReadController(ReactiveReadService service) {
+        this.service = service;
+    }
+
+    @GetMapping(value = "/tasks",
+                produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+                        MediaType.APPLICATION_CBOR_VALUE, SMILE })
+    public Flux<Task> getTasksForUser(@RequestParam String email) {
+        return service.getTasksForUser(email);
+    }
+
+    @GetMapping(value = "/expenses/user/{email}",
+                produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+                        MediaType.APPLICATION_CBOR_VALUE, SMILE })
+    public Flux<Expenses> getExpensesByUserEmail(@PathVariable String email) {
+        return service.getExpensesByUserEmail(email);
+    }
+
+    @GetMapping(value = "/mood",
+                produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+                        MediaType.APPLICATION_CBOR_VALUE, SMILE })
+    public Flux<MoodTrack> getMoodHistory(@RequestParam String userEmail) {
+        return service.getMoodHistory(userEmail);
+    }
+
+    @GetMapping("/budgets/stats/{email}/{month}")
+    public Mono<Map<String, Object>> getStats(@PathVariable String email, @PathVariable String month) {
+        return service.getMonthlyStats(email, month);
+    }
+}
@@ -0,0 +1,38 @@
+package com.tasknest.controller;
+
+import com.tasknest.service.ShardRebalancer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Shard placement and online moves; moves run in the background, poll GET for progress
+@RestController
+@RequestMapping("/api/admin/shards")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ShardAdminController {
+
+    private final ShardRebalancer rebalancer;
+
+    public ShardAdminController(ShardRebalancer rebalancer) {
+        this.rebalancer = rebalancer;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> status() {
+        return ResponseEntity.ok(rebalancer.status());
+    }
+
+    @PostMapping("/move")
+    public ResponseEntity<?> move(@RequestParam String email, @RequestParam int shard) {
+        try {
+            return ResponseEntity.accepted().body(rebalancer.moveUser(email, shard));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // moves every user whose hash ring shard changed, e.g. after adding a shard
+    @PostMapping("/rebalance")
+    public ResponseEntity<?> rebalance() {
+        return ResponseEntity.accepted().body(rebalancer.rebalance());
+    }
+}
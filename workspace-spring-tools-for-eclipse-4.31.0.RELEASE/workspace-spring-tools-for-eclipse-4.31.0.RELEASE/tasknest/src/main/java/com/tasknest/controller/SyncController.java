@@ -0,0 +1,28 @@
+package com.tasknest.controller;
+
+import com.tasknest.service.SyncService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/sync")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SyncController {
+
+    private final SyncService service;
+
+    public SyncController(SyncService service) {
+        this.service = service;
+    }
+
+    // First call without since; afterwards pass back the token from the previous response
+    @GetMapping
+    public ResponseEntity<?> sync(@RequestParam String email,
+                                  @RequestParam(required = false) String since) {
+        try {
+            return ResponseEntity.ok(service.changesSince(email, since));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
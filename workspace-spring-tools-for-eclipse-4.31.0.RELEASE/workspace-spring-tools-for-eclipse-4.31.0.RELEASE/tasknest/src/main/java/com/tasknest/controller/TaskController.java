@@ -2,9 +2,12 @@ package com.tasknest.controller;
 
 import com.tasknest.entity.Task;
 import com.tasknest.repository.TaskRepository;
+import com.tasknest.service.ChangeEvent;
+import com.tasknest.service.CollectionVersions;
 import com.tasknest.service.TaskService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -14,17 +17,28 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService service;
+    private final CollectionVersions versions;
 
-    public TaskController(TaskService service) {
+    public TaskController(TaskService service, CollectionVersions versions) {
         this.service = service;
+        this.versions = versions;
     }
 
-    // Get tasks for logged-in user
+    // Get tasks for logged-in user; 304 while the list is unchanged
     @GetMapping
-    public List<Task> getTasksForUser(@RequestParam String email) {
+    public List<Task> getTasksForUser(@RequestParam String email, ServletWebRequest request) {
+        if (versions.checkNotModified(request, email, ChangeEvent.TASKS)) {
+            return null;
+        }
         return service.getTasksForUser(email);
     }
 
+    // Ranked search over title, category and description; tolerates typos and unfinished words
+    @GetMapping("/search")
+    public List<Task> searchTasks(@RequestParam String email, @RequestParam String q,
+                                  @RequestParam(defaultValue = "20") int limit) {
+        return service.searchTasks(email, q, Math.min(Math.max(limit, 1), 100));
+    }
 
     // Create task
     @PostMapping
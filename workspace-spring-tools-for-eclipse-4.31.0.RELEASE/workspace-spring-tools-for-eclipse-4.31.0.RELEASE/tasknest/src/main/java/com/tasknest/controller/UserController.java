@@ -1,10 +1,18 @@
 package com.tasknest.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.tasknest.dto.LoginResponse;
+import com.tasknest.dto.UserResponse;
 import com.tasknest.entity.User;
+import com.tasknest.service.TokenService;
+import com.tasknest.service.UserSearch;
 import com.tasknest.service.UserService;
 
 import java.util.List;
@@ -15,80 +23,117 @@ import java.util.Map;
 @CrossOrigin(origins = "http://localhost:3000")
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserService userService;
+    private final TokenService tokenService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, TokenService tokenService) {
         this.userService = userService;
+        this.tokenService = tokenService;
     }
 
     // ------------------- CRUD OPERATIONS -------------------
 
     // Create or Register new user
     @PostMapping("/signup")
-    public User createUser(@RequestBody User user) {
-        return userService.saveUser(user);
+    public UserResponse createUser(@RequestBody User user) {
+        return UserResponse.from(userService.saveUser(user));
     }
 
     // Get all users
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public List<UserResponse> getAllUsers() {
+        return toResponses(userService.getAllUsers());
     }
 
     // Get user by email ID (Primary Key)
     @GetMapping("/{emailId}")
-    public ResponseEntity<User> getUserByEmailId(@PathVariable String emailId) {
+    public ResponseEntity<UserResponse> getUserByEmailId(@PathVariable String emailId) {
         return userService.getUserByEmailId(emailId)
-                .map(ResponseEntity::ok)
+                .map(user -> ResponseEntity.ok(UserResponse.from(user)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // Login
     @PostMapping("/login")
-    public ResponseEntity<User> login(@RequestBody Map<String, String> loginRequest) {
+    public ResponseEntity<LoginResponse> login(@RequestBody Map<String, String> loginRequest) {
         String email = loginRequest.get("emailId");
         String password = loginRequest.get("password");
 
         return userService.login(email, password)
-                .map(ResponseEntity::ok)
+                .map(user -> ResponseEntity.ok(LoginResponse.of(UserResponse.from(user),
+                        tokenService.issue(user.getId(), user.getEmailId()))))
                 .orElse(ResponseEntity.status(401).body(null));
     }
 
     // Update user details by email ID
     @PutMapping("/{emailId}")
-    public User updateUser(@PathVariable String emailId, @RequestBody User updatedUser) {
-        return userService.updateUser(emailId, updatedUser);
+    public UserResponse updateUser(@PathVariable String emailId, @RequestBody User updatedUser) {
+        return UserResponse.from(userService.updateUser(emailId, updatedUser));
     }
 
-    // Delete user by email ID
+    // Delete user by email ID; 202 because the user's data is removed in the background
     @DeleteMapping("/{emailId}")
-    public String deleteUser(@PathVariable String emailId) {
+    public ResponseEntity<String> deleteUser(@PathVariable String emailId) {
         userService.deleteUser(emailId);
-        return "User deleted successfully with email ID: " + emailId;
+        return ResponseEntity.accepted().body("User deleted successfully with email ID: " + emailId);
+    }
+
+    // Progress of the background deletion
+    @GetMapping("/{emailId}/deletion")
+    public ResponseEntity<Map<String, Object>> getDeletionStatus(@PathVariable String emailId) {
+        return userService.getDeletionStatus(emailId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     // ------------------- CUSTOM QUERIES -------------------
+
+    // Combined directory search; every filter is optional, name is a prefix match
+    @GetMapping("/search")
+    public PagedModel<UserResponse> searchUsers(@RequestParam(required = false) String name,
+                                                @RequestParam(required = false) String profession,
+                                                @RequestParam(required = false) String gender,
+                                                @RequestParam(required = false) String domain,
+                                                @RequestParam(required = false) Integer minAge,
+                                                @RequestParam(required = false) Integer maxAge,
+                                                @RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "20") int size) {
+        UserSearch search = new UserSearch(null, name, profession, gender, domain, minAge, maxAge);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), Sort.by("id"));
+        return new PagedModel<>(userService.searchUsers(search, pageable).map(UserResponse::from));
+    }
+
     @GetMapping("/search/name/{name}")
-    public List<User> getUsersByFullName(@PathVariable String name) {
-        return userService.getUsersByName(name);
+    public ResponseEntity<?> getUsersByFullName(@PathVariable String name) {
+        try {
+            return ResponseEntity.ok(toResponses(userService.getUsersByName(name)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/search/profession/{profession}")
-    public List<User> getUsersByProfession(@PathVariable String profession) {
-        return userService.getUsersByProfession(profession);
+    public ResponseEntity<?> getUsersByProfession(@PathVariable String profession) {
+        try {
+            return ResponseEntity.ok(toResponses(userService.getUsersByProfession(profession)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/search/age")
-    public List<User> getUsersByAgeRange(@RequestParam Integer min, @RequestParam Integer max) {
-        return userService.getUsersByAgeRange(min, max);
+    public List<UserResponse> getUsersByAgeRange(@RequestParam Integer min, @RequestParam Integer max) {
+        return toResponses(userService.getUsersByAgeRange(min, max));
     }
 
     
 
     @GetMapping("/search/gmail")
-    public List<User> getAllGmailUsers() {
-        return userService.getAllGmailUsers();
+    public List<UserResponse> getAllGmailUsers() {
+        return toResponses(userService.getAllGmailUsers());
     }
 
     // ------------------- FORGOT PASSWORD -------------------
@@ -153,6 +198,7 @@ public class UserController {
         }
     }
 
-    
-   
+    private static List<UserResponse> toResponses(List<User> users) {
+        return users.stream().map(UserResponse::from).toList();
+    }
 }
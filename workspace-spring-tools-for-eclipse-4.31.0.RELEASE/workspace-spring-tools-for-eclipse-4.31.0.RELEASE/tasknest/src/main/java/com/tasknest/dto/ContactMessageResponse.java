@@ -0,0 +1,15 @@
+package com.tasknest.dto;
+
+import com.tasknest.entity.ContactMessage;
+
+import java.time.LocalDateTime;
+
+// Contact message as shown in the admin panel, without the sender's IP address and user agent
+public record ContactMessageResponse(Long id, String name, String email, String phone, String subject,
+                                     String message, LocalDateTime createdAt, boolean read, boolean responded) {
+
+    public static ContactMessageResponse from(ContactMessage m) {
+        return new ContactMessageResponse(m.getId(), m.getName(), m.getEmail(), m.getPhone(), m.getSubject(),
+                m.getMessage(), m.getCreatedAt(), m.isRead(), m.isResponded());
+    }
+}
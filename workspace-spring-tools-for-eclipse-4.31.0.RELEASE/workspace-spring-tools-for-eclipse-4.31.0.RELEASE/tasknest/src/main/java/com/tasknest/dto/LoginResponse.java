@@ -0,0 +1,13 @@
+package com.tasknest.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.tasknest.service.TokenService;
+
+// The user as before, plus the tokens to send as "Authorization: Bearer <accessToken>" from now on
+public record LoginResponse(@JsonUnwrapped UserResponse user, String accessToken, String refreshToken,
+                            long expiresIn) {
+
+    public static LoginResponse of(UserResponse user, TokenService.TokenPair tokens) {
+        return new LoginResponse(user, tokens.accessToken(), tokens.refreshToken(), tokens.expiresIn());
+    }
+}
@@ -0,0 +1,12 @@
+package com.tasknest.dto;
+
+import com.tasknest.entity.User;
+
+// What the API exposes about a user; the password hash never leaves the server
+public record UserResponse(Long id, String emailId, String name, Integer age, String gender, String profession) {
+
+    public static UserResponse from(User user) {
+        return new UserResponse(user.getId(), user.getEmailId(), user.getName(), user.getAge(),
+                user.getGender(), user.getProfession());
+    }
+}
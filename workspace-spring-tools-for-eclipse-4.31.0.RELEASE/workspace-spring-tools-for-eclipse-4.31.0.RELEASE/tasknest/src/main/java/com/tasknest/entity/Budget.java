@@ -6,7 +6,7 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "budget",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"user_email", "month"}))
+       uniqueConstraints = @UniqueConstraint(name = "uk_budget_user_id_month", columnNames = {"user_id", "month"}))
 public class Budget {
 
     @Id
@@ -26,6 +26,9 @@ public class Budget {
     @Column(name = "user_email", nullable = false)
     private String userEmail;
 
+    @Column(name = "user_id")
+    private Long userId; // users.id of the owner, null only until backfilled
+
     @Column(name = "update_date", nullable = false)
     private LocalDate updateDate;
 
@@ -47,6 +50,9 @@ public class Budget {
     public String getUserEmail() { return userEmail; }
     public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
 
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
     public LocalDate getUpdateDate() { return updateDate; }
     public void setUpdateDate(LocalDate updateDate) { this.updateDate = updateDate; }
 }
@@ -1,10 +1,15 @@
 package com.tasknest.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "contact_messages")
+@Table(name = "contact_messages",
+       indexes = {
+           @Index(name = "idx_contact_messages_created_at", columnList = "created_at"),
+           @Index(name = "idx_contact_messages_email", columnList = "email")
+       })
 public class ContactMessage {
     
     @Id
@@ -35,9 +40,12 @@ public class ContactMessage {
     @Column(name = "is_responded", nullable = false)
     private boolean isResponded = false;
     
+    // captured server-side from the request; neither exposed nor accepted in JSON
+    @JsonIgnore
     @Column(name = "ip_address", length = 45)
     private String ipAddress;
     
+    @JsonIgnore
     @Column(name = "user_agent", length = 500)
     private String userAgent;
     
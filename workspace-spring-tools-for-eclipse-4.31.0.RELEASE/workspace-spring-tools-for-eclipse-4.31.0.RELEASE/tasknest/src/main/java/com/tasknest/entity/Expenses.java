@@ -3,10 +3,15 @@ package com.tasknest.entity;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"recurrence_source_id", "purchase_date"}),
+       indexes = @Index(name = "idx_expenses_user_id_updated", columnList = "user_id, updated_at"))
 public class Expenses {
 
     @Id
@@ -17,7 +22,7 @@ public class Expenses {
     @Column(name = "description")
     private String description;
 
-    @Column(name = "purchase_date")
+    @Column(name = "purchase_date", nullable = false) // monthly partition key, part of the primary key in MySQL
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
     private LocalDate purchaseDate;
 
@@ -28,7 +33,26 @@ public class Expenses {
     private String category; // e.g., "food", "grocery", "clothes"
 
     @Column(name = "user_email", nullable = false)
-    private String userEmail; // foreign key in DB (string)
+    private String userEmail; // kept next to userId for shard routing
+
+    @Column(name = "user_id")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long userId; // users.id of the owner, null only until backfilled
+
+    @Column(name = "recurrence_rule")
+    private String recurrenceRule; // RRULE-like, e.g. FREQ=MONTHLY;INTERVAL=1 — template only
+
+    @Column(name = "recurrence_source_id")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long recurrenceSourceId; // template this instance was generated from
+
+    @Column(name = "recurrence_generated_until")
+    @JsonIgnore
+    private LocalDate recurrenceGeneratedUntil; // last purchase date already materialized
+
+    @Column(name = "updated_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime updatedAt; // bumped on every write, read by /sync
 
     // Constructors
     public Expenses() {}
@@ -43,6 +67,12 @@ public class Expenses {
         this.userEmail = userEmail;
     }
 
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
     // Getters and setters
     public Long getExpenseId() {
         return expenseId;
@@ -91,4 +121,44 @@ public class Expenses {
     public void setUserEmail(String userEmail) {
         this.userEmail = userEmail;
     }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getRecurrenceRule() {
+        return recurrenceRule;
+    }
+
+    public void setRecurrenceRule(String recurrenceRule) {
+        this.recurrenceRule = recurrenceRule;
+    }
+
+    public Long getRecurrenceSourceId() {
+        return recurrenceSourceId;
+    }
+
+    public void setRecurrenceSourceId(Long recurrenceSourceId) {
+        this.recurrenceSourceId = recurrenceSourceId;
+    }
+
+    public LocalDate getRecurrenceGeneratedUntil() {
+        return recurrenceGeneratedUntil;
+    }
+
+    public void setRecurrenceGeneratedUntil(LocalDate recurrenceGeneratedUntil) {
+        this.recurrenceGeneratedUntil = recurrenceGeneratedUntil;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -2,11 +2,14 @@ package com.tasknest.entity;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "mood_track")
+@Table(name = "mood_track",
+       indexes = @Index(name = "idx_mood_track_user_id_updated", columnList = "user_id, updated_at"))
 public class MoodTrack {
 
     @Id
@@ -26,12 +29,25 @@ public class MoodTrack {
     @Column(nullable = false)
     private String userEmail;
 
+    @Column(name = "user_id")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long userId; // users.id of the owner, null only until backfilled
+
     @Column(nullable = false)
     private String timestamp;
 
     @Column(columnDefinition = "TEXT")
     private String details; // store everything as JSON (positiveEvents, challenges, gratitude, suggestions, etc.)
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime updatedAt; // bumped on every write, read by /sync
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -48,9 +64,15 @@ public class MoodTrack {
     public String getUserEmail() { return userEmail; }
     public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
 
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
     public String getTimestamp() { return timestamp; }
     public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
 
     public String getDetails() { return details; }
     public void setDetails(String details) { this.details = details; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 }
@@ -0,0 +1,30 @@
+package com.tasknest.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "scheduler_lease")
+public class SchedulerLease {
+
+    @Id
+    @Column(name = "lease_name", nullable = false, length = 100)
+    private String leaseName; // e.g. recurrence-3
+
+    @Column(name = "owner", length = 100)
+    private String owner; // node currently holding the lease
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public SchedulerLease() {}
+
+    public String getLeaseName() { return leaseName; }
+    public void setLeaseName(String leaseName) { this.leaseName = leaseName; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,37 @@
+package com.tasknest.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Which shard holds a user's data; lives on shard 0. Users without a row are on shard 0.
+@Entity
+@Table(name = "shard_directory")
+public class ShardAssignment {
+
+    @Id
+    @Column(name = "user_email", nullable = false)
+    private String userEmail; // trimmed, lowercased
+
+    @Column(name = "shard", nullable = false)
+    private int shard;
+
+    @Column(name = "moving", nullable = false)
+    private boolean moving; // writes are refused while a move is copying the data
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public ShardAssignment() {}
+
+    public String getUserEmail() { return userEmail; }
+    public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
+
+    public int getShard() { return shard; }
+    public void setShard(int shard) { this.shard = shard; }
+
+    public boolean isMoving() { return moving; }
+    public void setMoving(boolean moving) { this.moving = moving; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
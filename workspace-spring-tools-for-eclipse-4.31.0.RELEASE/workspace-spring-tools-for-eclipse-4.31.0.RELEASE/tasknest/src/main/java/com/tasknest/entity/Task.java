@@ -1,11 +1,19 @@
 package com.tasknest.entity;
 
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"recurrence_source_id", "due_date"}),
+       indexes = {
+           @Index(name = "idx_tasks_due_date", columnList = "due_date"),
+           @Index(name = "idx_tasks_user_id_updated", columnList = "user_id, updated_at")
+       })
 public class Task {
 
     @Id
@@ -27,17 +35,47 @@ public class Task {
 
     private LocalDateTime createdAt;
 
+    // bumped on every write; /sync hands out changes by this column
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime updatedAt;
+
     @Column(nullable = false)
-    private String userEmail;
+    private String userEmail; // kept next to userId for shard routing and reminders
+
+    // users.id of the owner; null only until UserIdBackfill has reached an old row
+    @Column(name = "user_id")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long userId;
+
+    // RRULE-like, e.g. FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TH — only set on the template task
+    private String recurrenceRule;
+
+    // template this instance was generated from, null for hand-made tasks
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long recurrenceSourceId;
+
+    // last due date already materialized for this template
+    @JsonIgnore
+    private LocalDate recurrenceGeneratedUntil;
+
+    // due date the reminder was delivered for; a moved due date re-arms the reminder
+    @JsonIgnore
+    private LocalDate reminderSentFor;
 
     public Task() {}
 
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
         this.completed = false;
     }
 
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
     // ===== GETTERS & SETTERS =====
 
     public Long getId() {
@@ -104,6 +142,14 @@ public class Task {
         this.createdAt = createdAt;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public String getUserEmail() {
         return userEmail;
     }
@@ -111,4 +157,44 @@ public class Task {
     public void setUserEmail(String userEmail) {
         this.userEmail = userEmail;
     }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getRecurrenceRule() {
+        return recurrenceRule;
+    }
+
+    public void setRecurrenceRule(String recurrenceRule) {
+        this.recurrenceRule = recurrenceRule;
+    }
+
+    public Long getRecurrenceSourceId() {
+        return recurrenceSourceId;
+    }
+
+    public void setRecurrenceSourceId(Long recurrenceSourceId) {
+        this.recurrenceSourceId = recurrenceSourceId;
+    }
+
+    public LocalDate getRecurrenceGeneratedUntil() {
+        return recurrenceGeneratedUntil;
+    }
+
+    public void setRecurrenceGeneratedUntil(LocalDate recurrenceGeneratedUntil) {
+        this.recurrenceGeneratedUntil = recurrenceGeneratedUntil;
+    }
+
+    public LocalDate getReminderSentFor() {
+        return reminderSentFor;
+    }
+
+    public void setReminderSentFor(LocalDate reminderSentFor) {
+        this.reminderSentFor = reminderSentFor;
+    }
 }
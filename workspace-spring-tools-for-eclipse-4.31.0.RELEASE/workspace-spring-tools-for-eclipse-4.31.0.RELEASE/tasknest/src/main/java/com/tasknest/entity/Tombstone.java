@@ -0,0 +1,58 @@
+package com.tasknest.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Marker left behind by a delete so /sync can tell offline clients what to drop
+@Entity
+@Table(name = "tombstones",
+       indexes = @Index(name = "idx_tombstones_user_id_deleted", columnList = "user_id, deleted_at"))
+public class Tombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "collection", nullable = false, length = 20)
+    private String collection; // tasks, expenses or moods
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public Tombstone() {}
+
+    public Tombstone(Long userId, String userEmail, String collection, Long entityId, LocalDateTime deletedAt) {
+        this.userId = userId;
+        this.userEmail = userEmail;
+        this.collection = collection;
+        this.entityId = entityId;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getUserEmail() { return userEmail; }
+    public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getCollection() { return collection; }
+    public void setCollection(String collection) { this.collection = collection; }
+
+    public Long getEntityId() { return entityId; }
+    public void setEntityId(Long entityId) { this.entityId = entityId; }
+
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+}
@@ -1,15 +1,31 @@
 package com.tasknest.entity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users") // maps this entity to the "users" table
+@Table(name = "users", // maps this entity to the "users" table
+       indexes = {
+           @Index(name = "idx_users_email_domain", columnList = "email_domain"),
+           @Index(name = "idx_users_full_name_norm", columnList = "full_name_norm"),
+           @Index(name = "idx_users_profession_norm", columnList = "profession_norm"),
+           @Index(name = "idx_users_gender_norm", columnList = "gender_norm"),
+           @Index(name = "idx_users_age", columnList = "age")
+       })
 public class User {
 
     @Id
-    @Column(name = "email_id", nullable = false, unique = true)
-    private String emailId; // Primary Key
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long id; // what every per-user table references
+
+    // never changes: shard routing, reminders, change topics and the user_email copy on child rows key on it
+    @Column(name = "email_id", nullable = false, unique = true, updatable = false)
+    private String emailId;
 
     @Column(name = "full_name", nullable = false)
     private String name;
@@ -23,12 +39,37 @@ public class User {
     @Column(nullable = false)
     private String profession;
 
+    // accepted on signup/update, never written back out (also covers the Spring Data REST endpoints)
     @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String confirmPassword;
 
+    // generated by the database (V8 migration) for indexed search; read-only here and never serialized
+    @Column(name = "email_domain", insertable = false, updatable = false)
+    @JsonIgnore
+    private String emailDomain;
+
+    @Column(name = "full_name_norm", insertable = false, updatable = false)
+    @JsonIgnore
+    private String nameNorm;
+
+    @Column(name = "profession_norm", insertable = false, updatable = false)
+    @JsonIgnore
+    private String professionNorm;
+
+    @Column(name = "gender_norm", insertable = false, updatable = false)
+    @JsonIgnore
+    private String genderNorm;
+
+    // set when the account is being deleted (AccountDeletionJob); the row goes once its data is gone
+    @Column(name = "deletion_requested_at", updatable = false, insertable = false)
+    @JsonIgnore
+    private LocalDateTime deletionRequestedAt;
+
     
 
     // Default constructor (required by JPA)
@@ -49,6 +90,18 @@ public class User {
     
 
     // 🧩 Getters and Setters
+    public LocalDateTime getDeletionRequestedAt() {
+        return deletionRequestedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public String getEmailId() {
         return emailId;
     }
@@ -110,7 +163,7 @@ public class User {
     // 🧩 toString() method for debugging/logging
     @Override
     public String toString() {
-        return "User [emailId=" + emailId + ", fullName=" + name + ", age=" + age +
+        return "User [id=" + id + ", emailId=" + emailId + ", fullName=" + name + ", age=" + age +
                 ", gender=" + gender + ", profession=" + profession +
                 ", password=" + password + ", confirmPassword=" + confirmPassword +  "]";
     }
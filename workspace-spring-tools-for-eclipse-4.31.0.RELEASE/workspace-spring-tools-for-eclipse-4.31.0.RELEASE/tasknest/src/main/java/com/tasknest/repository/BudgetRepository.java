@@ -1,12 +1,34 @@
 package com.tasknest.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import com.tasknest.entity.Budget;
+
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
 
-    Optional<Budget> findByUserEmailAndMonth(String userEmail, String month);
+    Optional<Budget> findByUserIdAndMonth(Long userId, String month);
+
+    boolean existsByUserIdAndMonth(Long userId, String month);
+
+    // month is stored as YYYY-MM, so string order is chronological
+    List<Budget> findByUserIdAndMonthBetween(Long userId, String fromMonth, String toMonth);
+
+    List<Budget> findByUserId(Long userId);
 
-    boolean existsByUserEmailAndMonth(String userEmail, String month);
+    // Single-statement insert-if-absent, relies on the unique (user_id, month) key
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO budget (user_id, user_email, month, funds_amount, monthly_budget, update_date) " +
+                   "VALUES (:userId, :userEmail, :month, 0, 0, :updateDate)", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+                       @Param("userEmail") String userEmail,
+                       @Param("month") String month,
+                       @Param("updateDate") LocalDate updateDate);
 }
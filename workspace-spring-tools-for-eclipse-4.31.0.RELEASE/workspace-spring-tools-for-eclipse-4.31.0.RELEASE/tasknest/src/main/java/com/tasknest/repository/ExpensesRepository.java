@@ -1,21 +1,51 @@
 package com.tasknest.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import com.tasknest.entity.Expenses;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ExpensesRepository extends JpaRepository<Expenses, Long> {
 
-    // Fetch all expenses belonging to a specific user by email
-    List<Expenses> findByUserEmail(String userEmail);
+    // Fetch all expenses belonging to a specific user
+    List<Expenses> findByUserId(Long userId);
+
+    List<Expenses> findByUserIdAndUpdatedAtAfter(Long userId, LocalDateTime since);
     
-    List<Expenses> findByUserEmailAndPurchaseDateBetween(
-            String userEmail,
+    List<Expenses> findByUserIdAndPurchaseDateBetween(
+            Long userId,
             LocalDate start,
             LocalDate end
     );
-}
\ No newline at end of file
+
+    // Per month/category totals in one grouped scan: [year, month, category, sum(amount), count]
+    @Query("SELECT YEAR(e.purchaseDate), MONTH(e.purchaseDate), e.category, SUM(e.amount), COUNT(e) " +
+           "FROM Expenses e " +
+           "WHERE e.userId = :userId AND e.purchaseDate BETWEEN :start AND :end " +
+           "GROUP BY YEAR(e.purchaseDate), MONTH(e.purchaseDate), e.category")
+    List<Object[]> sumByMonthAndCategory(@Param("userId") Long userId,
+                                         @Param("start") LocalDate start,
+                                         @Param("end") LocalDate end);
+
+    // Recurring templates of one scheduler partition that still need instances up to :horizon
+    @Query("SELECT e FROM Expenses e WHERE e.recurrenceRule IS NOT NULL " +
+           "AND MOD(e.expenseId, :partitions) = :partition " +
+           "AND (e.recurrenceGeneratedUntil IS NULL OR e.recurrenceGeneratedUntil < :horizon)")
+    List<Expenses> findRecurringTemplates(@Param("partitions") int partitions,
+                                          @Param("partition") int partition,
+                                          @Param("horizon") LocalDate horizon);
+
+    // Drops future instances when a template's rule changes or it is deleted
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Expenses e WHERE e.recurrenceSourceId = :sourceId AND e.purchaseDate > :after")
+    int deletePendingInstances(@Param("sourceId") Long sourceId, @Param("after") LocalDate after);
+}
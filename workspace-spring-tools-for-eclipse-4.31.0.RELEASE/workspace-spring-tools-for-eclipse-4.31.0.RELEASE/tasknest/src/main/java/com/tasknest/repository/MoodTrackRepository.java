@@ -5,13 +5,15 @@ import org.springframework.stereotype.Repository;
 import com.tasknest.entity.MoodTrack;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MoodTrackRepository extends JpaRepository<MoodTrack, Long> {
-    List<MoodTrack> findByUserEmail(String userEmail);
-    List<MoodTrack> findByUserEmailOrderByTimestampDesc(String userEmail);
-    Optional<MoodTrack> findByUserEmailAndDay(String userEmail, LocalDate day);
+    List<MoodTrack> findByUserId(Long userId);
+    List<MoodTrack> findByUserIdAndUpdatedAtAfter(Long userId, LocalDateTime since);
+    List<MoodTrack> findByUserIdOrderByTimestampDesc(Long userId);
+    Optional<MoodTrack> findByUserIdAndDay(Long userId, LocalDate day);
     
 }
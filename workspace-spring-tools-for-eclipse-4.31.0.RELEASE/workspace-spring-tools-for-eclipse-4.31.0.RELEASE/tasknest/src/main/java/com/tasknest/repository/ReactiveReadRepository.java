@@ -0,0 +1,146 @@
+package com.tasknest.repository;
+
+import com.tasknest.entity.Expenses;
+import com.tasknest.entity.MoodTrack;
+import com.tasknest.entity.Task;
+import com.tasknest.config.ReactiveShardClients;
+import io.r2dbc.spi.Readable;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only R2DBC queries behind the /reactive endpoints. Rows are mapped onto
+ * the JPA entity classes (detached, never persisted), every column the entity
+ * maps included, so both APIs return the same JSON. Results are streamed with a bounded fetch size, so a slow client
+ * slows the cursor down instead of buffering the whole list. Every query
+ * takes the shard to run on and the owner's users.id; the service resolves
+ * both.
+ */
+@Repository
+public class ReactiveReadRepository {
+
+    private static final int FETCH_SIZE = 256;
+
+    // every column of the entity, as JPA loads it
+    static final String TASK_COLUMNS = "id, title, description, priority, category, completed, due_date, created_at, "
+            + "updated_at, user_email, user_id, recurrence_rule, recurrence_source_id, recurrence_generated_until, "
+            + "reminder_sent_for";
+    static final String EXPENSE_COLUMNS = "expense_id, description, purchase_date, amount, category, user_email, "
+            + "user_id, recurrence_rule, recurrence_source_id, recurrence_generated_until, updated_at";
+    static final String MOOD_COLUMNS = "id, day, mood, score, user_email, user_id, timestamp, details, updated_at";
+
+    private final ReactiveShardClients clients;
+
+    public ReactiveReadRepository(ReactiveShardClients clients) {
+        this.clients = clients;
+    }
+
+    public Flux<Task> findTasksByUserId(int shard, long userId) {
+        return clients.forShard(shard).sql("SELECT " + TASK_COLUMNS + " FROM tasks WHERE user_id = :userId")
+                .filter(s -> s.fetchSize(FETCH_SIZE))
+                .bind("userId", userId)
+                .map(ReactiveReadRepository::toTask)
+                .all();
+    }
+
+    public Flux<Expenses> findExpensesByUserId(int shard, long userId) {
+        return clients.forShard(shard).sql("SELECT " + EXPENSE_COLUMNS + " FROM expenses WHERE user_id = :userId")
+                .filter(s -> s.fetchSize(FETCH_SIZE))
+                .bind("userId", userId)
+                .map(ReactiveReadRepository::toExpense)
+                .all();
+    }
+
+    public Flux<MoodTrack> findMoodHistory(int shard, long userId) {
+        return clients.forShard(shard).sql("SELECT " + MOOD_COLUMNS + " FROM mood_track " +
+                      "WHERE user_id = :userId ORDER BY timestamp DESC")
+                .filter(s -> s.fetchSize(FETCH_SIZE))
+                .bind("userId", userId)
+                .map(ReactiveReadRepository::toMood)
+                .all();
+    }
+
+    public Mono<BigDecimal> findMonthlyBudget(int shard, long userId, String month) {
+        return clients.forShard(shard).sql("SELECT monthly_budget FROM budget WHERE user_id = :userId AND month = :month")
+                .bind("userId", userId)
+                .bind("month", month)
+                .map(row -> row.get("monthly_budget", BigDecimal.class))
+                .one();
+    }
+
+    // Per category totals for one month: [category, sum(amount)]
+    public Flux<Object[]> sumByCategory(int shard, long userId, LocalDate start, LocalDate end) {
+        return clients.forShard(shard).sql("SELECT category, SUM(amount) AS total FROM expenses " +
+                      "WHERE user_id = :userId AND purchase_date BETWEEN :start AND :end GROUP BY category")
+                .bind("userId", userId)
+                .bind("start", start)
+                .bind("end", end)
+                .map(row -> new Object[] { row.get("category", String.class), row.get("total", BigDecimal.class) })
+                .all();
+    }
+
+    public Mono<Long> countSpendingDays(int shard, long userId, LocalDate start, LocalDate end) {
+        return clients.forShard(shard).sql("SELECT COUNT(DISTINCT purchase_date) AS days FROM expenses " +
+                      "WHERE user_id = :userId AND purchase_date BETWEEN :start AND :end")
+                .bind("userId", userId)
+                .bind("start", start)
+                .bind("end", end)
+                .map(row -> row.get("days", Long.class))
+                .one();
+    }
+
+    static Task toTask(Readable row) {
+        Task task = new Task();
+        task.setId(row.get("id", Long.class));
+        task.setTitle(row.get("title", String.class));
+        task.setDescription(row.get("description", String.class));
+        task.setPriority(row.get("priority", String.class));
+        task.setCategory(row.get("category", String.class));
+        task.setCompleted(Boolean.TRUE.equals(row.get("completed", Boolean.class)));
+        task.setDueDate(row.get("due_date", LocalDate.class));
+        task.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        task.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        task.setUserEmail(row.get("user_email", String.class));
+        task.setUserId(row.get("user_id", Long.class));
+        task.setRecurrenceRule(row.get("recurrence_rule", String.class));
+        task.setRecurrenceSourceId(row.get("recurrence_source_id", Long.class));
+        task.setRecurrenceGeneratedUntil(row.get("recurrence_generated_until", LocalDate.class));
+        task.setReminderSentFor(row.get("reminder_sent_for", LocalDate.class));
+        return task;
+    }
+
+    static Expenses toExpense(Readable row) {
+        Expenses expense = new Expenses(
+                row.get("expense_id", Long.class),
+                row.get("description", String.class),
+                row.get("purchase_date", LocalDate.class),
+                row.get("amount", BigDecimal.class),
+                row.get("category", String.class),
+                row.get("user_email", String.class));
+        expense.setUserId(row.get("user_id", Long.class));
+        expense.setRecurrenceRule(row.get("recurrence_rule", String.class));
+        expense.setRecurrenceSourceId(row.get("recurrence_source_id", Long.class));
+        expense.setRecurrenceGeneratedUntil(row.get("recurrence_generated_until", LocalDate.class));
+        expense.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return expense;
+    }
+
+    static MoodTrack toMood(Readable row) {
+        MoodTrack mood = new MoodTrack();
+        mood.setId(row.get("id", Long.class));
+        mood.setDay(row.get("day", LocalDate.class));
+        mood.setMood(row.get("mood", String.class));
+        mood.setScore(row.get("score", String.class));
+        mood.setUserEmail(row.get("user_email", String.class));
+        mood.setUserId(row.get("user_id", Long.class));
+        mood.setTimestamp(row.get("timestamp", String.class));
+        mood.setDetails(row.get("details", String.class));
+        mood.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return mood;
+    }
+}
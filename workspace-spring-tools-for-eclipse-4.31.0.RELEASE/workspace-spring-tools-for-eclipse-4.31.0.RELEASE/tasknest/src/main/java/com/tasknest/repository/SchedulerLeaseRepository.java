@@ -0,0 +1,36 @@
+package com.tasknest.repository;
+
+import com.tasknest.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO scheduler_lease (lease_name, owner, expires_at) " +
+                   "VALUES (:leaseName, NULL, '1970-01-01 00:00:00')", nativeQuery = true)
+    int createIfAbsent(@Param("leaseName") String leaseName);
+
+    // Claims or renews the lease; returns 1 only if this owner now holds it
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE scheduler_lease SET owner = :owner, expires_at = :expiresAt " +
+                   "WHERE lease_name = :leaseName AND (owner = :owner OR owner IS NULL OR expires_at < :now)",
+           nativeQuery = true)
+    int tryAcquire(@Param("leaseName") String leaseName,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE scheduler_lease SET owner = NULL WHERE lease_name = :leaseName AND owner = :owner",
+           nativeQuery = true)
+    int release(@Param("leaseName") String leaseName, @Param("owner") String owner);
+}
@@ -2,10 +2,37 @@ package com.tasknest.repository;
 
 import com.tasknest.entity.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
-    List<Task> findByUserEmail(String userEmail);
+    List<Task> findByUserId(Long userId);
+
+    List<Task> findByUserIdAndUpdatedAtAfter(Long userId, LocalDateTime since);
+
+    // Recurring templates of one scheduler partition that still need instances up to :horizon
+    @Query("SELECT t FROM Task t WHERE t.recurrenceRule IS NOT NULL " +
+           "AND MOD(t.id, :partitions) = :partition " +
+           "AND (t.recurrenceGeneratedUntil IS NULL OR t.recurrenceGeneratedUntil < :horizon)")
+    List<Task> findRecurringTemplates(@Param("partitions") int partitions,
+                                      @Param("partition") int partition,
+                                      @Param("horizon") LocalDate horizon);
+
+    // Drops not-yet-done future instances when a template's rule changes or it is deleted
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Task t WHERE t.recurrenceSourceId = :sourceId AND t.dueDate > :after AND t.completed = false")
+    int deletePendingInstances(@Param("sourceId") Long sourceId, @Param("after") LocalDate after);
+
+    // Open tasks due inside the reminder horizon whose reminder is still outstanding
+    @Query("SELECT t FROM Task t WHERE t.completed = false AND t.dueDate BETWEEN :from AND :to " +
+           "AND (t.reminderSentFor IS NULL OR t.reminderSentFor <> t.dueDate)")
+    List<Task> findPendingReminders(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
- 
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.tasknest.repository;
+
+import com.tasknest.entity.Tombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    List<Tombstone> findByUserIdAndDeletedAtAfter(Long userId, LocalDateTime since);
+
+    // Same rows as TaskRepository.deletePendingInstances; run it first, in the same transaction
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO tombstones (user_id, user_email, collection, entity_id, deleted_at) " +
+                   "SELECT user_id, user_email, 'tasks', id, :now FROM tasks " +
+                   "WHERE recurrence_source_id = :sourceId AND due_date > :after AND completed = false",
+           nativeQuery = true)
+    int recordPendingTaskInstances(@Param("sourceId") Long sourceId,
+                                   @Param("after") LocalDate after,
+                                   @Param("now") LocalDateTime now);
+
+    // Same rows as ExpensesRepository.deletePendingInstances; run it first, in the same transaction
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO tombstones (user_id, user_email, collection, entity_id, deleted_at) " +
+                   "SELECT user_id, user_email, 'expenses', expense_id, :now FROM expenses " +
+                   "WHERE recurrence_source_id = :sourceId AND purchase_date > :after",
+           nativeQuery = true)
+    int recordPendingExpenseInstances(@Param("sourceId") Long sourceId,
+                                      @Param("after") LocalDate after,
+                                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Tombstone t WHERE t.deletedAt < :cutoff")
+    int purgeOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,278 @@
+package com.tasknest.service;
+
+import com.tasknest.repository.SchedulerLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Deletes an account's data in the background.
+ *
+ * {@link #request} records the deletion in account_deletions and flags the
+ * users row, after which the account no longer logs in, resolves in
+ * {@link UserIds} or shows up in the directory. A lease-holding node then
+ * deletes the per-user rows (every shard) and the account's contact messages
+ * in chunks of {@code batch-size}, each in its own short transaction through
+ * the user_id / email indexes, pausing {@code pause} between chunks so big
+ * accounts do not hog the tables. Progress is written after every chunk.
+ * Rows the id backfill has not reached yet, or stamped with
+ * {@link UserIdBackfill#UNKNOWN_USER} because the account was already
+ * flagged, are found by their email among the rows without a real user_id.
+ *
+ * Other nodes may still resolve the user from their UserIds cache, and access
+ * tokens carry the id, so writes can trickle in for a while: the job keeps
+ * sweeping until {@code grace} has passed since the request, then removes
+ * the users row and marks the deletion done. Everything it does can be
+ * repeated, so a restart simply runs the unfinished deletions again.
+ */
+@Component
+public class AccountDeletionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountDeletionJob.class);
+
+    private static final String LEASE = "account-deletion";
+
+    static final String PENDING = "pending";
+    static final String RUNNING = "running";
+    static final String DONE = "done";
+
+    // rows of this email without a real user_id; found through the user_id index, so only orphans are scanned
+    private static final String UNCLAIMED = "(user_id IS NULL OR user_id = ?) AND LOWER(TRIM(user_email)) = ?";
+
+    private static final List<String> COLLECTIONS =
+            List.of(ChangeEvent.TASKS, ChangeEvent.EXPENSES, ChangeEvent.BUDGETS, ChangeEvent.MOODS);
+
+    private record Deletion(long userId, String email, LocalDateTime requestedAt) {}
+
+    private final JdbcTemplate home;
+    private final JdbcTemplate sharded;
+    private final ShardTemplate shards;
+    private final UserIds userIds;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate newTransaction;
+    private final SchedulerLeaseRepository leaseRepository;
+    private final PartitionMaintenance partitions;
+
+    private final String nodeId;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final Duration grace;
+    private final long leaseSeconds;
+
+    public AccountDeletionJob(@Qualifier("primaryDataSource") DataSource primary,
+                              JdbcTemplate jdbcTemplate,
+                              ShardTemplate shards,
+                              UserIds userIds,
+                              ApplicationEventPublisher events,
+                              PlatformTransactionManager transactionManager,
+                              SchedulerLeaseRepository leaseRepository,
+                              PartitionMaintenance partitions,
+                              @Value("${tasknest.scheduler.node-id:}") String nodeId,
+                              @Value("${tasknest.account-deletion.batch-size:500}") int batchSize,
+                              @Value("${tasknest.account-deletion.pause:100ms}") Duration pause,
+                              @Value("${tasknest.account-deletion.grace:20m}") Duration grace,
+                              @Value("${tasknest.account-deletion.lease-seconds:300}") long leaseSeconds) {
+        this.home = new JdbcTemplate(primary);
+        this.sharded = jdbcTemplate;
+        this.shards = shards;
+        this.userIds = userIds;
+        this.events = events;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leaseRepository = leaseRepository;
+        this.partitions = partitions;
+        this.nodeId = nodeId.isEmpty() ? UUID.randomUUID().toString() : nodeId;
+        this.batchSize = batchSize;
+        this.pauseMillis = pause.toMillis();
+        this.grace = grace;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    // Returns at once; the data goes on the next runs
+    public void request(long userId, String email) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            home.update("INSERT INTO account_deletions (user_id, email, status, requested_at, updated_at, rows_deleted) "
+                    + "VALUES (?, ?, ?, ?, ?, 0)", userId, email, PENDING, now, now);
+        } catch (DuplicateKeyException e) {
+            // already requested; flagging again below is harmless
+        }
+        flag(userId, now);
+        userIds.forget(email);
+        // cached lists, search indexes and versions drop this user's data
+        COLLECTIONS.forEach(collection -> events.publishEvent(ChangeEvent.refresh(email, collection)));
+    }
+
+    // The latest deletion of this email, if any: status, rows deleted so far, current step
+    public Optional<Map<String, Object>> status(String email) {
+        List<Map<String, Object>> rows = home.queryForList(
+                "SELECT status, requested_at, updated_at, completed_at, rows_deleted, current_step, last_error "
+                        + "FROM account_deletions WHERE email = ? ORDER BY requested_at DESC", email.trim());
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        rows.get(0).forEach((column, value) -> status.put(camelCase(column), value));
+        return Optional.of(status);
+    }
+
+    @Scheduled(initialDelayString = "${tasknest.account-deletion.interval-ms:10000}",
+               fixedDelayString = "${tasknest.account-deletion.interval-ms:10000}")
+    public void run() {
+        List<Deletion> deletions = home.query(
+                "SELECT user_id, email, requested_at FROM account_deletions WHERE status <> ? ORDER BY requested_at",
+                (rs, i) -> new Deletion(rs.getLong(1), rs.getString(2), rs.getTimestamp(3).toLocalDateTime()),
+                DONE);
+        if (deletions.isEmpty() || !renewLease()) {
+            return;
+        }
+        try {
+            for (Deletion deletion : deletions) {
+                try {
+                    delete(deletion);
+                } catch (RuntimeException e) {
+                    log.warn("Deleting account {} failed, will retry: {}", deletion.userId(), e.getMessage());
+                    home.update("UPDATE account_deletions SET last_error = ?, updated_at = ? WHERE user_id = ?",
+                            truncate(e.getMessage()), Timestamp.valueOf(LocalDateTime.now()), deletion.userId());
+                }
+            }
+        } finally {
+            leaseRepository.release(LEASE, nodeId);
+        }
+    }
+
+    private void delete(Deletion deletion) {
+        flag(deletion.userId(), Timestamp.valueOf(deletion.requestedAt()));
+        home.update("UPDATE account_deletions SET status = ?, updated_at = ? WHERE user_id = ?",
+                RUNNING, Timestamp.valueOf(LocalDateTime.now()), deletion.userId());
+
+        String email = deletion.email().trim().toLowerCase(Locale.ROOT);
+        shards.forEachShard(shard -> {
+            for (Map.Entry<String, String> table : UserIdBackfill.CHILD_TABLES.entrySet()) {
+                purgeUserRows(deletion, email, table.getKey(), table.getValue(), table.getKey() + "@" + shard);
+            }
+            // months moved out by retention are still this user's data
+            for (String archive : partitions.archives("expenses")) {
+                purgeUserRows(deletion, email, archive, "expense_id", archive + "@" + shard);
+            }
+            // a row per collection at most
+            sharded.update("DELETE FROM collection_versions WHERE user_id = ?", deletion.userId());
+        });
+        // global table, shard 0 only
+        purge(deletion, home, "contact_messages", "id", "email = ?", "contact_messages", deletion.email());
+        for (String archive : shards.onShard(0, () -> partitions.archives("contact_messages"))) {
+            purge(deletion, home, archive, "id", "email = ?", archive, deletion.email());
+        }
+
+        if (LocalDateTime.now().isBefore(deletion.requestedAt().plus(grace))) {
+            return; // swept again next run, in case a node with a stale cache or token wrote meanwhile
+        }
+        home.update("DELETE FROM shard_directory WHERE user_email = ?", deletion.email());
+        home.update("DELETE FROM users WHERE id = ?", deletion.userId());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        home.update("UPDATE account_deletions SET status = ?, updated_at = ?, completed_at = ?, current_step = NULL, "
+                + "last_error = NULL WHERE user_id = ?", DONE, now, now, deletion.userId());
+        userIds.forget(deletion.email());
+        COLLECTIONS.forEach(collection -> events.publishEvent(ChangeEvent.refresh(deletion.email(), collection)));
+        log.info("Deleted account {}", deletion.userId());
+    }
+
+    private void purgeUserRows(Deletion deletion, String email, String table, String pk, String step) {
+        purge(deletion, sharded, table, pk, "user_id = ?", step, deletion.userId());
+        purge(deletion, sharded, table, pk, UNCLAIMED, step, UserIdBackfill.UNKNOWN_USER, email);
+    }
+
+    private void purge(Deletion deletion, JdbcTemplate jdbc, String table, String pk, String where, String step,
+                       Object... owner) {
+        String select = "SELECT " + pk + " FROM " + table + " WHERE " + where + " LIMIT ?";
+        Object[] args = Arrays.copyOf(owner, owner.length + 1);
+        args[owner.length] = batchSize;
+        while (true) {
+            List<Long> ids = jdbc.queryForList(select, Long.class, args);
+            if (ids.isEmpty()) {
+                return;
+            }
+            String delete = "DELETE FROM " + table + " WHERE " + pk + " IN ("
+                    + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+            int deleted = jdbc == home
+                    ? home.update(delete, ids.toArray())
+                    : newTransaction.execute(status -> jdbc.update(delete, ids.toArray()));
+            home.update("UPDATE account_deletions SET rows_deleted = rows_deleted + ?, current_step = ?, updated_at = ? "
+                    + "WHERE user_id = ?", deleted, step, Timestamp.valueOf(LocalDateTime.now()), deletion.userId());
+            if (ids.size() < batchSize) {
+                return;
+            }
+            pause();
+            if (!renewLease()) {
+                throw new RuntimeException("Lost the " + LEASE + " lease");
+            }
+        }
+    }
+
+    private void flag(long userId, Timestamp requestedAt) {
+        home.update("UPDATE users SET deletion_requested_at = ? WHERE id = ? AND deletion_requested_at IS NULL",
+                requestedAt, userId);
+    }
+
+    // takes the lease, or extends it while this node holds it
+    private boolean renewLease() {
+        leaseRepository.createIfAbsent(LEASE);
+        LocalDateTime now = LocalDateTime.now();
+        return leaseRepository.tryAcquire(LEASE, nodeId, now, now.plusSeconds(leaseSeconds)) > 0;
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted");
+        }
+    }
+
+    private static String camelCase(String column) {
+        StringBuilder out = new StringBuilder();
+        boolean upper = false;
+        for (char c : column.toLowerCase().toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                out.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return out.toString();
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -2,6 +2,7 @@ package com.tasknest.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.tasknest.entity.Admin;
 import com.tasknest.repository.AdminRepository;
@@ -39,6 +40,7 @@ public class AdminServiceImpl implements AdminService {
 
     // Update admin details by email
     @Override
+    @Transactional
     public Admin updateAdmin(String adminEmail, Admin updatedAdmin) {
         Optional<Admin> existingAdmin = adminRepository.findById(adminEmail);
 
@@ -0,0 +1,10 @@
+package com.tasknest.service;
+
+import java.util.Map;
+
+public interface BudgetReportService {
+
+    // Month series, category breakdown, budget-vs-actual and YoY deltas for an inclusive YYYY-MM range;
+    // IllegalArgumentException for a malformed month or a reversed or too long range
+    Map<String, Object> getReport(String userEmail, String fromMonth, String toMonth);
+}
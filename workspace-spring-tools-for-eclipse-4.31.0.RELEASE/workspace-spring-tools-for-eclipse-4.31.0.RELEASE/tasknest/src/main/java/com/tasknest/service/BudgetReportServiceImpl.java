@@ -0,0 +1,212 @@
+package com.tasknest.service;
+
+import com.tasknest.entity.Budget;
+import com.tasknest.repository.BudgetRepository;
+import com.tasknest.repository.ExpensesRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class BudgetReportServiceImpl implements BudgetReportService {
+
+    static final int MAX_RANGE_MONTHS = 120;
+
+    // ranges longer than this (prior year included) are split into PARTITION_MONTHS pieces queried in
+    // parallel; anything shorter, so every report of up to two years, stays one grouped query
+    static final int PARALLEL_THRESHOLD_MONTHS = 36;
+    static final int PARTITION_MONTHS = 12;
+
+    private static final String UNCATEGORIZED = "uncategorized";
+
+    private final BudgetRepository budgetRepo;
+    private final ExpensesRepository expensesRepo;
+    private final ShardTemplate shards;
+    private final UserIds userIds;
+    private final AsyncTaskExecutor reportExecutor;
+    private final ReadCoalescing coalescing;
+    private final SpendCache spendCache;
+
+    public BudgetReportServiceImpl(BudgetRepository b, ExpensesRepository e, ShardTemplate shards, UserIds userIds,
+                                   @Qualifier("reportExecutor") AsyncTaskExecutor reportExecutor,
+                                   ReadCoalescing coalescing, SpendCache spendCache) {
+        this.budgetRepo = b;
+        this.expensesRepo = e;
+        this.shards = shards;
+        this.userIds = userIds;
+        this.reportExecutor = reportExecutor;
+        this.coalescing = coalescing;
+        this.spendCache = spendCache;
+    }
+
+    // partitions run on reportExecutor, whose decorator carries the shard over
+    @Override
+    public Map<String, Object> getReport(String email, String fromMonth, String toMonth) {
+        return coalescing.budgetReports().get(ReadCoalescing.userKey(email, fromMonth, toMonth), () -> {
+            Long userId = userIds.idOf(email);
+            return shards.read(email, () -> report(email, userId, fromMonth, toMonth));
+        });
+    }
+
+    // userId is null for an unknown user, whose months all come out empty
+    private Map<String, Object> report(String email, Long userId, String fromMonth, String toMonth) {
+        YearMonth from = parseMonth(fromMonth);
+        YearMonth to = parseMonth(toMonth);
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        long months = from.until(to, ChronoUnit.MONTHS) + 1;
+        if (months > MAX_RANGE_MONTHS) {
+            throw new IllegalArgumentException("Report range cannot exceed " + MAX_RANGE_MONTHS + " months");
+        }
+
+        // one pass covering the range plus the prior year for YoY deltas: a scan of the cached
+        // columns when the user's spend is in memory, else one grouped query
+        Map<YearMonth, Map<String, BigDecimal>> spend = new HashMap<>();
+        Map<String, BigDecimal> budgets = new HashMap<>();
+        boolean cached = spendCache.scan(email, userId, columns -> {
+            columns.forEachMonth(from.minusMonths(12), to,
+                    (month, category, cents) -> add(spend, month, category, BigDecimal.valueOf(cents, 2)));
+            columns.forEachBudget(from, to, budgets::put);
+            return true;
+        }).isPresent();
+
+        if (!cached) {
+            spend.putAll(loadSpend(userId, from.minusMonths(12), to));
+            List<Budget> budgetRows = userId == null ? List.of()
+                    : budgetRepo.findByUserIdAndMonthBetween(userId, from.toString(), to.toString());
+            for (Budget b : budgetRows) {
+                budgets.put(b.getMonth(), b.getMonthlyBudget());
+            }
+        }
+
+        List<Map<String, Object>> series = new ArrayList<>();
+        Map<String, BigDecimal> categoryTotals = new TreeMap<>();
+        BigDecimal totalSpent = BigDecimal.ZERO;
+        BigDecimal totalBudget = BigDecimal.ZERO;
+
+        for (YearMonth ym = from; !ym.isAfter(to); ym = ym.plusMonths(1)) {
+            Map<String, BigDecimal> categories = spend.getOrDefault(ym, Map.of());
+            BigDecimal spent = sum(categories);
+            BigDecimal budget = budgets.getOrDefault(ym.toString(), BigDecimal.ZERO);
+            BigDecimal previousYear = sum(spend.getOrDefault(ym.minusMonths(12), Map.of()));
+
+            Map<String, Object> month = new LinkedHashMap<>();
+            month.put("month", ym.toString());
+            month.put("monthlyBudget", budget);
+            month.put("totalSpent", spent);
+            month.put("availableBudget", budget.subtract(spent));
+            month.put("categories", new TreeMap<>(categories));
+            month.put("previousYearSpent", previousYear);
+            month.put("yoyChange", spent.subtract(previousYear));
+            month.put("yoyChangePercent", percentChange(previousYear, spent));
+            series.add(month);
+
+            categories.forEach((c, amount) -> categoryTotals.merge(c, amount, BigDecimal::add));
+            totalSpent = totalSpent.add(spent);
+            totalBudget = totalBudget.add(budget);
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("monthlyBudget", totalBudget);
+        totals.put("totalSpent", totalSpent);
+        totals.put("availableBudget", totalBudget.subtract(totalSpent));
+        totals.put("categories", categoryTotals);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("from", from.toString());
+        report.put("to", to.toString());
+        report.put("months", series);
+        report.put("totals", totals);
+        return report;
+    }
+
+    private Map<YearMonth, Map<String, BigDecimal>> loadSpend(Long userId, YearMonth from, YearMonth to) {
+        Map<YearMonth, Map<String, BigDecimal>> spend = new HashMap<>();
+
+        List<YearMonth[]> ranges = partitions(from, to);
+        if (ranges.size() == 1) {
+            collect(spend, queryPartition(userId, from, to));
+            return spend;
+        }
+
+        List<CompletableFuture<List<Object[]>>> partitions = new ArrayList<>();
+        for (YearMonth[] range : ranges) {
+            partitions.add(CompletableFuture.supplyAsync(
+                    () -> queryPartition(userId, range[0], range[1]), reportExecutor));
+        }
+        for (CompletableFuture<List<Object[]>> partition : partitions) {
+            collect(spend, partition.join());
+        }
+        return spend;
+    }
+
+    // inclusive [start, end] month ranges covering from..to; a single range up to the threshold
+    static List<YearMonth[]> partitions(YearMonth from, YearMonth to) {
+        long months = from.until(to, ChronoUnit.MONTHS) + 1;
+        if (months <= PARALLEL_THRESHOLD_MONTHS) {
+            List<YearMonth[]> single = new ArrayList<>();
+            single.add(new YearMonth[] { from, to });
+            return single;
+        }
+        List<YearMonth[]> ranges = new ArrayList<>();
+        for (YearMonth start = from; !start.isAfter(to); start = start.plusMonths(PARTITION_MONTHS)) {
+            YearMonth end = start.plusMonths(PARTITION_MONTHS - 1);
+            ranges.add(new YearMonth[] { start, end.isAfter(to) ? to : end });
+        }
+        return ranges;
+    }
+
+    private List<Object[]> queryPartition(Long userId, YearMonth from, YearMonth to) {
+        if (userId == null) {
+            return List.of();
+        }
+        return expensesRepo.sumByMonthAndCategory(userId, from.atDay(1), to.atEndOfMonth());
+    }
+
+    private void collect(Map<YearMonth, Map<String, BigDecimal>> spend, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            YearMonth ym = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            BigDecimal amount = row[3] == null ? BigDecimal.ZERO : (BigDecimal) row[3];
+            add(spend, ym, (String) row[2], amount);
+        }
+    }
+
+    private static void add(Map<YearMonth, Map<String, BigDecimal>> spend, YearMonth month, String category,
+                            BigDecimal amount) {
+        spend.computeIfAbsent(month, k -> new HashMap<>())
+                .merge(category == null ? UNCATEGORIZED : category, amount, BigDecimal::add);
+    }
+
+    private static BigDecimal sum(Map<String, BigDecimal> categories) {
+        return categories.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static BigDecimal percentChange(BigDecimal previous, BigDecimal current) {
+        if (previous.signum() == 0) {
+            return null;
+        }
+        return current.subtract(previous)
+                .multiply(BigDecimal.valueOf(100))
+                .divide(previous, 2, RoundingMode.HALF_UP);
+    }
+
+    private static YearMonth parseMonth(String month) {
+        if (month == null) {
+            throw new IllegalArgumentException("Month is required");
+        }
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid month, expected YYYY-MM: " + month);
+        }
+    }
+}
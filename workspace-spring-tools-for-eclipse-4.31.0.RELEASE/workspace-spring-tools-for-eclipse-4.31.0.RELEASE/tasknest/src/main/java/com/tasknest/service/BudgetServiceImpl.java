@@ -4,10 +4,14 @@ import com.tasknest.entity.Budget;
 import com.tasknest.entity.Expenses;
 import com.tasknest.repository.BudgetRepository;
 import com.tasknest.repository.ExpensesRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.*;
@@ -17,81 +21,118 @@ public class BudgetServiceImpl implements BudgetService {
 
     private final BudgetRepository budgetRepo;
     private final ExpensesRepository expensesRepo;
-
-    public BudgetServiceImpl(BudgetRepository b, ExpensesRepository e) {
+    private final ShardTemplate shards;
+    private final UserIds userIds;
+    private final ApplicationEventPublisher events;
+    private final ReadCoalescing coalescing;
+    private final SpendCache spendCache;
+    private final TransactionTemplate newTransaction;
+
+    // concurrent first loads of the same user/month share one insert
+    private final SingleFlight<String, Budget> budgetCreation = new SingleFlight<>();
+
+    public BudgetServiceImpl(BudgetRepository b, ExpensesRepository e, ShardTemplate shards,
+                             UserIds userIds, ApplicationEventPublisher events, ReadCoalescing coalescing,
+                             SpendCache spendCache, PlatformTransactionManager transactionManager) {
         this.budgetRepo = b;
         this.expensesRepo = e;
+        this.shards = shards;
+        this.userIds = userIds;
+        this.events = events;
+        this.coalescing = coalescing;
+        this.spendCache = spendCache;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Override
+    @Transactional
     public Budget getOrCreateMonthlyBudget(String email, String month) {
-        return budgetRepo.findByUserEmailAndMonth(email, month)
-                .orElseGet(() -> {
-                    Budget b = new Budget();
-                    b.setUserEmail(email);
-                    b.setMonth(month);
-                    b.setFundsAmount(BigDecimal.ZERO);
-                    b.setMonthlyBudget(BigDecimal.ZERO);
-                    b.setUpdateDate(LocalDate.now());
-                    return budgetRepo.save(b);
-                });
+        Long userId = userIds.requireIdOf(email);
+        return shards.write(email, () -> budgetRepo.findByUserIdAndMonth(userId, month)
+                .orElseGet(() -> copyOf(budgetCreation.execute(userId + "|" + month,
+                        () -> newTransaction.execute(status -> create(userId, email, month))))));
+    }
+
+    // In a transaction of its own: a re-read on the caller's REPEATABLE READ snapshot would miss a row
+    // another node committed since, and the requests waiting on budgetCreation must get a committed row
+    private Budget create(Long userId, String email, String month) {
+        // no-op if a parallel request (or another node) already inserted it
+        int inserted = budgetRepo.insertIfAbsent(userId, email, month, LocalDate.now());
+        Budget budget = budgetRepo.findByUserIdAndMonth(userId, month)
+                .orElseThrow(() -> new RuntimeException("Budget not found"));
+        if (inserted > 0) {
+            events.publishEvent(ChangeEvent.created(email, ChangeEvent.BUDGETS, budget.getBudgetID(), budget));
+        }
+        return budget;
     }
 
     @Override
+    @Transactional
     public Budget addFunds(Long id, BigDecimal amount) {
-        Budget b = budgetRepo.findById(id)
+        Budget owner = shards.locate(() -> budgetRepo.findById(id))
                 .orElseThrow(() -> new RuntimeException("Budget not found"));
-
-        BigDecimal updated = b.getFundsAmount().add(amount);
-        b.setFundsAmount(updated);
-        b.setMonthlyBudget(updated); // derived
-        b.setUpdateDate(LocalDate.now());
-        return budgetRepo.save(b);
+        RequestUser.checkOwns(owner.getUserEmail());
+
+        return shards.write(owner.getUserEmail(), () -> {
+            Budget b = budgetRepo.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Budget not found"));
+
+            BigDecimal updated = b.getFundsAmount().add(amount);
+            b.setFundsAmount(updated);
+            b.setMonthlyBudget(updated); // derived
+            b.setUpdateDate(LocalDate.now());
+            Budget saved = budgetRepo.save(b);
+            events.publishEvent(ChangeEvent.updated(saved.getUserEmail(), ChangeEvent.BUDGETS, id, saved));
+            return saved;
+        });
     }
 
+    // Pure read (replica-safe): a month without a budget row reports a zero budget instead of creating one.
+    // Parallel identical calls (several tabs, dashboard widgets) share one computation.
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getMonthlyStats(String email, String month) {
+        return coalescing.budgetStats().get(ReadCoalescing.userKey(email, month), () -> {
+            Long userId = userIds.idOf(email);
+            return shards.read(email, () -> monthlyStats(email, userId, month));
+        });
+    }
+
+    // userId is null for an unknown user, who gets an all-zero month
+    private Map<String, Object> monthlyStats(String email, Long userId, String month) {
 
         YearMonth ym = YearMonth.parse(month);
         LocalDate start = ym.atDay(1);
         LocalDate end = ym.atEndOfMonth();
 
-        Budget budget = getOrCreateMonthlyBudget(email, month);
-        List<Expenses> expenses =
-                expensesRepo.findByUserEmailAndPurchaseDateBetween(email, start, end);
-
-        BigDecimal totalSpent = expenses.stream()
-                .map(Expenses::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // a scan of the cached columns when the user's spend is in memory
+        Optional<Map<String, Object>> cached = spendCache.scan(email, userId, columns -> columns.totals(start, end)
+                .toStats(Objects.requireNonNullElse(columns.budget(month), BigDecimal.ZERO)));
+        if (cached.isPresent()) {
+            return cached.get();
+        }
 
-        Map<String, BigDecimal> categoryTotals = new HashMap<>();
-        Map<LocalDate, BigDecimal> dailyTotals = new HashMap<>();
+        BigDecimal monthlyBudget = userId == null ? BigDecimal.ZERO : budgetRepo.findByUserIdAndMonth(userId, month)
+                .map(Budget::getMonthlyBudget)
+                .orElse(BigDecimal.ZERO);
+        List<Expenses> expenses = userId == null ? List.of() :
+                expensesRepo.findByUserIdAndPurchaseDateBetween(userId, start, end);
 
-        for (Expenses e : expenses) {
-            categoryTotals.merge(e.getCategory(), e.getAmount(), BigDecimal::add);
-            dailyTotals.merge(e.getPurchaseDate(), e.getAmount(), BigDecimal::add);
-        }
+        // summed in long cents; BigDecimal only for the returned numbers
+        return SpendTotals.monthlyStats(monthlyBudget, expenses, start, end);
+    }
 
-        String mostSpentCategory = categoryTotals.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse("N/A");
-
-        BigDecimal avgDaily =
-                dailyTotals.isEmpty()
-                        ? BigDecimal.ZERO
-                        : totalSpent.divide(
-                                BigDecimal.valueOf(dailyTotals.size()),
-                                2,
-                                RoundingMode.HALF_UP
-                        );
-
-        return Map.of(
-                "monthlyBudget", budget.getMonthlyBudget(),
-                "totalSpent", totalSpent,
-                "availableBudget", budget.getMonthlyBudget().subtract(totalSpent),
-                "mostSpentCategory", mostSpentCategory,
-                "avgDailySpent", avgDaily
-        );
+    // detached already, but every caller sharing a creation gets an instance of its own
+    private static Budget copyOf(Budget budget) {
+        Budget copy = new Budget();
+        copy.setBudgetID(budget.getBudgetID());
+        copy.setMonthlyBudget(budget.getMonthlyBudget());
+        copy.setFundsAmount(budget.getFundsAmount());
+        copy.setMonth(budget.getMonth());
+        copy.setUserEmail(budget.getUserEmail());
+        copy.setUserId(budget.getUserId());
+        copy.setUpdateDate(budget.getUpdateDate());
+        return copy;
     }
 }
@@ -0,0 +1,41 @@
+package com.tasknest.service;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Pushes each ChangeEvent to /topic/users/{email}/changes once the write has committed
+@Component
+public class ChangeBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public ChangeBroadcaster(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (event.userEmail() == null) {
+            return;
+        }
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("collection", event.collection());
+        delta.put("action", event.action());
+        delta.put("id", event.id());
+        delta.put("data", event.data());
+        delta.put("timestamp", LocalDateTime.now());
+
+        messagingTemplate.convertAndSend(userTopic(event.userEmail(), "changes"), delta);
+    }
+
+    static String userTopic(String email, String feed) {
+        return "/topic/users/" + email.trim().toLowerCase(Locale.ROOT) + "/" + feed;
+    }
+}
@@ -0,0 +1,30 @@
+package com.tasknest.service;
+
+/**
+ * A change to one user's data, published by the services after a write.
+ * action is created, updated, deleted, or refresh when several rows
+ * changed at once and clients should refetch the collection.
+ */
+public record ChangeEvent(String userEmail, String collection, String action, Object id, Object data) {
+
+    public static final String TASKS = "tasks";
+    public static final String EXPENSES = "expenses";
+    public static final String BUDGETS = "budgets";
+    public static final String MOODS = "moods";
+
+    public static ChangeEvent created(String userEmail, String collection, Object id, Object data) {
+        return new ChangeEvent(userEmail, collection, "created", id, data);
+    }
+
+    public static ChangeEvent updated(String userEmail, String collection, Object id, Object data) {
+        return new ChangeEvent(userEmail, collection, "updated", id, data);
+    }
+
+    public static ChangeEvent deleted(String userEmail, String collection, Object id) {
+        return new ChangeEvent(userEmail, collection, "deleted", id, null);
+    }
+
+    public static ChangeEvent refresh(String userEmail, String collection) {
+        return new ChangeEvent(userEmail, collection, "refresh", null, null);
+    }
+}
@@ -0,0 +1,94 @@
+package com.tasknest.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * {@link SingleFlight} plus an optional micro-cache: identical concurrent
+ * reads share one computation, and with a ttl above zero its result is also
+ * served to identical reads for that long. Values are shared between callers
+ * and must not be modified.
+ *
+ * {@link #invalidate} drops matching cached results and makes sure nothing
+ * computed before it is cached or joined afterwards, so a caller reading right
+ * after its own write never gets the pre-write answer.
+ */
+public class CoalescingCache<K, V> {
+
+    private record Flight<K>(K key, long generation) {}
+
+    private record Cached<V>(V value, long storedAt) {}
+
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final SingleFlight<Flight<K>, V> flights = new SingleFlight<>();
+    private final ConcurrentHashMap<K, Cached<V>> cache = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+
+    public CoalescingCache(long ttlMillis) {
+        this(ttlMillis, System::currentTimeMillis);
+    }
+
+    CoalescingCache(long ttlMillis, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    public V get(K key, Supplier<V> supplier) {
+        calls.increment();
+        if (ttlMillis > 0) {
+            Cached<V> cached = cache.get(key);
+            if (cached != null && clock.getAsLong() - cached.storedAt() < ttlMillis) {
+                cacheHits.increment();
+                return cached.value();
+            }
+        }
+        long started = generation.get();
+        return flights.execute(new Flight<>(key, started), () -> {
+            executions.increment();
+            V value = supplier.get();
+            // an invalidate while this ran means the value may predate a write
+            if (ttlMillis > 0 && generation.get() == started) {
+                cache.put(key, new Cached<>(value, clock.getAsLong()));
+            }
+            return value;
+        });
+    }
+
+    public void invalidate(Predicate<K> keys) {
+        generation.incrementAndGet();
+        cache.keySet().removeIf(keys);
+    }
+
+    // drops cached results past their ttl; in-flight work is untouched
+    public void purge() {
+        long cutoff = clock.getAsLong() - ttlMillis;
+        cache.values().removeIf(cached -> cached.storedAt() <= cutoff);
+    }
+
+    /** Calls, executions, calls served without running the supplier, and that share as a ratio. */
+    public Map<String, Object> stats() {
+        long total = calls.sum();
+        long ran = executions.sum();
+        long hits = cacheHits.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", total);
+        stats.put("executions", ran);
+        stats.put("coalesced", Math.max(0, total - ran - hits));
+        stats.put("cacheHits", hits);
+        stats.put("savedRatio", total == 0 ? 0.0 : (double) (total - ran) / total);
+        stats.put("cached", cache.size());
+        stats.put("ttlMs", ttlMillis);
+        return stats;
+    }
+}
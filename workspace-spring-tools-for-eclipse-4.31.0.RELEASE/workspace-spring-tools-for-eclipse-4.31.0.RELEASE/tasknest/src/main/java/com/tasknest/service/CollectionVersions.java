@@ -0,0 +1,169 @@
+package com.tasknest.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user, per-collection versions behind the conditional GETs.
+ *
+ * A version is a counter in collection_versions that every write bumps in
+ * its own transaction: the services through their ChangeEvents (this
+ * listener runs synchronously, on the writer's connection), the recurrence
+ * scheduler through its refresh events, and the bulk jobs that change what
+ * a list returns (user id backfill, partition archiving) directly. Nothing
+ * depends on clocks, so an update on a node whose clock lags still moves
+ * the tag. The counter moves with the user's rows to another shard.
+ *
+ * Tags are served from memory: a committed ChangeEvent drops the user's
+ * entry on this node, and entries are reloaded after the ttl, which bounds
+ * how long a write on another node can go unseen. The tag carries the
+ * users.id, so a new account under a deleted one's email starts over
+ * instead of matching its old tags.
+ */
+@Component
+public class CollectionVersions {
+
+    static final List<String> COLLECTIONS = List.of(ChangeEvent.TASKS, ChangeEvent.EXPENSES, ChangeEvent.MOODS);
+
+    private static final String BUMP = "INSERT INTO collection_versions (user_id, user_email, collection, version) "
+            + "VALUES (?, ?, ?, 1) ON DUPLICATE KEY UPDATE version = version + 1";
+
+    private static final Map<String, String> TABLES = Map.of(
+            "tasks", ChangeEvent.TASKS,
+            "expenses", ChangeEvent.EXPENSES,
+            "mood_track", ChangeEvent.MOODS);
+
+    private record Cached(long userId, long version, long loadedAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardTemplate shards;
+    private final UserIds userIds;
+    private final long ttlMillis;
+    private final ConcurrentMap<String, Cached> cache = new ConcurrentHashMap<>();
+    // bumped by every invalidation, so a load that raced one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public CollectionVersions(JdbcTemplate jdbcTemplate, ShardTemplate shards, UserIds userIds,
+                              @Value("${tasknest.versions.ttl:${tasknest.coalescing.user-ttl:1s}}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = shards;
+        this.userIds = userIds;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /** The collection's version read from the user's shard, bypassing memory; 0 before its first write. */
+    public long current(String email, String collection) {
+        requireKnown(collection);
+        Long userId = userIds.idOf(email);
+        return userId == null ? 0 : load(email, userId, collection);
+    }
+
+    public String etag(String email, String collection) {
+        requireKnown(collection);
+        Long userId = userIds.idOf(email);
+        if (userId == null) {
+            return etag(0, 0);
+        }
+        String key = key(email, collection);
+        long now = System.currentTimeMillis();
+        Cached cached = cache.get(key);
+        if (cached == null || cached.userId() != userId || now - cached.loadedAt() >= ttlMillis) {
+            long started = generation.get();
+            cached = new Cached(userId, load(email, userId, collection), now);
+            if (generation.get() == started) {
+                cache.put(key, cached);
+            }
+        }
+        return etag(userId, cached.version());
+    }
+
+    // weak: Tomcat drops strong tags from responses it gzips, and the same list in another encoding still matches
+    static String etag(long userId, long version) {
+        return "W/\"" + Long.toString(userId, 36) + "-" + Long.toString(version, 36) + "\"";
+    }
+
+    /**
+     * Sets the ETag on the response and returns true when the request's
+     * If-None-Match still matches, in which case the status is already 304
+     * and the caller should return without reading the list. No
+     * Last-Modified: a delete changes the list without a newer timestamp.
+     */
+    public boolean checkNotModified(ServletWebRequest request, String email, String collection) {
+        String etag = etag(email, collection);
+        // revalidate on every use instead of letting browsers guess a freshness lifetime
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader("Cache-Control", "private, no-cache");
+        }
+        return request.checkNotModified(etag);
+    }
+
+    // In the writer's thread and transaction, so the bump commits or rolls back with the write
+    @EventListener
+    public void onWrite(ChangeEvent event) {
+        if (event.userEmail() == null || !COLLECTIONS.contains(event.collection())) {
+            return;
+        }
+        Long userId = userIds.idOf(event.userEmail());
+        if (userId != null) {
+            shards.read(event.userEmail(), () -> jdbcTemplate.update(BUMP, userId, event.userEmail(), event.collection()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (event.userEmail() != null && COLLECTIONS.contains(event.collection())) {
+            generation.incrementAndGet();
+            cache.remove(key(event.userEmail(), event.collection()));
+        }
+    }
+
+    /** Bumps a user's version of the collection {@code table} holds, on the current shard and transaction. */
+    static void bump(JdbcTemplate jdbc, String table, long userId, String email) {
+        if (TABLES.containsKey(table)) {
+            jdbc.update(BUMP, userId, email, TABLES.get(table));
+        }
+    }
+
+    /**
+     * Bumps the version of every user with a row in {@code rows} (a table or
+     * partition holding {@code table}'s rows), for bulk moves that publish
+     * no events.
+     */
+    static void bumpOwners(JdbcTemplate jdbc, String table, String rows) {
+        if (!TABLES.containsKey(table)) {
+            return;
+        }
+        jdbc.update("INSERT INTO collection_versions (user_id, user_email, collection, version) "
+                + "SELECT user_id, MIN(user_email), ?, 1 FROM " + rows + " WHERE user_id IS NOT NULL GROUP BY user_id "
+                + "ON DUPLICATE KEY UPDATE version = version + 1", TABLES.get(table));
+    }
+
+    private long load(String email, long userId, String collection) {
+        List<Long> version = shards.read(email, () -> jdbcTemplate.queryForList(
+                "SELECT version FROM collection_versions WHERE user_id = ? AND collection = ?",
+                Long.class, userId, collection));
+        return version.isEmpty() ? 0 : version.get(0);
+    }
+
+    private static void requireKnown(String collection) {
+        if (!COLLECTIONS.contains(collection)) {
+            throw new IllegalArgumentException("No versions for " + collection);
+        }
+    }
+
+    private static String key(String email, String collection) {
+        return ShardRouter.key(email) + "|" + collection;
+    }
+}
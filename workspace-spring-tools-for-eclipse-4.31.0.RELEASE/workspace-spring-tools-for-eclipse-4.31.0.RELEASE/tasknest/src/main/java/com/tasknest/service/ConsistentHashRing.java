@@ -0,0 +1,49 @@
+package com.tasknest.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring over shard numbers. Each shard gets {@code weight}
+ * virtual nodes; a key belongs to the first node clockwise from its hash.
+ * Adding a shard only takes over the keys that land just before its own
+ * nodes (about 1/N of them), so a rebalance moves few users.
+ */
+public final class ConsistentHashRing {
+
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Map<Integer, Integer> weights) {
+        for (Map.Entry<Integer, Integer> shard : weights.entrySet()) {
+            for (int v = 0; v < shard.getValue(); v++) {
+                ring.put(hash("shard-" + shard.getKey() + "#" + v), shard.getKey());
+            }
+        }
+        if (ring.isEmpty()) {
+            throw new RuntimeException("Hash ring needs at least one shard with a positive weight");
+        }
+    }
+
+    public int shardOf(String key) {
+        SortedMap<Long, Integer> tail = ring.tailMap(hash(key));
+        return tail.isEmpty() ? ring.firstEntry().getValue() : tail.get(tail.firstKey());
+    }
+
+    // first 8 bytes of MD5: well spread, and stable across JVMs unlike String.hashCode
+    static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long h = 0;
+            for (int i = 0; i < 8; i++) {
+                h = (h << 8) | (digest[i] & 0xff);
+            }
+            return h;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
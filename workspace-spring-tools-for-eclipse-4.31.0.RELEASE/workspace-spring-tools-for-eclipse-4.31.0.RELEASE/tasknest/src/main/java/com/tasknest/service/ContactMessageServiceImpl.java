@@ -19,6 +19,9 @@ public class ContactMessageServiceImpl implements ContactMessageService {
     
     @Autowired
     private ContactMessageRepository contactMessageRepository;
+
+    @Autowired
+    private ReadCoalescing coalescing;
     
     @Override
     public ContactMessage saveContactMessage(ContactMessage contactMessage, HttpServletRequest request) {
@@ -38,21 +41,26 @@ public class ContactMessageServiceImpl implements ContactMessageService {
         contactMessage.setCreatedAt(LocalDateTime.now());
         
         // Save to database
-        return contactMessageRepository.save(contactMessage);
+        ContactMessage saved = contactMessageRepository.save(contactMessage);
+        coalescing.contactMessagesChanged();
+        return saved;
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<ContactMessage> getAllContactMessages() {
         return contactMessageRepository.findAllByOrderByCreatedAtDesc();
     }
     
     @Override
+    @Transactional(readOnly = true)
     public ContactMessage getContactMessageById(Long id) {
         return contactMessageRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Contact message not found with id: " + id));
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<ContactMessage> getContactMessagesByEmail(String email) {
         return contactMessageRepository.findByEmailOrderByCreatedAtDesc(email);
     }
@@ -69,17 +77,26 @@ public class ContactMessageServiceImpl implements ContactMessageService {
             message.setResponded(isResponded);
         }
         
-        return contactMessageRepository.save(message);
+        ContactMessage saved = contactMessageRepository.save(message);
+        coalescing.contactMessagesChanged();
+        return saved;
     }
     
     @Override
     public void deleteContactMessage(Long id) {
         ContactMessage message = getContactMessageById(id);
         contactMessageRepository.delete(message);
+        coalescing.contactMessagesChanged();
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Map<String, Object> getMessageStatistics() {
+        // several admin widgets ask at once; they share one set of queries
+        return coalescing.contactStats().get("all", this::messageStatistics);
+    }
+
+    private Map<String, Object> messageStatistics() {
         Map<String, Object> stats = new HashMap<>();
         
         // Total messages
@@ -107,8 +124,9 @@ public class ContactMessageServiceImpl implements ContactMessageService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Long getUnreadMessageCount() {
-        return contactMessageRepository.countByIsReadFalse();
+        return coalescing.unreadMessages().get("all", contactMessageRepository::countByIsReadFalse);
     }
     
     @Override
@@ -0,0 +1,10 @@
+package com.tasknest.service;
+
+import java.util.Map;
+
+public interface DashboardService {
+
+    // Open tasks, this month's budget stats, recent expenses and today's mood in one payload;
+    // sections that fail or run past their timeout come back null and are listed under "unavailable"
+    Map<String, Object> getDashboard(String email);
+}
@@ -0,0 +1,177 @@
+package com.tasknest.service;
+
+import com.tasknest.entity.Expenses;
+import com.tasknest.entity.MoodTrack;
+import com.tasknest.entity.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The home screen in one call. Each section is an existing service read,
+ * run side by side on dashboardExecutor; all of them share one deadline
+ * (tasknest.dashboard.timeout), and a section that misses it, fails or finds
+ * the pool full is left out instead of failing the whole dashboard.
+ */
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardServiceImpl.class);
+
+    static final int UPCOMING_TASKS = 10;
+    static final int RECENT_EXPENSES = 10;
+    static final int RECENT_DAYS = 30;
+
+    private final TaskService tasks;
+    private final BudgetService budgets;
+    private final ExpensesService expenses;
+    private final MoodTrackService moods;
+    private final AsyncTaskExecutor executor;
+    private final long timeoutMillis;
+
+    public DashboardServiceImpl(TaskService tasks, BudgetService budgets, ExpensesService expenses,
+                                MoodTrackService moods,
+                                @Qualifier("dashboardExecutor") AsyncTaskExecutor executor,
+                                @Value("${tasknest.dashboard.timeout:2s}") Duration timeout) {
+        this.tasks = tasks;
+        this.budgets = budgets;
+        this.expenses = expenses;
+        this.moods = moods;
+        this.executor = executor;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    @Override
+    public Map<String, Object> getDashboard(String email) {
+        LocalDate today = LocalDate.now();
+
+        Map<String, Callable<Object>> sections = new LinkedHashMap<>();
+        sections.put("tasks", () -> summarizeTasks(tasks.getTasksForUser(email), today));
+        sections.put("budget", () -> budgets.getMonthlyStats(email, YearMonth.from(today).toString()));
+        sections.put("recentExpenses", () -> recentExpenses(
+                expenses.getExpensesForMonth(email, today.minusDays(RECENT_DAYS), today)));
+        sections.put("mood", () -> moods.getMoodByDay(email, today).map(DashboardServiceImpl::mood).orElse(null));
+
+        Map<String, Future<Object>> running = new LinkedHashMap<>();
+        Map<String, String> unavailable = new LinkedHashMap<>();
+        sections.forEach((name, section) -> {
+            try {
+                running.put(name, executor.submit(section));
+            } catch (TaskRejectedException e) {
+                unavailable.put(name, "busy");
+            }
+        });
+
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        dashboard.put("email", email);
+        dashboard.put("date", today.toString());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (String name : sections.keySet()) {
+            Future<Object> future = running.get(name);
+            Object value = null;
+            if (future != null) {
+                try {
+                    value = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    // not interrupted: that would break the JDBC connection it holds
+                    future.cancel(false);
+                    unavailable.put(name, "timeout");
+                } catch (ExecutionException e) {
+                    log.warn("Dashboard section {} failed for {}", name, email, e.getCause());
+                    unavailable.put(name, "error");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    unavailable.put(name, "interrupted");
+                }
+            }
+            dashboard.put(name, value);
+        }
+        dashboard.put("unavailable", unavailable);
+        return dashboard;
+    }
+
+    // counts plus the open tasks due soonest (undated ones last)
+    static Map<String, Object> summarizeTasks(List<Task> all, LocalDate today) {
+        int open = 0;
+        int overdue = 0;
+        int dueToday = 0;
+        List<Task> pending = new ArrayList<>();
+        for (Task task : all) {
+            if (task.isCompleted()) {
+                continue;
+            }
+            open++;
+            LocalDate due = task.getDueDate();
+            if (due != null && due.isBefore(today)) {
+                overdue++;
+            } else if (today.equals(due)) {
+                dueToday++;
+            }
+            pending.add(task);
+        }
+        pending.sort(Comparator.comparing(Task::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Task::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        List<Map<String, Object>> upcoming = new ArrayList<>();
+        for (Task task : pending.subList(0, Math.min(UPCOMING_TASKS, pending.size()))) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", task.getId());
+            item.put("title", task.getTitle());
+            item.put("priority", task.getPriority());
+            item.put("dueDate", task.getDueDate());
+            upcoming.add(item);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("total", all.size());
+        summary.put("open", open);
+        summary.put("overdue", overdue);
+        summary.put("dueToday", dueToday);
+        summary.put("upcoming", upcoming);
+        return summary;
+    }
+
+    // newest first
+    static List<Map<String, Object>> recentExpenses(List<Expenses> rows) {
+        return rows.stream()
+                .sorted(Comparator.comparing(Expenses::getPurchaseDate, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Expenses::getExpenseId, Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(RECENT_EXPENSES)
+                .map(e -> {
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("id", e.getExpenseId());
+                    item.put("amount", e.getAmount());
+                    item.put("category", e.getCategory());
+                    item.put("description", e.getDescription());
+                    item.put("purchaseDate", e.getPurchaseDate());
+                    return item;
+                })
+                .toList();
+    }
+
+    private static Map<String, Object> mood(MoodTrack entry) {
+        Map<String, Object> mood = new LinkedHashMap<>();
+        mood.put("id", entry.getId());
+        mood.put("mood", entry.getMood());
+        mood.put("score", entry.getScore());
+        return mood;
+    }
+}
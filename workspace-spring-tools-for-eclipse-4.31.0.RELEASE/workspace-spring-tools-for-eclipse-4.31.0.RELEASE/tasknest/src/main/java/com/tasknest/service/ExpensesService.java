@@ -7,6 +7,7 @@ import java.util.Optional;
 import com.tasknest.entity.Expenses;
 
 public interface ExpensesService {
+    // fails with "User not found" when userEmail has no account (or the account is being deleted)
     Expenses createExpense(Expenses expense);
     List<Expenses> getAllExpenses();
     Optional<Expenses> getExpenseById(Long id);
@@ -1,69 +1,182 @@
 package com.tasknest.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.tasknest.entity.Expenses;
+import com.tasknest.entity.Tombstone;
 import com.tasknest.repository.ExpensesRepository;
+import com.tasknest.repository.TombstoneRepository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class ExpensesServiceImpl implements ExpensesService {
 
     private final ExpensesRepository expensesRepository;
+    private final TombstoneRepository tombstones;
+    private final ShardTemplate shards;
+    private final ShardRouter router;
+    private final UserIds userIds;
+    private final ApplicationEventPublisher events;
 
     @Autowired
-    public ExpensesServiceImpl(ExpensesRepository expenseRepository) {
+    public ExpensesServiceImpl(ExpensesRepository expenseRepository, TombstoneRepository tombstones,
+                               ShardTemplate shards, ShardRouter router, UserIds userIds,
+                               ApplicationEventPublisher events) {
         this.expensesRepository = expenseRepository;
+        this.tombstones = tombstones;
+        this.shards = shards;
+        this.router = router;
+        this.userIds = userIds;
+        this.events = events;
     }
 
     @Override
+    @Transactional
     public Expenses createExpense(Expenses expense) {
+        RequestUser.checkOwns(expense.getUserEmail());
         // ensure id is null so DB will generate it
         expense.setExpenseId(null);
-        return expensesRepository.save(expense);
+        expense.setRecurrenceSourceId(null);
+        expense.setRecurrenceGeneratedUntil(null);
+        if (expense.getPurchaseDate() == null) {
+            expense.setPurchaseDate(LocalDate.now()); // the partition key, never null
+        }
+        validateRecurrence(expense);
+        expense.setUserId(userIds.requireIdOf(expense.getUserEmail()));
+        Expenses saved = shards.write(expense.getUserEmail(), () -> expensesRepository.save(expense));
+        events.publishEvent(ChangeEvent.created(saved.getUserEmail(), ChangeEvent.EXPENSES, saved.getExpenseId(), saved));
+        return saved;
     }
 
+    // admin view across all users: one query per shard; a token-authenticated caller only sees their own
     @Override
     public List<Expenses> getAllExpenses() {
-        return expensesRepository.findAll();
+        if (RequestUser.isAuthenticated()) {
+            return getExpensesByUserEmail(RequestUser.current());
+        }
+        return shards.scatter(expensesRepository::findAll);
     }
 
     @Override
     public Optional<Expenses> getExpenseById(Long id) {
-        return expensesRepository.findById(id);
+        Optional<Expenses> expense = shards.locate(() -> expensesRepository.findById(id));
+        expense.ifPresent(e -> RequestUser.checkOwns(e.getUserEmail()));
+        return expense;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Expenses> getExpensesByUserEmail(String userEmail) {
-        // uses the derived query added to the repository
-        return expensesRepository.findByUserEmail(userEmail);
+        Long userId = userIds.idOf(userEmail);
+        if (userId == null) {
+            return List.of();
+        }
+        return shards.read(userEmail, () -> expensesRepository.findByUserId(userId));
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<Expenses> getExpensesForMonth(String email, LocalDate start, LocalDate end) {
-        return expensesRepository.findByUserEmailAndPurchaseDateBetween(email, start, end);
+        Long userId = userIds.idOf(email);
+        if (userId == null) {
+            return List.of();
+        }
+        return shards.read(email, () -> expensesRepository.findByUserIdAndPurchaseDateBetween(userId, start, end));
     }
 
     @Override
+    @Transactional
     public Expenses updateExpense(Long id, Expenses expense) {
-        return expensesRepository.findById(id).map(existing -> {
+        Expenses owner = shards.locate(() -> expensesRepository.findById(id))
+                .orElseThrow(() -> new RuntimeException("Expense not found with id " + id));
+        RequestUser.checkOwns(owner.getUserEmail());
+        if (expense.getUserEmail() != null) {
+            // handing an expense to another user is an admin edit, not something a user's token allows
+            RequestUser.checkOwns(expense.getUserEmail());
+        }
+        if (expense.getUserEmail() != null && router.placementOf(expense.getUserEmail()).shard()
+                != router.placementOf(owner.getUserEmail()).shard()) {
+            throw new RuntimeException("Cannot move an expense to a user stored on another shard");
+        }
+        Long newOwnerId = expense.getUserEmail() == null ? null : userIds.requireIdOf(expense.getUserEmail());
+        return shards.write(owner.getUserEmail(), () -> expensesRepository.findById(id).map(existing -> {
+            String previousOwner = existing.getUserEmail();
+            Long previousOwnerId = existing.getUserId();
+            LocalDate previousAnchor = existing.getPurchaseDate();
             existing.setDescription(expense.getDescription());
-            existing.setPurchaseDate(expense.getPurchaseDate());
+            if (expense.getPurchaseDate() != null) {
+                existing.setPurchaseDate(expense.getPurchaseDate());
+            }
             existing.setAmount(expense.getAmount());
             existing.setCategory(expense.getCategory());
             // paymentMethod removed from Expense entity — do not set it here
             existing.setUserEmail(expense.getUserEmail());
-            return expensesRepository.save(existing);
-        }).orElseThrow(() -> new RuntimeException("Expense not found with id " + id));
+            existing.setUserId(newOwnerId);
+            if (!Objects.equals(existing.getRecurrenceRule(), expense.getRecurrenceRule())
+                    || existing.getRecurrenceRule() != null && !Objects.equals(previousAnchor, existing.getPurchaseDate())) {
+                // regenerate the future of the series under the new rule or anchor; past instances stay as they were
+                existing.setRecurrenceRule(expense.getRecurrenceRule());
+                validateRecurrence(existing);
+                existing.setRecurrenceGeneratedUntil(RecurrenceRule.regenerateAfter(existing.getPurchaseDate(), LocalDate.now()));
+                deletePendingInstances(existing);
+            }
+            Expenses saved = expensesRepository.save(existing);
+            if (previousOwner != null && !previousOwner.equals(saved.getUserEmail())) {
+                // gone from the old owner's point of view
+                tombstones.save(new Tombstone(previousOwnerId, previousOwner, ChangeEvent.EXPENSES, id, LocalDateTime.now()));
+                events.publishEvent(ChangeEvent.deleted(previousOwner, ChangeEvent.EXPENSES, id));
+            }
+            events.publishEvent(ChangeEvent.updated(saved.getUserEmail(), ChangeEvent.EXPENSES, id, saved));
+            return saved;
+        }).orElseThrow(() -> new RuntimeException("Expense not found with id " + id)));
     }
 
     @Override
+    @Transactional
     public void deleteExpense(Long id) {
-        expensesRepository.deleteById(id);
+        Expenses owner = shards.locate(() -> expensesRepository.findById(id)).orElse(null);
+        if (owner == null) {
+            return;
+        }
+        RequestUser.checkOwns(owner.getUserEmail());
+        shards.write(owner.getUserEmail(), () -> {
+            Expenses existing = expensesRepository.findById(id).orElse(null);
+            if (existing == null) {
+                return;
+            }
+            deletePendingInstances(existing);
+            expensesRepository.deleteById(id);
+            tombstones.save(new Tombstone(existing.getUserId(), existing.getUserEmail(), ChangeEvent.EXPENSES, id, LocalDateTime.now()));
+            events.publishEvent(ChangeEvent.deleted(existing.getUserEmail(), ChangeEvent.EXPENSES, id));
+        });
+    }
+
+    // Tombstones first: the insert-select must see the same rows the delete removes
+    private void deletePendingInstances(Expenses template) {
+        LocalDate today = LocalDate.now();
+        tombstones.recordPendingExpenseInstances(template.getExpenseId(), today, LocalDateTime.now());
+        if (expensesRepository.deletePendingInstances(template.getExpenseId(), today) > 0) {
+            events.publishEvent(ChangeEvent.refresh(template.getUserEmail(), ChangeEvent.EXPENSES));
+        }
+    }
+
+    private void validateRecurrence(Expenses expense) {
+        if (expense.getRecurrenceRule() == null || expense.getRecurrenceRule().isBlank()) {
+            expense.setRecurrenceRule(null);
+            return;
+        }
+        if (expense.getPurchaseDate() == null) {
+            throw new RuntimeException("Recurring expenses need a purchase date");
+        }
+        RecurrenceRule.parse(expense.getRecurrenceRule());
     }
 }
 
@@ -0,0 +1,43 @@
+package com.tasknest.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Sends one digest mail per user per batch instead of one mail per task
+@Component
+@ConditionalOnProperty(name = "tasknest.reminders.mail.enabled", havingValue = "true")
+public class MailReminderSink implements ReminderSink {
+
+    private final JavaMailSender mailSender;
+
+    public MailReminderSink(JavaMailSender mailSender) {
+        this.mailSender = mailSender;
+    }
+
+    @Override
+    public List<TaskReminder> deliver(List<TaskReminder> batch) {
+        Map<String, StringBuilder> perUser = new LinkedHashMap<>();
+        for (TaskReminder reminder : batch) {
+            perUser.computeIfAbsent(reminder.userEmail(), k -> new StringBuilder())
+                    .append("- ").append(reminder.title())
+                    .append(" (due ").append(reminder.dueDate()).append(")\n");
+        }
+
+        SimpleMailMessage[] messages = perUser.entrySet().stream().map(e -> {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(e.getKey());
+            message.setSubject("TaskNest: tasks due soon");
+            message.setText("These tasks are due soon:\n\n" + e.getValue());
+            return message;
+        }).toArray(SimpleMailMessage[]::new);
+
+        mailSender.send(messages);
+        return List.of();
+    }
+}
@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Optional;
 
 public interface MoodTrackService {
+    // fails with "User not found" when userEmail has no account (or the account is being deleted)
     MoodTrack saveMoodEntry(MoodTrack moodTrack);
     List<MoodTrack> getMoodEntriesByUser(String userEmail);
     List<MoodTrack> getMoodHistory(String userEmail);
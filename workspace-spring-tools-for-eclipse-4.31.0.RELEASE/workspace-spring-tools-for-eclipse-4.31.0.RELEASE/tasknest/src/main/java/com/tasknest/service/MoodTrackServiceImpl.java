@@ -1,6 +1,8 @@
 package com.tasknest.service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.tasknest.entity.MoodTrack;
 import com.tasknest.repository.MoodTrackRepository;
 import com.tasknest.service.MoodTrackService;
@@ -13,32 +15,64 @@ import java.util.Optional;
 public class MoodTrackServiceImpl implements MoodTrackService {
 
     private final MoodTrackRepository moodTrackRepository;
+    private final ShardTemplate shards;
+    private final UserIds userIds;
+    private final ApplicationEventPublisher events;
 
-    public MoodTrackServiceImpl(MoodTrackRepository moodTrackRepository) {
+    public MoodTrackServiceImpl(MoodTrackRepository moodTrackRepository, ShardTemplate shards,
+                                UserIds userIds, ApplicationEventPublisher events) {
         this.moodTrackRepository = moodTrackRepository;
+        this.shards = shards;
+        this.userIds = userIds;
+        this.events = events;
     }
 
     @Override
+    @Transactional
     public MoodTrack saveMoodEntry(MoodTrack moodTrack) {
-        return moodTrackRepository.save(moodTrack);
+        boolean isNew = moodTrack.getId() == null;
+        RequestUser.checkOwns(moodTrack.getUserEmail());
+        if (!isNew) {
+            // an id in the body overwrites that row, so it has to be the caller's too
+            shards.locate(() -> moodTrackRepository.findById(moodTrack.getId()))
+                    .ifPresent(existing -> RequestUser.checkOwns(existing.getUserEmail()));
+        }
+        moodTrack.setUserId(userIds.requireIdOf(moodTrack.getUserEmail()));
+        MoodTrack saved = shards.write(moodTrack.getUserEmail(), () -> moodTrackRepository.save(moodTrack));
+        events.publishEvent(isNew
+                ? ChangeEvent.created(saved.getUserEmail(), ChangeEvent.MOODS, saved.getId(), saved)
+                : ChangeEvent.updated(saved.getUserEmail(), ChangeEvent.MOODS, saved.getId(), saved));
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MoodTrack> getMoodEntriesByUser(String userEmail) {
-        return moodTrackRepository.findByUserEmail(userEmail);
+        Long userId = userIds.idOf(userEmail);
+        if (userId == null) {
+            return List.of();
+        }
+        return shards.read(userEmail, () -> moodTrackRepository.findByUserId(userId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MoodTrack> getMoodHistory(String userEmail) {
-        return moodTrackRepository
-                .findByUserEmailOrderByTimestampDesc(
-                    userEmail.trim().toLowerCase()
-                );
+        Long userId = userIds.idOf(userEmail);
+        if (userId == null) {
+            return List.of();
+        }
+        return shards.read(userEmail, () -> moodTrackRepository.findByUserIdOrderByTimestampDesc(userId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<MoodTrack> getMoodByDay(String userEmail, LocalDate day) {
-        return moodTrackRepository.findByUserEmailAndDay(userEmail, day);
+        Long userId = userIds.idOf(userEmail);
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return shards.read(userEmail, () -> moodTrackRepository.findByUserIdAndDay(userId, day));
     }
     
 }
@@ -0,0 +1,13 @@
+package com.tasknest.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// An authenticated caller asked for another user's rows; answered with 403
+@ResponseStatus(HttpStatus.FORBIDDEN)
+public class NotOwnerException extends RuntimeException {
+
+    public NotOwnerException(String email) {
+        super("Token does not belong to " + email);
+    }
+}
@@ -0,0 +1,323 @@
+package com.tasknest.service;
+
+import com.tasknest.repository.SchedulerLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Looks after the monthly partitions of expenses and contact_messages (V11).
+ *
+ * Each month lives in a partition named pYYYYMM, with p_future catching
+ * anything later. A lease-holding node splits p_future so that
+ * {@code months-ahead} months always exist before rows arrive for them; once
+ * that has happened, a split only moves the few rows dated past the last
+ * month. The first split after the migration carves out the existing data.
+ *
+ * Retention, off by default: expense months older than
+ * {@code expenses.archive-after-months} move to compressed tables named
+ * expenses_archive_YYYYMM, and contact-message months older than
+ * {@code contact-messages.retention-months} are dropped or archived the same
+ * way. An archived partition is swapped with an empty table, so no rows are
+ * copied; rows the table must keep (recurring expense templates, which drive
+ * their series from their first date) and rows written meanwhile are moved in
+ * chunks instead. Archived rows are gone from the API. A write dated in an
+ * archived month lands in the oldest remaining month.
+ *
+ * The partitioning column is part of each primary key, and MySQL has no
+ * global indexes, so a lookup by id alone (findById on an expense) does one
+ * primary-key probe in every partition: months-ahead plus every month still
+ * in the table. A separate index on expense_id would be partitioned the same
+ * way and save nothing; keeping the partition count down with
+ * archive-after-months is what bounds it.
+ *
+ * Only MySQL is partitioned; elsewhere this does nothing.
+ */
+@Component
+public class PartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenance.class);
+
+    private static final String LEASE = "partition-maintenance";
+
+    static final String FUTURE = "p_future";
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    // the first split gives older rows a partition of their own only this far back
+    static final int MAX_HISTORY_MONTHS = 120;
+
+    // keep: rows that must stay in the live table, or null
+    private record Table(String name, String column, String pk, String keep) {}
+
+    private static final Table EXPENSES =
+            new Table("expenses", "purchase_date", "expense_id", "recurrence_rule IS NOT NULL");
+    private static final Table CONTACT_MESSAGES =
+            new Table("contact_messages", "created_at", "id", null);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardTemplate shards;
+    private final TransactionTemplate newTransaction;
+    private final SchedulerLeaseRepository leaseRepository;
+
+    private final String nodeId;
+    private final int monthsAhead;
+    private final int expenseArchiveMonths;
+    private final int contactRetentionMonths;
+    private final boolean archiveContactMessages;
+    private final int batchSize;
+    private final long leaseSeconds;
+
+    private volatile Boolean mySql;
+
+    public PartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                ShardTemplate shards,
+                                PlatformTransactionManager transactionManager,
+                                SchedulerLeaseRepository leaseRepository,
+                                @Value("${tasknest.scheduler.node-id:}") String nodeId,
+                                @Value("${tasknest.partitions.months-ahead:3}") int monthsAhead,
+                                @Value("${tasknest.partitions.expenses.archive-after-months:0}") int expenseArchiveMonths,
+                                @Value("${tasknest.partitions.contact-messages.retention-months:0}") int contactRetentionMonths,
+                                @Value("${tasknest.partitions.contact-messages.retention:drop}") String contactRetention,
+                                @Value("${tasknest.partitions.batch-size:1000}") int batchSize,
+                                @Value("${tasknest.partitions.lease-seconds:1800}") long leaseSeconds) {
+        if (!contactRetention.equals("drop") && !contactRetention.equals("archive")) {
+            throw new IllegalStateException("tasknest.partitions.contact-messages.retention must be drop or archive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = shards;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leaseRepository = leaseRepository;
+        this.nodeId = nodeId.isEmpty() ? UUID.randomUUID().toString() : nodeId;
+        this.monthsAhead = monthsAhead;
+        this.expenseArchiveMonths = expenseArchiveMonths;
+        this.contactRetentionMonths = contactRetentionMonths;
+        this.archiveContactMessages = contactRetention.equals("archive");
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    @Scheduled(initialDelayString = "${tasknest.partitions.initial-delay-ms:60000}",
+               fixedDelayString = "${tasknest.partitions.interval-ms:3600000}")
+    public void run() {
+        if (!isMySql()) {
+            return;
+        }
+        leaseRepository.createIfAbsent(LEASE);
+        LocalDateTime now = LocalDateTime.now();
+        if (leaseRepository.tryAcquire(LEASE, nodeId, now, now.plusSeconds(leaseSeconds)) == 0) {
+            return;
+        }
+        try {
+            shards.forEachShard(shard -> maintain(EXPENSES, shard, expenseArchiveMonths, true));
+            // global table, shard 0 only
+            shards.onShard(0, () -> {
+                maintain(CONTACT_MESSAGES, 0, contactRetentionMonths, archiveContactMessages);
+                return null;
+            });
+        } finally {
+            leaseRepository.release(LEASE, nodeId);
+        }
+    }
+
+    /** Archive tables of {@code table} on the current shard, oldest first. */
+    public List<String> archives(String table) {
+        if (!isMySql()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList("SELECT TABLE_NAME FROM information_schema.TABLES "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME LIKE ? ORDER BY TABLE_NAME",
+                String.class, table + "\\_archive\\_%");
+    }
+
+    private void maintain(Table table, int shard, int retentionMonths, boolean archive) {
+        try {
+            List<String> partitions = partitions(table.name());
+            if (partitions.isEmpty()) {
+                return; // not partitioned
+            }
+            YearMonth now = YearMonth.now();
+            split(table, shard, partitions, now.plusMonths(monthsAhead));
+            if (retentionMonths <= 0) {
+                return;
+            }
+            YearMonth cutoff = now.minusMonths(retentionMonths);
+            for (String partition : partitions(table.name())) {
+                YearMonth month = monthOf(partition);
+                if (month == null || !month.isBefore(cutoff)) {
+                    continue;
+                }
+                if (archive) {
+                    archive(table, shard, partition);
+                } else {
+                    jdbcTemplate.execute("ALTER TABLE " + table.name() + " DROP PARTITION " + partition);
+                    log.info("Dropped {} of {} on shard {}", partition, table.name(), shard);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Maintaining the partitions of {} on shard {} failed, will retry: {}", table.name(), shard,
+                    e.getMessage());
+        }
+    }
+
+    private void split(Table table, int shard, List<String> partitions, YearMonth until) {
+        if (!partitions.contains(FUTURE)) {
+            log.warn("{} on shard {} has no {} partition, not adding months", table.name(), shard, FUTURE);
+            return;
+        }
+        YearMonth last = null;
+        for (String partition : partitions) {
+            YearMonth month = monthOf(partition);
+            if (month != null) {
+                last = month;
+            }
+        }
+        YearMonth from = last == null ? null : last.plusMonths(1);
+        if (from == null) {
+            LocalDate oldest = jdbcTemplate.queryForObject(
+                    "SELECT CAST(MIN(" + table.column() + ") AS DATE) FROM " + table.name(), LocalDate.class);
+            YearMonth earliest = YearMonth.now().minusMonths(MAX_HISTORY_MONTHS);
+            from = oldest == null ? YearMonth.now() : YearMonth.from(oldest);
+            if (from.isBefore(earliest)) {
+                from = earliest;
+            }
+        }
+        if (from.isAfter(until)) {
+            return;
+        }
+        jdbcTemplate.execute(reorganize(table.name(), from, until));
+        log.info("Added partitions {} to {} of {} on shard {}", from, until, table.name(), shard);
+    }
+
+    /** Creates {@code archive} on the current shard as an empty, unpartitioned copy of {@code table}'s shape. */
+    public void createArchive(String table, String archive) {
+        if (archives(table).stream().noneMatch(archive::equalsIgnoreCase)) {
+            jdbcTemplate.execute("CREATE TABLE " + archive + " LIKE " + table);
+            jdbcTemplate.execute("ALTER TABLE " + archive + " REMOVE PARTITIONING");
+        }
+    }
+
+    private void archive(Table table, int shard, String partition) {
+        String archive = archiveName(table.name(), partition);
+        createArchive(table.name(), archive);
+        String source = table.name() + " PARTITION (" + partition + ")";
+        String kept = table.keep() == null ? null : "SELECT 1 FROM " + source + " WHERE " + table.keep() + " LIMIT 1";
+        boolean compressed = isCompressed(archive);
+        // the exchange needs an empty archive with the same row format, and takes every row
+        if (!compressed && isEmpty("SELECT 1 FROM " + archive + " LIMIT 1") && (kept == null || isEmpty(kept))) {
+            jdbcTemplate.execute("ALTER TABLE " + table.name() + " EXCHANGE PARTITION " + partition
+                    + " WITH TABLE " + archive);
+        }
+        long moved = move(table, source, archive);
+        // the rows are gone from their owners' lists; bumping again on a rerun is harmless
+        CollectionVersions.bumpOwners(jdbcTemplate, table.name(), archive);
+        if (isEmpty("SELECT 1 FROM " + source + " LIMIT 1")) {
+            jdbcTemplate.execute("ALTER TABLE " + table.name() + " DROP PARTITION " + partition);
+        }
+        if (!compressed) {
+            try {
+                jdbcTemplate.execute("ALTER TABLE " + archive + " ROW_FORMAT=COMPRESSED");
+            } catch (RuntimeException e) {
+                // e.g. innodb_file_per_table off; the data is archived all the same
+                log.warn("Could not compress {} on shard {}: {}", archive, shard, e.getMessage());
+            }
+        }
+        log.info("Archived {} of {} on shard {} to {}{}", partition, table.name(), shard, archive,
+                moved > 0 ? " (" + moved + " rows copied)" : "");
+    }
+
+    // Rows the exchange did not take, in chunks, each in its own short transaction
+    private long move(Table table, String source, String archive) {
+        String select = "SELECT " + table.pk() + " FROM " + source
+                + (table.keep() == null ? "" : " WHERE NOT (" + table.keep() + ")") + " LIMIT ?";
+        long moved = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(select, Long.class, batchSize);
+            if (ids.isEmpty()) {
+                return moved;
+            }
+            String in = " WHERE " + table.pk() + " IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+            newTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.update("INSERT INTO " + archive + " SELECT * FROM " + source + in, ids.toArray());
+                jdbcTemplate.update("DELETE FROM " + source + in, ids.toArray());
+            });
+            moved += ids.size();
+        }
+    }
+
+    private List<String> partitions(String table) {
+        return jdbcTemplate.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                        + "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, table);
+    }
+
+    private boolean isCompressed(String table) {
+        List<String> format = jdbcTemplate.queryForList("SELECT ROW_FORMAT FROM information_schema.TABLES "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", String.class, table);
+        return !format.isEmpty() && "Compressed".equalsIgnoreCase(format.get(0));
+    }
+
+    private boolean isEmpty(String query) {
+        return jdbcTemplate.queryForList(query).isEmpty();
+    }
+
+    private boolean isMySql() {
+        Boolean known = mySql;
+        if (known == null) {
+            known = Objects.equals(jdbcTemplate.execute((ConnectionCallback<String>) con ->
+                    con.getMetaData().getDatabaseProductName()), "MySQL");
+            mySql = known;
+        }
+        return known;
+    }
+
+    // Splits p_future into one partition per month from..until, then p_future again
+    static String reorganize(String table, YearMonth from, YearMonth until) {
+        List<String> parts = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(until); month = month.plusMonths(1)) {
+            parts.add("PARTITION " + partitionName(month) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+        parts.add("PARTITION " + FUTURE + " VALUES LESS THAN (MAXVALUE)");
+        return "ALTER TABLE " + table + " REORGANIZE PARTITION " + FUTURE + " INTO (" + String.join(", ", parts) + ")";
+    }
+
+    static String partitionName(YearMonth month) {
+        return "p" + month.format(MONTH);
+    }
+
+    static String archiveName(String table, String partition) {
+        return table + "_archive_" + partition.substring(1);
+    }
+
+    // The month of a pYYYYMM partition, null for any other
+    static YearMonth monthOf(String partition) {
+        if (partition == null || partition.length() != 7 || partition.charAt(0) != 'p') {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(1), MONTH);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
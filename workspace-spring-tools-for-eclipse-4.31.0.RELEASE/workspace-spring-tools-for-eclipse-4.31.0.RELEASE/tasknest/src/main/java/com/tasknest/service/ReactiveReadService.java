@@ -0,0 +1,22 @@
+package com.tasknest.service;
+
+import com.tasknest.entity.Expenses;
+import com.tasknest.entity.MoodTrack;
+import com.tasknest.entity.Task;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Non-blocking counterparts of the high-fanout list/stat reads
+public interface ReactiveReadService {
+
+    Flux<Task> getTasksForUser(String email);
+
+    Flux<Expenses> getExpensesByUserEmail(String email);
+
+    Flux<MoodTrack> getMoodHistory(String userEmail);
+
+    // Same shape as BudgetService.getMonthlyStats, but never creates the budget row
+    Mono<Map<String, Object>> getMonthlyStats(String email, String month);
+}
@@ -0,0 +1,99 @@
+package com.tasknest.service;
+
+import com.tasknest.entity.Expenses;
+import com.tasknest.entity.MoodTrack;
+import com.tasknest.entity.Task;
+import com.tasknest.repository.ReactiveReadRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ReactiveReadServiceImpl implements ReactiveReadService {
+
+    // where a user's rows are and which users.id they carry
+    private record Owner(int shard, long userId) {}
+
+    private final ReactiveReadRepository repo;
+    private final ShardRouter router;
+    private final UserIds userIds;
+
+    public ReactiveReadServiceImpl(ReactiveReadRepository repo, ShardRouter router, UserIds userIds) {
+        this.repo = repo;
+        this.router = router;
+        this.userIds = userIds;
+    }
+
+    @Override
+    public Flux<Task> getTasksForUser(String email) {
+        return ownerOf(email).flatMapMany(o -> repo.findTasksByUserId(o.shard(), o.userId()));
+    }
+
+    @Override
+    public Flux<Expenses> getExpensesByUserEmail(String email) {
+        return ownerOf(email).flatMapMany(o -> repo.findExpensesByUserId(o.shard(), o.userId()));
+    }
+
+    @Override
+    public Flux<MoodTrack> getMoodHistory(String userEmail) {
+        return ownerOf(userEmail).flatMapMany(o -> repo.findMoodHistory(o.shard(), o.userId()));
+    }
+
+    @Override
+    public Mono<Map<String, Object>> getMonthlyStats(String email, String month) {
+        YearMonth ym = YearMonth.parse(month);
+        LocalDate start = ym.atDay(1);
+        LocalDate end = ym.atEndOfMonth();
+
+        // the three queries run concurrently on separate pooled connections
+        return ownerOf(email).flatMap(o -> Mono.zip(
+                repo.findMonthlyBudget(o.shard(), o.userId(), month).defaultIfEmpty(BigDecimal.ZERO),
+                repo.sumByCategory(o.shard(), o.userId(), start, end).collectList(),
+                repo.countSpendingDays(o.shard(), o.userId(), start, end).defaultIfEmpty(0L)
+        )).map(t -> stats(t.getT1(), t.getT2(), t.getT3()))
+                .switchIfEmpty(Mono.fromSupplier(() -> stats(BigDecimal.ZERO, List.of(), 0)));
+    }
+
+    // Directory and user id lookups are blocking JDBC (mostly cache hits), so they stay off the
+    // event loop; empty for an unknown user
+    private Mono<Owner> ownerOf(String email) {
+        return Mono.fromCallable(() -> {
+                    Long userId = userIds.idOf(email);
+                    return userId == null ? null : new Owner(router.placementOf(email).shard(), userId);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static Map<String, Object> stats(BigDecimal monthlyBudget, List<Object[]> categories, long days) {
+        BigDecimal totalSpent = BigDecimal.ZERO;
+        Map<String, BigDecimal> byCategory = new HashMap<>();
+        for (Object[] row : categories) {
+            BigDecimal amount = row[1] != null ? (BigDecimal) row[1] : BigDecimal.ZERO;
+            totalSpent = totalSpent.add(amount);
+            byCategory.put((String) row[0], amount);
+        }
+        // the same winner, ties included, as the blocking path
+        String mostSpentCategory = SpendTotals.mostSpent(byCategory);
+
+        BigDecimal avgDaily = days == 0
+                ? BigDecimal.ZERO
+                : totalSpent.divide(BigDecimal.valueOf(days), 2, RoundingMode.HALF_UP);
+
+        return Map.of(
+                "monthlyBudget", monthlyBudget,
+                "totalSpent", totalSpent,
+                "availableBudget", monthlyBudget.subtract(totalSpent),
+                "mostSpentCategory", mostSpentCategory,
+                "avgDailySpent", avgDaily
+        );
+    }
+}
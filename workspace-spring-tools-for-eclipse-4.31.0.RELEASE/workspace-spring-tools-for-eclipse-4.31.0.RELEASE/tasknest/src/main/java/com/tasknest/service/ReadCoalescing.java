@@ -0,0 +1,103 @@
+package com.tasknest.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@link CoalescingCache}s in front of the aggregate reads that dashboards
+ * fire in parallel. Per-user results are keyed "email|args" and dropped on
+ * that user's budget and expense ChangeEvents; the admin contact statistics
+ * are dropped by ContactMessageServiceImpl's writes. Writes on other nodes are
+ * only seen once the ttl runs out, so the ttls stay short.
+ */
+@Component
+public class ReadCoalescing {
+
+    private final CoalescingCache<String, Map<String, Object>> budgetStats;
+    private final CoalescingCache<String, Map<String, Object>> budgetReports;
+    private final CoalescingCache<String, Map<String, Object>> contactStats;
+    private final CoalescingCache<String, Long> unreadMessages;
+
+    public ReadCoalescing(@Value("${tasknest.coalescing.user-ttl:1s}") Duration userTtl,
+                          @Value("${tasknest.coalescing.admin-ttl:5s}") Duration adminTtl) {
+        this.budgetStats = new CoalescingCache<>(userTtl.toMillis());
+        this.budgetReports = new CoalescingCache<>(userTtl.toMillis());
+        this.contactStats = new CoalescingCache<>(adminTtl.toMillis());
+        this.unreadMessages = new CoalescingCache<>(adminTtl.toMillis());
+    }
+
+    public static String userKey(String email, String... args) {
+        return ShardRouter.key(email) + "|" + String.join("|", args);
+    }
+
+    public CoalescingCache<String, Map<String, Object>> budgetStats() {
+        return budgetStats;
+    }
+
+    public CoalescingCache<String, Map<String, Object>> budgetReports() {
+        return budgetReports;
+    }
+
+    public CoalescingCache<String, Map<String, Object>> contactStats() {
+        return contactStats;
+    }
+
+    public CoalescingCache<String, Long> unreadMessages() {
+        return unreadMessages;
+    }
+
+    // again after commit: a read between the write and its commit could cache the old counts
+    public void contactMessagesChanged() {
+        Runnable invalidate = () -> {
+            contactStats.invalidate(key -> true);
+            unreadMessages.invalidate(key -> true);
+        };
+        invalidate.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate.run();
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (event.userEmail() == null) {
+            return;
+        }
+        if (ChangeEvent.BUDGETS.equals(event.collection()) || ChangeEvent.EXPENSES.equals(event.collection())) {
+            String prefix = ShardRouter.key(event.userEmail()) + "|";
+            budgetStats.invalidate(key -> key.startsWith(prefix));
+            budgetReports.invalidate(key -> key.startsWith(prefix));
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purge() {
+        budgetStats.purge();
+        budgetReports.purge();
+        contactStats.purge();
+        unreadMessages.purge();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("budgetStats", budgetStats.stats());
+        stats.put("budgetReports", budgetReports.stats());
+        stats.put("contactStats", contactStats.stats());
+        stats.put("unreadMessages", unreadMessages.stats());
+        return stats;
+    }
+}
@@ -0,0 +1,58 @@
+package com.tasknest.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers who wrote recently so their reads stay on the primary until the
+ * replicas have caught up. Fed by every committed ChangeEvent and by the
+ * routing DataSource whenever a read-write transaction runs for a request
+ * user. Node-local, like the other per-user trackers.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final ConcurrentMap<String, Long> lastWrite = new ConcurrentHashMap<>();
+    private final long windowMillis;
+
+    public ReadYourWrites(@Value("${tasknest.datasource.read-your-writes-window:10s}") Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        recordWrite(event.userEmail());
+    }
+
+    public void recordWrite(String email) {
+        if (email != null) {
+            lastWrite.put(key(email), System.currentTimeMillis());
+        }
+    }
+
+    public boolean isSticky(String email) {
+        if (email == null) {
+            return false;
+        }
+        Long at = lastWrite.get(key(email));
+        return at != null && System.currentTimeMillis() - at < windowMillis;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purge() {
+        long cutoff = System.currentTimeMillis() - windowMillis;
+        lastWrite.values().removeIf(at -> at < cutoff);
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,160 @@
+package com.tasknest.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Small subset of RFC 5545 RRULE: FREQ (DAILY, WEEKLY, MONTHLY, YEARLY),
+ * INTERVAL, COUNT, UNTIL (yyyy-MM-dd) and BYDAY for weekly rules.
+ * The anchor date (the template's own date) is always occurrence #1.
+ * Monthly/yearly rules anchored on a day the target month lacks fall on
+ * that month's last day.
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency { DAILY, WEEKLY, MONTHLY, YEARLY }
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count;
+    private final LocalDate until;
+    private final Set<DayOfWeek> byDay;
+
+    private RecurrenceRule(Frequency frequency, int interval, Integer count, LocalDate until, Set<DayOfWeek> byDay) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.byDay = byDay;
+    }
+
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.trim().isEmpty()) {
+            throw new RuntimeException("Recurrence rule is empty");
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDate until = null;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+
+        for (String part : rule.trim().toUpperCase(Locale.ROOT).split(";")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            String[] kv = part.split("=", 2);
+            if (kv.length != 2) {
+                throw new RuntimeException("Invalid recurrence rule part: " + part);
+            }
+            try {
+                switch (kv[0]) {
+                    case "FREQ" -> frequency = Frequency.valueOf(kv[1]);
+                    case "INTERVAL" -> interval = Integer.parseInt(kv[1]);
+                    case "COUNT" -> count = Integer.parseInt(kv[1]);
+                    case "UNTIL" -> until = LocalDate.parse(kv[1]);
+                    case "BYDAY" -> {
+                        for (String day : kv[1].split(",")) {
+                            byDay.add(dayOf(day));
+                        }
+                    }
+                    default -> throw new RuntimeException("Unsupported recurrence rule part: " + kv[0]);
+                }
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new RuntimeException("Invalid recurrence rule part: " + part);
+            }
+        }
+
+        if (frequency == null) {
+            throw new RuntimeException("Recurrence rule needs FREQ");
+        }
+        if (interval < 1 || (count != null && count < 1)) {
+            throw new RuntimeException("INTERVAL and COUNT must be positive");
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new RuntimeException("BYDAY is only supported with FREQ=WEEKLY");
+        }
+        return new RecurrenceRule(frequency, interval, count, until, byDay);
+    }
+
+    /**
+     * Where a series restarts after its rule or anchor changed: instances up to
+     * today already happened (or were deleted as pending), so only later ones
+     * are generated again, and none before the anchor.
+     */
+    public static LocalDate regenerateAfter(LocalDate anchor, LocalDate today) {
+        return anchor == null || anchor.isBefore(today) ? today : anchor;
+    }
+
+    /**
+     * Occurrences strictly after {@code after} and up to {@code to} (inclusive),
+     * honouring COUNT and UNTIL relative to the anchor.
+     */
+    public List<LocalDate> occurrences(LocalDate anchor, LocalDate after, LocalDate to) {
+        List<LocalDate> result = new ArrayList<>();
+        LocalDate last = until != null && until.isBefore(to) ? until : to;
+        int index = 0;
+
+        if (frequency == Frequency.WEEKLY && !byDay.isEmpty()) {
+            LocalDate weekStart = anchor.with(DayOfWeek.MONDAY);
+            for (long week = 0; ; week += interval) {
+                LocalDate monday = weekStart.plusWeeks(week);
+                if (monday.isAfter(last)) {
+                    return result;
+                }
+                for (DayOfWeek day : byDay) {
+                    LocalDate date = monday.with(day);
+                    if (date.isBefore(anchor)) {
+                        continue;
+                    }
+                    if (date.isAfter(last) || (count != null && index >= count)) {
+                        return result;
+                    }
+                    index++;
+                    if (date.isAfter(after)) {
+                        result.add(date);
+                    }
+                }
+            }
+        }
+
+        for (long step = 0; ; step++) {
+            LocalDate date = nth(anchor, step * interval);
+            if (date.isAfter(last) || (count != null && index >= count)) {
+                return result;
+            }
+            index++;
+            if (date.isAfter(after)) {
+                result.add(date);
+            }
+        }
+    }
+
+    private LocalDate nth(LocalDate anchor, long amount) {
+        return switch (frequency) {
+            case DAILY -> anchor.plusDays(amount);
+            case WEEKLY -> anchor.plusWeeks(amount);
+            case MONTHLY -> anchor.plusMonths(amount);
+            case YEARLY -> anchor.plusYears(amount);
+        };
+    }
+
+    private static DayOfWeek dayOf(String code) {
+        return switch (code) {
+            case "MO" -> DayOfWeek.MONDAY;
+            case "TU" -> DayOfWeek.TUESDAY;
+            case "WE" -> DayOfWeek.WEDNESDAY;
+            case "TH" -> DayOfWeek.THURSDAY;
+            case "FR" -> DayOfWeek.FRIDAY;
+            case "SA" -> DayOfWeek.SATURDAY;
+            case "SU" -> DayOfWeek.SUNDAY;
+            default -> throw new IllegalArgumentException(code);
+        };
+    }
+}
@@ -0,0 +1,229 @@
+package com.tasknest.service;
+
+import com.tasknest.entity.Expenses;
+import com.tasknest.entity.Task;
+import com.tasknest.repository.ExpensesRepository;
+import com.tasknest.repository.SchedulerLeaseRepository;
+import com.tasknest.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Materializes upcoming instances of recurring tasks and expenses.
+ *
+ * Templates are split into {@code partitions} buckets by id. Each run a node
+ * leases the buckets it can get (row in scheduler_lease), up to
+ * {@code max-partitions-per-run} per shard, processes them and releases each
+ * lease as soon as its bucket is done. Nodes running at the same time split
+ * the buckets between them, and no node keeps a bucket past its run: the
+ * lease only outlives a node that died mid-bucket, until it expires. Inserts
+ * use INSERT IGNORE against the unique (recurrence_source_id, date) keys,
+ * which keeps a crashed or restarted run idempotent. With sharding every
+ * shard has its own set of buckets (leases stay on shard 0). Templates of a
+ * user who is being moved, or whose rows on this shard are the leftovers of
+ * a finished move, are skipped and caught up once the move is over.
+ */
+@Component
+public class RecurrenceScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurrenceScheduler.class);
+
+    private static final String TASK_INSERT =
+            "INSERT IGNORE INTO tasks (title, description, priority, category, completed, due_date, " +
+            "created_at, updated_at, user_email, user_id, recurrence_source_id) VALUES (?, ?, ?, ?, false, ?, ?, ?, ?, ?, ?)";
+
+    private static final String EXPENSE_INSERT =
+            "INSERT IGNORE INTO expenses (description, purchase_date, amount, category, user_email, user_id, " +
+            "recurrence_source_id, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final TaskRepository taskRepository;
+    private final ExpensesRepository expensesRepository;
+    private final SchedulerLeaseRepository leaseRepository;
+    private final ShardTemplate shards;
+    private final ShardRouter router;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher events;
+
+    private final String nodeId;
+    private final int partitions;
+    private final int maxPartitionsPerRun;
+    private final int taskHorizonDays;
+    private final int expenseHorizonDays;
+    private final int batchSize;
+    private final long leaseSeconds;
+
+    public RecurrenceScheduler(TaskRepository taskRepository,
+                               ExpensesRepository expensesRepository,
+                               SchedulerLeaseRepository leaseRepository,
+                               ShardTemplate shards,
+                               ShardRouter router,
+                               JdbcTemplate jdbcTemplate,
+                               ApplicationEventPublisher events,
+                               @Value("${tasknest.scheduler.node-id:}") String nodeId,
+                               @Value("${tasknest.recurrence.partitions:8}") int partitions,
+                               @Value("${tasknest.recurrence.max-partitions-per-run:8}") int maxPartitionsPerRun,
+                               @Value("${tasknest.recurrence.task-horizon-days:30}") int taskHorizonDays,
+                               @Value("${tasknest.recurrence.expense-horizon-days:0}") int expenseHorizonDays,
+                               @Value("${tasknest.recurrence.batch-size:500}") int batchSize,
+                               @Value("${tasknest.recurrence.lease-seconds:600}") long leaseSeconds) {
+        this.taskRepository = taskRepository;
+        this.expensesRepository = expensesRepository;
+        this.leaseRepository = leaseRepository;
+        this.shards = shards;
+        this.router = router;
+        this.jdbcTemplate = jdbcTemplate;
+        this.events = events;
+        this.nodeId = nodeId.isEmpty() ? UUID.randomUUID().toString() : nodeId;
+        this.partitions = partitions;
+        this.maxPartitionsPerRun = maxPartitionsPerRun;
+        this.taskHorizonDays = taskHorizonDays;
+        this.expenseHorizonDays = expenseHorizonDays;
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    @Scheduled(initialDelayString = "${tasknest.recurrence.initial-delay-ms:30000}",
+               fixedDelayString = "${tasknest.recurrence.interval-ms:300000}")
+    public void run() {
+        List<int[]> order = new ArrayList<>();
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            for (int p = 0; p < partitions; p++) {
+                order.add(new int[] { shard, p });
+            }
+        }
+        // different nodes start on different buckets, so they spread out instead of racing
+        Collections.shuffle(order);
+
+        int processed = 0;
+        for (int[] bucket : order) {
+            if (processed >= maxPartitionsPerRun * shards.shardCount()) {
+                break;
+            }
+            int shard = bucket[0];
+            int partition = bucket[1];
+            String lease = "recurrence-" + shard + "-" + partition;
+            leaseRepository.createIfAbsent(lease);
+            LocalDateTime now = LocalDateTime.now();
+            if (leaseRepository.tryAcquire(lease, nodeId, now, now.plusSeconds(leaseSeconds)) == 0) {
+                continue;
+            }
+            try {
+                shards.onShard(shard, () -> {
+                    materializePartition(shard, partition);
+                    return null;
+                });
+                processed++;
+            } catch (RuntimeException e) {
+                log.error("Recurrence partition {} on shard {} failed", partition, shard, e);
+            } finally {
+                leaseRepository.release(lease, nodeId);
+            }
+        }
+    }
+
+    void materializePartition(int shard, int partition) {
+        LocalDate today = LocalDate.now();
+
+        LocalDate taskHorizon = today.plusDays(taskHorizonDays);
+        for (Task template : taskRepository.findRecurringTemplates(partitions, partition, taskHorizon)) {
+            if (!writable(template.getUserEmail(), shard)) {
+                continue;
+            }
+            try {
+                materializeTask(template, taskHorizon);
+            } catch (RuntimeException e) {
+                log.warn("Skipping recurring task {}: {}", template.getId(), e.getMessage());
+            }
+        }
+
+        LocalDate expenseHorizon = today.plusDays(expenseHorizonDays);
+        for (Expenses template : expensesRepository.findRecurringTemplates(partitions, partition, expenseHorizon)) {
+            if (!writable(template.getUserEmail(), shard)) {
+                continue;
+            }
+            try {
+                materializeExpense(template, expenseHorizon);
+            } catch (RuntimeException e) {
+                log.warn("Skipping recurring expense {}: {}", template.getExpenseId(), e.getMessage());
+            }
+        }
+    }
+
+    // the same freeze ShardTemplate.write applies to requests
+    private boolean writable(String email, int shard) {
+        ShardRouter.Placement placement = router.placementOf(email);
+        return !placement.moving() && placement.shard() == shard;
+    }
+
+    private void materializeTask(Task template, LocalDate horizon) {
+        if (template.getDueDate() == null) {
+            return;
+        }
+        LocalDate after = template.getRecurrenceGeneratedUntil() != null
+                ? template.getRecurrenceGeneratedUntil() : template.getDueDate();
+        List<LocalDate> dates = RecurrenceRule.parse(template.getRecurrenceRule())
+                .occurrences(template.getDueDate(), after, horizon);
+
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            rows.add(new Object[] {
+                    template.getTitle(), template.getDescription(), template.getPriority(),
+                    template.getCategory(), Date.valueOf(date), createdAt, createdAt,
+                    template.getUserEmail(), template.getUserId(), template.getId()
+            });
+        }
+        insertInBatches(TASK_INSERT, rows);
+        jdbcTemplate.update("UPDATE tasks SET recurrence_generated_until = ? WHERE id = ?",
+                Date.valueOf(horizon), template.getId());
+        if (!rows.isEmpty()) {
+            events.publishEvent(ChangeEvent.refresh(template.getUserEmail(), ChangeEvent.TASKS));
+        }
+    }
+
+    private void materializeExpense(Expenses template, LocalDate horizon) {
+        if (template.getPurchaseDate() == null) {
+            return;
+        }
+        LocalDate after = template.getRecurrenceGeneratedUntil() != null
+                ? template.getRecurrenceGeneratedUntil() : template.getPurchaseDate();
+        List<LocalDate> dates = RecurrenceRule.parse(template.getRecurrenceRule())
+                .occurrences(template.getPurchaseDate(), after, horizon);
+
+        Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            rows.add(new Object[] {
+                    template.getDescription(), Date.valueOf(date), template.getAmount(),
+                    template.getCategory(), template.getUserEmail(), template.getUserId(),
+                    template.getExpenseId(), updatedAt
+            });
+        }
+        insertInBatches(EXPENSE_INSERT, rows);
+        jdbcTemplate.update("UPDATE expenses SET recurrence_generated_until = ? WHERE expense_id = ?",
+                Date.valueOf(horizon), template.getExpenseId());
+        if (!rows.isEmpty()) {
+            events.publishEvent(ChangeEvent.refresh(template.getUserEmail(), ChangeEvent.EXPENSES));
+        }
+    }
+
+    private void insertInBatches(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+}
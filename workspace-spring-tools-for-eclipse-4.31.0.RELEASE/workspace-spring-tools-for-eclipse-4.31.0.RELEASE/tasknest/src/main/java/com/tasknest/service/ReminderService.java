@@ -0,0 +1,303 @@
+package com.tasknest.service;
+
+import com.tasknest.entity.Task;
+import com.tasknest.repository.SchedulerLeaseRepository;
+import com.tasknest.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Due-date reminder engine.
+ *
+ * Only tasks due within the next {@code horizon-days} are held in memory,
+ * in a {@link TimingWheel} keyed by task id. The horizon is reloaded
+ * periodically and patched in between from the task ChangeEvents, once their
+ * transaction has committed, so a rolled-back write never leaves a reminder
+ * behind. Fired reminders are batched and handed to all
+ * {@link ReminderSink}s. Each task is marked as reminded (reminder_sent_for)
+ * only once no sink failed and at least one reached the user, so delivery is
+ * at-least-once across failures, offline users and restarts. Failed reminders are kept, with their attempt
+ * count and next try, outside the wheel so a reload puts them back on their
+ * backoff instead of firing them again as new. A reminder delivered to a user
+ * whose data is being moved to another shard is marked once the move is
+ * over, without being sent again.
+ *
+ * One node runs the wheel at a time, chosen through the scheduler_lease
+ * table; the others keep their wheel empty until they win the lease. The
+ * wheel covers every shard.
+ */
+@Component
+public class ReminderService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderService.class);
+
+    private static final String LEASE = "reminders";
+    private static final long GAVE_UP = -1;
+
+    private record Retry(TaskReminder reminder, long at) {}
+
+    private final TaskRepository taskRepository;
+    private final SchedulerLeaseRepository leaseRepository;
+    private final ShardTemplate shards;
+    private final ShardRouter router;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<ReminderSink> sinks;
+
+    private final TimingWheel<Long, TaskReminder> wheel =
+            new TimingWheel<>(1000, 64, System.currentTimeMillis());
+    private final List<TaskReminder> pending = new ArrayList<>();
+    // failed reminders by task id: the next try, or GAVE_UP after max-attempts
+    private final Map<Long, Retry> retries = new ConcurrentHashMap<>();
+    // delivered but not yet marked, by task id: the user's data was being moved
+    private final Map<Long, TaskReminder> unmarked = new ConcurrentHashMap<>();
+    private long oldestPendingMillis;
+
+    private final String nodeId;
+    private final int horizonDays;
+    private final long leadMinutes;
+    private final int batchSize;
+    private final long flushMillis;
+    private final int maxAttempts;
+    private final long leaseSeconds;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private volatile boolean owner;
+
+    public ReminderService(TaskRepository taskRepository,
+                           SchedulerLeaseRepository leaseRepository,
+                           ShardTemplate shards,
+                           ShardRouter router,
+                           JdbcTemplate jdbcTemplate,
+                           ObjectProvider<ReminderSink> sinks,
+                           @Value("${tasknest.scheduler.node-id:}") String nodeId,
+                           @Value("${tasknest.reminders.horizon-days:2}") int horizonDays,
+                           @Value("${tasknest.reminders.lead-minutes:900}") long leadMinutes,
+                           @Value("${tasknest.reminders.batch-size:100}") int batchSize,
+                           @Value("${tasknest.reminders.flush-ms:5000}") long flushMillis,
+                           @Value("${tasknest.reminders.max-attempts:10}") int maxAttempts,
+                           @Value("${tasknest.reminders.lease-seconds:900}") long leaseSeconds) {
+        this.taskRepository = taskRepository;
+        this.leaseRepository = leaseRepository;
+        this.shards = shards;
+        this.router = router;
+        this.jdbcTemplate = jdbcTemplate;
+        this.sinks = sinks;
+        this.nodeId = nodeId.isEmpty() ? UUID.randomUUID().toString() : nodeId;
+        this.horizonDays = horizonDays;
+        this.leadMinutes = leadMinutes;
+        this.batchSize = batchSize;
+        this.flushMillis = flushMillis;
+        this.maxAttempts = maxAttempts;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    // ---------- horizon loading ----------
+
+    @Scheduled(initialDelayString = "${tasknest.reminders.initial-delay-ms:10000}",
+               fixedDelayString = "${tasknest.reminders.refresh-ms:300000}")
+    public void refresh() {
+        leaseRepository.createIfAbsent(LEASE);
+        LocalDateTime now = LocalDateTime.now();
+        owner = leaseRepository.tryAcquire(LEASE, nodeId, now, now.plusSeconds(leaseSeconds)) == 1;
+
+        wheel.clear();
+        if (!owner) {
+            retries.clear();
+            unmarked.clear();
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        Set<Long> loaded = new HashSet<>();
+        for (Task task : shards.scatter(() -> taskRepository.findPendingReminders(today, today.plusDays(horizonDays)))) {
+            schedule(task);
+            loaded.add(task.getId());
+        }
+        // delivered, completed or deleted on another node since
+        retries.keySet().retainAll(loaded);
+        unmarked.keySet().retainAll(loaded);
+    }
+
+    // ---------- incremental updates from committed task writes ----------
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (!ChangeEvent.TASKS.equals(event.collection())) {
+            return;
+        }
+        if (event.data() instanceof Task task) {
+            onTaskSaved(task);
+        } else if (event.action().equals("deleted") && event.id() instanceof Long id) {
+            onTaskDeleted(id);
+        }
+    }
+
+    public void onTaskSaved(Task task) {
+        if (!owner || task.getId() == null) {
+            return;
+        }
+        LocalDate due = task.getDueDate();
+        LocalDate today = LocalDate.now();
+        if (task.isCompleted() || due == null || due.equals(task.getReminderSentFor())
+                || due.isBefore(today) || due.isAfter(today.plusDays(horizonDays))) {
+            wheel.cancel(task.getId());
+            retries.remove(task.getId());
+            unmarked.remove(task.getId());
+            return;
+        }
+        schedule(task);
+    }
+
+    public void onTaskDeleted(Long taskId) {
+        wheel.cancel(taskId);
+        retries.remove(taskId);
+        unmarked.remove(taskId);
+    }
+
+    // a reminder that already failed for this due date resumes its backoff; a new due date starts over
+    private void schedule(Task task) {
+        TaskReminder delivered = unmarked.get(task.getId());
+        if (delivered != null) {
+            if (delivered.dueDate().equals(task.getDueDate())) {
+                wheel.cancel(task.getId());
+                return;
+            }
+            unmarked.remove(task.getId(), delivered);
+        }
+        Retry retry = retries.get(task.getId());
+        if (retry != null && !retry.reminder().dueDate().equals(task.getDueDate())) {
+            retries.remove(task.getId(), retry);
+            retry = null;
+        }
+        if (retry != null && retry.at() == GAVE_UP) {
+            wheel.cancel(task.getId());
+            return;
+        }
+        int attempt = retry == null ? 0 : retry.reminder().attempt();
+        TaskReminder reminder = new TaskReminder(task.getId(), task.getUserEmail(),
+                task.getTitle(), task.getDueDate(), attempt);
+        wheel.schedule(task.getId(), reminder, retry == null ? fireAt(task.getDueDate()) : retry.at());
+    }
+
+    private long fireAt(LocalDate dueDate) {
+        return dueDate.atStartOfDay(zone).minusMinutes(leadMinutes).toInstant().toEpochMilli();
+    }
+
+    // ---------- firing and delivery ----------
+
+    @Scheduled(fixedRateString = "${tasknest.reminders.tick-ms:1000}")
+    public void tick() {
+        if (!owner) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (!unmarked.isEmpty()) {
+            markDelivered(List.copyOf(unmarked.values()));
+        }
+        List<TaskReminder> fired = wheel.advance(now);
+        if (!fired.isEmpty() && pending.isEmpty()) {
+            oldestPendingMillis = now;
+        }
+        pending.addAll(fired);
+
+        if (pending.size() >= batchSize || (!pending.isEmpty() && now - oldestPendingMillis >= flushMillis)) {
+            while (!pending.isEmpty()) {
+                List<TaskReminder> batch = new ArrayList<>(pending.subList(0, Math.min(batchSize, pending.size())));
+                pending.subList(0, batch.size()).clear();
+                deliver(batch, now);
+            }
+        }
+    }
+
+    private void deliver(List<TaskReminder> batch, long now) {
+        List<ReminderSink> targets = sinks.orderedStream().toList();
+        if (targets.isEmpty()) {
+            return; // nothing configured; leave reminders unmarked
+        }
+        Set<Long> unreached = null;
+        try {
+            for (ReminderSink sink : targets) {
+                Set<Long> missed = new HashSet<>();
+                sink.deliver(batch).forEach(reminder -> missed.add(reminder.taskId()));
+                if (unreached == null) {
+                    unreached = missed;
+                } else {
+                    unreached.retainAll(missed);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Reminder delivery of {} items failed, will retry: {}", batch.size(), e.getMessage());
+            retryLater(batch, now);
+            return;
+        }
+        List<TaskReminder> reached = new ArrayList<>();
+        List<TaskReminder> missed = new ArrayList<>();
+        for (TaskReminder reminder : batch) {
+            (unreached.contains(reminder.taskId()) ? missed : reached).add(reminder);
+        }
+        if (!reached.isEmpty()) {
+            markDelivered(reached);
+            reached.forEach(reminder -> retries.remove(reminder.taskId()));
+        }
+        if (!missed.isEmpty()) {
+            log.debug("{} reminders reached nobody, will retry", missed.size());
+            retryLater(missed, now);
+        }
+    }
+
+    private void retryLater(List<TaskReminder> reminders, long now) {
+        for (TaskReminder reminder : reminders) {
+            if (reminder.attempt() + 1 >= maxAttempts) {
+                log.error("Giving up on reminder for task {}", reminder.taskId());
+                retries.put(reminder.taskId(), new Retry(reminder.retry(), GAVE_UP));
+                continue;
+            }
+            // exponential backoff: 30s, 60s, 120s ... capped at one hour
+            long backoff = Math.min(3_600_000L, 30_000L << Math.min(reminder.attempt(), 7));
+            retries.put(reminder.taskId(), new Retry(reminder.retry(), now + backoff));
+            wheel.schedule(reminder.taskId(), reminder.retry(), now + backoff);
+        }
+    }
+
+    // users being moved are left in unmarked for a later tick, like any other write they would be refused
+    private void markDelivered(List<TaskReminder> batch) {
+        Map<Integer, List<TaskReminder>> byShard = new TreeMap<>();
+        for (TaskReminder reminder : batch) {
+            unmarked.put(reminder.taskId(), reminder);
+            ShardRouter.Placement placement = router.placementOf(reminder.userEmail());
+            if (!placement.moving()) {
+                byShard.computeIfAbsent(placement.shard(), s -> new ArrayList<>()).add(reminder);
+            }
+        }
+        byShard.forEach((shard, reminders) -> {
+            List<Object[]> rows = new ArrayList<>(reminders.size());
+            for (TaskReminder reminder : reminders) {
+                Date due = Date.valueOf(reminder.dueDate());
+                rows.add(new Object[] { due, reminder.taskId(), due });
+            }
+            // the due_date guard keeps a reminder armed if the task was moved meanwhile
+            shards.onShard(shard, () -> jdbcTemplate.batchUpdate(
+                    "UPDATE tasks SET reminder_sent_for = ? WHERE id = ? AND due_date = ?", rows));
+            reminders.forEach(reminder -> unmarked.remove(reminder.taskId(), reminder));
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package com.tasknest.service;
+
+import java.util.List;
+
+/**
+ * Destination for due-date reminders (mail, WebSocket, ...).
+ * Throwing makes the engine retry the whole batch later. Otherwise the sink
+ * returns the reminders it could not get to anyone, e.g. a push to a user with
+ * no open subscription; a reminder counts as delivered once some sink reached
+ * it, and the others are retried.
+ */
+public interface ReminderSink {
+
+    List<TaskReminder> deliver(List<TaskReminder> batch);
+}
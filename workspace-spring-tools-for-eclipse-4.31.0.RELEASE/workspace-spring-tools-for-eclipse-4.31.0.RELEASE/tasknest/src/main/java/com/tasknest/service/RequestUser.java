@@ -0,0 +1,90 @@
+package com.tasknest.service;
+
+import java.util.Locale;
+
+/**
+ * Email of the user the current request acts for, or null outside a request.
+ * Set by the web layer and read by infrastructure that needs to know whose
+ * data is being touched (read-your-writes routing). Stored trimmed and
+ * lowercased. When the caller presented an access token the user id from
+ * the token is kept as well, so {@link UserIds} needs no lookup for them.
+ */
+public final class RequestUser {
+
+    private record Caller(String email, Long id) {}
+
+    private static final ThreadLocal<Caller> CURRENT = new ThreadLocal<>();
+
+    private RequestUser() {}
+
+    public static String current() {
+        Caller caller = CURRENT.get();
+        return caller != null ? caller.email() : null;
+    }
+
+    // id of a token-authenticated caller, null for callers only named by an email parameter
+    public static Long currentId() {
+        Caller caller = CURRENT.get();
+        return caller != null ? caller.id() : null;
+    }
+
+    public static boolean isAuthenticated() {
+        return currentId() != null;
+    }
+
+    /**
+     * Rejects a token-authenticated caller touching rows of another user,
+     * for routes that name the owner in the body or only by a row id.
+     * Callers known only from an email parameter are taken at their word,
+     * as everywhere else while tasknest.auth.required is false.
+     */
+    public static void checkOwns(String email) {
+        Caller caller = CURRENT.get();
+        if (caller != null && caller.id() != null
+                && (email == null || !caller.email().equals(email.trim().toLowerCase(Locale.ROOT)))) {
+            throw new NotOwnerException(email);
+        }
+    }
+
+    public static void set(String email) {
+        set(email, null);
+    }
+
+    public static void authenticate(String email, long id) {
+        set(email, id);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // Carries the caller's user onto a pool thread; fits ThreadPoolTaskExecutor.setTaskDecorator
+    public static Runnable wrap(Runnable task) {
+        Caller caller = CURRENT.get();
+        return () -> {
+            Caller previous = CURRENT.get();
+            restore(caller);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void set(String email, Long id) {
+        if (email == null || email.isBlank()) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(new Caller(email.trim().toLowerCase(Locale.ROOT), id));
+        }
+    }
+
+    private static void restore(Caller caller) {
+        if (caller == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(caller);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.tasknest.service;
+
+/**
+ * Shard the current thread's database work goes to; unset means shard 0,
+ * which also holds the global tables (users, admins, contact messages,
+ * leases, the shard directory). Set through {@link ShardTemplate} rather
+ * than directly.
+ */
+public final class ShardContext {
+
+    public static final int HOME = 0;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? HOME : shard;
+    }
+
+    static Integer get() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+
+    // Carries the caller's shard onto a pool thread; fits ThreadPoolTaskExecutor.setTaskDecorator
+    public static Runnable wrap(Runnable task) {
+        Integer shard = get();
+        return () -> {
+            Integer previous = get();
+            set(shard);
+            try {
+                task.run();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+}
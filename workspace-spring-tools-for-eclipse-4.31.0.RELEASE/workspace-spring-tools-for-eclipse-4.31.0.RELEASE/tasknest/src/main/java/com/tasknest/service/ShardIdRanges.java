@@ -0,0 +1,107 @@
+package com.tasknest.service;
+
+import com.tasknest.config.DataSourceConfig;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Refuses to start a sharded node whose ids could collide across shards.
+ *
+ * Moves keep row ids and {@link ShardTemplate#locate} returns the first
+ * shard that has an id, so an id handed out twice would show one user
+ * another user's row. Shard n must generate ids n+1, n+1+64, ... (the
+ * session settings DataSourceConfig puts on every pool, unless a
+ * connection-init-sql override replaced them), and no shard may already hold
+ * an id of shard n's series at or above the next id shard n hands out. The
+ * second happens when a shard is added next to a primary whose pre-sharding
+ * ids are dense; raising that shard's AUTO_INCREMENT above them fixes it.
+ */
+@Component
+public class ShardIdRanges implements SmartInitializingSingleton {
+
+    private final ShardRouter router;
+    private final ShardTemplate shards;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShardIdRanges(ShardRouter router, ShardTemplate shards, JdbcTemplate jdbcTemplate) {
+        this.router = router;
+        this.shards = shards;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!router.isSharded()) {
+            return;
+        }
+        List<String> problems = new ArrayList<>(checkSeries());
+        problems.addAll(checkCollisions());
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Ids could collide across shards:\n  " + String.join("\n  ", problems));
+        }
+    }
+
+    List<String> checkSeries() {
+        List<String> problems = new ArrayList<>();
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            long[] settings = shards.onShard(shard, () -> jdbcTemplate.queryForObject(
+                    "SELECT @@session.auto_increment_increment, @@session.auto_increment_offset",
+                    (rs, i) -> new long[] { rs.getLong(1), rs.getLong(2) }));
+            String problem = seriesProblem(shard, settings[0], settings[1]);
+            if (problem != null) {
+                problems.add(problem);
+            }
+        }
+        return problems;
+    }
+
+    static String seriesProblem(int shard, long increment, long offset) {
+        if (increment == DataSourceConfig.MAX_SHARDS && offset == shard + 1) {
+            return null;
+        }
+        return "shard " + shard + " has auto_increment_increment=" + increment + ", auto_increment_offset=" + offset
+                + ", expected " + DataSourceConfig.MAX_SHARDS + " and " + (shard + 1);
+    }
+
+    // an index range probe per table and pair of shards; empty unless something is wrong
+    List<String> checkCollisions() {
+        List<String> problems = new ArrayList<>();
+        int count = router.shardCount();
+        for (Map.Entry<String, String> table : UserIdBackfill.CHILD_TABLES.entrySet()) {
+            String name = table.getKey();
+            String id = table.getValue();
+            long[] next = new long[count];
+            for (int shard = 0; shard < count; shard++) {
+                // a lower bound of the AUTO_INCREMENT counter, which is what 5.7 resets it to on restart
+                Long max = shards.onShard(shard, () -> jdbcTemplate.queryForObject(
+                        "SELECT MAX(" + id + ") FROM " + name, Long.class));
+                next[shard] = max == null ? 1 : max + 1;
+            }
+            for (int shard = 0; shard < count; shard++) {
+                for (int other = 0; other < count; other++) {
+                    if (other == shard) {
+                        continue;
+                    }
+                    int series = shard;
+                    long from = next[shard];
+                    List<Long> taken = shards.onShard(other, () -> jdbcTemplate.queryForList(
+                            "SELECT " + id + " FROM " + name + " WHERE " + id + " >= ? AND MOD(" + id + " - 1, "
+                                    + DataSourceConfig.MAX_SHARDS + ") = ? ORDER BY " + id + " DESC LIMIT 1",
+                            Long.class, from, series));
+                    if (!taken.isEmpty()) {
+                        problems.add(name + "." + id + " " + taken.get(0) + " on shard " + other
+                                + " is ahead of shard " + shard + "'s next id " + from
+                                + "; raise AUTO_INCREMENT of " + name + " on shard " + shard
+                                + " above " + taken.get(0));
+                    }
+                }
+            }
+        }
+        return problems;
+    }
+}
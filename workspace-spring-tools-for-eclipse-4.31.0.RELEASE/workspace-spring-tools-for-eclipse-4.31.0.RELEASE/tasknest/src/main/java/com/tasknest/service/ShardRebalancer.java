@@ -0,0 +1,272 @@
+package com.tasknest.service;
+
+import com.tasknest.config.ShardingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves users between shards while the app keeps serving them.
+ *
+ * A move marks the user as moving (their writes are refused, reads still go
+ * to the old shard) and waits until every node's directory cache has seen
+ * that. It then copies the user's rows to the target in one transaction,
+ * ids unchanged, flips the directory entry, waits for the caches again and
+ * finally deletes the rows from the old shard. A failed copy rolls back and
+ * leaves the user where they were. Moves run one at a time.
+ *
+ * Expense months archived by {@link PartitionMaintenance} go along: every
+ * expenses_archive_YYYYMM table on the source is copied into a table of the
+ * same name on the target, created there first if it is missing.
+ */
+@Service
+public class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    // every per-user table; tombstones go along so /sync keeps working
+    static final List<String> USER_TABLES =
+            List.of("tasks", "expenses", "mood_track", "budget", "tombstones", "collection_versions");
+
+    private static final int MAX_REMEMBERED_MOVES = 1_000;
+
+    private final ShardRouter router;
+    private final ShardTemplate shards;
+    private final UserIds userIds;
+    private final PartitionMaintenance partitions;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final AsyncTaskExecutor rebalanceExecutor;
+    private final long settleMillis;
+
+    private final Map<String, Move> moves = new ConcurrentHashMap<>();
+
+    public ShardRebalancer(ShardRouter router,
+                           ShardTemplate shards,
+                           UserIds userIds,
+                           PartitionMaintenance partitions,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("rebalanceExecutor") AsyncTaskExecutor rebalanceExecutor,
+                           ShardingProperties properties) {
+        this.router = router;
+        this.shards = shards;
+        this.userIds = userIds;
+        this.partitions = partitions;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebalanceExecutor = rebalanceExecutor;
+        // one full cache lifetime plus a margin for clock skew between nodes
+        this.settleMillis = properties.getDirectoryCache().toMillis() + 1_000;
+    }
+
+    public Map<String, Object> moveUser(String email, int target) {
+        if (email == null || email.isBlank()) {
+            throw new RuntimeException("Email is required");
+        }
+        if (target < 0 || target >= router.shardCount()) {
+            throw new RuntimeException("Unknown shard " + target + ", configured: 0.." + (router.shardCount() - 1));
+        }
+        Move move = new Move(ShardRouter.key(email), target);
+        remember(move);
+        rebalanceExecutor.execute(() -> run(move));
+        return move.toMap();
+    }
+
+    // Queues a move for every user whose hash ring shard differs from where their data is
+    public List<Map<String, Object>> rebalance() {
+        List<Map<String, Object>> queued = new ArrayList<>();
+        for (String email : jdbcTemplate.queryForList("SELECT email_id FROM users", String.class)) {
+            int wanted = router.ringShardOf(email);
+            if (router.placementOf(email).shard() != wanted) {
+                queued.add(moveUser(email, wanted));
+            }
+        }
+        return queued;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("shards", router.shardCount());
+        status.put("assignedUsers", router.assignedUsers());
+        status.put("moving", router.movingUsers());
+        status.put("moves", moves.values().stream()
+                .sorted((a, b) -> b.queuedAt.compareTo(a.queuedAt))
+                .map(Move::toMap)
+                .toList());
+        return status;
+    }
+
+    private void run(Move move) {
+        String email = move.email;
+        ShardRouter.Placement current = router.load(email);
+        if (current.moving()) {
+            move.fail("User is already being moved");
+            return;
+        }
+        int source = current.shard();
+        move.from = source;
+        if (source == move.to) {
+            move.state = "DONE";
+            return;
+        }
+
+        try {
+            move.state = "FREEZING";
+            router.markMoving(email, source);
+            Thread.sleep(settleMillis);
+
+            move.state = "COPYING";
+            move.rows = copy(userIds.requireIdOf(email), email, source, move.to);
+        } catch (RuntimeException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Moving {} from shard {} to {} failed, staying on {}", email, source, move.to, source, e);
+            router.place(email, source);
+            move.fail(e.getMessage());
+            return;
+        }
+
+        try {
+            move.state = "DRAINING";
+            router.place(email, move.to);
+            // nodes still on the old entry only read, and the old rows are still there for them
+            Thread.sleep(settleMillis);
+            long userId = userIds.requireIdOf(email);
+            shards.onShard(source, () -> newTransaction.execute(status -> deleteRows(userId, tablesOn(source))));
+            move.state = "DONE";
+        } catch (RuntimeException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Moved {} to shard {}, but cleaning up shard {} failed", email, move.to, source, e);
+            move.fail("Moved, but old rows on shard " + source + " were not deleted: " + e.getMessage());
+        }
+    }
+
+    private int copy(long userId, String email, int source, int target) {
+        List<String> tables = tablesOn(source);
+        List<String> archives = tables.subList(USER_TABLES.size(), tables.size());
+        Map<String, List<Map<String, Object>>> rows = new LinkedHashMap<>();
+        shards.onShard(source, () -> {
+            for (String table : tables) {
+                // rows the id backfill has not reached yet must not be left behind
+                jdbcTemplate.update("UPDATE " + table + " SET user_id = ? WHERE user_id IS NULL AND user_email = ?",
+                        userId, email);
+                rows.put(table, jdbcTemplate.queryForList("SELECT * FROM " + table + " WHERE user_id = ?", userId));
+            }
+            return null;
+        });
+
+        // DDL commits implicitly on MySQL, so the archive tables are made before the copy transaction starts
+        shards.onShard(target, () -> {
+            archives.forEach(archive -> partitions.createArchive("expenses", archive));
+            return null;
+        });
+        return shards.onShard(target, () -> newTransaction.execute(status -> {
+            // leftovers of an earlier failed attempt
+            deleteRows(userId, tables);
+            int copied = 0;
+            for (Map.Entry<String, List<Map<String, Object>>> table : rows.entrySet()) {
+                copied += insert(table.getKey(), table.getValue());
+                Integer count = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM " + table.getKey() + " WHERE user_id = ?", Integer.class, userId);
+                if (count == null || count != table.getValue().size()) {
+                    throw new RuntimeException("Copy of " + table.getKey() + " is incomplete: "
+                            + count + " of " + table.getValue().size() + " rows");
+                }
+            }
+            return copied;
+        }));
+    }
+
+    private int insert(String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "INSERT INTO " + table + " (`" + String.join("`, `", columns) + "`) VALUES ("
+                + String.join(", ", columns.stream().map(c -> "?").toList()) + ")";
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            args.add(columns.stream().map(row::get).toArray());
+        }
+        jdbcTemplate.batchUpdate(sql, args);
+        return rows.size();
+    }
+
+    // the per-user tables plus the expense archives that exist on the shard
+    private List<String> tablesOn(int shard) {
+        List<String> tables = new ArrayList<>(USER_TABLES);
+        tables.addAll(shards.onShard(shard, () -> partitions.archives("expenses")));
+        return tables;
+    }
+
+    private int deleteRows(long userId, List<String> tables) {
+        int deleted = 0;
+        for (String table : tables) {
+            deleted += jdbcTemplate.update("DELETE FROM " + table + " WHERE user_id = ?", userId);
+        }
+        return deleted;
+    }
+
+    private void remember(Move move) {
+        moves.put(move.id, move);
+        if (moves.size() > MAX_REMEMBERED_MOVES) {
+            moves.values().stream()
+                    .filter(m -> m.state.equals("DONE") || m.state.equals("FAILED"))
+                    .min((a, b) -> a.queuedAt.compareTo(b.queuedAt))
+                    .ifPresent(oldest -> moves.remove(oldest.id));
+        }
+    }
+
+    private static final class Move {
+        private final String id = UUID.randomUUID().toString();
+        private final String email;
+        private final int to;
+        private final LocalDateTime queuedAt = LocalDateTime.now();
+        private volatile Integer from;
+        private volatile String state = "QUEUED";
+        private volatile int rows;
+        private volatile String error;
+
+        Move(String email, int to) {
+            this.email = email;
+            this.to = to;
+        }
+
+        void fail(String message) {
+            error = message;
+            state = "FAILED";
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", id);
+            map.put("email", email);
+            map.put("from", from);
+            map.put("to", to);
+            map.put("state", state);
+            map.put("rows", rows);
+            map.put("error", error);
+            map.put("queuedAt", queuedAt);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.tasknest.service;
+
+import com.tasknest.config.ShardingProperties;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps a user to the shard holding their data.
+ *
+ * The shard_directory table is authoritative: new users get a row at signup,
+ * placed by consistent hash, and users without a row (everyone who existed
+ * before sharding was switched on) are on shard 0. The ring only decides
+ * where new users go and where the rebalancer wants existing users to be, so
+ * adding a shard never strands data. Lookups are cached per node for
+ * {@code directory-cache}; the directory is read straight from the shard 0
+ * primary so it never joins the caller's transaction or hits a replica.
+ */
+@Component
+public class ShardRouter {
+
+    public record Placement(int shard, boolean moving) {}
+
+    private static final Placement HOME = new Placement(ShardContext.HOME, false);
+
+    private record Cached(Placement placement, long loadedAt) {}
+
+    private final JdbcTemplate directory;
+    private final ConsistentHashRing ring;
+    private final int shardCount;
+    private final long cacheMillis;
+    private final ConcurrentMap<String, Cached> cache = new ConcurrentHashMap<>();
+
+    public ShardRouter(@Qualifier("primaryDataSource") DataSource home, ShardingProperties properties) {
+        this.directory = new JdbcTemplate(home);
+        this.shardCount = properties.getShards().size() + 1;
+        this.cacheMillis = properties.getDirectoryCache().toMillis();
+
+        Map<Integer, Integer> weights = new LinkedHashMap<>();
+        weights.put(ShardContext.HOME, properties.getHomeWeight());
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            weights.put(i + 1, properties.getShards().get(i).getWeight());
+        }
+        this.ring = new ConsistentHashRing(weights);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public Placement placementOf(String email) {
+        if (!isSharded() || email == null) {
+            return HOME;
+        }
+        String key = key(email);
+        long now = System.currentTimeMillis();
+        Cached cached = cache.get(key);
+        if (cached != null && now - cached.loadedAt() < cacheMillis) {
+            return cached.placement();
+        }
+        Placement placement = load(key);
+        cache.put(key, new Cached(placement, now));
+        return placement;
+    }
+
+    // Uncached; used by moves, which must see the latest state
+    Placement load(String email) {
+        List<Placement> rows = directory.query(
+                "SELECT shard, moving FROM shard_directory WHERE user_email = ?",
+                (rs, i) -> new Placement(rs.getInt("shard"), rs.getBoolean("moving")), key(email));
+        return rows.isEmpty() ? HOME : rows.get(0);
+    }
+
+    public int ringShardOf(String email) {
+        return ring.shardOf(key(email));
+    }
+
+    // Places a new user by hash; a user who already has a row keeps it
+    public void assign(String email) {
+        if (!isSharded() || email == null) {
+            return;
+        }
+        String key = key(email);
+        directory.update("INSERT IGNORE INTO shard_directory (user_email, shard, moving, updated_at) " +
+                         "VALUES (?, ?, false, ?)", key, ring.shardOf(key), now());
+        cache.remove(key);
+    }
+
+    void markMoving(String email, int shard) {
+        upsert(email, shard, true);
+    }
+
+    void place(String email, int shard) {
+        upsert(email, shard, false);
+    }
+
+    private void upsert(String email, int shard, boolean moving) {
+        String key = key(email);
+        directory.update("INSERT INTO shard_directory (user_email, shard, moving, updated_at) VALUES (?, ?, ?, ?) " +
+                         "ON DUPLICATE KEY UPDATE shard = VALUES(shard), moving = VALUES(moving), " +
+                         "updated_at = VALUES(updated_at)", key, shard, moving, now());
+        cache.remove(key);
+    }
+
+    // Users with a directory row per shard; shard 0 also holds everyone without one
+    Map<Integer, Long> assignedUsers() {
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            counts.put(shard, 0L);
+        }
+        directory.query("SELECT shard, COUNT(*) AS users FROM shard_directory GROUP BY shard",
+                rs -> { counts.put(rs.getInt("shard"), rs.getLong("users")); });
+        return counts;
+    }
+
+    List<String> movingUsers() {
+        return directory.queryForList("SELECT user_email FROM shard_directory WHERE moving = true", String.class);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purge() {
+        long cutoff = System.currentTimeMillis() - cacheMillis;
+        cache.values().removeIf(c -> c.loadedAt() < cutoff);
+    }
+
+    static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
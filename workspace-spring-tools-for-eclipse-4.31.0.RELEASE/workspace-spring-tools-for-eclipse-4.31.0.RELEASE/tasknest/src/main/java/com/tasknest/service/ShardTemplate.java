@@ -0,0 +1,123 @@
+package com.tasknest.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs repository work on the right shard.
+ *
+ * {@link #read}/{@link #write} route by user email. Inside a
+ * {@code @Transactional} method they must wrap the work before its first
+ * query: the transaction binds to whichever shard is current when it first
+ * touches the database. {@link #locate} finds a row by id when only the id
+ * is known, {@link #scatter} fans an admin query out to every shard. With a
+ * single shard everything runs inline and nothing changes.
+ */
+@Component
+public class ShardTemplate {
+
+    private final ShardRouter router;
+    private final TransactionTemplate outsideTransaction;
+    private final AsyncTaskExecutor shardExecutor;
+
+    public ShardTemplate(ShardRouter router, PlatformTransactionManager transactionManager,
+                         @Qualifier("shardExecutor") AsyncTaskExecutor shardExecutor) {
+        this.router = router;
+        this.outsideTransaction = new TransactionTemplate(transactionManager);
+        this.outsideTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        this.shardExecutor = shardExecutor;
+    }
+
+    public int shardCount() {
+        return router.shardCount();
+    }
+
+    public <T> T read(String email, Supplier<T> work) {
+        return onShard(router.placementOf(email).shard(), work);
+    }
+
+    public <T> T write(String email, Supplier<T> work) {
+        ShardRouter.Placement placement = router.placementOf(email);
+        if (placement.moving()) {
+            throw new RuntimeException("This account is being moved to another database, please retry in a minute");
+        }
+        return onShard(placement.shard(), work);
+    }
+
+    public void write(String email, Runnable work) {
+        write(email, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = ShardContext.get();
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            int current = shard;
+            onShard(current, () -> {
+                work.accept(current);
+                return null;
+            });
+        }
+    }
+
+    // Same query on every shard in parallel, results concatenated in shard order
+    public <T> List<T> scatter(Supplier<? extends Collection<T>> query) {
+        if (!router.isSharded()) {
+            return new ArrayList<>(query.get());
+        }
+        List<CompletableFuture<? extends Collection<T>>> parts = new ArrayList<>();
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            int current = shard;
+            parts.add(CompletableFuture.supplyAsync(() -> onShard(current, query), shardExecutor));
+        }
+        List<T> result = new ArrayList<>();
+        for (CompletableFuture<? extends Collection<T>> part : parts) {
+            result.addAll(part.join());
+        }
+        return result;
+    }
+
+    /**
+     * Finds a row by id on whichever shard has it (ids are unique across
+     * shards). Runs outside the caller's transaction so that transaction is
+     * still free to bind to the owner's shard afterwards; the returned entity
+     * is detached and only meant for routing, e.g. by its user email.
+     */
+    public <T> Optional<T> locate(Supplier<Optional<T>> lookup) {
+        if (!router.isSharded()) {
+            return lookup.get();
+        }
+        return outsideTransaction.execute(status -> {
+            for (int shard = 0; shard < router.shardCount(); shard++) {
+                Optional<T> found = onShard(shard, lookup);
+                if (found.isPresent()) {
+                    return found;
+                }
+            }
+            return Optional.<T>empty();
+        });
+    }
+}
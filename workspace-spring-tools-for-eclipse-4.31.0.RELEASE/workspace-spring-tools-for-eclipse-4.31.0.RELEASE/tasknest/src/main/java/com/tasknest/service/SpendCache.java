@@ -0,0 +1,190 @@
+package com.tasknest.service;
+
+import com.tasknest.entity.Budget;
+import com.tasknest.entity.Expenses;
+import com.tasknest.repository.BudgetRepository;
+import com.tasknest.repository.ExpensesRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * One {@link SpendColumns} per user, loaded from the user's expenses and
+ * budgets on their first stats or report read and kept current from the
+ * committed expense and budget ChangeEvents. A bulk change (recurrence
+ * instances, account deletion) drops the columns so the next read reloads.
+ *
+ * Events only come from this node, so a read more than recheck after the
+ * last check also reads the user's expense version (CollectionVersions, one
+ * primary-key lookup) and reloads the columns when it moved: writes on other
+ * nodes, the recurrence scheduler and PartitionMaintenance moving old months
+ * to the archive tables (which the queries do not read either) all move it. The budgets
+ * are a row per month and are simply re-read with each check. A local write
+ * moves the version too, so after one the columns reload once more. recheck
+ * defaults to the coalescing user ttl, so stats are no staler from columns
+ * than they already are from ReadCoalescing.
+ *
+ * Columns are held in LRU order under a memory budget across all users and
+ * dropped once a user has not read for the idle time. A user whose columns
+ * alone exceed the budget, or whose amounts cannot be held exactly, is served
+ * from the database as before.
+ */
+@Component
+public class SpendCache {
+
+    private static final class Entry {
+        SpendColumns columns;
+        long version;
+        long checkedAt;
+        volatile long lastUsed = System.currentTimeMillis();
+        volatile long bytes;
+        boolean loaded;
+    }
+
+    private final ExpensesRepository expensesRepo;
+    private final BudgetRepository budgetRepo;
+    private final ShardTemplate shards;
+    private final CollectionVersions versions;
+    private final long maxBytes;
+    private final long recheckMillis;
+    private final long idleMillis;
+
+    // access-ordered: the eldest entry is the least recently used
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public SpendCache(ExpensesRepository expensesRepo, BudgetRepository budgetRepo, ShardTemplate shards,
+                      CollectionVersions versions,
+                      @Value("${tasknest.spend-cache.max-memory:64MB}") DataSize maxMemory,
+                      @Value("${tasknest.spend-cache.recheck:${tasknest.coalescing.user-ttl:1s}}") Duration recheck,
+                      @Value("${tasknest.spend-cache.idle:30m}") Duration idle) {
+        this.expensesRepo = expensesRepo;
+        this.budgetRepo = budgetRepo;
+        this.shards = shards;
+        this.versions = versions;
+        this.maxBytes = maxMemory.toBytes();
+        this.recheckMillis = recheck.toMillis();
+        this.idleMillis = idle.toMillis();
+    }
+
+    /** Runs {@code work} on the user's columns; empty when they are not cached and the caller should query. */
+    public <T> Optional<T> scan(String email, Long userId, Function<SpendColumns, T> work) {
+        if (maxBytes <= 0 || userId == null) {
+            return Optional.empty();
+        }
+        String key = ShardRouter.key(email);
+        Entry entry = entryFor(key);
+        // loads and checks run under the entry's lock; concurrent reads and events wait for them
+        synchronized (entry) {
+            long now = System.currentTimeMillis();
+            if (!entry.loaded || now - entry.checkedAt >= recheckMillis) {
+                // the version before the rows: a write in between costs one more reload, never a missed one
+                long version = versions.current(email, ChangeEvent.EXPENSES);
+                List<Budget> budgets = shards.read(email, () -> budgetRepo.findByUserId(userId));
+                if (!entry.loaded || version != entry.version) {
+                    List<Expenses> expenses = shards.read(email, () -> expensesRepo.findByUserId(userId));
+                    SpendColumns columns = SpendColumns.of(expenses, budgets);
+                    entry.columns = columns != null && columns.bytes() <= maxBytes ? columns : null;
+                } else if (entry.columns != null) {
+                    entry.columns.replaceBudgets(budgets);
+                }
+                entry.bytes = entry.columns == null ? 0 : entry.columns.bytes();
+                entry.version = version;
+                entry.checkedAt = now;
+                entry.loaded = true;
+            }
+            entry.lastUsed = now;
+            if (entry.columns == null) {
+                return Optional.empty();
+            }
+            T result = work.apply(entry.columns);
+            evictOverBudget(key);
+            return Optional.of(result);
+        }
+    }
+
+    // Before ReadCoalescing's listener, so the stats it drops are never recomputed from columns missing this write
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        boolean expense = ChangeEvent.EXPENSES.equals(event.collection());
+        if (event.userEmail() == null || !expense && !ChangeEvent.BUDGETS.equals(event.collection())) {
+            return;
+        }
+        String key = ShardRouter.key(event.userEmail());
+        Entry entry;
+        synchronized (entries) {
+            if (event.action().equals("refresh")) {
+                entries.remove(key);
+                return;
+            }
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return; // not loaded, the first read sees the committed rows
+        }
+        synchronized (entry) {
+            if (entry.columns == null) {
+                return;
+            }
+            boolean kept = true;
+            if (event.data() instanceof Expenses e && e.getExpenseId() != null) {
+                kept = entry.columns.put(e.getExpenseId(), e.getPurchaseDate(), e.getCategory(), e.getAmount());
+            } else if (expense && event.action().equals("deleted") && event.id() instanceof Long id) {
+                entry.columns.remove(id);
+            } else if (event.data() instanceof Budget b) {
+                entry.columns.putBudget(b.getMonth(), b.getMonthlyBudget());
+            }
+            entry.bytes = entry.columns.bytes();
+            if (!kept) {
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purge() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.lastUsed < cutoff);
+        }
+    }
+
+    private Entry entryFor(String key) {
+        synchronized (entries) {
+            return entries.computeIfAbsent(key, k -> new Entry());
+        }
+    }
+
+    // drop least recently used columns until the total fits, never the ones just used
+    private void evictOverBudget(String current) {
+        synchronized (entries) {
+            long total = 0;
+            for (Entry entry : entries.values()) {
+                total += entry.bytes;
+            }
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (total > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Entry> next = eldest.next();
+                if (!next.getKey().equals(current)) {
+                    total -= next.getValue().bytes;
+                    eldest.remove();
+                }
+            }
+        }
+    }
+}
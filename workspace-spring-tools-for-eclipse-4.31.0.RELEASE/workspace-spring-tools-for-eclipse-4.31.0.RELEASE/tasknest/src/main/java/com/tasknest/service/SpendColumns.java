@@ -0,0 +1,262 @@
+package com.tasknest.service;
+
+import com.tasknest.entity.Budget;
+import com.tasknest.entity.Expenses;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * One user's expenses as parallel primitive columns sorted by day: epoch day,
+ * category id and amount in cents, plus the expense id so writes can find
+ * their row. A month or a range of months is a binary search for the first
+ * and last day and a scan of the slice between, with nothing allocated per
+ * row. Amounts are kept at two decimals, as DECIMAL(15,2) stores them, so the
+ * numbers match what the same query would read. Also holds the user's
+ * monthly budgets.
+ *
+ * Not thread-safe; {@link SpendCache} guards each instance.
+ */
+public final class SpendColumns {
+
+    // id, day, category, cents
+    static final int BYTES_PER_ROW = 8 + 4 + 4 + 8;
+
+    public interface MonthSpend {
+        void accept(YearMonth month, String category, long cents);
+    }
+
+    private long[] ids = new long[16];
+    private int[] days = new int[16];
+    private int[] categories = new int[16];
+    private long[] cents = new long[16];
+    private int size;
+
+    private final Map<String, Integer> categoryIds = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+    private final Map<String, BigDecimal> budgets = new HashMap<>();
+
+    // sum of |cents|: while it fits in a long, no slice can overflow
+    private long absoluteCents;
+
+    /** The user's expenses and budgets in columns, or null when some amount cannot be held exactly. */
+    public static SpendColumns of(List<Expenses> expenses, List<Budget> budgets) {
+        SpendColumns columns = new SpendColumns();
+        for (Expenses e : expenses) {
+            if (!columns.append(e.getExpenseId(), e.getPurchaseDate(), e.getCategory(), e.getAmount())) {
+                return null;
+            }
+        }
+        columns.sort();
+        budgets.forEach(b -> columns.putBudget(b.getMonth(), b.getMonthlyBudget()));
+        return columns;
+    }
+
+    /** Adds or replaces an expense; false, with the row removed, when its amount cannot be held exactly. */
+    public boolean put(long id, LocalDate day, String category, BigDecimal amount) {
+        remove(id);
+        long value = toCents(amount);
+        if (day == null || value == Long.MIN_VALUE) {
+            return false;
+        }
+        int at = upperBound(day.toEpochDay());
+        if (!grow(value)) {
+            return false;
+        }
+        System.arraycopy(ids, at, ids, at + 1, size - at);
+        System.arraycopy(days, at, days, at + 1, size - at);
+        System.arraycopy(categories, at, categories, at + 1, size - at);
+        System.arraycopy(cents, at, cents, at + 1, size - at);
+        set(at, id, day, category, value);
+        size++;
+        return true;
+    }
+
+    public void remove(long id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                absoluteCents -= Math.abs(cents[i]);
+                System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                System.arraycopy(days, i + 1, days, i, size - i - 1);
+                System.arraycopy(categories, i + 1, categories, i, size - i - 1);
+                System.arraycopy(cents, i + 1, cents, i, size - i - 1);
+                size--;
+                return;
+            }
+        }
+    }
+
+    public void putBudget(String month, BigDecimal monthlyBudget) {
+        if (month != null && monthlyBudget != null) {
+            budgets.put(month, monthlyBudget.setScale(2, RoundingMode.HALF_UP));
+        }
+    }
+
+    /** Replaces every budget with these rows, as re-read from the database. */
+    public void replaceBudgets(List<Budget> rows) {
+        budgets.clear();
+        rows.forEach(b -> putBudget(b.getMonth(), b.getMonthlyBudget()));
+    }
+
+    /** The month's budget (YYYY-MM), null when the month has no budget row. */
+    public BigDecimal budget(String month) {
+        return budgets.get(month);
+    }
+
+    public void forEachBudget(YearMonth from, YearMonth to, BiConsumer<String, BigDecimal> consumer) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            BigDecimal budget = budgets.get(month.toString());
+            if (budget != null) {
+                consumer.accept(month.toString(), budget);
+            }
+        }
+    }
+
+    /** Spend per day and category from first to last, inclusive. */
+    public SpendTotals totals(LocalDate first, LocalDate last) {
+        SpendTotals totals = new SpendTotals(first, last);
+        int from = lowerBound(first.toEpochDay());
+        int to = lowerBound(last.toEpochDay() + 1);
+        totals.addColumns(days, categories, cents, from, to, categoryNames, 2);
+        return totals;
+    }
+
+    /** Cents per month and category for every month and category with at least one expense, in month order. */
+    public void forEachMonth(YearMonth from, YearMonth to, MonthSpend consumer) {
+        long[] byCategory = new long[categoryNames.size()];
+        boolean[] seen = new boolean[categoryNames.size()];
+        int i = lowerBound(from.atDay(1).toEpochDay());
+        int end = lowerBound(to.atEndOfMonth().toEpochDay() + 1);
+        while (i < end) {
+            YearMonth month = YearMonth.from(LocalDate.ofEpochDay(days[i]));
+            int monthEnd = Math.min(end, lowerBound(month.plusMonths(1).atDay(1).toEpochDay()));
+            for (; i < monthEnd; i++) {
+                byCategory[categories[i]] += cents[i];
+                seen[categories[i]] = true;
+            }
+            for (int c = 0; c < byCategory.length; c++) {
+                if (seen[c]) {
+                    consumer.accept(month, categoryNames.get(c), byCategory[c]);
+                    byCategory[c] = 0;
+                    seen[c] = false;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // rough heap footprint, for the cache's memory budget
+    public long bytes() {
+        return (long) ids.length * BYTES_PER_ROW + 64L * (categoryNames.size() + budgets.size()) + 256;
+    }
+
+    private boolean append(Long id, LocalDate day, String category, BigDecimal amount) {
+        long value = toCents(amount);
+        if (id == null || day == null || value == Long.MIN_VALUE || !grow(value)) {
+            return false;
+        }
+        set(size++, id, day, category, value);
+        return true;
+    }
+
+    private void set(int at, long id, LocalDate day, String category, long value) {
+        ids[at] = id;
+        days[at] = (int) day.toEpochDay();
+        categories[at] = categoryId(category);
+        cents[at] = value;
+    }
+
+    // room for one more row and its amount within the overflow bound
+    private boolean grow(long value) {
+        try {
+            absoluteCents = Math.addExact(absoluteCents, Math.abs(value));
+        } catch (ArithmeticException e) {
+            return false;
+        }
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            days = Arrays.copyOf(days, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            cents = Arrays.copyOf(cents, capacity);
+        }
+        return true;
+    }
+
+    // after a bulk append: order rows by day, keeping load order within a day
+    private void sort() {
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) days[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        long[] sortedIds = new long[ids.length];
+        int[] sortedDays = new int[ids.length];
+        int[] sortedCategories = new int[ids.length];
+        long[] sortedCents = new long[ids.length];
+        for (int i = 0; i < size; i++) {
+            int from = (int) keys[i];
+            sortedIds[i] = ids[from];
+            sortedDays[i] = days[from];
+            sortedCategories[i] = categories[from];
+            sortedCents[i] = cents[from];
+        }
+        ids = sortedIds;
+        days = sortedDays;
+        categories = sortedCategories;
+        cents = sortedCents;
+    }
+
+    private int categoryId(String category) {
+        Integer id = categoryIds.get(category);
+        if (id == null) {
+            id = categoryNames.size();
+            categoryIds.put(category, id);
+            categoryNames.add(category);
+        }
+        return id;
+    }
+
+    // first row on or after day
+    private int lowerBound(long day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // first row after day
+    private int upperBound(long day) {
+        return lowerBound(day + 1);
+    }
+
+    // the stored amount in cents, rounded to two decimals as the column does; Long.MIN_VALUE when null or too large
+    static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
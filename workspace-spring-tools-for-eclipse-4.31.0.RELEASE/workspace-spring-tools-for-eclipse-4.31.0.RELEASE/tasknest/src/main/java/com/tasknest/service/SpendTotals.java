@@ -0,0 +1,231 @@
+package com.tasknest.service;
+
+import com.tasknest.entity.Expenses;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spend over a range of days, summed exactly in long cents: per day (indexed
+ * by epoch day from the first) and per category (small int ids in first-seen
+ * order), with no object allocated per expense once its amount is in cents.
+ * Amounts become BigDecimal again only in {@link #toStats}, which returns what
+ * {@link #bigDecimalStats} returns for the same rows, down to the scale of
+ * every number. The most spent category is the one with the highest total;
+ * a tie goes to the name that sorts first (a null category last), so the
+ * answer does not depend on the order the rows arrive in.
+ *
+ * {@link #add} refuses amounts it cannot carry exactly (null, finer than a
+ * cent, or a total past the long range); callers then use the BigDecimal path.
+ */
+public final class SpendTotals {
+
+    private final long firstDay;
+    private final long[] dailyCents;
+    private final boolean[] spentOn;
+    private int days;
+
+    private final Map<String, Integer> categoryIds = new HashMap<>();
+    private String[] categories = new String[16];
+    private long[] categoryCents = new long[16];
+
+    private long totalCents;
+    private int scale;
+
+    public SpendTotals(LocalDate first, LocalDate last) {
+        this.firstDay = first.toEpochDay();
+        int length = (int) (last.toEpochDay() - firstDay + 1);
+        this.dailyCents = new long[length];
+        this.spentOn = new boolean[length];
+    }
+
+    /** Monthly stats for these rows, from cents when every amount allows it. */
+    public static Map<String, Object> monthlyStats(BigDecimal monthlyBudget, List<Expenses> expenses,
+                                                   LocalDate first, LocalDate last) {
+        SpendTotals totals = new SpendTotals(first, last);
+        for (Expenses e : expenses) {
+            if (!totals.add(e.getPurchaseDate(), e.getCategory(), e.getAmount())) {
+                return bigDecimalStats(monthlyBudget, expenses);
+            }
+        }
+        return totals.toStats(monthlyBudget);
+    }
+
+    // false, and nothing added, when the amount or day cannot be carried exactly
+    public boolean add(LocalDate day, String category, BigDecimal amount) {
+        if (day == null || amount == null || amount.scale() > 2) {
+            return false;
+        }
+        long cents;
+        try {
+            cents = amount.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            return false;
+        }
+        return add(day.toEpochDay(), category, cents, Math.max(amount.scale(), 0));
+    }
+
+    public boolean add(long epochDay, String category, long cents, int amountScale) {
+        long index = epochDay - firstDay;
+        if (index < 0 || index >= dailyCents.length) {
+            return false;
+        }
+        int day = (int) index;
+        Integer id = categoryIds.get(category);
+        long total;
+        long daily;
+        long byCategory;
+        try {
+            total = Math.addExact(totalCents, cents);
+            daily = Math.addExact(dailyCents[day], cents);
+            byCategory = id == null ? cents : Math.addExact(categoryCents[id], cents);
+        } catch (ArithmeticException e) {
+            return false;
+        }
+        if (id == null) {
+            id = newCategory(category);
+        }
+        totalCents = total;
+        dailyCents[day] = daily;
+        categoryCents[id] = byCategory;
+        if (!spentOn[day]) {
+            spentOn[day] = true;
+            days++;
+        }
+        scale = Math.max(scale, amountScale);
+        return true;
+    }
+
+    /**
+     * Adds rows from..to-1 of day-sorted columns, as {@link SpendColumns} keeps
+     * them: the same as {@link #add} per row, but category ids index
+     * {@code names} instead of being hashed, and the total is a plain sum over
+     * the cents slice. The caller guarantees every day is in range and that no
+     * sum can leave the long range.
+     */
+    void addColumns(int[] epochDays, int[] categoryIds, long[] cents, int from, int to, List<String> names,
+                    int amountScale) {
+        if (from >= to) {
+            return;
+        }
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += cents[i];
+        }
+        int[] local = new int[names.size()];
+        Arrays.fill(local, -1);
+        for (int i = from; i < to; i++) {
+            int id = local[categoryIds[i]];
+            if (id < 0) {
+                String name = names.get(categoryIds[i]);
+                Integer known = this.categoryIds.get(name);
+                id = known != null ? known : newCategory(name);
+                local[categoryIds[i]] = id;
+            }
+            categoryCents[id] += cents[i];
+            int day = (int) (epochDays[i] - firstDay);
+            dailyCents[day] += cents[i];
+            if (!spentOn[day]) {
+                spentOn[day] = true;
+                days++;
+            }
+        }
+        totalCents += sum;
+        scale = Math.max(scale, amountScale);
+    }
+
+    public long totalCents() {
+        return totalCents;
+    }
+
+    // Same map as bigDecimalStats: a sum keeps the largest scale among its terms, the average is HALF_UP to cents
+    public Map<String, Object> toStats(BigDecimal monthlyBudget) {
+        BigDecimal totalSpent = BigDecimal.valueOf(totalCents, 2).setScale(scale, RoundingMode.UNNECESSARY);
+        BigDecimal avgDaily = days == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(divideHalfUp(totalCents, days), 2);
+        return Map.of(
+                "monthlyBudget", monthlyBudget,
+                "totalSpent", totalSpent,
+                "availableBudget", monthlyBudget.subtract(totalSpent),
+                "mostSpentCategory", mostSpentCategory(),
+                "avgDailySpent", avgDaily
+        );
+    }
+
+    /** The original path: every amount added as a BigDecimal, per category and per day. */
+    public static Map<String, Object> bigDecimalStats(BigDecimal monthlyBudget, List<Expenses> expenses) {
+        BigDecimal totalSpent = expenses.stream()
+                .map(Expenses::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        Map<String, BigDecimal> categoryTotals = new HashMap<>();
+        Map<LocalDate, BigDecimal> dailyTotals = new HashMap<>();
+
+        for (Expenses e : expenses) {
+            categoryTotals.merge(e.getCategory(), e.getAmount(), BigDecimal::add);
+            dailyTotals.merge(e.getPurchaseDate(), e.getAmount(), BigDecimal::add);
+        }
+
+        String mostSpentCategory = mostSpent(categoryTotals);
+
+        BigDecimal avgDaily =
+                dailyTotals.isEmpty()
+                        ? BigDecimal.ZERO
+                        : totalSpent.divide(
+                                BigDecimal.valueOf(dailyTotals.size()),
+                                2,
+                                RoundingMode.HALF_UP
+                        );
+
+        return Map.of(
+                "monthlyBudget", monthlyBudget,
+                "totalSpent", totalSpent,
+                "availableBudget", monthlyBudget.subtract(totalSpent),
+                "mostSpentCategory", mostSpentCategory,
+                "avgDailySpent", avgDaily
+        );
+    }
+
+    private int newCategory(String category) {
+        int next = categoryIds.size();
+        if (next == categories.length) {
+            categories = Arrays.copyOf(categories, next * 2);
+            categoryCents = Arrays.copyOf(categoryCents, next * 2);
+        }
+        categories[next] = category;
+        categoryIds.put(category, next);
+        return next;
+    }
+
+    private String mostSpentCategory() {
+        Map<String, Long> byCategory = new HashMap<>();
+        for (int id = 0; id < categoryIds.size(); id++) {
+            byCategory.put(categories[id], categoryCents[id]);
+        }
+        return mostSpent(byCategory);
+    }
+
+    /** The category with the highest total, ties to the name that sorts first; "N/A" when none has a name. */
+    static <T extends Comparable<? super T>> String mostSpent(Map<String, T> totals) {
+        return totals.entrySet().stream()
+                .max(Map.Entry.<String, T>comparingByValue()
+                        .thenComparing(Map.Entry::getKey, Comparator.nullsFirst(Comparator.<String>reverseOrder())))
+                .map(Map.Entry::getKey)
+                .orElse("N/A");
+    }
+
+    // cents / days rounded to the nearest cent, halves away from zero
+    static long divideHalfUp(long cents, long days) {
+        long quotient = cents / days;
+        long remainder = Math.abs(cents % days);
+        if (remainder * 2 >= days) {
+            quotient += Long.signum(cents);
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,13 @@
+package com.tasknest.service;
+
+import java.util.Map;
+
+public interface SyncService {
+
+    /**
+     * Everything that changed for the user since the sync token (upserts per
+     * collection plus deleted ids) and the token for the next call. A missing,
+     * unreadable or expired token yields a full snapshot with "full": true.
+     */
+    Map<String, Object> changesSince(String email, String token);
+}
@@ -0,0 +1,138 @@
+package com.tasknest.service;
+
+import com.tasknest.entity.Tombstone;
+import com.tasknest.repository.ExpensesRepository;
+import com.tasknest.repository.MoodTrackRepository;
+import com.tasknest.repository.TaskRepository;
+import com.tasknest.repository.TombstoneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delta sync over updated_at and the tombstones table.
+ *
+ * The token is the server time at which the previous sync started. The next
+ * sync reads from that point minus a small overlap, so rows written by a
+ * transaction that was still open at the time (its updated_at is earlier
+ * than its commit) are not missed. Clients apply upserts by id, so rows seen
+ * twice are harmless. Tokens older than the tombstone retention can no longer
+ * describe deletes and get a full snapshot instead.
+ */
+@Service
+public class SyncServiceImpl implements SyncService {
+
+    private static final String TOKEN_PREFIX = "v1:";
+
+    private final TaskRepository taskRepo;
+    private final ExpensesRepository expensesRepo;
+    private final MoodTrackRepository moodRepo;
+    private final TombstoneRepository tombstoneRepo;
+    private final ShardTemplate shards;
+    private final UserIds userIds;
+
+    private final long overlapSeconds;
+    private final int retentionDays;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public SyncServiceImpl(TaskRepository taskRepo,
+                           ExpensesRepository expensesRepo,
+                           MoodTrackRepository moodRepo,
+                           TombstoneRepository tombstoneRepo,
+                           ShardTemplate shards,
+                           UserIds userIds,
+                           @Value("${tasknest.sync.overlap-seconds:5}") long overlapSeconds,
+                           @Value("${tasknest.sync.tombstone-retention-days:30}") int retentionDays) {
+        this.taskRepo = taskRepo;
+        this.expensesRepo = expensesRepo;
+        this.moodRepo = moodRepo;
+        this.tombstoneRepo = tombstoneRepo;
+        this.shards = shards;
+        this.userIds = userIds;
+        this.overlapSeconds = overlapSeconds;
+        this.retentionDays = retentionDays;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> changesSince(String email, String token) {
+        Long userId = userIds.idOf(email);
+        return shards.read(email, () -> changes(userId, token));
+    }
+
+    // userId is null for an unknown user, who simply has nothing to sync
+    private Map<String, Object> changes(Long userId, String token) {
+        // taken before any read, so whatever commits during this call is in the next delta
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = decode(token);
+        boolean full = since == null || since.isBefore(now.minusDays(retentionDays));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("token", encode(now));
+        result.put("full", full);
+
+        Map<String, List<Long>> deleted = new LinkedHashMap<>();
+        deleted.put(ChangeEvent.TASKS, new ArrayList<>());
+        deleted.put(ChangeEvent.EXPENSES, new ArrayList<>());
+        deleted.put(ChangeEvent.MOODS, new ArrayList<>());
+
+        if (userId == null) {
+            result.put(ChangeEvent.TASKS, List.of());
+            result.put(ChangeEvent.EXPENSES, List.of());
+            result.put(ChangeEvent.MOODS, List.of());
+        } else if (full) {
+            result.put(ChangeEvent.TASKS, taskRepo.findByUserId(userId));
+            result.put(ChangeEvent.EXPENSES, expensesRepo.findByUserId(userId));
+            result.put(ChangeEvent.MOODS, moodRepo.findByUserId(userId));
+        } else {
+            LocalDateTime from = since.minusSeconds(overlapSeconds);
+            result.put(ChangeEvent.TASKS, taskRepo.findByUserIdAndUpdatedAtAfter(userId, from));
+            result.put(ChangeEvent.EXPENSES, expensesRepo.findByUserIdAndUpdatedAtAfter(userId, from));
+            result.put(ChangeEvent.MOODS, moodRepo.findByUserIdAndUpdatedAtAfter(userId, from));
+            for (Tombstone t : tombstoneRepo.findByUserIdAndDeletedAtAfter(userId, from)) {
+                deleted.computeIfAbsent(t.getCollection(), c -> new ArrayList<>()).add(t.getEntityId());
+            }
+        }
+        result.put("deleted", deleted);
+        return result;
+    }
+
+    @Scheduled(cron = "${tasknest.sync.purge-cron:0 30 3 * * *}")
+    public void purgeTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        shards.forEachShard(shard -> tombstoneRepo.purgeOlderThan(cutoff));
+    }
+
+    String encode(LocalDateTime time) {
+        String raw = TOKEN_PREFIX + time.atZone(zone).toInstant().toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null for a missing or unreadable token, which means "start over"
+    LocalDateTime decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            if (!raw.startsWith(TOKEN_PREFIX)) {
+                return null;
+            }
+            long millis = Long.parseLong(raw.substring(TOKEN_PREFIX.length()));
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.tasknest.service;
+
+import java.time.LocalDate;
+
+// One due-date reminder; attempt counts failed deliveries so far
+public record TaskReminder(Long taskId, String userEmail, String title, LocalDate dueDate, int attempt) {
+
+    public TaskReminder retry() {
+        return new TaskReminder(taskId, userEmail, title, dueDate, attempt + 1);
+    }
+}
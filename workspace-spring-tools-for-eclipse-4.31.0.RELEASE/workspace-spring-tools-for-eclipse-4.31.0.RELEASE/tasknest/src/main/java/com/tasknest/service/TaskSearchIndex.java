@@ -0,0 +1,188 @@
+package com.tasknest.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over one user's tasks (title, category, description).
+ *
+ * Terms are lower-cased with accents stripped. Every query term must match
+ * a task, either exactly, as a prefix of an indexed term (the word still
+ * being typed) or within one or two edits for longer words. A task's score
+ * adds, per query term, its best match: field weight (title 3, category 2,
+ * description 1) times the term's rarity among this user's tasks, discounted
+ * for prefix and typo matches. Ties go to the newer task. Not thread-safe;
+ * {@link TaskSearchIndexes} locks around it.
+ */
+public class TaskSearchIndex {
+
+    static final int TITLE = 3;
+    static final int CATEGORY = 2;
+    static final int DESCRIPTION = 1;
+
+    private static final double PREFIX = 0.7;
+    private static final double TYPO = 0.5;
+
+    // term -> task id -> summed weight of the fields it appears in; sorted for prefix ranges
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> terms = new HashMap<>();
+
+    public int size() {
+        return terms.size();
+    }
+
+    public void put(long id, String title, String category, String description) {
+        remove(id);
+        Map<String, Integer> weights = new HashMap<>();
+        addField(weights, title, TITLE);
+        addField(weights, category, CATEGORY);
+        addField(weights, description, DESCRIPTION);
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+        terms.put(id, weights.keySet());
+    }
+
+    public void remove(long id) {
+        Set<String> old = terms.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String term : old) {
+            Map<Long, Integer> docs = postings.get(term);
+            docs.remove(id);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /** Task ids matching every term of {@code query}, best first. */
+    public List<Long> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || terms.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Double> scores = null;
+        for (String queryTerm : queryTerms) {
+            Map<Long, Double> best = match(queryTerm);
+            if (scores == null) {
+                scores = best;
+            } else {
+                Map<Long, Double> both = new HashMap<>();
+                for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                    Double score = best.get(entry.getKey());
+                    if (score != null) {
+                        both.put(entry.getKey(), entry.getValue() + score);
+                    }
+                }
+                scores = both;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // best score of each task for one query term
+    private Map<Long, Double> match(String queryTerm) {
+        Map<Long, Double> best = new HashMap<>();
+        Map<Long, Integer> exact = postings.get(queryTerm);
+        if (exact != null) {
+            score(best, exact, 1.0);
+        }
+        if (queryTerm.length() >= 2) {
+            for (Map<Long, Integer> docs : postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).values()) {
+                score(best, docs, PREFIX);
+            }
+        }
+        int maxEdits = maxEdits(queryTerm);
+        if (maxEdits > 0) {
+            for (Map.Entry<String, Map<Long, Integer>> entry : postings.entrySet()) {
+                String term = entry.getKey();
+                if (!term.equals(queryTerm) && Math.abs(term.length() - queryTerm.length()) <= maxEdits
+                        && editDistance(queryTerm, term, maxEdits) <= maxEdits) {
+                    score(best, entry.getValue(), TYPO);
+                }
+            }
+        }
+        return best;
+    }
+
+    private void score(Map<Long, Double> best, Map<Long, Integer> docs, double quality) {
+        double idf = Math.log(1.0 + (double) terms.size() / docs.size());
+        for (Map.Entry<Long, Integer> doc : docs.entrySet()) {
+            best.merge(doc.getKey(), quality * idf * doc.getValue(), Math::max);
+        }
+    }
+
+    static int maxEdits(String term) {
+        if (term.length() >= 8) {
+            return 2;
+        }
+        return term.length() >= 4 ? 1 : 0;
+    }
+
+    // Damerau-Levenshtein (adjacent transpositions), giving up once every cell in a row exceeds max
+    static int editDistance(String a, String b, int max) {
+        int[] before = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], before[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = before;
+            before = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        for (String token : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addField(Map<String, Integer> weights, String text, int weight) {
+        for (String token : new HashSet<>(tokenize(text))) {
+            weights.merge(token, weight, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.tasknest.service;
+
+import com.tasknest.entity.Task;
+import com.tasknest.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One {@link TaskSearchIndex} per user, built from the user's tasks on their
+ * first search and kept current from the committed task ChangeEvents that
+ * TaskServiceImpl publishes. A bulk change (recurrence instances) drops the
+ * index so the next search rebuilds it.
+ *
+ * Indexes are held in LRU order under a budget of indexed tasks across all
+ * users, and dropped once a user has not searched for the idle time. The
+ * events only carry writes made on this node, so an index is also rebuilt
+ * once it is older than max-age.
+ */
+@Component
+public class TaskSearchIndexes {
+
+    private static final class Entry {
+        final TaskSearchIndex index = new TaskSearchIndex();
+        final long loadedAt = System.currentTimeMillis();
+        volatile long lastUsed = loadedAt;
+        volatile int size;
+        boolean loaded;
+    }
+
+    private final TaskRepository repo;
+    private final ShardTemplate shards;
+    private final UserIds userIds;
+    private final int maxTasks;
+    private final long maxAgeMillis;
+    private final long idleMillis;
+
+    // access-ordered: the eldest entry is the least recently used
+    private final LinkedHashMap<String, Entry> indexes = new LinkedHashMap<>(16, 0.75f, true);
+
+    public TaskSearchIndexes(TaskRepository repo, ShardTemplate shards, UserIds userIds,
+                             @Value("${tasknest.task-search.max-tasks:200000}") int maxTasks,
+                             @Value("${tasknest.task-search.max-age:5m}") Duration maxAge,
+                             @Value("${tasknest.task-search.idle:30m}") Duration idle) {
+        this.repo = repo;
+        this.shards = shards;
+        this.userIds = userIds;
+        this.maxTasks = maxTasks;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.idleMillis = idle.toMillis();
+    }
+
+    public List<Long> search(String email, String query, int limit) {
+        Long userId = userIds.idOf(email);
+        if (userId == null) {
+            return List.of();
+        }
+        String key = ShardRouter.key(email);
+        Entry entry = entryFor(key);
+        // a first search loads under the entry's lock; concurrent searches and events wait for it
+        synchronized (entry) {
+            if (!entry.loaded) {
+                List<Task> tasks = shards.read(email, () -> repo.findByUserId(userId));
+                tasks.forEach(task -> put(entry.index, task));
+                entry.loaded = true;
+                entry.size = entry.index.size();
+            }
+            entry.lastUsed = System.currentTimeMillis();
+            List<Long> ids = entry.index.search(query, limit);
+            evictOverBudget(key);
+            return ids;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (event.userEmail() == null || !ChangeEvent.TASKS.equals(event.collection())) {
+            return;
+        }
+        String key = ShardRouter.key(event.userEmail());
+        Entry entry;
+        synchronized (indexes) {
+            if (event.action().equals("refresh")) {
+                indexes.remove(key);
+                return;
+            }
+            entry = indexes.get(key);
+        }
+        if (entry == null) {
+            return; // not loaded, the first search reads the committed rows
+        }
+        synchronized (entry) {
+            if (event.data() instanceof Task task) {
+                put(entry.index, task);
+            } else if (event.action().equals("deleted") && event.id() instanceof Long id) {
+                entry.index.remove(id);
+            }
+            entry.size = entry.index.size();
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purge() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        synchronized (indexes) {
+            indexes.values().removeIf(entry -> entry.lastUsed < cutoff);
+        }
+    }
+
+    private Entry entryFor(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (indexes) {
+            Entry entry = indexes.get(key);
+            if (entry == null || now - entry.loadedAt > maxAgeMillis) {
+                entry = new Entry();
+                indexes.put(key, entry);
+            }
+            return entry;
+        }
+    }
+
+    // drop least recently used indexes until the total fits, never the one just used
+    private void evictOverBudget(String current) {
+        synchronized (indexes) {
+            long total = 0;
+            for (Entry entry : indexes.values()) {
+                total += entry.size;
+            }
+            Iterator<Map.Entry<String, Entry>> eldest = indexes.entrySet().iterator();
+            while (total > maxTasks && eldest.hasNext()) {
+                Map.Entry<String, Entry> next = eldest.next();
+                if (!next.getKey().equals(current)) {
+                    total -= next.getValue().size;
+                    eldest.remove();
+                }
+            }
+        }
+    }
+
+    private static void put(TaskSearchIndex index, Task task) {
+        index.put(task.getId(), task.getTitle(), task.getCategory(), task.getDescription());
+    }
+}
@@ -7,6 +7,10 @@ public interface TaskService {
 
     List<Task> getTasksForUser(String email);
 
+    // Ranked full-text search over the user's tasks, best match first
+    List<Task> searchTasks(String email, String query, int limit);
+
+    // fails with "User not found" when userEmail has no account (or the account is being deleted)
     Task createTask(Task t);
 
     Task updateTask(Long id, Task task);
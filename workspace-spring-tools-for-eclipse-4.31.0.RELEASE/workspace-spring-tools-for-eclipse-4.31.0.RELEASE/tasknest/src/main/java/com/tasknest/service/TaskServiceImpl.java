@@ -1,48 +1,145 @@
 package com.tasknest.service;
 
 import com.tasknest.entity.Task;
+import com.tasknest.entity.Tombstone;
 import com.tasknest.repository.TaskRepository;
+import com.tasknest.repository.TombstoneRepository;
 import com.tasknest.service.TaskService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository repo;
+    private final TombstoneRepository tombstones;
+    private final ShardTemplate shards;
+    private final UserIds userIds;
+    private final TaskSearchIndexes searchIndexes;
+    private final ApplicationEventPublisher events;
 
-    public TaskServiceImpl(TaskRepository repo) {
+    public TaskServiceImpl(TaskRepository repo, TombstoneRepository tombstones, ShardTemplate shards,
+                           UserIds userIds, TaskSearchIndexes searchIndexes, ApplicationEventPublisher events) {
         this.repo = repo;
+        this.tombstones = tombstones;
+        this.shards = shards;
+        this.userIds = userIds;
+        this.searchIndexes = searchIndexes;
+        this.events = events;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Task> getTasksForUser(String email) {
-        return repo.findByUserEmail(email);
+        Long userId = userIds.idOf(email);
+        if (userId == null) {
+            return List.of();
+        }
+        return shards.read(email, () -> repo.findByUserId(userId));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Task> searchTasks(String email, String query, int limit) {
+        List<Long> ids = searchIndexes.search(email, query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // the index ranks, the rows come from the database in that order
+        Map<Long, Task> byId = shards.read(email, () -> repo.findAllById(ids)).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    @Transactional
     public Task createTask(Task t) {
-        return repo.save(t);
+        RequestUser.checkOwns(t.getUserEmail());
+        t.setRecurrenceSourceId(null);
+        t.setRecurrenceGeneratedUntil(null);
+        validateRecurrence(t);
+        t.setUserId(userIds.requireIdOf(t.getUserEmail()));
+        Task saved = shards.write(t.getUserEmail(), () -> repo.save(t));
+        events.publishEvent(ChangeEvent.created(saved.getUserEmail(), ChangeEvent.TASKS, saved.getId(), saved));
+        return saved;
     }
 
     @Override
+    @Transactional
     public Task updateTask(Long id, Task updatedTask) {
-        return repo.findById(id)
+        Task owner = shards.locate(() -> repo.findById(id))
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        RequestUser.checkOwns(owner.getUserEmail());
+        return shards.write(owner.getUserEmail(), () -> repo.findById(id)
                 .map(existing -> {
+                    LocalDate previousAnchor = existing.getDueDate();
                     existing.setTitle(updatedTask.getTitle());
                     existing.setDescription(updatedTask.getDescription());
                     existing.setPriority(updatedTask.getPriority());
                     existing.setCategory(updatedTask.getCategory());
                     existing.setCompleted(updatedTask.isCompleted());
                     existing.setDueDate(updatedTask.getDueDate());
-                    return repo.save(existing);
+                    if (!Objects.equals(existing.getRecurrenceRule(), updatedTask.getRecurrenceRule())
+                            || existing.getRecurrenceRule() != null && !Objects.equals(previousAnchor, existing.getDueDate())) {
+                        // regenerate the future of the series under the new rule or anchor; past instances stay
+                        existing.setRecurrenceRule(updatedTask.getRecurrenceRule());
+                        validateRecurrence(existing);
+                        existing.setRecurrenceGeneratedUntil(RecurrenceRule.regenerateAfter(existing.getDueDate(), LocalDate.now()));
+                        deletePendingInstances(existing);
+                    }
+                    Task saved = repo.save(existing);
+                    events.publishEvent(ChangeEvent.updated(saved.getUserEmail(), ChangeEvent.TASKS, id, saved));
+                    return saved;
                 })
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+                .orElseThrow(() -> new RuntimeException("Task not found")));
     }
 
     @Override
+    @Transactional
     public void deleteTask(Long id) {
-        repo.deleteById(id);
+        Task owner = shards.locate(() -> repo.findById(id)).orElse(null);
+        if (owner == null) {
+            return;
+        }
+        RequestUser.checkOwns(owner.getUserEmail());
+        shards.write(owner.getUserEmail(), () -> {
+            Task existing = repo.findById(id).orElse(null);
+            if (existing == null) {
+                return;
+            }
+            deletePendingInstances(existing);
+            repo.deleteById(id);
+            tombstones.save(new Tombstone(existing.getUserId(), existing.getUserEmail(), ChangeEvent.TASKS, id, LocalDateTime.now()));
+            events.publishEvent(ChangeEvent.deleted(existing.getUserEmail(), ChangeEvent.TASKS, id));
+        });
+    }
+
+    // Tombstones first: the insert-select must see the same rows the delete removes
+    private void deletePendingInstances(Task template) {
+        LocalDate today = LocalDate.now();
+        tombstones.recordPendingTaskInstances(template.getId(), today, LocalDateTime.now());
+        if (repo.deletePendingInstances(template.getId(), today) > 0) {
+            events.publishEvent(ChangeEvent.refresh(template.getUserEmail(), ChangeEvent.TASKS));
+        }
+    }
+
+    private void validateRecurrence(Task t) {
+        if (t.getRecurrenceRule() == null || t.getRecurrenceRule().isBlank()) {
+            t.setRecurrenceRule(null);
+            return;
+        }
+        if (t.getDueDate() == null) {
+            throw new RuntimeException("Recurring tasks need a due date");
+        }
+        RecurrenceRule.parse(t.getRecurrenceRule());
     }
 }
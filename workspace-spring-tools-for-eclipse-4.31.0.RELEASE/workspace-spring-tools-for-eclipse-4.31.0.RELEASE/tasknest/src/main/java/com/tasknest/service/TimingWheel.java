@@ -0,0 +1,170 @@
+package com.tasknest.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Hierarchical timing wheel (the Kafka purgatory design). Each level has
+ * {@code wheelSize} buckets; a level's whole span is one tick of the next
+ * level, which is created lazily. Only non-empty buckets sit in a priority
+ * queue, so {@link #advance(long)} costs O(expired buckets) rather than
+ * O(scheduled items), and entries cascade down a level when their bucket
+ * expires. Scheduling, rescheduling and cancelling by key are O(1) apart
+ * from the occasional bucket enqueue.
+ */
+public class TimingWheel<K, V> {
+
+    private final Level root;
+    private final PriorityQueue<Bucket> queue = new PriorityQueue<>(Comparator.comparingLong(b -> b.expiration));
+    private final Map<K, Entry> entries = new HashMap<>();
+    private final List<V> ready = new ArrayList<>();
+    private final int wheelSize;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.wheelSize = wheelSize;
+        this.root = new Level(tickMillis, startMillis);
+    }
+
+    // Adds or replaces the entry for key; past deadlines fire on the next advance
+    public synchronized void schedule(K key, V value, long deadlineMillis) {
+        cancel(key);
+        Entry entry = new Entry(key, value, deadlineMillis);
+        entries.put(key, entry);
+        if (!root.add(entry)) {
+            entries.remove(key);
+            ready.add(value);
+        }
+    }
+
+    public synchronized boolean cancel(K key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.bucket != null) {
+            entry.bucket.entries.remove(entry);
+            entry.bucket = null;
+        }
+        return true;
+    }
+
+    public synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            if (entry.bucket != null) {
+                entry.bucket.entries.remove(entry);
+                entry.bucket = null;
+            }
+        }
+        entries.clear();
+        ready.clear();
+    }
+
+    public synchronized boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Moves the clock to now and returns every value whose deadline has passed
+    public synchronized List<V> advance(long nowMillis) {
+        List<V> fired = new ArrayList<>(ready);
+        ready.clear();
+
+        while (!queue.isEmpty() && queue.peek().expiration <= nowMillis) {
+            Bucket bucket = queue.poll();
+            root.advance(bucket.expiration);
+            for (Entry entry : bucket.flush()) {
+                // re-insert lower down; anything inside the current tick is due
+                if (!root.add(entry)) {
+                    entries.remove(entry.key);
+                    fired.add(entry.value);
+                }
+            }
+        }
+        root.advance(nowMillis);
+        return fired;
+    }
+
+    private final class Level {
+        private final long tick;
+        private final long interval;
+        private final List<Bucket> buckets;
+        private long currentTime;
+        private Level overflow;
+
+        Level(long tick, long startMillis) {
+            this.tick = tick;
+            this.interval = tick * wheelSize;
+            this.currentTime = startMillis - (startMillis % tick);
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new Bucket());
+            }
+        }
+
+        boolean add(Entry entry) {
+            if (entry.deadline < currentTime + tick) {
+                return false;
+            }
+            if (entry.deadline < currentTime + interval) {
+                long virtualId = entry.deadline / tick;
+                Bucket bucket = buckets.get((int) (virtualId % wheelSize));
+                bucket.entries.add(entry);
+                entry.bucket = bucket;
+                if (bucket.expiration != virtualId * tick) {
+                    bucket.expiration = virtualId * tick;
+                    queue.add(bucket);
+                }
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(interval, currentTime);
+            }
+            return overflow.add(entry);
+        }
+
+        void advance(long time) {
+            if (time >= currentTime + tick) {
+                currentTime = time - (time % tick);
+                if (overflow != null) {
+                    overflow.advance(currentTime);
+                }
+            }
+        }
+    }
+
+    private final class Bucket {
+        private final LinkedHashSet<Entry> entries = new LinkedHashSet<>();
+        private long expiration = -1;
+
+        List<Entry> flush() {
+            List<Entry> flushed = new ArrayList<>(entries);
+            for (Entry entry : flushed) {
+                entry.bucket = null;
+            }
+            entries.clear();
+            expiration = -1;
+            return flushed;
+        }
+    }
+
+    private final class Entry {
+        private final K key;
+        private final V value;
+        private final long deadline;
+        private Bucket bucket;
+
+        Entry(K key, V value, long deadline) {
+            this.key = key;
+            this.value = value;
+            this.deadline = deadline;
+        }
+    }
+}
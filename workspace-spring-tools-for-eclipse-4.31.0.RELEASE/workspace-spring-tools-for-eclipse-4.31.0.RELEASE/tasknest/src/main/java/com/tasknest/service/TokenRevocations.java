@@ -0,0 +1,83 @@
+package com.tasknest.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of tokens revoked before their expiry. The list only holds tokens that
+ * have not expired yet, so it stays small; every node keeps it in memory and
+ * reloads it from revoked_tokens on the shard 0 primary, which means a
+ * revocation made on another node applies to access tokens here within one
+ * reload. Refresh checks the table directly, so a revoked refresh token is
+ * refused everywhere at once.
+ */
+@Component
+public class TokenRevocations {
+
+    private final JdbcTemplate jdbc;
+
+    // token id -> expiry in epoch seconds
+    private volatile Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    public TokenRevocations(@Qualifier("primaryDataSource") DataSource home) {
+        this.jdbc = new JdbcTemplate(home);
+    }
+
+    // false when the token was already revoked, so two refreshes racing on one token cannot both win
+    public boolean revoke(String tokenId, long expiresAt) {
+        if (tokenId == null || expiresAt <= now()) {
+            return false;
+        }
+        revoked.put(tokenId, expiresAt);
+        try {
+            jdbc.update("INSERT INTO revoked_tokens (token_id, expires_at) VALUES (?, ?)",
+                    tokenId, new Timestamp(expiresAt * 1000));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    // memory only: this runs on every authenticated request
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.containsKey(tokenId);
+    }
+
+    public boolean isRevokedNow(String tokenId) {
+        if (isRevoked(tokenId)) {
+            return true;
+        }
+        Integer rows = jdbc.queryForObject("SELECT COUNT(*) FROM revoked_tokens WHERE token_id = ?",
+                Integer.class, tokenId);
+        return rows != null && rows > 0;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelay = 30_000)
+    public void reload() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis());
+        jdbc.update("DELETE FROM revoked_tokens WHERE expires_at <= ?", cutoff);
+        Map<String, Long> fresh = new ConcurrentHashMap<>();
+        jdbc.query("SELECT token_id, expires_at FROM revoked_tokens",
+                rs -> { fresh.put(rs.getString(1), rs.getTimestamp(2).getTime() / 1000); });
+        // keep local revocations that raced with the query
+        long now = now();
+        revoked.forEach((id, expiresAt) -> {
+            if (expiresAt > now) {
+                fresh.putIfAbsent(id, expiresAt);
+            }
+        });
+        revoked = fresh;
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
@@ -0,0 +1,136 @@
+package com.tasknest.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Issues and checks HS256 JWTs. An access token carries the user's id and
+ * email and is checked with one HMAC and no database access; a refresh
+ * token lives longer and is only accepted by /api/auth/refresh, which also
+ * consults {@link TokenRevocations}.
+ *
+ * Every node must share tasknest.auth.secret. Without one a random secret is
+ * generated at startup, so tokens stop working after a restart.
+ */
+@Component
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = ENCODER.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    public record Claims(long userId, String email, String type, String id, long expiresAt) {}
+
+    public record TokenPair(String accessToken, String refreshToken, long expiresIn) {}
+
+    private final SecretKeySpec key;
+    private final long accessSeconds;
+    private final long refreshSeconds;
+
+    // Mac instances are not thread-safe and costly to create, so each thread keeps one
+    private final ThreadLocal<Mac> macs;
+
+    public TokenService(@Value("${tasknest.auth.secret:}") String secret,
+                        @Value("${tasknest.auth.access-ttl:15m}") Duration accessTtl,
+                        @Value("${tasknest.auth.refresh-ttl:14d}") Duration refreshTtl) {
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (secret.isBlank()) {
+            log.warn("tasknest.auth.secret is not set; using a random secret, tokens end with this process");
+            bytes = new byte[32];
+            new SecureRandom().nextBytes(bytes);
+        } else if (bytes.length < 32) {
+            throw new IllegalStateException("tasknest.auth.secret must be at least 32 bytes");
+        }
+        this.key = new SecretKeySpec(bytes, "HmacSHA256");
+        this.accessSeconds = accessTtl.toSeconds();
+        this.refreshSeconds = refreshTtl.toSeconds();
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public TokenPair issue(long userId, String email) {
+        return new TokenPair(sign(userId, email, ACCESS, accessSeconds),
+                sign(userId, email, REFRESH, refreshSeconds), accessSeconds);
+    }
+
+    /** The token's claims, or null when it is malformed, forged, expired or not of {@code type}. */
+    public Claims verify(String token, String type) {
+        if (token == null) {
+            return null;
+        }
+        int first = token.indexOf('.');
+        int second = token.indexOf('.', first + 1);
+        if (first < 0 || second < 0 || token.indexOf('.', second + 1) >= 0) {
+            return null;
+        }
+        try {
+            byte[] expected = hmac(token.substring(0, second));
+            if (!MessageDigest.isEqual(expected, DECODER.decode(token.substring(second + 1)))) {
+                return null;
+            }
+            JsonNode payload = JSON.readTree(DECODER.decode(token.substring(first + 1, second)));
+            Claims claims = new Claims(payload.path("sub").asLong(), payload.path("email").asText(null),
+                    payload.path("typ").asText(null), payload.path("jti").asText(null), payload.path("exp").asLong());
+            if (!type.equals(claims.type()) || claims.email() == null
+                    || claims.expiresAt() <= System.currentTimeMillis() / 1000) {
+                return null;
+            }
+            return claims;
+        } catch (IllegalArgumentException | java.io.IOException e) {
+            return null;
+        }
+    }
+
+    private String sign(long userId, String email, String type, long ttlSeconds) {
+        long now = System.currentTimeMillis() / 1000;
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sub", String.valueOf(userId));
+        payload.put("email", email.trim().toLowerCase(java.util.Locale.ROOT));
+        payload.put("typ", type);
+        payload.put("jti", UUID.randomUUID().toString());
+        payload.put("iat", now);
+        payload.put("exp", now + ttlSeconds);
+        try {
+            String signed = HEADER + "." + ENCODER.encodeToString(JSON.writeValueAsBytes(payload));
+            return signed + "." + ENCODER.encodeToString(hmac(signed));
+        } catch (java.io.IOException e) {
+            throw new RuntimeException("Could not write token", e);
+        }
+    }
+
+    private byte[] hmac(String content) {
+        return macs.get().doFinal(content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
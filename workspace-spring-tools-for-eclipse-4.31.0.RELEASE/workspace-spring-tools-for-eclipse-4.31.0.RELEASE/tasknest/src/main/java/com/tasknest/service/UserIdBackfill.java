@@ -0,0 +1,258 @@
+package com.tasknest.service;
+
+import com.tasknest.repository.SchedulerLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fills in user_id on rows written before users had numeric ids, and on rows
+ * still written by nodes running the previous version during a rollout.
+ *
+ * Rows are claimed in chunks of {@code batch-size} through the user_id index
+ * ({@code WHERE user_id IS NULL}), each chunk in its own short transaction,
+ * so the tables stay writable throughout. A row whose email matches no user
+ * gets user_id 0 and is left for an admin to look at. A first pass runs at
+ * startup before the app serves requests; after that a lease-holding node
+ * sweeps periodically. With {@code tasknest.user-ids.finalize=true}, once
+ * nothing is left to fill, the sweep makes user_id NOT NULL, moves the users
+ * primary key to id and drops the old email-keyed indexes. Only turn that on
+ * once every node runs this version.
+ */
+@Component
+public class UserIdBackfill implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(UserIdBackfill.class);
+
+    private static final String LEASE = "user-id-backfill";
+
+    // table -> primary key column
+    static final Map<String, String> CHILD_TABLES = new LinkedHashMap<>();
+    static {
+        CHILD_TABLES.put("tasks", "id");
+        CHILD_TABLES.put("expenses", "expense_id");
+        CHILD_TABLES.put("mood_track", "id");
+        CHILD_TABLES.put("budget", "budget_id");
+        CHILD_TABLES.put("tombstones", "id");
+    }
+
+    // user_id for rows whose email has no user
+    static final long UNKNOWN_USER = 0L;
+
+    private final UserIds userIds;
+    private final ShardTemplate shards;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final SchedulerLeaseRepository leaseRepository;
+
+    private final String nodeId;
+    private final int batchSize;
+    private final boolean finalizeSchema;
+    private final long leaseSeconds;
+
+    private volatile boolean finalized;
+
+    public UserIdBackfill(UserIds userIds,
+                          ShardTemplate shards,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          SchedulerLeaseRepository leaseRepository,
+                          @Value("${tasknest.scheduler.node-id:}") String nodeId,
+                          @Value("${tasknest.user-ids.batch-size:1000}") int batchSize,
+                          @Value("${tasknest.user-ids.finalize:false}") boolean finalizeSchema,
+                          @Value("${tasknest.user-ids.lease-seconds:600}") long leaseSeconds) {
+        this.userIds = userIds;
+        this.shards = shards;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leaseRepository = leaseRepository;
+        this.nodeId = nodeId.isEmpty() ? UUID.randomUUID().toString() : nodeId;
+        this.batchSize = batchSize;
+        this.finalizeSchema = finalizeSchema;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    // Blocking on purpose: reads go by user_id, so old rows must have one before the first request
+    @Override
+    public void afterSingletonsInstantiated() {
+        long filled = backfill();
+        if (filled > 0) {
+            log.info("Backfilled user_id on {} rows", filled);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${tasknest.user-ids.sweep-ms:300000}",
+               fixedDelayString = "${tasknest.user-ids.sweep-ms:300000}")
+    public void sweep() {
+        if (finalized) {
+            return;
+        }
+        leaseRepository.createIfAbsent(LEASE);
+        LocalDateTime now = LocalDateTime.now();
+        if (leaseRepository.tryAcquire(LEASE, nodeId, now, now.plusSeconds(leaseSeconds)) == 0) {
+            return;
+        }
+        try {
+            long filled = backfill();
+            if (filled > 0) {
+                log.info("Backfilled user_id on {} rows written without one", filled);
+            } else if (finalizeSchema) {
+                finalizeSchema();
+                finalized = true;
+            }
+        } finally {
+            leaseRepository.release(LEASE, nodeId);
+        }
+    }
+
+    long backfill() {
+        long[] filled = {0};
+        shards.forEachShard(shard -> {
+            for (Map.Entry<String, String> table : CHILD_TABLES.entrySet()) {
+                filled[0] += backfill(table.getKey(), table.getValue());
+            }
+        });
+        return filled[0];
+    }
+
+    private long backfill(String table, String pk) {
+        String select = "SELECT " + pk + " AS pk, user_email FROM " + table + " WHERE user_id IS NULL LIMIT ?";
+        String update = "UPDATE " + table + " SET user_id = ? WHERE " + pk + " = ? AND user_id IS NULL";
+        long filled = 0;
+        long orphans = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(select, batchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            Map<String, Long> ids = new HashMap<>();
+            List<Object[]> args = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                String email = (String) row.get("user_email");
+                Long id = ids.computeIfAbsent(email == null ? "" : email, e -> {
+                    Long found = userIds.idOf(e);
+                    return found == null ? UNKNOWN_USER : found;
+                });
+                if (id == UNKNOWN_USER) {
+                    orphans++;
+                }
+                args.add(new Object[] { id, ((Number) row.get("pk")).longValue() });
+            }
+            newTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(update, args);
+                // the rows now show up in their owners' lists
+                ids.forEach((email, id) -> {
+                    if (id != UNKNOWN_USER) {
+                        CollectionVersions.bump(jdbcTemplate, table, id, email);
+                    }
+                });
+            });
+            filled += rows.size();
+        }
+        if (orphans > 0) {
+            log.warn("{} rows in {} belong to no known user; marked with user_id {}", orphans, table, UNKNOWN_USER);
+        }
+        return filled;
+    }
+
+    // Contract step; every statement checks the current schema first, so a rerun is harmless
+    private void finalizeSchema() {
+        shards.forEachShard(shard -> {
+            for (String table : CHILD_TABLES.keySet()) {
+                Schema schema = inspect(table);
+                if (schema.userIdNullable) {
+                    log.info("Making {}.user_id NOT NULL on shard {}", table, shard);
+                    jdbcTemplate.execute("ALTER TABLE " + table + " MODIFY user_id BIGINT NOT NULL");
+                }
+                for (String index : schema.emailIndexes) {
+                    log.info("Dropping {} on {} (shard {}), superseded by a user_id index", index, table, shard);
+                    try {
+                        jdbcTemplate.execute("ALTER TABLE " + table + " DROP INDEX " + index);
+                    } catch (RuntimeException e) {
+                        // only costs disk and write time, not worth failing the rest over
+                        log.warn("Could not drop {} on {} (shard {}), drop it by hand: {}", index, table, shard,
+                                e.getMessage());
+                    }
+                }
+            }
+        });
+
+        // users only lives on shard 0
+        Schema users = inspect("users");
+        if ("email_id".equalsIgnoreCase(users.primaryKey)) {
+            log.info("Moving the users primary key from email_id to id");
+            jdbcTemplate.execute("ALTER TABLE users DROP PRIMARY KEY, ADD PRIMARY KEY (id)"
+                    + (users.emailUnique ? "" : ", ADD UNIQUE KEY uk_users_email_id (email_id)"));
+        }
+    }
+
+    private static final class Schema {
+        String primaryKey;
+        boolean userIdNullable;
+        boolean emailUnique;
+        final List<String> emailIndexes = new ArrayList<>();
+    }
+
+    private Schema inspect(String table) {
+        return jdbcTemplate.execute((ConnectionCallback<Schema>) con -> {
+            DatabaseMetaData meta = con.getMetaData();
+            String name = meta.storesUpperCaseIdentifiers() ? table.toUpperCase() : table;
+            Schema schema = new Schema();
+            try (ResultSet rs = meta.getPrimaryKeys(con.getCatalog(), con.getSchema(), name)) {
+                if (rs.next()) {
+                    schema.primaryKey = rs.getString("COLUMN_NAME");
+                }
+            }
+            try (ResultSet rs = meta.getColumns(con.getCatalog(), con.getSchema(), name, null)) {
+                while (rs.next()) {
+                    if ("user_id".equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                        schema.userIdNullable = rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable;
+                    }
+                }
+            }
+            readIndexes(meta, con.getCatalog(), con.getSchema(), name, schema);
+            return schema;
+        });
+    }
+
+    // Non-primary indexes whose leading column is user_email, and whether email_id has a unique one
+    private static void readIndexes(DatabaseMetaData meta, String catalog, String schemaName, String table,
+                                    Schema schema) throws SQLException {
+        try (ResultSet rs = meta.getIndexInfo(catalog, schemaName, table, false, false)) {
+            while (rs.next()) {
+                String index = rs.getString("INDEX_NAME");
+                if (index == null || index.equalsIgnoreCase("PRIMARY") || index.toUpperCase().startsWith("PRIMARY_KEY")) {
+                    continue;
+                }
+                String column = rs.getString("COLUMN_NAME");
+                if (rs.getShort("ORDINAL_POSITION") == 1 && "user_email".equalsIgnoreCase(column)
+                        && !schema.emailIndexes.contains(index)) {
+                    schema.emailIndexes.add(index);
+                }
+                if (!rs.getBoolean("NON_UNIQUE") && "email_id".equalsIgnoreCase(column)) {
+                    schema.emailUnique = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.tasknest.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves a user's email to their users.id, which is what the per-user
+ * tables are keyed by. Emails still arrive on every request path, so the
+ * lookup is cached per node; like the shard directory it reads the shard 0
+ * primary directly, outside whatever transaction the caller has open, which
+ * also keeps it valid while that transaction is bound to another shard.
+ *
+ * The email stays the routing key (shard directory, reminders, change
+ * topics) and is copied onto every child row, so it cannot be changed;
+ * users.email_id is not updatable. Writes resolve it with
+ * {@link #requireIdOf}, which means creating a task, expense or mood entry
+ * for an email without an account, or of an account being deleted, fails.
+ */
+@Component
+public class UserIds {
+
+    private record Cached(Long id, long loadedAt) {}
+
+    private final JdbcTemplate users;
+    private final long cacheMillis;
+    private final ConcurrentMap<String, Cached> cache = new ConcurrentHashMap<>();
+
+    public UserIds(@Qualifier("primaryDataSource") DataSource home,
+                   @Value("${tasknest.user-ids.cache:10m}") Duration cache) {
+        this.users = new JdbcTemplate(home);
+        this.cacheMillis = cache.toMillis();
+    }
+
+    // null when there is no such user; reads treat that as "nothing to show"
+    public Long idOf(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        String key = ShardRouter.key(email);
+        // the access token already named this caller's id
+        if (RequestUser.currentId() != null && key.equals(RequestUser.current())) {
+            return RequestUser.currentId();
+        }
+        long now = System.currentTimeMillis();
+        Cached cached = cache.get(key);
+        if (cached != null && now - cached.loadedAt() < cacheMillis) {
+            return cached.id();
+        }
+        List<Long> ids = users.queryForList("SELECT id FROM users WHERE email_id = ? AND deletion_requested_at IS NULL", Long.class, email.trim());
+        if (ids.isEmpty()) {
+            // not cached, a signup a moment later must be visible right away (also no account being deleted)
+            return null;
+        }
+        cache.put(key, new Cached(ids.get(0), now));
+        return ids.get(0);
+    }
+
+    // For writes: a row always belongs to an existing user
+    public Long requireIdOf(String email) {
+        Long id = idOf(email);
+        if (id == null) {
+            throw new RuntimeException("User not found: " + email);
+        }
+        return id;
+    }
+
+    public void forget(String email) {
+        if (email != null) {
+            cache.remove(ShardRouter.key(email));
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purge() {
+        long cutoff = System.currentTimeMillis() - cacheMillis;
+        cache.values().removeIf(c -> c.loadedAt() < cutoff);
+    }
+}
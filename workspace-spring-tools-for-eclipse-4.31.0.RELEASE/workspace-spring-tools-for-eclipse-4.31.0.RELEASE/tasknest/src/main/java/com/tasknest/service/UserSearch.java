@@ -0,0 +1,92 @@
+package com.tasknest.service;
+
+import com.tasknest.entity.User;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Directory search filters; null means "any". Values are normalized the
+ * same way as the generated columns they are compared with (lower-cased,
+ * domain without '@'), so every filter is a plain equality or prefix match
+ * on an indexed column.
+ */
+public record UserSearch(String name, String namePrefix, String profession, String gender,
+                         String emailDomain, Integer minAge, Integer maxAge) {
+
+    public UserSearch {
+        name = normalize(name);
+        namePrefix = normalize(namePrefix);
+        profession = normalize(profession);
+        gender = normalize(gender);
+        emailDomain = normalize(emailDomain);
+        if (emailDomain != null && emailDomain.startsWith("@")) {
+            emailDomain = normalize(emailDomain.substring(1));
+        }
+    }
+
+    public static UserSearch any() {
+        return new UserSearch(null, null, null, null, null, null, null);
+    }
+
+    public UserSearch withName(String name) {
+        return new UserSearch(name, namePrefix, profession, gender, emailDomain, minAge, maxAge);
+    }
+
+    public UserSearch withProfession(String profession) {
+        return new UserSearch(name, namePrefix, profession, gender, emailDomain, minAge, maxAge);
+    }
+
+    public UserSearch withEmailDomain(String emailDomain) {
+        return new UserSearch(name, namePrefix, profession, gender, emailDomain, minAge, maxAge);
+    }
+
+    public UserSearch withAge(Integer minAge, Integer maxAge) {
+        return new UserSearch(name, namePrefix, profession, gender, emailDomain, minAge, maxAge);
+    }
+
+    public Specification<User> toSpecification() {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            // accounts being deleted are already gone as far as the directory is concerned
+            predicates.add(cb.isNull(root.get("deletionRequestedAt")));
+            if (name != null) {
+                predicates.add(cb.equal(root.get("nameNorm"), name));
+            }
+            if (namePrefix != null) {
+                predicates.add(cb.like(root.get("nameNorm"), likePrefix(namePrefix), '\\'));
+            }
+            if (profession != null) {
+                predicates.add(cb.equal(root.get("professionNorm"), profession));
+            }
+            if (gender != null) {
+                predicates.add(cb.equal(root.get("genderNorm"), gender));
+            }
+            if (emailDomain != null) {
+                predicates.add(cb.equal(root.get("emailDomain"), emailDomain));
+            }
+            if (minAge != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("age"), minAge));
+            }
+            if (maxAge != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("age"), maxAge));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // user input is matched literally; only the trailing % is a wildcard
+    static String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
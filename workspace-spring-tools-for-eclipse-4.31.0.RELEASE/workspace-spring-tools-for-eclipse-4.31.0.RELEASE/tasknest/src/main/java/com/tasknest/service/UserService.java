@@ -2,9 +2,12 @@ package com.tasknest.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.tasknest.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 public interface UserService {
 
@@ -14,22 +17,28 @@ public interface UserService {
     // Get all users (SELECT *)
     List<User> getAllUsers();
 
-    // Get single user by email ID (Primary Key)
+    // Get single user by email ID (unique, the routing key; the primary key is id)
     Optional<User> getUserByEmailId(String emailId);
     
     
-    // Update user by email ID
+    // Update user by email ID; the email itself cannot be changed
     User updateUser(String emailId, User updatedUser);
 
-    // Delete user by email ID
+    // Delete user by email ID: the account is gone at once, its data is removed in the background
     void deleteUser(String emailId);
 
+    // Progress of that background deletion, empty if the email was never deleted
+    Optional<Map<String, Object>> getDeletionStatus(String emailId);
+
     // ---------- Custom Queries ----------
 
-    // 1. Find users by full name
+    // Directory search on the indexed, normalized columns; the lookups below are fixed filters over it
+    Page<User> searchUsers(UserSearch search, Pageable pageable);
+
+    // 1. Find users by full name (exact, case-insensitive); a blank name is rejected
     List<User> getUsersByName(String fullName);
 
-    // 2. Find users by profession
+    // 2. Find users by profession; a blank profession is rejected
     List<User> getUsersByProfession(String profession);
 
     // 3. Find users within a given age range
@@ -1,16 +1,21 @@
 package com.tasknest.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.tasknest.entity.User;
 import com.tasknest.repository.UserRepository;
 
 import java.security.SecureRandom;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -19,18 +24,26 @@ import java.util.concurrent.ConcurrentHashMap;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final UserIds userIds;
+    private final AccountDeletionJob accountDeletions;
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
     private final ConcurrentHashMap<String, String> resetTokens = new ConcurrentHashMap<>();
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, ShardRouter shardRouter, UserIds userIds,
+                           AccountDeletionJob accountDeletions) {
         this.userRepository = userRepository;
+        this.shardRouter = shardRouter;
+        this.userIds = userIds;
+        this.accountDeletions = accountDeletions;
     }
 
     @Autowired
     private JavaMailSender mailSender;
     
     @Override
+    @Transactional
     public User saveUser(User user) {
         if (!user.getPassword().equals(user.getConfirmPassword())) {
             throw new RuntimeException("Password and Confirm Password do not match!");
@@ -38,22 +51,28 @@ public class UserServiceImpl implements UserService {
         String hashed = passwordEncoder.encode(user.getPassword());
         user.setPassword(hashed);
         user.setConfirmPassword(hashed);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // a leftover row from a failed signup is harmless: it only says where this email's data goes
+        shardRouter.assign(saved.getEmailId());
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
-        return userRepository.findAll();
+        return userRepository.findAll(UserSearch.any().toSpecification());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<User> getUserByEmailId(String emailId) {
-        return userRepository.findById(emailId);
+        return userRepository.findByEmailIdAndDeletionRequestedAtIsNull(emailId);
     }
 
     @Override
+    @Transactional
     public User updateUser(String emailId, User updatedUser) {
-        return userRepository.findById(emailId).map(existing -> {
+        return userRepository.findByEmailIdAndDeletionRequestedAtIsNull(emailId).map(existing -> {
             existing.setName(updatedUser.getName());
             existing.setAge(updatedUser.getAge());
             existing.setGender(updatedUser.getGender());
@@ -68,16 +87,23 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void deleteUser(String emailId) {
-        if (!userRepository.existsById(emailId)) {
-            throw new RuntimeException("User not found");
-        }
-        userRepository.deleteById(emailId);
+        User user = userRepository.findByEmailIdAndDeletionRequestedAtIsNull(emailId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        // the account disappears now; its tasks, expenses etc. are removed in the background
+        accountDeletions.request(user.getId(), user.getEmailId());
     }
 
     @Override
+    public Optional<Map<String, Object>> getDeletionStatus(String emailId) {
+        return accountDeletions.status(emailId);
+    }
+
+    @Override
+    @Transactional
     public User resetPasswordNormal(String emailId, String newPassword) {
-        User user = userRepository.findById(emailId)
+        User user = userRepository.findByEmailIdAndDeletionRequestedAtIsNull(emailId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         String hashed = passwordEncoder.encode(newPassword);
@@ -88,37 +114,61 @@ public class UserServiceImpl implements UserService {
     }
     
     @Override
+    @Transactional(readOnly = true)
+    public Page<User> searchUsers(UserSearch search, Pageable pageable) {
+        return userRepository.findAll(search.toSpecification(), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<User> getUsersByName(String name) {
-        return userRepository.findByName(name);
+        return searchAll(UserSearch.any().withName(requireValue(name, "name")));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getUsersByProfession(String profession) {
-        return userRepository.findByProfessionIgnoreCase(profession);
+        return searchAll(UserSearch.any().withProfession(requireValue(profession, "profession")));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getUsersByAgeRange(Integer minAge, Integer maxAge) {
-        return userRepository.findByAgeBetween(minAge, maxAge);
+        return searchAll(UserSearch.any().withAge(minAge, maxAge));
     }
 
     
 
+    // primary on purpose: a login right after signup must see the new row
     @Override
+    @Transactional
     public Optional<User> login(String emailId, String password) {
-        return userRepository.findById(emailId)
+        return userRepository.findByEmailIdAndDeletionRequestedAtIsNull(emailId)
                 .filter(user -> passwordEncoder.matches(password, user.getPassword()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getAllGmailUsers() {
-        return userRepository.findAllGmailUsers();
+        return searchAll(UserSearch.any().withEmailDomain("gmail.com"));
+    }
+
+    private List<User> searchAll(UserSearch search) {
+        return userRepository.findAll(search.toSpecification(), Sort.by("id"));
+    }
+
+    // UserSearch reads a blank filter as "any", which would turn a fixed lookup into an unpaged list of everyone
+    private static String requireValue(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " must not be blank");
+        }
+        return value;
     }
 
  // -------------------- Forgot Password --------------------
     @Override
     public String generateResetToken(String email) throws Exception {
-        User user = userRepository.findById(email)
+        User user = userRepository.findByEmailIdAndDeletionRequestedAtIsNull(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         String token = new SecureRandom().ints(6, 0, 62)
@@ -149,11 +199,12 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void resetPassword(String email, String token, String newPassword) {
         if (!verifyResetToken(email, token)) {
             throw new RuntimeException("Invalid or expired reset token");
         }
-        User user = userRepository.findById(email)
+        User user = userRepository.findByEmailIdAndDeletionRequestedAtIsNull(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         String hashed = passwordEncoder.encode(newPassword);
@@ -0,0 +1,59 @@
+package com.tasknest.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pushes due-date reminders to /topic/users/{email}/reminders. A send to a
+ * topic nobody on this node subscribes to is dropped by the broker, so those
+ * reminders are returned as not reached and the engine retries them (or the
+ * mail sink, when enabled, has reached the user already).
+ */
+@Component
+public class WebSocketReminderSink implements ReminderSink {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectProvider<AbstractBrokerMessageHandler> broker;
+
+    public WebSocketReminderSink(SimpMessagingTemplate messagingTemplate,
+                                 @Qualifier("simpleBrokerMessageHandler") ObjectProvider<AbstractBrokerMessageHandler> broker) {
+        this.messagingTemplate = messagingTemplate;
+        this.broker = broker;
+    }
+
+    @Override
+    public List<TaskReminder> deliver(List<TaskReminder> batch) {
+        List<TaskReminder> unreached = new ArrayList<>();
+        for (TaskReminder reminder : batch) {
+            String topic = ChangeBroadcaster.userTopic(reminder.userEmail(), "reminders");
+            if (!hasSubscribers(topic)) {
+                unreached.add(reminder);
+                continue;
+            }
+            messagingTemplate.convertAndSend(topic, reminder);
+        }
+        return unreached;
+    }
+
+    // only the in-memory broker can tell; with any other broker every send counts as reached
+    private boolean hasSubscribers(String topic) {
+        if (!(broker.getIfAvailable() instanceof SimpleBrokerMessageHandler simple)) {
+            return true;
+        }
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setDestination(topic);
+        Message<byte[]> probe = MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+        return !simple.getSubscriptionRegistry().findSubscriptions(probe).isEmpty();
+    }
+}
@@ -0,0 +1,22 @@
+-- Account deletion runs in the background (AccountDeletionJob). The users row is flagged at once, which hides
+-- the account from logins and lookups, and stays until every child row is gone; account_deletions keeps the
+-- progress so a restart carries on where it stopped. Both statements only change metadata or add a table.
+ALTER TABLE users ADD COLUMN deletion_requested_at DATETIME(6) NULL;
+
+CREATE TABLE account_deletions (
+    user_id BIGINT NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    requested_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    completed_at DATETIME(6),
+    rows_deleted BIGINT NOT NULL,
+    current_step VARCHAR(64),
+    last_error VARCHAR(1000),
+    PRIMARY KEY (user_id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_account_deletions_email ON account_deletions (email);
+
+-- contact messages are matched to an account by email, both here and in the admin inbox
+CREATE INDEX idx_contact_messages_email ON contact_messages (email) ${online_ddl};
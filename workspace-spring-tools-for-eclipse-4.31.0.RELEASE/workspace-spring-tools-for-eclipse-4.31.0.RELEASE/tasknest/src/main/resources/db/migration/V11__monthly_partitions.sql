@@ -0,0 +1,21 @@
+-- Monthly RANGE partitions for expenses (by purchase_date) and contact_messages (by created_at), so date-range
+-- reads prune to the months they ask for and old months can be dropped or archived whole. Each table starts
+-- with a single catch-all partition; PartitionMaintenance splits it into months and keeps months ahead.
+--
+-- MySQL wants the partitioning column in every unique key, so it joins each primary key (ids stay unique on
+-- their own, and JPA keeps addressing rows by id alone). That makes purchase_date NOT NULL: undated expenses
+-- take the day they were last written.
+--
+-- Partitioning copies the table and blocks writes meanwhile (there is no online form); on a large install
+-- run this in a quiet window. The statements in /*!80013 */ only run on MySQL; other databases keep plain
+-- tables and PartitionMaintenance leaves them alone.
+UPDATE expenses SET purchase_date = COALESCE(CAST(updated_at AS DATE), CURRENT_DATE) WHERE purchase_date IS NULL;
+ALTER TABLE expenses MODIFY purchase_date DATE NOT NULL;
+
+/*!80013 ALTER TABLE expenses DROP PRIMARY KEY, ADD PRIMARY KEY (expense_id, purchase_date) */;
+/*!80013 ALTER TABLE expenses PARTITION BY RANGE COLUMNS (purchase_date)
+    (PARTITION p_future VALUES LESS THAN (MAXVALUE)) */;
+
+/*!80013 ALTER TABLE contact_messages DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at) */;
+/*!80013 ALTER TABLE contact_messages PARTITION BY RANGE COLUMNS (created_at)
+    (PARTITION p_future VALUES LESS THAN (MAXVALUE)) */;
@@ -0,0 +1,10 @@
+-- Per-user collection versions behind the conditional GETs (CollectionVersions). Every write bumps its
+-- collection's counter in its own transaction, so the ETag no longer depends on node clocks. Lives on every
+-- shard next to the user's rows and moves with them; a user without a row is at version 0.
+CREATE TABLE collection_versions (
+    user_id BIGINT NOT NULL,
+    user_email VARCHAR(255) NOT NULL,
+    collection VARCHAR(20) NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (user_id, collection)
+) ENGINE=InnoDB;
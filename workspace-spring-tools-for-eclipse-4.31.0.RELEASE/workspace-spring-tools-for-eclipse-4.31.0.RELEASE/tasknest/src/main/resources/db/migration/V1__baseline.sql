@@ -0,0 +1,79 @@
+-- Schema as Hibernate's ddl-auto=update created it on the last release before Flyway. Databases from that
+-- release are baselined at this version instead of running it; every later change is its own migration.
+-- (Hibernate named the budget unique key with a hash; nothing later refers to it by name.)
+
+CREATE TABLE users (
+    email_id VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    age INTEGER NOT NULL,
+    gender VARCHAR(255) NOT NULL,
+    profession VARCHAR(255) NOT NULL,
+    PRIMARY KEY (email_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE admin (
+    admin_email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    PRIMARY KEY (admin_email)
+) ENGINE=InnoDB;
+
+CREATE TABLE tasks (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_email VARCHAR(255) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(1000),
+    category VARCHAR(255),
+    priority VARCHAR(255),
+    due_date DATE,
+    completed BIT NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE expenses (
+    expense_id BIGINT NOT NULL AUTO_INCREMENT,
+    user_email VARCHAR(255) NOT NULL,
+    amount DECIMAL(15,2),
+    category VARCHAR(255),
+    description VARCHAR(255),
+    purchase_date DATE,
+    PRIMARY KEY (expense_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE budget (
+    budget_id BIGINT NOT NULL AUTO_INCREMENT,
+    user_email VARCHAR(255) NOT NULL,
+    month VARCHAR(255) NOT NULL,
+    monthly_budget DECIMAL(38,2) NOT NULL,
+    funds_amount DECIMAL(38,2) NOT NULL,
+    update_date DATE NOT NULL,
+    PRIMARY KEY (budget_id),
+    CONSTRAINT uk_budget_user_email_month UNIQUE (user_email, month)
+) ENGINE=InnoDB;
+
+CREATE TABLE mood_track (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_email VARCHAR(255) NOT NULL,
+    mood VARCHAR(255) NOT NULL,
+    score VARCHAR(255) NOT NULL,
+    details TEXT,
+    timestamp VARCHAR(255) NOT NULL,
+    day DATE NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE contact_messages (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    phone VARCHAR(20) NOT NULL,
+    subject VARCHAR(100) NOT NULL,
+    message TEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    is_read BIT NOT NULL,
+    is_responded BIT NOT NULL,
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,20 @@
+-- Recurring tasks and expenses: a template row carries the rule, generated rows point back at it, and
+-- RecurrenceScheduler materializes them a horizon ahead under a lease. Added columns are nullable and
+-- trailing, which MySQL 8 adds instantly; the unique keys (one instance per template and date) build online.
+ALTER TABLE tasks ADD COLUMN recurrence_rule VARCHAR(255) NULL;
+ALTER TABLE tasks ADD COLUMN recurrence_source_id BIGINT NULL;
+ALTER TABLE tasks ADD COLUMN recurrence_generated_until DATE NULL;
+
+ALTER TABLE expenses ADD COLUMN recurrence_rule VARCHAR(255) NULL;
+ALTER TABLE expenses ADD COLUMN recurrence_source_id BIGINT NULL;
+ALTER TABLE expenses ADD COLUMN recurrence_generated_until DATE NULL;
+
+CREATE UNIQUE INDEX uk_tasks_recurrence_occurrence ON tasks (recurrence_source_id, due_date) ${online_ddl};
+CREATE UNIQUE INDEX uk_expenses_recurrence_occurrence ON expenses (recurrence_source_id, purchase_date) ${online_ddl};
+
+CREATE TABLE scheduler_lease (
+    lease_name VARCHAR(100) NOT NULL,
+    owner VARCHAR(100),
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (lease_name)
+) ENGINE=InnoDB;
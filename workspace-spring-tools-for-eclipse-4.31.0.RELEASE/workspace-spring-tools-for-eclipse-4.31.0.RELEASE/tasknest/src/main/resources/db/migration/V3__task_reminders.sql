@@ -0,0 +1,5 @@
+-- ReminderService loads tasks coming due by date and records the due date it last reminded about, so a
+-- restart or a moved due date neither repeats nor drops a reminder.
+ALTER TABLE tasks ADD COLUMN reminder_sent_for DATE NULL;
+
+CREATE INDEX idx_tasks_due_date ON tasks (due_date) ${online_ddl};
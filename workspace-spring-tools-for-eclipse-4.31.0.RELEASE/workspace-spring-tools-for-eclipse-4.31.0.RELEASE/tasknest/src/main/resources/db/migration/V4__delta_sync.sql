@@ -0,0 +1,15 @@
+-- Delta sync: clients ask for what changed since their last sync, so changed rows carry updated_at and
+-- deleted ones leave a tombstone. Rows written before this have no updated_at and only come with a full sync.
+-- The per-user (user_id, updated_at) indexes the sync queries use arrive with user ids in V6.
+ALTER TABLE tasks ADD COLUMN updated_at DATETIME(6) NULL;
+ALTER TABLE expenses ADD COLUMN updated_at DATETIME(6) NULL;
+ALTER TABLE mood_track ADD COLUMN updated_at DATETIME(6) NULL;
+
+CREATE TABLE tombstones (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_email VARCHAR(255) NOT NULL,
+    collection VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,9 @@
+-- Which shard holds each user (ShardRouter); users without a row stay where their hash puts them. Only the
+-- primary's copy is read, the table exists on every shard because they share one schema.
+CREATE TABLE shard_directory (
+    user_email VARCHAR(255) NOT NULL,
+    shard INTEGER NOT NULL,
+    moving BIT NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (user_email)
+) ENGINE=InnoDB;
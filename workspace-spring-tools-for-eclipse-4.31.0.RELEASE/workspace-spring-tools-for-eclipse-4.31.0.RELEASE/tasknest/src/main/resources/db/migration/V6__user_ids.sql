@@ -0,0 +1,25 @@
+-- Expand step for numeric user ids. Users get an AUTO_INCREMENT id next to the email key, and every per-user
+-- table gets a nullable user_id with the indexes the id-keyed queries use. Nothing is backfilled here:
+-- UserIdBackfill fills user_id in small chunks after startup, and with tasknest.user-ids.finalize=true it
+-- later runs the contract step (user_id NOT NULL, users keyed by id, email-leading indexes dropped).
+--
+-- The child columns are nullable and trailing, so MySQL 8 adds them instantly, and the indexes build online.
+-- Numbering existing users is the one statement that copies a table: MySQL has no in-place way to add an
+-- AUTO_INCREMENT column. LOCK=SHARED keeps users readable (logins, lookups) while it runs and only holds
+-- back sign-ups and profile edits; users has one row per account, so the copy is short.
+ALTER TABLE users ADD COLUMN id BIGINT NOT NULL AUTO_INCREMENT UNIQUE /*!80013 , LOCK=SHARED */;
+
+ALTER TABLE tasks ADD COLUMN user_id BIGINT NULL;
+ALTER TABLE expenses ADD COLUMN user_id BIGINT NULL;
+ALTER TABLE mood_track ADD COLUMN user_id BIGINT NULL;
+ALTER TABLE budget ADD COLUMN user_id BIGINT NULL;
+ALTER TABLE tombstones ADD COLUMN user_id BIGINT NULL;
+
+CREATE INDEX idx_tasks_user_id_updated ON tasks (user_id, updated_at) ${online_ddl};
+CREATE INDEX idx_expenses_user_id_updated ON expenses (user_id, updated_at) ${online_ddl};
+CREATE INDEX idx_mood_track_user_id_updated ON mood_track (user_id, updated_at) ${online_ddl};
+CREATE INDEX idx_tombstones_user_id_deleted ON tombstones (user_id, deleted_at) ${online_ddl};
+
+-- Rows without a user_id yet don't clash (NULLs are distinct), and the email-keyed unique key keeps
+-- guarding them until the contract step drops it.
+CREATE UNIQUE INDEX uk_budget_user_id_month ON budget (user_id, month) ${online_ddl};
@@ -0,0 +1,3 @@
+-- Admin inbox lists newest first. The online_ddl placeholder (ALGORITHM=INPLACE LOCK=NONE on MySQL) keeps
+-- the table writable while the index builds; the statement fails rather than falling back to a locking copy.
+CREATE INDEX idx_contact_messages_created_at ON contact_messages (created_at) ${online_ddl};
@@ -0,0 +1,13 @@
+-- Normalized copies of the searchable user fields, so directory search compares plain columns through an
+-- index instead of wrapping every row in LOWER() or matching '%@domain'. Generated columns are VIRTUAL by
+-- default on MySQL: adding them only changes table metadata, and the indexes below build online.
+ALTER TABLE users ADD COLUMN email_domain VARCHAR(255) GENERATED ALWAYS AS (LOWER(SUBSTRING(email_id, LOCATE('@', email_id) + 1)));
+ALTER TABLE users ADD COLUMN full_name_norm VARCHAR(255) GENERATED ALWAYS AS (LOWER(full_name));
+ALTER TABLE users ADD COLUMN profession_norm VARCHAR(255) GENERATED ALWAYS AS (LOWER(profession));
+ALTER TABLE users ADD COLUMN gender_norm VARCHAR(255) GENERATED ALWAYS AS (LOWER(gender));
+
+CREATE INDEX idx_users_email_domain ON users (email_domain) ${online_ddl};
+CREATE INDEX idx_users_full_name_norm ON users (full_name_norm) ${online_ddl};
+CREATE INDEX idx_users_profession_norm ON users (profession_norm) ${online_ddl};
+CREATE INDEX idx_users_gender_norm ON users (gender_norm) ${online_ddl};
+CREATE INDEX idx_users_age ON users (age) ${online_ddl};
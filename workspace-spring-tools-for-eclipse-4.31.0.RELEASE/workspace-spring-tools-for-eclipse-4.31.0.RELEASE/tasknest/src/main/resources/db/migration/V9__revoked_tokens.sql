@@ -0,0 +1,9 @@
+-- Refresh tokens revoked before they expire (logout, rotation). Rows are kept until the token would
+-- have expired anyway; TokenRevocations mirrors the live ones in memory.
+CREATE TABLE revoked_tokens (
+    token_id VARCHAR(36) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (token_id)
+);
+
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
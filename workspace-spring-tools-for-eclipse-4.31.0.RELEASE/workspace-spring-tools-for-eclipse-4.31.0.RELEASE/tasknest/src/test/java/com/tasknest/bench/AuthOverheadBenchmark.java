@@ -0,0 +1,129 @@
+package com.tasknest.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntUnaryOperator;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tasknest.service.TokenRevocations;
+import com.tasknest.service.TokenService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Per-request cost of finding out who the caller is.
+ *
+ * "db lookup" is what a request without a token pays when UserIds misses its
+ * cache: SELECT id FROM users WHERE email_id = ? through a Hikari pool.
+ * "token" is AuthenticationFilter's path: HMAC check, payload parse and the
+ * in-memory revocation lookup. Every op names a different user, so neither
+ * side is helped by repeating one key.
+ *
+ * Defaults to an H2 in-memory database, which flatters the lookup (no network
+ * hop); pass a JDBC URL, user and password for a scratch MySQL instead. The
+ * users and revoked_tokens tables are created if missing.
+ *
+ *   java ... com.tasknest.bench.AuthOverheadBenchmark 10000 200000 4 [jdbc-url user password]
+ */
+public class AuthOverheadBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int users = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		int ops = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		try (HikariDataSource pool = new HikariDataSource()) {
+			pool.setJdbcUrl(args.length > 3 ? args[3] : "jdbc:h2:mem:auth;MODE=MySQL;DB_CLOSE_DELAY=-1");
+			if (args.length > 5) {
+				pool.setUsername(args[4]);
+				pool.setPassword(args[5]);
+			}
+			pool.setMaximumPoolSize(threads);
+			JdbcTemplate jdbc = new JdbcTemplate(pool);
+			jdbc.execute("CREATE TABLE IF NOT EXISTS users (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+					+ "email_id VARCHAR(255) NOT NULL UNIQUE)");
+			jdbc.execute("CREATE TABLE IF NOT EXISTS revoked_tokens (token_id VARCHAR(36) PRIMARY KEY, "
+					+ "expires_at DATETIME(6) NOT NULL)");
+			List<Object[]> rows = new ArrayList<>();
+			for (int i = 0; i < users; i++) {
+				rows.add(new Object[] { email(i) });
+			}
+			jdbc.batchUpdate("INSERT INTO users (email_id) SELECT ? FROM (SELECT 1) AS one "
+					+ "WHERE NOT EXISTS (SELECT 1 FROM users WHERE email_id = ?)",
+					rows.stream().map(r -> new Object[] { r[0], r[0] }).toList());
+
+			TokenService tokens = new TokenService("auth-overhead-benchmark-secret-0123456789",
+					java.time.Duration.ofMinutes(15), java.time.Duration.ofDays(14));
+			TokenRevocations revocations = new TokenRevocations(pool);
+			revocations.reload();
+			String[] accessTokens = new String[users];
+			for (int i = 0; i < users; i++) {
+				accessTokens[i] = tokens.issue(i + 1, email(i)).accessToken();
+			}
+			// a revocation list of realistic size, none of which match
+			for (int i = 0; i < 100; i++) {
+				TokenService.Claims claims = tokens.verify(tokens.issue(-1, "gone@example.com").refreshToken(),
+						TokenService.REFRESH);
+				revocations.revoke(claims.id(), claims.expiresAt());
+			}
+
+			IntUnaryOperator lookup = i -> {
+				List<Long> ids = jdbc.queryForList("SELECT id FROM users WHERE email_id = ?", Long.class,
+						email(i % users));
+				return ids.isEmpty() ? 0 : 1;
+			};
+			IntUnaryOperator verify = i -> {
+				TokenService.Claims claims = tokens.verify(accessTokens[i % users], TokenService.ACCESS);
+				return claims != null && !revocations.isRevoked(claims.id()) ? 1 : 0;
+			};
+
+			System.out.printf("%-10s %8s %12s %12s%n", "path", "threads", "ns/op", "ops/s");
+			for (int round = 0; round < 2; round++) {
+				boolean warmup = round == 0;
+				report("db lookup", lookup, warmup ? ops / 10 : ops, threads, warmup);
+				report("token", verify, warmup ? ops / 10 : ops, threads, warmup);
+			}
+		}
+	}
+
+	private static void report(String name, IntUnaryOperator op, int ops, int threads, boolean warmup)
+			throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			long start = System.nanoTime();
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int first = t;
+				results.add(executor.submit(() -> {
+					int ok = 0;
+					for (int i = first; i < ops; i += threads) {
+						ok += op.applyAsInt(i);
+					}
+					return ok;
+				}));
+			}
+			int ok = 0;
+			for (Future<Integer> result : results) {
+				ok += result.get();
+			}
+			long elapsed = System.nanoTime() - start;
+			if (ok != ops) {
+				throw new RuntimeException(name + ": " + (ops - ok) + " ops failed");
+			}
+			if (!warmup) {
+				// per op as seen by one request thread
+				System.out.printf("%-10s %8d %12d %12.0f%n", name, threads, elapsed * threads / ops,
+						ops * 1e9 / elapsed);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static String email(int i) {
+		return "user" + i + "@example.com";
+	}
+}
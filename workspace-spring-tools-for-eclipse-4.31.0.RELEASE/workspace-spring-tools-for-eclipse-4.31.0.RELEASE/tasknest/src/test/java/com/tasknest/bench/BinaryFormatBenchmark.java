@@ -0,0 +1,133 @@
+package com.tasknest.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.tasknest.entity.Expenses;
+import com.tasknest.entity.MoodTrack;
+import com.tasknest.entity.Task;
+
+/**
+ * Payload size and encode/decode CPU of JSON, CBOR and Smile for the lists
+ * the mobile app loads most: /tasks, /api/expenses/user/{email}, /api/mood
+ * and the monthly budget stats. The mappers are set up like the application's
+ * (JavaTimeModule, Blackbird, dates as strings; Smile with shared string
+ * values). Gzip sizes use the default level, as Tomcat does.
+ *
+ *   java ... com.tasknest.bench.BinaryFormatBenchmark 500 2000
+ */
+public class BinaryFormatBenchmark {
+
+	private static final String[] CATEGORIES = { "food", "grocery", "clothes", "rent", "transport", "fun" };
+	private static final String[] PRIORITIES = { "low", "medium", "high" };
+
+	public static void main(String[] args) throws Exception {
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+		Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+		formats.put("json", mapper(new JsonFactory()));
+		formats.put("cbor", mapper(new CBORFactory()));
+		formats.put("smile", mapper(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build()));
+
+		List<Task> tasks = new ArrayList<>();
+		List<Expenses> expenses = new ArrayList<>();
+		List<MoodTrack> moods = new ArrayList<>();
+		LocalDate day = LocalDate.of(2026, 1, 1);
+		for (int i = 0; i < rows; i++) {
+			Task task = new Task();
+			task.setId((long) i);
+			task.setTitle("Task number " + i);
+			task.setDescription("Remember to finish item " + i + " before the weekly review");
+			task.setPriority(PRIORITIES[i % PRIORITIES.length]);
+			task.setCategory(CATEGORIES[i % CATEGORIES.length]);
+			task.setDueDate(day.plusDays(i % 90));
+			task.setCreatedAt(LocalDateTime.of(2026, 1, 1, 9, 0).plusMinutes(i));
+			task.setUserEmail("ann@example.com");
+			tasks.add(task);
+			expenses.add(new Expenses((long) i, "Purchase " + i, day.plusDays(i % 90),
+					BigDecimal.valueOf(100 + i * 37L % 5000, 2), CATEGORIES[i % CATEGORIES.length], "ann@example.com"));
+			MoodTrack mood = new MoodTrack();
+			mood.setId((long) i);
+			mood.setDay(day.plusDays(i));
+			mood.setMood(i % 3 == 0 ? "good" : "okay");
+			mood.setScore(String.valueOf(i % 10));
+			mood.setUserEmail("ann@example.com");
+			mood.setDetails("{\"gratitude\":\"coffee\",\"challenges\":\"deadline\"}");
+			moods.add(mood);
+		}
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("monthlyBudget", new BigDecimal("1500.00"));
+		stats.put("totalSpent", new BigDecimal("1234.56"));
+		stats.put("availableBudget", new BigDecimal("265.44"));
+		stats.put("mostSpentCategory", "rent");
+		stats.put("avgDailySpent", new BigDecimal("41.15"));
+
+		System.out.printf("%-14s %-6s %9s %9s %11s %11s%n", "payload", "format", "bytes", "gzip", "enc us/op", "dec us/op");
+		for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+			ObjectMapper mapper = format.getValue();
+			report("tasks", format.getKey(), mapper, tasks,
+					mapper.getTypeFactory().constructCollectionType(List.class, Task.class), iterations);
+			report("expenses", format.getKey(), mapper, expenses,
+					mapper.getTypeFactory().constructCollectionType(List.class, Expenses.class), iterations);
+			report("moods", format.getKey(), mapper, moods,
+					mapper.getTypeFactory().constructCollectionType(List.class, MoodTrack.class), iterations);
+			report("budget stats", format.getKey(), mapper, stats,
+					mapper.getTypeFactory().constructMapType(Map.class, String.class, Object.class), iterations * 100);
+		}
+	}
+
+	private static ObjectMapper mapper(JsonFactory factory) {
+		return JsonMapper.builder(factory)
+				.addModule(new JavaTimeModule())
+				.addModule(new BlackbirdModule())
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+	}
+
+	private static void report(String payload, String format, ObjectMapper mapper, Object value, JavaType type,
+			int iterations) throws Exception {
+		byte[] bytes = mapper.writeValueAsBytes(value);
+		ByteArrayOutputStream gz = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(gz)) {
+			out.write(bytes);
+		}
+
+		for (int i = 0; i < iterations; i++) { // warm-up
+			mapper.readValue(mapper.writeValueAsBytes(value), type);
+		}
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long sink = 0;
+		long start = threads.getCurrentThreadCpuTime();
+		for (int i = 0; i < iterations; i++) {
+			sink += mapper.writeValueAsBytes(value).length;
+		}
+		long encode = threads.getCurrentThreadCpuTime() - start;
+		start = threads.getCurrentThreadCpuTime();
+		for (int i = 0; i < iterations; i++) {
+			sink += mapper.readValue(bytes, type).hashCode() & 1;
+		}
+		long decode = threads.getCurrentThreadCpuTime() - start;
+		System.out.printf("%-14s %-6s %9d %9d %11.1f %11.1f%s%n", payload, format, bytes.length, gz.size(),
+				encode / 1_000.0 / iterations, decode / 1_000.0 / iterations, sink == 0 ? "!" : "");
+	}
+}
@@ -0,0 +1,174 @@
+package com.tasknest.bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Cold start of TasknestApplication in a fresh JVM per run, the way an
+ * autoscaled instance starts.
+ *
+ * The packaged war is unpacked into plain jars next to it (the application
+ * classes become application.jar), because a class-data-sharing archive only
+ * covers classes loaded from jars. Modes:
+ *
+ *   default  the war as it is
+ *   lean     --spring.profiles.active=lean
+ *   aot      lean plus -Dspring.aot.enabled=true; needs a war built with mvn -Plean package
+ *   cds      aot plus a CDS archive, recorded once by a training run that exits after refresh
+ *
+ * Each run is timed from process launch to Boot's "Started" line; the first
+ * run of every mode is not counted. -Dbench.classpath adds entries, e.g. the
+ * JDBC driver of a scratch database. Arguments after the modes go to the
+ * application and need a reachable database, since startup runs Flyway.
+ *
+ *   java ... com.tasknest.bench.ColdStartBenchmark target/tasknest-0.0.1-SNAPSHOT.war 5 default,lean,aot,cds
+ */
+public class ColdStartBenchmark {
+
+	private static final String MAIN = "com.tasknest.demo.TasknestApplication";
+
+	public static void main(String[] args) throws Exception {
+		Path war = Path.of(args.length > 0 ? args[0] : "target/tasknest-0.0.1-SNAPSHOT.war");
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		String[] modes = (args.length > 2 ? args[2] : "default,lean,aot,cds").split(",");
+		List<String> appArgs = args.length > 3 ? Arrays.asList(args).subList(3, args.length) : List.of();
+
+		Path dir = war.resolveSibling("cold-start");
+		String classpath = unpack(war, dir);
+		String extra = System.getProperty("bench.classpath");
+		if (extra != null && !extra.isBlank()) {
+			classpath = classpath + File.pathSeparator + extra;
+		}
+
+		System.out.printf("%-10s %8s %8s %8s%n", "mode", "min", "p50", "max");
+		for (String mode : modes) {
+			List<String> jvm = jvmArgs(mode, dir, classpath, appArgs);
+			List<Long> millis = new ArrayList<>();
+			for (int round = 0; round <= rounds; round++) {
+				long elapsed = start(command(jvm, classpath, appArgs, mode));
+				if (round > 0) {
+					millis.add(elapsed);
+				}
+			}
+			Collections.sort(millis);
+			System.out.printf("%-10s %8d %8d %8d%n", mode, millis.get(0), millis.get(millis.size() / 2),
+					millis.get(millis.size() - 1));
+		}
+	}
+
+	private static List<String> jvmArgs(String mode, Path dir, String classpath, List<String> appArgs)
+			throws Exception {
+		List<String> jvm = new ArrayList<>();
+		switch (mode) {
+			case "default", "lean" -> { }
+			case "aot" -> jvm.add("-Dspring.aot.enabled=true");
+			case "cds" -> {
+				jvm.add("-Dspring.aot.enabled=true");
+				Path archive = dir.resolve("application.jsa");
+				if (!Files.exists(archive)) {
+					List<String> training = new ArrayList<>(jvm);
+					training.add("-XX:ArchiveClassesAtExit=" + archive);
+					training.add("-Dspring.context.exit=onRefresh");
+					Process process = new ProcessBuilder(command(training, classpath, appArgs, mode))
+							.redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+					if (process.waitFor() != 0 || !Files.exists(archive)) {
+						throw new RuntimeException("CDS training run failed");
+					}
+				}
+				jvm.add("-XX:SharedArchiveFile=" + archive);
+			}
+			default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+		}
+		return jvm;
+	}
+
+	private static List<String> command(List<String> jvm, String classpath, List<String> appArgs, String mode) {
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(jvm);
+		command.add("-cp");
+		command.add(classpath);
+		command.add(MAIN);
+		command.add("--server.port=0");
+		if (!mode.equals("default")) {
+			command.add("--spring.profiles.active=lean");
+		}
+		command.addAll(appArgs);
+		return command;
+	}
+
+	private static long start(List<String> command) throws Exception {
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			String line;
+			while ((line = out.readLine()) != null) {
+				if (line.contains("Started TasknestApplication")) {
+					return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				}
+				if (line.contains("APPLICATION FAILED TO START")) {
+					break;
+				}
+			}
+			throw new RuntimeException("Application did not start: " + String.join(" ", command));
+		} finally {
+			process.destroy();
+			process.waitFor();
+		}
+	}
+
+	// WEB-INF/lib and lib-provided as they are, WEB-INF/classes repacked as application.jar
+	private static String unpack(Path war, Path dir) throws IOException {
+		Path lib = dir.resolve("lib");
+		Files.createDirectories(lib);
+		// recorded against the previous classpath
+		Files.deleteIfExists(dir.resolve("application.jsa"));
+		Path application = dir.resolve("application.jar");
+		List<String> classpath = new ArrayList<>();
+		classpath.add(application.toString());
+		try (JarFile jar = new JarFile(war.toFile());
+				JarOutputStream classes = new JarOutputStream(Files.newOutputStream(application))) {
+			Enumeration<JarEntry> entries = jar.entries();
+			while (entries.hasMoreElements()) {
+				JarEntry entry = entries.nextElement();
+				String name = entry.getName();
+				// directory entries too, or Flyway's classpath scan finds no db/migration
+				if (name.startsWith("WEB-INF/classes/") && name.length() > "WEB-INF/classes/".length()) {
+					classes.putNextEntry(new JarEntry(name.substring("WEB-INF/classes/".length())));
+					if (!entry.isDirectory()) {
+						copy(jar.getInputStream(entry), classes);
+					}
+					classes.closeEntry();
+				} else if (!entry.isDirectory()
+						&& (name.startsWith("WEB-INF/lib/") || name.startsWith("WEB-INF/lib-provided/"))) {
+					Path target = lib.resolve(name.substring(name.lastIndexOf('/') + 1));
+					Files.copy(jar.getInputStream(entry), target, StandardCopyOption.REPLACE_EXISTING);
+					classpath.add(target.toString());
+				}
+			}
+		}
+		return String.join(File.pathSeparator, classpath);
+	}
+
+	private static void copy(InputStream in, OutputStream out) throws IOException {
+		try (in) {
+			in.transferTo(out);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.tasknest.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Side-by-side load test of the blocking MVC reads and their /reactive
+ * counterparts against a running server with seeded data.
+ *
+ * Each pair is hit by {@code clients} concurrent in-flight requests for
+ * {@code seconds}; the report shows throughput, latency percentiles and
+ * errors (timeouts, 5xx, pool-exhausted 500s). Run once with the default
+ * Tomcat thread pool and once with server.tomcat.threads.max lowered to see
+ * where the blocking path starts queueing.
+ *
+ *   java ... com.tasknest.bench.ReadPathLoadBenchmark http://localhost:8080 5000 30 user@example.com 2025-01
+ */
+public class ReadPathLoadBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+		int clients = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+		String email = args.length > 3 ? args[3] : "bench-0@tasknest.test";
+		String month = args.length > 4 ? args[4] : "2025-01";
+
+		String[][] pairs = {
+				{ "/tasks?email=" + email, "/reactive/tasks?email=" + email },
+				{ "/api/expenses/user/" + email, "/reactive/expenses/user/" + email },
+				{ "/api/mood?userEmail=" + email, "/reactive/mood?userEmail=" + email },
+				{ "/api/budgets/stats/" + email + "/" + month, "/reactive/budgets/stats/" + email + "/" + month },
+		};
+
+		HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+		System.out.printf("%-48s %10s %8s %8s %8s %8s%n", "path", "req/s", "p50", "p99", "max", "errors");
+		for (String[] pair : pairs) {
+			for (String path : pair) {
+				run(http, baseUrl + path, clients, 3, false);
+				Result result = run(http, baseUrl + path, clients, seconds, true);
+				System.out.printf("%-48s %10.0f %8d %8d %8d %8d%n", path, result.throughput(),
+						result.percentile(50), result.percentile(99), result.percentile(100), result.errors());
+			}
+		}
+	}
+
+	private static Result run(HttpClient http, String url, int clients, int seconds, boolean record)
+			throws InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30))
+				.header("Accept", "application/json").GET().build();
+		Semaphore inFlight = new Semaphore(clients);
+		ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+		AtomicInteger errors = new AtomicInteger();
+
+		long start = System.nanoTime();
+		long end = start + seconds * 1_000_000_000L;
+		while (System.nanoTime() < end) {
+			inFlight.acquire();
+			long sent = System.nanoTime();
+			http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+				if (failure != null || response.statusCode() >= 400) {
+					errors.incrementAndGet();
+				} else if (record) {
+					latencies.add((System.nanoTime() - sent) / 1_000_000);
+				}
+				inFlight.release();
+			});
+		}
+		inFlight.acquire(clients);
+		double elapsed = (System.nanoTime() - start) / 1e9;
+
+		List<Long> sorted = new ArrayList<>(latencies);
+		Collections.sort(sorted);
+		return new Result(sorted, sorted.size() / elapsed, errors.get());
+	}
+
+	private record Result(List<Long> latencies, double throughput, int errors) {
+
+		long percentile(int p) {
+			if (latencies.isEmpty()) {
+				return 0;
+			}
+			return latencies.get(Math.min(latencies.size() - 1, latencies.size() * p / 100));
+		}
+	}
+}
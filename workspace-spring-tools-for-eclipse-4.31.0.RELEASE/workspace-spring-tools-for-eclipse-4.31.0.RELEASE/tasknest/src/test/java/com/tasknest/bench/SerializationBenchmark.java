@@ -0,0 +1,91 @@
+package com.tasknest.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.tasknest.dto.ContactMessageResponse;
+import com.tasknest.dto.UserResponse;
+import com.tasknest.entity.ContactMessage;
+import com.tasknest.entity.User;
+
+/**
+ * Bytes-on-wire and serialization CPU for the /api/users and
+ * /api/contact/messages payloads, old shape against new.
+ *
+ * "before" serializes the entities with annotations ignored, which is what
+ * the endpoints used to send (password hashes, IP address, user agent), with
+ * a plain ObjectMapper. "after" serializes the response records with the
+ * Blackbird module registered. Gzip sizes use the default level, as Tomcat does.
+ *
+ *   java ... com.tasknest.bench.SerializationBenchmark 1000 2000
+ */
+public class SerializationBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+		ObjectMapper before = JsonMapper.builder().addModule(new JavaTimeModule())
+				.disable(MapperFeature.USE_ANNOTATIONS).build();
+		ObjectMapper after = JsonMapper.builder().addModule(new JavaTimeModule())
+				.addModule(new BlackbirdModule()).build();
+
+		List<User> users = new ArrayList<>();
+		List<ContactMessage> messages = new ArrayList<>();
+		for (int i = 0; i < rows; i++) {
+			users.add(new User("user" + i + "@gmail.com", "User Number " + i, 20 + i % 50, i % 2 == 0 ? "F" : "M",
+					"Engineer", "$2a$10$" + "x".repeat(53), null));
+			ContactMessage m = new ContactMessage("Sender " + i, "sender" + i + "@mail.com", "+1555000" + i,
+					"Question " + i, "Hello, I have a question about my account number " + i + ".");
+			m.setId((long) i);
+			m.setCreatedAt(LocalDateTime.now());
+			m.setIpAddress("203.0.113." + (i % 255));
+			m.setUserAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) "
+					+ "Chrome/120.0 Safari/537.36");
+			messages.add(m);
+		}
+
+		Object usersBefore = users;
+		Object usersAfter = users.stream().map(UserResponse::from).toList();
+		Object messagesBefore = Map.of("success", true, "count", rows, "data", messages);
+		Object messagesAfter = Map.of("success", true, "count", rows,
+				"data", messages.stream().map(ContactMessageResponse::from).toList());
+
+		System.out.printf("%-28s %10s %10s %12s%n", "payload", "bytes", "gzip", "cpu us/op");
+		report("/api/users before", before, usersBefore, iterations);
+		report("/api/users after", after, usersAfter, iterations);
+		report("/api/contact/messages before", before, messagesBefore, iterations);
+		report("/api/contact/messages after", after, messagesAfter, iterations);
+	}
+
+	private static void report(String name, ObjectMapper mapper, Object payload, int iterations) throws Exception {
+		byte[] json = mapper.writeValueAsBytes(payload);
+		ByteArrayOutputStream gz = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(gz)) {
+			out.write(json);
+		}
+
+		for (int i = 0; i < iterations; i++) {
+			mapper.writeValueAsBytes(payload); // warm-up
+		}
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long cpuStart = threads.getCurrentThreadCpuTime();
+		long sink = 0;
+		for (int i = 0; i < iterations; i++) {
+			sink += mapper.writeValueAsBytes(payload).length;
+		}
+		long cpuMicros = (threads.getCurrentThreadCpuTime() - cpuStart) / 1_000 / iterations;
+		System.out.printf("%-28s %10d %10d %12d%s%n", name, json.length, gz.size(), cpuMicros, sink == 0 ? "!" : "");
+	}
+}
@@ -0,0 +1,101 @@
+package com.tasknest.bench;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.tasknest.entity.Expenses;
+import com.tasknest.service.SpendColumns;
+import com.tasknest.service.SpendTotals;
+
+/**
+ * getMonthlyStats' aggregation over one month of expenses: the BigDecimal
+ * path (a BigDecimal add and HashMap merge per row) against the long-cents
+ * path, and against a scan of the same rows held in SpendColumns. Rows are
+ * built up front, as Hibernate would hand them over, so only the aggregation
+ * is measured. Pass "gc" to add JMH's allocation profiler.
+ *
+ *   java ... com.tasknest.bench.SpendAggregationBenchmark [gc]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SpendAggregationBenchmark {
+
+	private static final String[] CATEGORIES = { "food", "grocery", "clothes", "rent", "transport", "fun",
+			"health", "travel", "gifts", "bills", "education", "other" };
+	private static final YearMonth MONTH = YearMonth.of(2026, 10);
+
+	@Param("1000000")
+	public int rows;
+
+	private List<Expenses> expenses;
+	private SpendColumns columns;
+	private final BigDecimal budget = new BigDecimal("150000000.00");
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		expenses = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			Expenses e = new Expenses();
+			e.setPurchaseDate(MONTH.atDay(1 + random.nextInt(MONTH.lengthOfMonth())));
+			e.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+			e.setExpenseId((long) i);
+			e.setAmount(BigDecimal.valueOf(1 + random.nextInt(500_00), 2)); // as read from DECIMAL(15,2)
+			expenses.add(e);
+		}
+		columns = SpendColumns.of(expenses, List.of());
+		Map<String, Object> bigDecimal = SpendTotals.bigDecimalStats(budget, expenses);
+		Map<String, Object> cents = longCents();
+		if (!bigDecimal.equals(cents)) {
+			throw new IllegalStateException("Paths disagree: " + bigDecimal + " vs " + cents);
+		}
+	}
+
+	@Benchmark
+	public Map<String, Object> bigDecimal() {
+		return SpendTotals.bigDecimalStats(budget, expenses);
+	}
+
+	@Benchmark
+	public Map<String, Object> longCents() {
+		return SpendTotals.monthlyStats(budget, expenses, MONTH.atDay(1), MONTH.atEndOfMonth());
+	}
+
+	// SpendCache's path: the month's slice of the user's cached columns, no entities involved
+	@Benchmark
+	public Map<String, Object> columns() {
+		return columns.totals(MONTH.atDay(1), MONTH.atEndOfMonth()).toStats(budget);
+	}
+
+	public static void main(String[] args) throws Exception {
+		OptionsBuilder options = new OptionsBuilder();
+		options.include(SpendAggregationBenchmark.class.getSimpleName());
+		if (args.length > 0 && args[0].equals("gc")) {
+			options.addProfiler("gc");
+		}
+		new Runner(options.build()).run();
+	}
+}
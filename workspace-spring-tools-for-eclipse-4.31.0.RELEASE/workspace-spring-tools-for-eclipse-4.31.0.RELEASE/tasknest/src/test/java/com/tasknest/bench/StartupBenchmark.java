@@ -0,0 +1,72 @@
+package com.tasknest.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.tasknest.demo.TasknestApplication;
+
+/**
+ * Startup time with Hibernate managing the schema (ddl-auto=update, Flyway
+ * off) against Flyway plus ddl-auto=validate and ddl-auto=none.
+ *
+ * Every mode starts from the same migrated schema, so "update" has nothing
+ * to change; what is left is the metadata scan itself. The application is started and closed in this
+ * JVM, modes taking turns so JIT warm-up is spread evenly; the first round
+ * is not counted. Arguments after the round count go to the application.
+ *
+ *   java ... com.tasknest.bench.StartupBenchmark 10 --spring.datasource.url=jdbc:mysql://localhost:3306/tasknest
+ */
+public class StartupBenchmark {
+
+	public static void main(String[] args) {
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		String[] appArgs = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : new String[0];
+
+		Map<String, String[]> modes = new LinkedHashMap<>();
+		// validate goes first, so an empty database is migrated by Flyway rather than created by Hibernate
+		modes.put("validate", new String[] { "--spring.jpa.hibernate.ddl-auto=validate" });
+		modes.put("none", new String[] { "--spring.jpa.hibernate.ddl-auto=none" });
+		modes.put("update", new String[] { "--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=update" });
+
+		Map<String, List<Long>> timings = new LinkedHashMap<>();
+		modes.keySet().forEach(mode -> timings.put(mode, new ArrayList<>()));
+		for (int round = 0; round <= rounds; round++) {
+			for (Map.Entry<String, String[]> mode : modes.entrySet()) {
+				long millis = start(mode.getValue(), appArgs);
+				if (round > 0) {
+					timings.get(mode.getKey()).add(millis);
+				}
+			}
+		}
+
+		System.out.printf("%-10s %8s %8s %8s%n", "mode", "min", "p50", "max");
+		timings.forEach((mode, millis) -> {
+			Collections.sort(millis);
+			System.out.printf("%-10s %8d %8d %8d%n", mode, millis.get(0), millis.get(millis.size() / 2),
+					millis.get(millis.size() - 1));
+		});
+	}
+
+	private static long start(String[] modeArgs, String[] appArgs) {
+		List<String> all = new ArrayList<>(Arrays.asList(appArgs));
+		all.addAll(Arrays.asList(modeArgs));
+		all.add("--server.port=0");
+		all.add("--spring.devtools.restart.enabled=false");
+		all.add("--spring.main.banner-mode=off");
+		all.add("--logging.level.root=WARN");
+
+		long start = System.nanoTime();
+		ConfigurableApplicationContext context = SpringApplication.run(TasknestApplication.class,
+				all.toArray(String[]::new));
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		context.close();
+		return millis;
+	}
+}
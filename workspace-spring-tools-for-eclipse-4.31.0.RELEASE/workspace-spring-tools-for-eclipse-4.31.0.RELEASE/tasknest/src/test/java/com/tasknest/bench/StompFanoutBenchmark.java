@@ -0,0 +1,129 @@
+package com.tasknest.bench;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+/**
+ * Fan-out benchmark for the STOMP change feed against a running server.
+ *
+ * Opens {@code connections} sessions spread over {@code users} accounts,
+ * creates {@code events} tasks through the REST API and reports delivery
+ * counts and end-to-end latency percentiles. 10k connections need a raised
+ * file-descriptor limit on both sides (ulimit -n 65535).
+ *
+ *   java ... com.tasknest.bench.StompFanoutBenchmark http://localhost:8080 10000 100 200
+ */
+public class StompFanoutBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+		int connections = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+		int users = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+		int events = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+
+		ThreadPoolTaskScheduler heartbeat = new ThreadPoolTaskScheduler();
+		heartbeat.setPoolSize(2);
+		heartbeat.initialize();
+
+		WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+		client.setMessageConverter(new MappingJackson2MessageConverter());
+		client.setTaskScheduler(heartbeat);
+
+		ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+		AtomicInteger failures = new AtomicInteger();
+		Semaphore inFlightConnects = new Semaphore(200);
+		List<StompSession> sessions = Collections.synchronizedList(new ArrayList<>());
+
+		String wsUrl = baseUrl.replaceFirst("^http", "ws") + "/ws";
+		long connectStart = System.nanoTime();
+		for (int i = 0; i < connections; i++) {
+			String topic = "/topic/users/bench-" + (i % users) + "@tasknest.test/changes";
+			inFlightConnects.acquire();
+			client.connectAsync(wsUrl, new StompSessionHandlerAdapter() {
+				@Override
+				public void afterConnected(StompSession session, StompHeaders headers) {
+					session.subscribe(topic, new LatencyHandler(latencies));
+					sessions.add(session);
+					inFlightConnects.release();
+				}
+
+				@Override
+				public void handleTransportError(StompSession session, Throwable exception) {
+					failures.incrementAndGet();
+					inFlightConnects.release();
+				}
+			});
+		}
+		inFlightConnects.acquire(200);
+		System.out.printf("connected %d/%d sessions in %d ms (%d failures)%n", sessions.size(), connections,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart), failures.get());
+
+		HttpClient http = HttpClient.newHttpClient();
+		for (int i = 0; i < events; i++) {
+			String body = "{\"title\":\"bench-" + System.currentTimeMillis() + "\",\"userEmail\":\"bench-"
+					+ (i % users) + "@tasknest.test\"}";
+			http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/tasks"))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.discarding());
+		}
+
+		long expected = (long) events * (sessions.size() / users);
+		long deadline = System.currentTimeMillis() + 30_000;
+		while (latencies.size() < expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+
+		List<Long> sorted = new ArrayList<>(latencies);
+		Collections.sort(sorted);
+		System.out.printf("delivered %d/%d messages%n", sorted.size(), expected);
+		if (!sorted.isEmpty()) {
+			System.out.printf("latency ms p50=%d p90=%d p99=%d max=%d%n", percentile(sorted, 50),
+					percentile(sorted, 90), percentile(sorted, 99), sorted.get(sorted.size() - 1));
+		}
+
+		sessions.forEach(StompSession::disconnect);
+		client.stop();
+		heartbeat.shutdown();
+	}
+
+	private static long percentile(List<Long> sorted, int p) {
+		return sorted.get(Math.min(sorted.size() - 1, sorted.size() * p / 100));
+	}
+
+	private record LatencyHandler(ConcurrentLinkedQueue<Long> latencies) implements StompFrameHandler {
+
+		@Override
+		public Type getPayloadType(StompHeaders headers) {
+			return Map.class;
+		}
+
+		@Override
+		public void handleFrame(StompHeaders headers, Object payload) {
+			Object data = ((Map<?, ?>) payload).get("data");
+			if (data instanceof Map<?, ?> task && task.get("title") instanceof String title
+					&& title.startsWith("bench-")) {
+				latencies.add(System.currentTimeMillis() - Long.parseLong(title.substring(6)));
+			}
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.tasknest.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.tasknest.repository.AdminRepository;
+import com.tasknest.service.TokenRevocations;
+import com.tasknest.service.TokenService;
+
+/**
+ * The filter with a real token service and stubbed revocations and admin
+ * table, authentication optional: admin routes still need an admin's token.
+ */
+class AuthenticationFilterTest {
+
+	private final TokenService tokens = new TokenService("0123456789abcdef0123456789abcdef", Duration.ofMinutes(15),
+			Duration.ofDays(14));
+	private final AdminRepository admins = mock(AdminRepository.class);
+	private final AuthenticationFilter filter = new AuthenticationFilter(tokens, mock(TokenRevocations.class), admins,
+			false);
+
+	@Test
+	void userRoutesStillWorkWithoutAToken() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse response = run(request("/tasks", null), chain);
+
+		assertEquals(200, response.getStatus());
+		assertNotNull(chain.getRequest());
+	}
+
+	@Test
+	void adminRoutesNeedAToken() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse response = run(request("/api/admin/shards/move", null), chain);
+
+		assertEquals(401, response.getStatus());
+		assertNull(chain.getRequest());
+	}
+
+	@Test
+	void adminRoutesNeedAnAdmin() throws Exception {
+		when(admins.existsByAdminEmail("boss@x.com")).thenReturn(true);
+
+		assertEquals(403, run(request("/api/admin/pools", "user@x.com"), new MockFilterChain()).getStatus());
+		MockFilterChain chain = new MockFilterChain();
+		assertEquals(200, run(request("/api/admin/pools", "boss@x.com"), chain).getStatus());
+		assertNotNull(chain.getRequest());
+	}
+
+	@Test
+	void theContactInboxIsForAdminsOnly() throws Exception {
+		when(admins.existsByAdminEmail("boss@x.com")).thenReturn(true);
+
+		for (String method : new String[] { "GET", "DELETE" }) {
+			MockFilterChain chain = new MockFilterChain();
+			assertEquals(401, run(request(method, "/api/contact/messages", null), chain).getStatus(), method);
+			assertNull(chain.getRequest());
+		}
+		assertEquals(401, run(request("DELETE", "/api/contact/messages/7", null), new MockFilterChain()).getStatus());
+		// a GET is not the form, even on its path
+		assertEquals(401, run(request("GET", "/api/contact/submit", null), new MockFilterChain()).getStatus());
+		assertEquals(403, run(request("GET", "/api/contact/messages", "user@x.com"), new MockFilterChain()).getStatus());
+		assertEquals(200, run(request("GET", "/api/contact/messages", "boss@x.com"), new MockFilterChain()).getStatus());
+	}
+
+	@Test
+	void anyoneCanPostTheContactForm() throws Exception {
+		AuthenticationFilter strict = new AuthenticationFilter(tokens, mock(TokenRevocations.class), admins, true);
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		strict.doFilter(request("/api/contact/submit", null), response, chain);
+
+		assertEquals(200, response.getStatus());
+		assertNotNull(chain.getRequest());
+	}
+
+	private MockHttpServletRequest request(String path, String email) {
+		return request("POST", path, email);
+	}
+
+	private MockHttpServletRequest request(String method, String path, String email) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+		if (email != null) {
+			request.addHeader("Authorization", "Bearer " + tokens.issue(1, email).accessToken());
+		}
+		return request;
+	}
+
+	private MockHttpServletResponse run(MockHttpServletRequest request, MockFilterChain chain) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, chain);
+		return response;
+	}
+}
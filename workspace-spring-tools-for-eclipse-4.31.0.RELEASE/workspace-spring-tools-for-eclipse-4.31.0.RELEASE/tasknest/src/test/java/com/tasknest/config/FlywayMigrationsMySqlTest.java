@@ -0,0 +1,50 @@
+package com.tasknest.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * A database left by the release before Flyway, upgraded on MySQL with the
+ * production settings: baselined at V1, then every later migration with
+ * online DDL on, including the users copy and the partitioning.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class FlywayMigrationsMySqlTest {
+
+	@Container
+	private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	@Test
+	void aPreFlywayDatabaseUpgradesWithOnlineDdl() {
+		Flyway.configure().dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+				.target("1").load().migrate();
+		JdbcTemplate jdbc = new JdbcTemplate(
+				new DriverManagerDataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword()));
+		jdbc.execute("DROP TABLE flyway_schema_history");
+		jdbc.update("INSERT INTO users (email_id, full_name, password, age, gender, profession) VALUES "
+				+ "('a@x.com', 'A', 'p', 30, 'F', 'dev'), ('b@x.com', 'B', 'p', 40, 'M', 'ops')");
+		jdbc.update("INSERT INTO expenses (user_email, amount, purchase_date) VALUES ('a@x.com', 5, '2026-01-10')");
+
+		Flyway.configure().dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+				.baselineOnMigrate(true).baselineVersion("1")
+				.placeholders(Map.of("online_ddl", "ALGORITHM=INPLACE LOCK=NONE"))
+				.load().migrate();
+
+		assertEquals(List.of(1L, 2L), jdbc.queryForList("SELECT id FROM users ORDER BY email_id", Long.class));
+		assertEquals(List.of("email_id"), jdbc.queryForList("SELECT COLUMN_NAME FROM information_schema.KEY_COLUMN_USAGE "
+				+ "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'users' AND CONSTRAINT_NAME = 'PRIMARY'", String.class));
+		assertEquals(List.of("p_future"), jdbc.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+				+ "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'expenses'", String.class));
+		assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM expenses WHERE user_id IS NULL", Integer.class));
+	}
+}
@@ -0,0 +1,97 @@
+package com.tasknest.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.tasknest.entity.Admin;
+import com.tasknest.entity.Budget;
+import com.tasknest.entity.ContactMessage;
+import com.tasknest.entity.Expenses;
+import com.tasknest.entity.MoodTrack;
+import com.tasknest.entity.SchedulerLease;
+import com.tasknest.entity.ShardAssignment;
+import com.tasknest.entity.Task;
+import com.tasknest.entity.Tombstone;
+import com.tasknest.entity.User;
+
+/**
+ * The migration series against H2 in MySQL mode: an empty database migrates
+ * to a schema Hibernate validates, and a database left by the release before
+ * Flyway is baselined at V1 and brought forward with its rows intact. The
+ * MySQL-only statements (partitioning, lock clauses) are comments here.
+ */
+class FlywayMigrationsTest {
+
+	private static final String URL = "jdbc:h2:mem:flyway-%d;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+			+ "NON_KEYWORDS=MONTH,DAY,TIMESTAMP;DB_CLOSE_DELAY=-1";
+
+	@Test
+	void anEmptyDatabaseMigratesToWhatTheEntitiesMap() {
+		String url = URL.formatted(System.nanoTime());
+		flyway(url).load().migrate();
+
+		StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+				.applySetting(AvailableSettings.JAKARTA_JDBC_URL, url)
+				.applySetting(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+				.applySetting(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+				.applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, new CamelCaseToUnderscoresNamingStrategy())
+				.applySetting(AvailableSettings.HBM2DDL_AUTO, "validate")
+				.build();
+		try {
+			MetadataSources sources = new MetadataSources(registry);
+			for (Class<?> entity : List.of(Admin.class, Budget.class, ContactMessage.class, Expenses.class,
+					MoodTrack.class, SchedulerLease.class, ShardAssignment.class, Task.class, Tombstone.class,
+					User.class)) {
+				sources.addAnnotatedClass(entity);
+			}
+			// throws SchemaManagementException on a missing table or column
+			sources.buildMetadata().buildSessionFactory().close();
+		} finally {
+			StandardServiceRegistryBuilder.destroy(registry);
+		}
+	}
+
+	@Test
+	void aPreFlywayDatabaseIsBaselinedAndExpanded() {
+		String url = URL.formatted(System.nanoTime());
+		// V1 is what the release before Flyway left behind, minus the history table
+		flyway(url).target("1").load().migrate();
+		JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+		jdbc.execute("DROP TABLE \"flyway_schema_history\"");
+		jdbc.update("INSERT INTO users (email_id, full_name, password, age, gender, profession) VALUES "
+				+ "('a@x.com', 'A', 'p', 30, 'F', 'dev'), ('b@x.com', 'B', 'p', 40, 'M', 'ops')");
+		jdbc.update("INSERT INTO tasks (user_email, title, completed) VALUES ('a@x.com', 'old task', FALSE)");
+		jdbc.update("INSERT INTO budget (user_email, month, monthly_budget, funds_amount, update_date) "
+				+ "VALUES ('a@x.com', '2026-01', 100, 100, CURRENT_DATE)");
+
+		flyway(url).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+		assertEquals(List.of(1L, 2L), jdbc.queryForList("SELECT id FROM users ORDER BY email_id", Long.class));
+		Map<String, Object> task = jdbc.queryForMap("SELECT title, user_id, updated_at FROM tasks");
+		assertEquals("old task", task.get("title"));
+		// user_id is left for UserIdBackfill
+		assertEquals(null, task.get("user_id"));
+		assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM budget WHERE user_id IS NULL", Integer.class));
+		assertEquals(0, flyway(url).load().info().pending().length);
+	}
+
+	private static FluentConfiguration flyway(String url) {
+		return Flyway.configure()
+				.dataSource(url, "sa", "")
+				.locations("classpath:db/migration")
+				.placeholders(Map.of("online_ddl", ""));
+	}
+}
@@ -0,0 +1,97 @@
+package com.tasknest.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tasknest.service.ReadYourWrites;
+import com.tasknest.service.RequestUser;
+
+// Two in-memory H2 databases stand in for the primary and one replica; each answers with its own name
+class ReplicaRoutingDataSourceTest {
+
+	private final AtomicReference<Duration> lag = new AtomicReference<>(Duration.ZERO);
+	private ReplicaRoutingDataSource routing;
+	private JdbcTemplate jdbc;
+	private TransactionTemplate readOnly;
+	private TransactionTemplate readWrite;
+
+	@BeforeEach
+	void setUp() {
+		DataSource primary = database("primary");
+		DataSource replica = database("replica");
+		routing = new ReplicaRoutingDataSource(primary, List.of(replica), ds -> lag.get(),
+				new ReadYourWrites(Duration.ofSeconds(10)), Duration.ofSeconds(5));
+		routing.refreshLag();
+
+		DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+		jdbc = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager tm = new DataSourceTransactionManager(dataSource);
+		readWrite = new TransactionTemplate(tm);
+		readOnly = new TransactionTemplate(tm);
+		readOnly.setReadOnly(true);
+	}
+
+	@AfterEach
+	void clearUser() {
+		RequestUser.clear();
+	}
+
+	@Test
+	void readOnlyTransactionsGoToTheReplica() {
+		assertEquals("replica", readOnly.execute(s -> whoAmI()));
+		assertEquals("primary", readWrite.execute(s -> whoAmI()));
+		assertEquals("primary", whoAmI());
+	}
+
+	@Test
+	void laggingOrBrokenReplicaFallsBackToPrimary() {
+		lag.set(Duration.ofSeconds(30));
+		routing.refreshLag();
+		assertEquals("primary", readOnly.execute(s -> whoAmI()));
+
+		lag.set(null);
+		routing.refreshLag();
+		assertEquals("primary", readOnly.execute(s -> whoAmI()));
+
+		lag.set(Duration.ofSeconds(1));
+		routing.refreshLag();
+		assertEquals("replica", readOnly.execute(s -> whoAmI()));
+	}
+
+	@Test
+	void writerReadsItsOwnWritesFromPrimary() {
+		RequestUser.set("Writer@Example.com");
+		readWrite.execute(s -> jdbc.update("UPDATE whoami SET name = name"));
+		assertEquals("primary", readOnly.execute(s -> whoAmI()));
+
+		RequestUser.set("someone-else@example.com");
+		assertEquals("replica", readOnly.execute(s -> whoAmI()));
+	}
+
+	private String whoAmI() {
+		return jdbc.queryForObject("SELECT name FROM whoami", String.class);
+	}
+
+	private static DataSource database(String name) {
+		DriverManagerDataSource ds = new DriverManagerDataSource(
+				"jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbc = new JdbcTemplate(ds);
+		jdbc.execute("CREATE TABLE whoami (name VARCHAR(20))");
+		jdbc.update("INSERT INTO whoami VALUES (?)", name);
+		return ds;
+	}
+}
@@ -0,0 +1,95 @@
+package com.tasknest.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+// A one-connection H2 pool, so a second borrower has to wait
+class TrackedHikariDataSourceTest {
+
+	private TrackedHikariDataSource pool;
+
+	@BeforeEach
+	void setUp() {
+		pool = new TrackedHikariDataSource();
+		pool.setPoolName("test");
+		pool.setJdbcUrl("jdbc:h2:mem:tracked;DB_CLOSE_DELAY=-1");
+		pool.setMaximumPoolSize(1);
+		pool.setConnectionTimeout(5_000);
+		pool.setTracking(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.close();
+	}
+
+	@Test
+	void heldConnectionIsReportedUntilClosed() throws Exception {
+		Connection connection = pool.getConnection();
+		assertTrue(connection instanceof ConnectionProxy);
+
+		Map<String, Object> snapshot = pool.snapshot(Duration.ZERO);
+		assertEquals(1, snapshot.get("held"));
+		List<?> longHeld = (List<?>) snapshot.get("longHeld");
+		assertEquals(Thread.currentThread().getName(), ((Map<?, ?>) longHeld.get(0)).get("thread"));
+
+		connection.close();
+		assertEquals(0, pool.snapshot(Duration.ZERO).get("held"));
+	}
+
+	@Test
+	void untrackedPoolsHandOutHikarisConnections() throws Exception {
+		pool.setTracking(false);
+		try (Connection connection = pool.getConnection()) {
+			assertFalse(connection instanceof ConnectionProxy);
+			assertEquals(0, pool.snapshot(Duration.ZERO).get("held"));
+			assertEquals(false, pool.snapshot(Duration.ZERO).get("tracking"));
+		}
+	}
+
+	@Test
+	void shortHoldsAreLeftOut() throws Exception {
+		try (Connection connection = pool.getConnection()) {
+			assertEquals(List.of(), pool.snapshot(Duration.ofMinutes(1)).get("longHeld"));
+		}
+	}
+
+	@Test
+	void blockedBorrowerShowsUpAsWaiter() throws Exception {
+		Connection first = pool.getConnection();
+		CountDownLatch done = new CountDownLatch(1);
+		Thread waiter = new Thread(() -> {
+			try (Connection second = pool.getConnection()) {
+				done.countDown();
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}, "waiter");
+		waiter.start();
+
+		List<?> waiters = List.of();
+		for (int i = 0; i < 100 && waiters.isEmpty(); i++) {
+			Thread.sleep(20);
+			waiters = (List<?>) pool.snapshot(Duration.ZERO).get("waiters");
+		}
+		assertEquals("waiter", ((Map<?, ?>) waiters.get(0)).get("thread"));
+
+		first.close();
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		waiter.join();
+		assertEquals(List.of(), pool.snapshot(Duration.ZERO).get("waiters"));
+	}
+}
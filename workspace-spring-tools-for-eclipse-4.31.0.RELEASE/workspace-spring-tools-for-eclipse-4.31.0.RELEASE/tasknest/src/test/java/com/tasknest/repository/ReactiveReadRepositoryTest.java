@@ -0,0 +1,108 @@
+package com.tasknest.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tasknest.entity.Expenses;
+import com.tasknest.entity.MoodTrack;
+import com.tasknest.entity.Task;
+
+import io.r2dbc.spi.Readable;
+
+/**
+ * The /reactive mappers against the JPA entities: an entity with every field
+ * set is turned into the row the reactive query selects and mapped back, and
+ * must come out as the same JSON the MVC endpoints write for it.
+ */
+class ReactiveReadRepositoryTest {
+
+	private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+
+	@Test
+	void tasksHaveTheSameJsonOnBothPaths() throws Exception {
+		assertSameJson(new Task(), ReactiveReadRepository.TASK_COLUMNS, ReactiveReadRepository::toTask);
+	}
+
+	@Test
+	void expensesHaveTheSameJsonOnBothPaths() throws Exception {
+		assertSameJson(new Expenses(), ReactiveReadRepository.EXPENSE_COLUMNS, ReactiveReadRepository::toExpense);
+	}
+
+	@Test
+	void moodsHaveTheSameJsonOnBothPaths() throws Exception {
+		assertSameJson(new MoodTrack(), ReactiveReadRepository.MOOD_COLUMNS, ReactiveReadRepository::toMood);
+	}
+
+	private <T> void assertSameJson(T entity, String selected, Function<Readable, T> mapper) throws Exception {
+		Map<String, Object> columns = fill(entity);
+		Set<String> select = Arrays.stream(selected.split(",")).map(String::trim).collect(Collectors.toSet());
+		assertEquals(columns.keySet(), select, "columns the reactive query selects");
+
+		T mapped = mapper.apply(row(columns));
+
+		assertEquals(json.writeValueAsString(entity), json.writeValueAsString(mapped));
+	}
+
+	// a value in every field, by column name as Hibernate's naming strategy derives it
+	private static Map<String, Object> fill(Object entity) throws IllegalAccessException {
+		Map<String, Object> columns = new HashMap<>();
+		int n = 1;
+		for (Field field : entity.getClass().getDeclaredFields()) {
+			if (Modifier.isStatic(field.getModifiers())) {
+				continue;
+			}
+			Class<?> type = field.getType();
+			Object value = type == Long.class ? (Object) (long) n
+					: type == String.class ? field.getName() + "-" + n
+					: type == boolean.class ? (Object) true
+					: type == LocalDate.class ? LocalDate.of(2026, 3, n)
+					: type == LocalDateTime.class ? LocalDateTime.of(2026, 3, n, 9, 30, 15)
+					: type == BigDecimal.class ? new BigDecimal("12.50")
+					: null;
+			if (value == null) {
+				throw new IllegalStateException("No test value for " + field);
+			}
+			field.setAccessible(true);
+			field.set(entity, value);
+			columns.put(field.getName().replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase(), value);
+			n++;
+		}
+		return columns;
+	}
+
+	// only the selected columns exist, as in a real result row
+	private static Readable row(Map<String, Object> columns) {
+		List<String> names = List.copyOf(columns.keySet());
+		return new Readable() {
+			@Override
+			public <V> V get(int index, Class<V> type) {
+				return get(names.get(index), type);
+			}
+
+			@Override
+			public <V> V get(String name, Class<V> type) {
+				if (!columns.containsKey(name)) {
+					throw new NoSuchElementException("Column " + name + " is not selected");
+				}
+				return type.cast(columns.get(name));
+			}
+		};
+	}
+}
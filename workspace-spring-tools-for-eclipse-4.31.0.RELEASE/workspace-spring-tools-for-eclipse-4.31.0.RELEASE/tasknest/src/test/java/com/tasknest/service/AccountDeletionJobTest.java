@@ -0,0 +1,127 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.tasknest.repository.SchedulerLeaseRepository;
+
+/**
+ * One deletion run against a single H2 shard in MySQL mode, chunks of two:
+ * the account's rows go whether they carry its id, no id yet or the
+ * unknown-user id the backfill gives flagged accounts; other users' rows and
+ * orphans of other emails stay.
+ */
+class AccountDeletionJobTest {
+
+	private static final long USER = 7L;
+	private static final String EMAIL = "a@x.com";
+
+	private final DriverManagerDataSource home = new DriverManagerDataSource(
+			"jdbc:h2:mem:account-deletion;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+	private final JdbcTemplate jdbc = new JdbcTemplate(home);
+	private final UserIds userIds = mock(UserIds.class);
+	private final PartitionMaintenance partitions = mock(PartitionMaintenance.class);
+
+	@BeforeEach
+	void setUp() {
+		jdbc.execute("DROP ALL OBJECTS");
+		jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email_id VARCHAR(255), deletion_requested_at TIMESTAMP)");
+		jdbc.execute("CREATE TABLE account_deletions (user_id BIGINT PRIMARY KEY, email VARCHAR(255), "
+				+ "status VARCHAR(16), requested_at TIMESTAMP, updated_at TIMESTAMP, completed_at TIMESTAMP, "
+				+ "rows_deleted BIGINT, current_step VARCHAR(64), last_error VARCHAR(1000))");
+		jdbc.execute("CREATE TABLE shard_directory (user_email VARCHAR(255) PRIMARY KEY, shard INT)");
+		jdbc.execute("CREATE TABLE collection_versions (user_id BIGINT, user_email VARCHAR(255), "
+				+ "collection VARCHAR(20), version BIGINT, PRIMARY KEY (user_id, collection))");
+		jdbc.update("INSERT INTO collection_versions VALUES (?, ?, 'TASKS', 4), (8, 'b@x.com', 'TASKS', 2)", USER, EMAIL);
+		jdbc.execute("CREATE TABLE contact_messages (id BIGINT PRIMARY KEY, email VARCHAR(100))");
+		jdbc.execute("CREATE TABLE expenses_archive_202501 (expense_id BIGINT PRIMARY KEY, user_email VARCHAR(255), "
+				+ "user_id BIGINT)");
+		jdbc.update("INSERT INTO users (id, email_id) VALUES (?, ?), (8, 'b@x.com')", USER, EMAIL);
+		jdbc.update("INSERT INTO contact_messages (id, email) VALUES (1, ?), (2, 'b@x.com')", EMAIL);
+		jdbc.update("INSERT INTO expenses_archive_202501 (expense_id, user_email, user_id) VALUES (1, ?, ?), "
+				+ "(2, ?, 0), (3, 'b@x.com', 8)", EMAIL, USER, EMAIL);
+		for (Map.Entry<String, String> table : UserIdBackfill.CHILD_TABLES.entrySet()) {
+			jdbc.execute("CREATE TABLE " + table.getKey() + " (" + table.getValue() + " BIGINT PRIMARY KEY, "
+					+ "user_email VARCHAR(255) NOT NULL, user_id BIGINT)");
+			String insert = "INSERT INTO " + table.getKey() + " (" + table.getValue() + ", user_email, user_id) "
+					+ "VALUES (?, ?, ?)";
+			jdbc.update(insert, 1L, EMAIL, USER);
+			jdbc.update(insert, 2L, EMAIL, USER);
+			jdbc.update(insert, 3L, EMAIL, USER);
+			// written by an older node, not backfilled yet
+			jdbc.update(insert, 4L, " A@x.com", null);
+			// backfilled after the flag: the email no longer resolved
+			jdbc.update(insert, 5L, EMAIL, UserIdBackfill.UNKNOWN_USER);
+			jdbc.update(insert, 6L, "ghost@x.com", UserIdBackfill.UNKNOWN_USER);
+			jdbc.update(insert, 7L, "b@x.com", 8L);
+		}
+		when(partitions.archives("expenses")).thenReturn(List.of("expenses_archive_202501"));
+		when(partitions.archives("contact_messages")).thenReturn(List.of());
+	}
+
+	@Test
+	void everyRowOfTheAccountIsPurged() {
+		AccountDeletionJob job = job(Duration.ZERO);
+		job.request(USER, EMAIL);
+		verify(userIds).forget(EMAIL);
+
+		job.run();
+
+		for (String table : UserIdBackfill.CHILD_TABLES.keySet()) {
+			assertEquals(List.of(6L, 7L), ids(table, UserIdBackfill.CHILD_TABLES.get(table)), table);
+		}
+		assertEquals(List.of(3L), ids("expenses_archive_202501", "expense_id"));
+		assertEquals(List.of(2L), ids("contact_messages", "id"));
+		assertEquals(List.of(8L), ids("collection_versions", "user_id"));
+		assertEquals(List.of(8L), ids("users", "id"));
+		Map<String, Object> status = job.status(EMAIL).orElseThrow();
+		assertEquals(AccountDeletionJob.DONE, status.get("status"));
+		assertEquals(5L * UserIdBackfill.CHILD_TABLES.size() + 2 + 1, ((Number) status.get("rowsDeleted")).longValue());
+	}
+
+	@Test
+	void withinGraceTheAccountIsSweptButKept() {
+		AccountDeletionJob job = job(Duration.ofMinutes(20));
+		job.request(USER, EMAIL);
+
+		job.run();
+		// a late write from a node that still had the id cached
+		jdbc.update("INSERT INTO tasks (id, user_email, user_id) VALUES (8, ?, NULL)", EMAIL);
+		job.run();
+
+		assertEquals(List.of(6L, 7L), ids("tasks", "id"));
+		assertEquals(List.of(USER, 8L), ids("users", "id"));
+		assertEquals(AccountDeletionJob.RUNNING, job.status(EMAIL).orElseThrow().get("status"));
+	}
+
+	private AccountDeletionJob job(Duration grace) {
+		SchedulerLeaseRepository leases = mock(SchedulerLeaseRepository.class);
+		when(leases.tryAcquire(anyString(), anyString(), any(), any())).thenReturn(1);
+		ShardRouter router = mock(ShardRouter.class);
+		when(router.shardCount()).thenReturn(1);
+		DataSourceTransactionManager transactions = new DataSourceTransactionManager(home);
+		ShardTemplate shards = new ShardTemplate(router, transactions, new SimpleAsyncTaskExecutor());
+		return new AccountDeletionJob(home, jdbc, shards, userIds, mock(ApplicationEventPublisher.class), transactions,
+				leases, partitions, "node-1", 2, Duration.ZERO, grace, 300);
+	}
+
+	private List<Long> ids(String table, String pk) {
+		return jdbc.queryForList("SELECT " + pk + " FROM " + table + " ORDER BY " + pk, Long.class);
+	}
+}
@@ -0,0 +1,166 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.util.unit.DataSize;
+
+import com.tasknest.controller.BudgetController;
+import com.tasknest.entity.Budget;
+import com.tasknest.repository.BudgetRepository;
+import com.tasknest.repository.ExpensesRepository;
+
+/**
+ * The report over stubbed repositories (spend cache off): month figures,
+ * budgets and YoY deltas, and how many grouped queries a range costs.
+ */
+class BudgetReportServiceImplTest {
+
+	private static final String EMAIL = "a@x.com";
+	private static final long USER = 7L;
+
+	private final ExpensesRepository expenses = mock(ExpensesRepository.class);
+	private final BudgetRepository budgets = mock(BudgetRepository.class);
+	private final ShardTemplate shards = mock(ShardTemplate.class);
+	private final UserIds userIds = mock(UserIds.class);
+	private final AtomicInteger asyncQueries = new AtomicInteger();
+	private BudgetReportServiceImpl service;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(shards.read(anyString(), any())).thenAnswer(call -> ((Supplier<Object>) call.getArgument(1)).get());
+		when(userIds.idOf(EMAIL)).thenReturn(USER);
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor() {
+			@Override
+			public void execute(Runnable task) {
+				asyncQueries.incrementAndGet();
+				super.execute(task);
+			}
+		};
+		SpendCache off = new SpendCache(expenses, budgets, shards, mock(CollectionVersions.class), DataSize.ofBytes(0),
+				Duration.ofSeconds(1), Duration.ofMinutes(30));
+		service = new BudgetReportServiceImpl(budgets, expenses, shards, userIds, executor,
+				new ReadCoalescing(Duration.ZERO, Duration.ZERO), off);
+	}
+
+	@Test
+	void monthFiguresBudgetsAndYearOverYear() {
+		when(expenses.sumByMonthAndCategory(eq(USER), any(), any())).thenReturn(List.of(
+				row(2025, 10, "food", "40.00"),
+				row(2026, 10, "food", "30.00"),
+				row(2026, 10, null, "20.00"),
+				row(2026, 11, "rent", "500.00")));
+		when(budgets.findByUserIdAndMonthBetween(USER, "2026-10", "2026-11")).thenReturn(List.of(budget("2026-10", "100.00")));
+
+		Map<String, Object> report = service.getReport(EMAIL, "2026-10", "2026-11");
+
+		List<?> months = (List<?>) report.get("months");
+		Map<?, ?> october = (Map<?, ?>) months.get(0);
+		assertEquals(new BigDecimal("50.00"), october.get("totalSpent"));
+		assertEquals(new BigDecimal("50.00"), october.get("availableBudget"));
+		assertEquals(Map.of("food", new BigDecimal("30.00"), "uncategorized", new BigDecimal("20.00")),
+				october.get("categories"));
+		assertEquals(new BigDecimal("40.00"), october.get("previousYearSpent"));
+		assertEquals(new BigDecimal("25.00"), october.get("yoyChangePercent"));
+
+		Map<?, ?> november = (Map<?, ?>) months.get(1);
+		assertEquals(BigDecimal.ZERO, november.get("monthlyBudget"));
+		assertNull(november.get("yoyChangePercent"));
+
+		Map<?, ?> totals = (Map<?, ?>) report.get("totals");
+		assertEquals(new BigDecimal("550.00"), totals.get("totalSpent"));
+		assertEquals(new BigDecimal("100.00"), totals.get("monthlyBudget"));
+	}
+
+	@Test
+	void shortReportsAreOneQueryOnTheCallingThread() {
+		when(expenses.sumByMonthAndCategory(eq(USER), any(), any())).thenReturn(List.of());
+
+		service.getReport(EMAIL, "2026-10", "2026-10");
+		service.getReport(EMAIL, "2024-11", "2026-10");
+
+		verify(expenses).sumByMonthAndCategory(USER, LocalDate.of(2025, 10, 1), LocalDate.of(2026, 10, 31));
+		verify(expenses).sumByMonthAndCategory(USER, LocalDate.of(2023, 11, 1), LocalDate.of(2026, 10, 31));
+		assertEquals(0, asyncQueries.get());
+	}
+
+	@Test
+	void longReportsAreSplitIntoParallelYears() {
+		when(expenses.sumByMonthAndCategory(eq(USER), any(), any())).thenReturn(List.of());
+
+		service.getReport(EMAIL, "2017-01", "2026-12");
+
+		// 120 months plus the prior year
+		verify(expenses, times(11)).sumByMonthAndCategory(eq(USER), any(), any());
+		assertEquals(11, asyncQueries.get());
+	}
+
+	@Test
+	void partitionsCoverTheRangeWithoutGaps() {
+		for (int months = 1; months <= 132; months++) {
+			YearMonth from = YearMonth.of(2016, 1);
+			YearMonth to = from.plusMonths(months - 1);
+			List<YearMonth[]> ranges = BudgetReportServiceImpl.partitions(from, to);
+
+			assertEquals(months <= BudgetReportServiceImpl.PARALLEL_THRESHOLD_MONTHS ? 1
+					: (months + BudgetReportServiceImpl.PARTITION_MONTHS - 1) / BudgetReportServiceImpl.PARTITION_MONTHS,
+					ranges.size(), months + " months");
+			YearMonth next = from;
+			for (YearMonth[] range : ranges) {
+				assertEquals(next, range[0]);
+				next = range[1].plusMonths(1);
+			}
+			assertEquals(to.plusMonths(1), next);
+		}
+	}
+
+	@Test
+	void rangesAreValidated() {
+		assertThrows(IllegalArgumentException.class, () -> service.getReport(EMAIL, "2026-11", "2026-10"));
+		assertThrows(IllegalArgumentException.class, () -> service.getReport(EMAIL, "2016-01", "2026-10"));
+		assertThrows(IllegalArgumentException.class, () -> service.getReport(EMAIL, "2026/10", "2026-11"));
+	}
+
+	@Test
+	void onlyBadInputIsAClientError() {
+		BudgetController controller = new BudgetController(null, service);
+		assertEquals(400, controller.getReport(EMAIL, "2026/10", "2026-11").getStatusCode().value());
+
+		when(expenses.sumByMonthAndCategory(eq(USER), any(), any()))
+				.thenThrow(new IllegalStateException("connection refused"));
+		// left to the error handling, which answers 500 without the message
+		assertThrows(IllegalStateException.class, () -> controller.getReport(EMAIL, "2026-10", "2026-11"));
+	}
+
+	private static Object[] row(int year, int month, String category, String amount) {
+		return new Object[] { year, month, category, new BigDecimal(amount) };
+	}
+
+	private static Budget budget(String month, String amount) {
+		Budget b = new Budget();
+		b.setMonth(month);
+		b.setMonthlyBudget(new BigDecimal(amount));
+		return b;
+	}
+}
@@ -0,0 +1,201 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.tasknest.entity.Budget;
+import com.tasknest.repository.BudgetRepository;
+
+/**
+ * First loads of a month's budget on MySQL's default REPEATABLE READ, over
+ * the migrated schema and the real repository, with two service instances
+ * (each with its own SingleFlight) standing in for two nodes.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BudgetServiceImplMySqlTest {
+
+	@Container
+	private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	private static final String EMAIL = "a@x.com";
+	private static final String MONTH = "2026-10";
+
+	private final ApplicationEventPublisher nodeOneEvents = mock(ApplicationEventPublisher.class);
+	private final ApplicationEventPublisher nodeTwoEvents = mock(ApplicationEventPublisher.class);
+	private AnnotationConfigApplicationContext context;
+	private BudgetRepository repository;
+	private PlatformTransactionManager transactions;
+	private BudgetService nodeOne;
+	private BudgetService nodeTwo;
+
+	@BeforeEach
+	void setUp() {
+		Flyway.configure().dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+				.placeholders(Map.of("online_ddl", "ALGORITHM=INPLACE LOCK=NONE"))
+				.load().migrate();
+		context = new AnnotationConfigApplicationContext();
+		context.register(Jpa.class);
+		context.registerBean("nodeOne", BudgetService.class, () -> service(nodeOneEvents));
+		context.registerBean("nodeTwo", BudgetService.class, () -> service(nodeTwoEvents));
+		context.refresh();
+		new JdbcTemplate(context.getBean(DataSource.class)).update("DELETE FROM budget");
+		repository = context.getBean(BudgetRepository.class);
+		transactions = context.getBean(PlatformTransactionManager.class);
+		nodeOne = context.getBean("nodeOne", BudgetService.class);
+		nodeTwo = context.getBean("nodeTwo", BudgetService.class);
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void aBudgetAnotherNodeCommittedAfterTheSnapshotIsFound() {
+		Budget mine = new TransactionTemplate(transactions).execute(status -> {
+			// the caller's snapshot is taken here, before the other node inserts the month
+			assertTrue(repository.findByUserIdAndMonth(1L, MONTH).isEmpty());
+			Budget theirs = CompletableFuture.supplyAsync(() -> nodeTwo.getOrCreateMonthlyBudget(EMAIL, MONTH)).join();
+
+			Budget found = nodeOne.getOrCreateMonthlyBudget(EMAIL, MONTH);
+			assertEquals(theirs.getBudgetID(), found.getBudgetID());
+			return found;
+		});
+
+		assertEquals(MONTH, mine.getMonth());
+		assertEquals(1, count());
+		verify(nodeTwoEvents).publishEvent(any(ChangeEvent.class));
+		verify(nodeOneEvents, never()).publishEvent(any(ChangeEvent.class));
+	}
+
+	@Test
+	void concurrentFirstLoadsOnTwoNodesShareOneRow() {
+		int callers = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		List<CompletableFuture<Budget>> loads = new ArrayList<>();
+		for (int i = 0; i < callers; i++) {
+			BudgetService node = i % 2 == 0 ? nodeOne : nodeTwo;
+			loads.add(CompletableFuture.supplyAsync(() -> {
+				await(start);
+				return node.getOrCreateMonthlyBudget(EMAIL, MONTH);
+			}));
+		}
+		start.countDown();
+
+		List<Budget> budgets = loads.stream().map(CompletableFuture::join).toList();
+		Long id = budgets.get(0).getBudgetID();
+		for (int i = 0; i < callers; i++) {
+			assertEquals(id, budgets.get(i).getBudgetID());
+			for (int j = i + 1; j < callers; j++) {
+				// each caller's own entity, never one still managed by another request's transaction
+				assertNotSame(budgets.get(i), budgets.get(j));
+			}
+		}
+		assertEquals(1, count());
+		// one insert won, on whichever node
+		int created = mockingDetails(nodeOneEvents).getInvocations().size()
+				+ mockingDetails(nodeTwoEvents).getInvocations().size();
+		assertEquals(1, created);
+	}
+
+	@Test
+	void anExistingBudgetIsReturnedWithoutAnInsert() {
+		Budget first = nodeOne.getOrCreateMonthlyBudget(EMAIL, MONTH);
+		Budget again = nodeTwo.getOrCreateMonthlyBudget(EMAIL, MONTH);
+
+		assertEquals(first.getBudgetID(), again.getBudgetID());
+		verify(nodeOneEvents, times(1)).publishEvent(any(ChangeEvent.class));
+		verify(nodeTwoEvents, never()).publishEvent(any(ChangeEvent.class));
+	}
+
+	private BudgetService service(ApplicationEventPublisher events) {
+		ShardRouter router = mock(ShardRouter.class);
+		when(router.placementOf(anyString())).thenReturn(new ShardRouter.Placement(0, false));
+		UserIds userIds = mock(UserIds.class);
+		when(userIds.requireIdOf(EMAIL)).thenReturn(1L);
+		PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+		ShardTemplate shards = new ShardTemplate(router, transactionManager, new SimpleAsyncTaskExecutor());
+		return new BudgetServiceImpl(context.getBean(BudgetRepository.class), null, shards, userIds, events, null, null,
+				transactionManager);
+	}
+
+	private int count() {
+		return new JdbcTemplate(context.getBean(DataSource.class))
+				.queryForObject("SELECT COUNT(*) FROM budget WHERE user_id = 1 AND month = ?", Integer.class, MONTH);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Configuration
+	@EnableTransactionManagement
+	@EnableJpaRepositories(basePackageClasses = BudgetRepository.class, includeFilters = @ComponentScan.Filter(
+			type = FilterType.ASSIGNABLE_TYPE, classes = BudgetRepository.class))
+	static class Jpa {
+		@Bean
+		DataSource dataSource() {
+			return new DriverManagerDataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+		}
+
+		@Bean
+		LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+			LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+			factory.setDataSource(dataSource);
+			factory.setPackagesToScan("com.tasknest.entity");
+			factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+			return factory;
+		}
+
+		@Bean
+		PlatformTransactionManager transactionManager(LocalContainerEntityManagerFactoryBean entityManagerFactory) {
+			return new JpaTransactionManager(entityManagerFactory.getObject());
+		}
+	}
+}
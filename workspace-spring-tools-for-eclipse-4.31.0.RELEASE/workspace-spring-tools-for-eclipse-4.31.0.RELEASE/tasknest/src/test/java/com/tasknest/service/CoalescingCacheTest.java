@@ -0,0 +1,102 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class CoalescingCacheTest {
+
+	private final AtomicLong now = new AtomicLong(1_000);
+
+	@Test
+	void concurrentCallsAreCountedAsCoalesced() throws Exception {
+		CoalescingCache<String, Integer> cache = new CoalescingCache<>(0, now::get);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			results.add(pool.submit(() -> cache.get("a|2026-10", () -> {
+				await(release);
+				return 42;
+			})));
+		}
+		Thread.sleep(200);
+		release.countDown();
+		for (Future<Integer> result : results) {
+			assertEquals(42, result.get(5, TimeUnit.SECONDS));
+		}
+		pool.shutdown();
+
+		Map<String, Object> stats = cache.stats();
+		assertEquals(4L, stats.get("calls"));
+		assertEquals(1L, stats.get("executions"));
+		assertEquals(3L, stats.get("coalesced"));
+		assertEquals(0.75, stats.get("savedRatio"));
+	}
+
+	@Test
+	void resultIsReusedForTheTtl() {
+		CoalescingCache<String, Integer> cache = new CoalescingCache<>(1_000, now::get);
+		AtomicInteger runs = new AtomicInteger();
+
+		assertEquals(1, cache.get("k", runs::incrementAndGet));
+		now.addAndGet(999);
+		assertEquals(1, cache.get("k", runs::incrementAndGet));
+		now.addAndGet(1);
+		assertEquals(2, cache.get("k", runs::incrementAndGet));
+		assertEquals(1L, cache.stats().get("cacheHits"));
+	}
+
+	@Test
+	void zeroTtlNeverCaches() {
+		CoalescingCache<String, Integer> cache = new CoalescingCache<>(0, now::get);
+		AtomicInteger runs = new AtomicInteger();
+
+		cache.get("k", runs::incrementAndGet);
+		assertEquals(2, cache.get("k", runs::incrementAndGet));
+	}
+
+	@Test
+	void invalidateDropsOnlyMatchingKeys() {
+		CoalescingCache<String, Integer> cache = new CoalescingCache<>(1_000, now::get);
+		AtomicInteger runs = new AtomicInteger();
+
+		cache.get("a|1", runs::incrementAndGet);
+		cache.get("b|1", runs::incrementAndGet);
+		cache.invalidate(key -> key.startsWith("a|"));
+
+		assertEquals(3, cache.get("a|1", runs::incrementAndGet));
+		assertEquals(2, cache.get("b|1", runs::incrementAndGet));
+	}
+
+	@Test
+	void resultComputedAcrossAnInvalidateIsNotCached() {
+		CoalescingCache<String, Integer> cache = new CoalescingCache<>(1_000, now::get);
+
+		assertEquals(1, cache.get("k", () -> {
+			cache.invalidate(key -> true); // a write committed while this read ran
+			return 1;
+		}));
+		assertEquals(2, cache.get("k", () -> 2));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
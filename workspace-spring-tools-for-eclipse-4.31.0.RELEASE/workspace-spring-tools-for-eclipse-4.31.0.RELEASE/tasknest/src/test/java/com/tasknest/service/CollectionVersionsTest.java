@@ -0,0 +1,153 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Versions kept in an H2 collection_versions table: bumped by the write
+ * events in the writer's transaction, served from memory until a local
+ * commit or the ttl, and bumped directly as another node would.
+ */
+class CollectionVersionsTest {
+
+	private final DriverManagerDataSource dataSource =
+			new DriverManagerDataSource("jdbc:h2:mem:versions;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+	private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+	private final DataSourceTransactionManager transactions = new DataSourceTransactionManager(dataSource);
+	private final UserIds userIds = mock(UserIds.class);
+	private ShardTemplate shards;
+	private CollectionVersions versions;
+
+	@BeforeEach
+	void setUp() {
+		jdbc.execute("DROP ALL OBJECTS");
+		jdbc.execute("CREATE TABLE collection_versions (user_id BIGINT NOT NULL, user_email VARCHAR(255) NOT NULL, "
+				+ "collection VARCHAR(20) NOT NULL, version BIGINT NOT NULL, PRIMARY KEY (user_id, collection))");
+		ShardRouter router = mock(ShardRouter.class);
+		when(router.placementOf(anyString())).thenReturn(new ShardRouter.Placement(0, false));
+		when(userIds.idOf("a@x.com")).thenReturn(1L);
+		when(userIds.idOf("b@x.com")).thenReturn(2L);
+		shards = new ShardTemplate(router, transactions, new SimpleAsyncTaskExecutor());
+		versions = versions(Duration.ofMinutes(1));
+	}
+
+	@Test
+	void unchangedCollectionAnswers304() {
+		write("a@x.com", ChangeEvent.TASKS);
+		String etag = versions.etag("a@x.com", ChangeEvent.TASKS);
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ServletWebRequest request = new ServletWebRequest(conditionalRequest(etag), response);
+		assertTrue(versions.checkNotModified(request, "a@x.com", ChangeEvent.TASKS));
+		assertEquals(304, response.getStatus());
+		assertNull(response.getHeader("Last-Modified"));
+	}
+
+	@Test
+	void aWriteChangesOnlyItsCollection() {
+		String moods = versions.etag("a@x.com", ChangeEvent.MOODS);
+		String other = versions.etag("b@x.com", ChangeEvent.TASKS);
+		String before = versions.etag("a@x.com", ChangeEvent.TASKS);
+
+		write("a@x.com", ChangeEvent.TASKS);
+		String updated = versions.etag("a@x.com", ChangeEvent.TASKS);
+		assertNotEquals(before, updated);
+		write("a@x.com", ChangeEvent.TASKS);
+		assertNotEquals(updated, versions.etag("a@x.com", ChangeEvent.TASKS));
+
+		assertEquals(moods, versions.etag("a@x.com", ChangeEvent.MOODS));
+		assertEquals(other, versions.etag("b@x.com", ChangeEvent.TASKS));
+		assertEquals(2, versions.current("a@x.com", ChangeEvent.TASKS));
+	}
+
+	@Test
+	void aRolledBackWriteLeavesTheVersion() {
+		write("a@x.com", ChangeEvent.TASKS);
+		new TransactionTemplate(transactions).executeWithoutResult(status -> {
+			versions.onWrite(ChangeEvent.updated("a@x.com", ChangeEvent.TASKS, 1L, null));
+			status.setRollbackOnly();
+		});
+		assertEquals(1, versions.current("a@x.com", ChangeEvent.TASKS));
+	}
+
+	@Test
+	void aWriteElsewhereIsSeenOnceTheTtlRunsOut() {
+		String etag = versions.etag("a@x.com", ChangeEvent.EXPENSES);
+		// another node, or the archiving job, with no event on this one
+		CollectionVersions.bump(jdbc, "expenses", 1L, "a@x.com");
+
+		assertEquals(etag, versions.etag("a@x.com", ChangeEvent.EXPENSES), "served from memory");
+		assertNotEquals(etag, versions(Duration.ZERO).etag("a@x.com", ChangeEvent.EXPENSES));
+	}
+
+	@Test
+	void aNewAccountUnderTheSameEmailStartsOver() {
+		write("a@x.com", ChangeEvent.TASKS);
+		String old = versions.etag("a@x.com", ChangeEvent.TASKS);
+
+		when(userIds.idOf("a@x.com")).thenReturn(3L);
+		write("a@x.com", ChangeEvent.TASKS);
+		assertEquals(1, versions.current("a@x.com", ChangeEvent.TASKS));
+		assertNotEquals(old, versions.etag("a@x.com", ChangeEvent.TASKS));
+	}
+
+	@Test
+	void tagsAreWeakAndMatchTheirStrongForm() {
+		write("a@x.com", ChangeEvent.TASKS);
+		String etag = versions.etag("a@x.com", ChangeEvent.TASKS);
+		assertTrue(etag.startsWith("W/\""));
+
+		// a proxy or client that strips the weak prefix still revalidates
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ServletWebRequest request = new ServletWebRequest(conditionalRequest(etag.substring(2)), response);
+		assertTrue(versions.checkNotModified(request, "a@x.com", ChangeEvent.TASKS));
+		assertEquals(etag, response.getHeader("ETag"));
+	}
+
+	@Test
+	void aChangedCollectionIsSentAgain() {
+		String etag = versions.etag("a@x.com", ChangeEvent.TASKS);
+		write("a@x.com", ChangeEvent.TASKS);
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ServletWebRequest request = new ServletWebRequest(conditionalRequest(etag), response);
+		assertFalse(versions.checkNotModified(request, "a@x.com", ChangeEvent.TASKS));
+		assertEquals(versions.etag("a@x.com", ChangeEvent.TASKS), response.getHeader("ETag"));
+	}
+
+	// what a service write does: the event in its transaction, then the after-commit listener
+	private void write(String email, String collection) {
+		ChangeEvent event = ChangeEvent.created(email, collection, 1L, null);
+		new TransactionTemplate(transactions).executeWithoutResult(status -> versions.onWrite(event));
+		versions.onChange(event);
+	}
+
+	private CollectionVersions versions(Duration ttl) {
+		return new CollectionVersions(jdbc, shards, userIds, ttl);
+	}
+
+	private static MockHttpServletRequest conditionalRequest(String etag) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+		request.addHeader("If-None-Match", etag);
+		return request;
+	}
+}
@@ -0,0 +1,52 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ConsistentHashRingTest {
+
+	private static final int USERS = 20_000;
+
+	@Test
+	void sameKeyAlwaysLandsOnTheSameShard() {
+		ConsistentHashRing a = new ConsistentHashRing(Map.of(0, 100, 1, 100, 2, 100));
+		ConsistentHashRing b = new ConsistentHashRing(Map.of(0, 100, 1, 100, 2, 100));
+		for (int i = 0; i < 1_000; i++) {
+			assertEquals(a.shardOf("user" + i + "@example.com"), b.shardOf("user" + i + "@example.com"));
+		}
+	}
+
+	@Test
+	void usersSpreadRoughlyEvenly() {
+		ConsistentHashRing ring = new ConsistentHashRing(Map.of(0, 100, 1, 100, 2, 100, 3, 100));
+		int[] counts = new int[4];
+		for (int i = 0; i < USERS; i++) {
+			counts[ring.shardOf("user" + i + "@example.com")]++;
+		}
+		for (int count : counts) {
+			assertTrue(Math.abs(count - USERS / 4) < USERS / 4 * 0.25, "skewed: " + count);
+		}
+	}
+
+	@Test
+	void addingAShardOnlyMovesUsersOntoIt() {
+		ConsistentHashRing before = new ConsistentHashRing(Map.of(0, 100, 1, 100, 2, 100));
+		ConsistentHashRing after = new ConsistentHashRing(Map.of(0, 100, 1, 100, 2, 100, 3, 100));
+		int moved = 0;
+		for (int i = 0; i < USERS; i++) {
+			String user = "user" + i + "@example.com";
+			int from = before.shardOf(user);
+			int to = after.shardOf(user);
+			if (from != to) {
+				assertEquals(3, to);
+				moved++;
+			}
+		}
+		// about a quarter of the users belong to the new shard
+		assertTrue(moved > USERS * 0.15 && moved < USERS * 0.35, "moved " + moved);
+	}
+}
@@ -0,0 +1,173 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import com.tasknest.entity.Expenses;
+import com.tasknest.entity.Task;
+
+/**
+ * The summarizers on their own, and whole dashboards over mocked services on
+ * a real thread pool: sections that block, throw or cannot be scheduled are
+ * marked unavailable and the rest still come back.
+ */
+class DashboardServiceImplTest {
+
+	private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+	private static final String EMAIL = "a@x.com";
+	private static final Duration TIMEOUT = Duration.ofMillis(300);
+
+	private final TaskService tasks = mock(TaskService.class);
+	private final BudgetService budgets = mock(BudgetService.class);
+	private final ExpensesService expenses = mock(ExpensesService.class);
+	private final MoodTrackService moods = mock(MoodTrackService.class);
+	private final ExecutorService pool = Executors.newFixedThreadPool(4);
+	// holds blocked sections until the test is over
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		pool.shutdown();
+	}
+
+	@Test
+	void everySectionArrivesWhenAllAnswer() {
+		when(budgets.getMonthlyStats(anyString(), anyString())).thenReturn(Map.of("spent", BigDecimal.TEN));
+
+		Map<String, Object> dashboard = dashboard(new TaskExecutorAdapter(pool)).getDashboard(EMAIL);
+
+		assertEquals(Map.of(), dashboard.get("unavailable"));
+		assertEquals(Map.of("spent", BigDecimal.TEN), dashboard.get("budget"));
+		assertNotNull(dashboard.get("tasks"));
+		assertEquals(List.of(), dashboard.get("recentExpenses"));
+	}
+
+	@Test
+	void aFailingSectionIsMarkedAndTheOthersStillArrive() {
+		when(moods.getMoodByDay(anyString(), any())).thenThrow(new IllegalStateException("mood store down"));
+
+		Map<String, Object> dashboard = dashboard(new TaskExecutorAdapter(pool)).getDashboard(EMAIL);
+
+		assertEquals(Map.of("mood", "error"), dashboard.get("unavailable"));
+		assertNull(dashboard.get("mood"));
+		assertNotNull(dashboard.get("tasks"));
+		assertNotNull(dashboard.get("budget"));
+	}
+
+	@Test
+	void slowSectionsShareOneDeadline() {
+		when(tasks.getTasksForUser(EMAIL)).thenAnswer(call -> block());
+		when(budgets.getMonthlyStats(anyString(), anyString())).thenAnswer(call -> block());
+		when(expenses.getExpensesForMonth(anyString(), any(), any())).thenAnswer(call -> block());
+
+		long start = System.nanoTime();
+		Map<String, Object> dashboard = dashboard(new TaskExecutorAdapter(pool)).getDashboard(EMAIL);
+		long elapsed = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+		assertEquals(Map.of("tasks", "timeout", "budget", "timeout", "recentExpenses", "timeout"),
+				dashboard.get("unavailable"));
+		// three blocked sections cost one timeout, not three
+		assertTrue(elapsed < TIMEOUT.toMillis() * 2, elapsed + "ms");
+		assertTrue(dashboard.containsKey("mood"));
+	}
+
+	@Test
+	void sectionsThePoolRejectsAreBusy() {
+		AsyncTaskExecutor full = new TaskExecutorAdapter(task -> {
+			throw new RejectedExecutionException("queue full");
+		});
+
+		Map<String, Object> dashboard = dashboard(full).getDashboard(EMAIL);
+
+		assertEquals(Map.of("tasks", "busy", "budget", "busy", "recentExpenses", "busy", "mood", "busy"),
+				dashboard.get("unavailable"));
+		assertNull(dashboard.get("tasks"));
+	}
+
+	@Test
+	void taskSummaryCountsOpenTasksAndListsSoonestFirst() {
+		List<Task> tasks = List.of(
+				task(1, TODAY.minusDays(2), false),
+				task(2, null, false),
+				task(3, TODAY, false),
+				task(4, TODAY.minusDays(5), true),
+				task(5, TODAY.plusDays(1), false));
+
+		Map<String, Object> summary = DashboardServiceImpl.summarizeTasks(tasks, TODAY);
+
+		assertEquals(5, summary.get("total"));
+		assertEquals(4, summary.get("open"));
+		assertEquals(1, summary.get("overdue"));
+		assertEquals(1, summary.get("dueToday"));
+		List<?> upcoming = (List<?>) summary.get("upcoming");
+		assertEquals(List.of(1L, 3L, 5L, 2L), upcoming.stream().map(item -> ((Map<?, ?>) item).get("id")).toList());
+	}
+
+	@Test
+	void upcomingTasksAreCapped() {
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			tasks.add(task(i, TODAY.plusDays(i), false));
+		}
+		List<?> upcoming = (List<?>) DashboardServiceImpl.summarizeTasks(tasks, TODAY).get("upcoming");
+		assertEquals(DashboardServiceImpl.UPCOMING_TASKS, upcoming.size());
+	}
+
+	@Test
+	void recentExpensesAreNewestFirst() {
+		List<Expenses> rows = new ArrayList<>();
+		for (int i = 0; i < 15; i++) {
+			Expenses e = new Expenses();
+			e.setExpenseId((long) i);
+			e.setPurchaseDate(TODAY.minusDays(i % 5));
+			e.setAmount(BigDecimal.ONE);
+			rows.add(e);
+		}
+
+		List<Map<String, Object>> recent = DashboardServiceImpl.recentExpenses(rows);
+
+		assertEquals(DashboardServiceImpl.RECENT_EXPENSES, recent.size());
+		assertEquals(List.of(10L, 5L, 0L, 11L), recent.subList(0, 4).stream().map(item -> item.get("id")).toList());
+	}
+
+	private DashboardServiceImpl dashboard(AsyncTaskExecutor executor) {
+		return new DashboardServiceImpl(tasks, budgets, expenses, moods, executor, TIMEOUT);
+	}
+
+	private Object block() throws InterruptedException {
+		release.await();
+		return null;
+	}
+
+	private static Task task(long id, LocalDate due, boolean completed) {
+		Task task = new Task();
+		task.setId(id);
+		task.setTitle("Task " + id);
+		task.setDueDate(due);
+		task.setCompleted(completed);
+		return task;
+	}
+}
@@ -0,0 +1,114 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.tasknest.entity.Expenses;
+import com.tasknest.repository.ExpensesRepository;
+import com.tasknest.repository.TombstoneRepository;
+
+/**
+ * Updates of a recurring expense template over stubbed repositories on a
+ * single shard: a new rule or anchor only regenerates the future of the series.
+ */
+class ExpensesServiceImplTest {
+
+	private static final String EMAIL = "a@x.com";
+	private static final LocalDate TODAY = LocalDate.now();
+
+	private final ExpensesRepository expenses = mock(ExpensesRepository.class);
+	private final TombstoneRepository tombstones = mock(TombstoneRepository.class);
+	private final ShardRouter router = mock(ShardRouter.class);
+	private final UserIds userIds = mock(UserIds.class);
+	private ExpensesServiceImpl service;
+
+	@BeforeEach
+	void setUp() {
+		when(router.placementOf(anyString())).thenReturn(new ShardRouter.Placement(0, false));
+		when(router.shardCount()).thenReturn(1);
+		when(userIds.requireIdOf(EMAIL)).thenReturn(7L);
+		when(expenses.save(any())).thenAnswer(call -> call.getArgument(0));
+		ShardTemplate shards = new ShardTemplate(router, mock(PlatformTransactionManager.class),
+				new SimpleAsyncTaskExecutor());
+		service = new ExpensesServiceImpl(expenses, tombstones, shards, router, userIds,
+				mock(ApplicationEventPublisher.class));
+	}
+
+	@Test
+	void aNewRuleRegeneratesOnlyAfterToday() {
+		Expenses template = template(TODAY.minusMonths(9), "FREQ=MONTHLY");
+		when(expenses.findById(1L)).thenReturn(Optional.of(template));
+
+		Expenses saved = service.updateExpense(1L, edit(null, "FREQ=WEEKLY"));
+
+		assertEquals("FREQ=WEEKLY", saved.getRecurrenceRule());
+		assertEquals(TODAY, saved.getRecurrenceGeneratedUntil());
+		verify(expenses).deletePendingInstances(1L, TODAY);
+	}
+
+	@Test
+	void aNewAnchorRegeneratesTheSeries() {
+		Expenses template = template(TODAY.minusMonths(9), "FREQ=MONTHLY");
+		when(expenses.findById(1L)).thenReturn(Optional.of(template));
+
+		Expenses saved = service.updateExpense(1L, edit(TODAY.plusDays(10), "FREQ=MONTHLY"));
+
+		// nothing before the new anchor either
+		assertEquals(TODAY.plusDays(10), saved.getRecurrenceGeneratedUntil());
+		verify(expenses).deletePendingInstances(1L, TODAY);
+	}
+
+	@Test
+	void otherEditsKeepTheSeries() {
+		Expenses template = template(TODAY.minusMonths(9), "FREQ=MONTHLY");
+		when(expenses.findById(1L)).thenReturn(Optional.of(template));
+
+		Expenses saved = service.updateExpense(1L, edit(null, "FREQ=MONTHLY"));
+
+		assertEquals(TODAY.minusDays(1), saved.getRecurrenceGeneratedUntil());
+		verify(expenses, never()).deletePendingInstances(anyLong(), any());
+	}
+
+	@Test
+	void movingAPlainExpenseStartsNoSeries() {
+		Expenses plain = template(TODAY.minusMonths(1), null);
+		plain.setRecurrenceGeneratedUntil(null);
+		when(expenses.findById(1L)).thenReturn(Optional.of(plain));
+
+		Expenses saved = service.updateExpense(1L, edit(TODAY, null));
+
+		assertNull(saved.getRecurrenceGeneratedUntil());
+		verify(expenses, never()).deletePendingInstances(anyLong(), any());
+	}
+
+	private static Expenses template(LocalDate anchor, String rule) {
+		Expenses e = new Expenses(1L, "rent", anchor, new BigDecimal("500.00"), "rent", EMAIL);
+		e.setUserId(7L);
+		e.setRecurrenceRule(rule);
+		e.setRecurrenceGeneratedUntil(TODAY.minusDays(1));
+		return e;
+	}
+
+	private static Expenses edit(LocalDate purchaseDate, String rule) {
+		Expenses e = new Expenses(null, "rent", purchaseDate, new BigDecimal("500.00"), "rent", EMAIL);
+		e.setRecurrenceRule(rule);
+		return e;
+	}
+}
@@ -0,0 +1,133 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.tasknest.repository.SchedulerLeaseRepository;
+
+/**
+ * The partitioning migration and one maintenance run on MySQL: existing
+ * rows survive the repartition, p_future is split into months, old expense
+ * months are archived (by exchange, or row by row around a recurring
+ * template) and old contact-message months are dropped.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PartitionMaintenanceMySqlTest {
+
+	@Container
+	private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	private static final YearMonth NOW = YearMonth.now();
+
+	private static DriverManagerDataSource home;
+	private static JdbcTemplate jdbc;
+
+	@BeforeAll
+	static void migrate() {
+		home = new DriverManagerDataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+		jdbc = new JdbcTemplate(home);
+		flyway().target("10").load().migrate();
+		String expense = "INSERT INTO expenses (expense_id, user_email, amount, purchase_date, updated_at, "
+				+ "recurrence_rule) VALUES (?, 'a@x.com', 1, ?, NOW(), ?)";
+		jdbc.update(expense, 1L, day(NOW.minusMonths(5)), null);
+		jdbc.update(expense, 2L, day(NOW.minusMonths(5)), "FREQ=MONTHLY");
+		jdbc.update(expense, 3L, day(NOW.minusMonths(4)), null);
+		jdbc.update(expense, 4L, day(NOW.minusMonths(4)), null);
+		jdbc.update(expense, 5L, day(NOW), null);
+		// undated rows take the day they were written
+		jdbc.update(expense, 6L, null, null);
+		String contact = "INSERT INTO contact_messages (id, name, email, phone, subject, message, created_at, is_read, "
+				+ "is_responded) VALUES (?, 'n', 'a@x.com', '1', 's', 'm', ?, 0, 0)";
+		jdbc.update(contact, 1L, day(NOW.minusMonths(5)).atStartOfDay());
+		jdbc.update(contact, 2L, day(NOW).atStartOfDay());
+		flyway().load().migrate();
+	}
+
+	@Test
+	void maintenanceSplitsArchivesAndDrops() {
+		assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM expenses WHERE expense_id = 6 "
+				+ "AND purchase_date = CAST(updated_at AS DATE)", Integer.class));
+		assertEquals(List.of(PartitionMaintenance.FUTURE), partitions("expenses"));
+
+		maintenance().run();
+
+		List<String> expenses = partitions("expenses");
+		assertTrue(expenses.contains(name(NOW.plusMonths(1))), expenses.toString());
+		assertEquals(PartitionMaintenance.FUTURE, expenses.get(expenses.size() - 1));
+		// a month with nothing to keep is exchanged whole and its partition dropped
+		assertFalse(expenses.contains(name(NOW.minusMonths(4))), expenses.toString());
+		assertFalse(expenses.contains(name(NOW.minusMonths(3))), expenses.toString());
+		assertEquals(List.of(3L, 4L), ids(archive(NOW.minusMonths(4))));
+		// the recurring template keeps its month in the live table; the rest is moved
+		assertTrue(expenses.contains(name(NOW.minusMonths(5))), expenses.toString());
+		assertEquals(List.of(1L), ids(archive(NOW.minusMonths(5))));
+		assertEquals(List.of(2L, 5L, 6L), ids("expenses"));
+		assertEquals("Compressed", jdbc.queryForObject("SELECT ROW_FORMAT FROM information_schema.TABLES WHERE "
+				+ "TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", String.class, archive(NOW.minusMonths(4))));
+
+		assertFalse(partitions("contact_messages").contains(name(NOW.minusMonths(5))));
+		assertEquals(List.of(2L), jdbc.queryForList("SELECT id FROM contact_messages ORDER BY id", Long.class));
+
+		// nothing left to do the second time
+		maintenance().run();
+		assertEquals(expenses, partitions("expenses"));
+		assertEquals(List.of(archive(NOW.minusMonths(5)), archive(NOW.minusMonths(4)), archive(NOW.minusMonths(3))),
+				maintenance().archives("expenses"));
+	}
+
+	private static PartitionMaintenance maintenance() {
+		SchedulerLeaseRepository leases = mock(SchedulerLeaseRepository.class);
+		when(leases.tryAcquire(anyString(), anyString(), any(), any())).thenReturn(1);
+		ShardRouter router = mock(ShardRouter.class);
+		when(router.shardCount()).thenReturn(1);
+		DataSourceTransactionManager transactions = new DataSourceTransactionManager(home);
+		ShardTemplate shards = new ShardTemplate(router, transactions, new SimpleAsyncTaskExecutor());
+		return new PartitionMaintenance(jdbc, shards, transactions, leases, "node-1", 1, 2, 2, "drop", 1, 600);
+	}
+
+	private static org.flywaydb.core.api.configuration.FluentConfiguration flyway() {
+		return Flyway.configure().dataSource(home).placeholders(Map.of("online_ddl", "ALGORITHM=INPLACE LOCK=NONE"));
+	}
+
+	private static List<String> partitions(String table) {
+		return jdbc.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = "
+				+ "DATABASE() AND TABLE_NAME = ? ORDER BY PARTITION_ORDINAL_POSITION", String.class, table);
+	}
+
+	private static List<Long> ids(String table) {
+		return jdbc.queryForList("SELECT expense_id FROM " + table + " ORDER BY expense_id", Long.class);
+	}
+
+	private static LocalDate day(YearMonth month) {
+		return month == null ? null : month.atDay(10);
+	}
+
+	private static String name(YearMonth month) {
+		return PartitionMaintenance.partitionName(month);
+	}
+
+	private static String archive(YearMonth month) {
+		return PartitionMaintenance.archiveName("expenses", name(month));
+	}
+}
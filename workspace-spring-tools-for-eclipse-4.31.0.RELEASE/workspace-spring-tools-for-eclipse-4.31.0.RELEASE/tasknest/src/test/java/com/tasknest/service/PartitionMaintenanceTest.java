@@ -0,0 +1,37 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.Test;
+
+class PartitionMaintenanceTest {
+
+	@Test
+	void reorganizeAddsOneBoundedPartitionPerMonthBeforeTheCatchAll() {
+		String sql = PartitionMaintenance.reorganize("expenses", YearMonth.of(2026, 11), YearMonth.of(2027, 1));
+
+		assertEquals("ALTER TABLE expenses REORGANIZE PARTITION p_future INTO ("
+				+ "PARTITION p202611 VALUES LESS THAN ('2026-12-01'), "
+				+ "PARTITION p202612 VALUES LESS THAN ('2027-01-01'), "
+				+ "PARTITION p202701 VALUES LESS THAN ('2027-02-01'), "
+				+ "PARTITION p_future VALUES LESS THAN (MAXVALUE))", sql);
+	}
+
+	@Test
+	void monthOfReadsOnlyMonthlyPartitions() {
+		assertEquals(YearMonth.of(2026, 2), PartitionMaintenance.monthOf("p202602"));
+		assertEquals(YearMonth.of(2026, 2), PartitionMaintenance.monthOf(PartitionMaintenance.partitionName(YearMonth.of(2026, 2))));
+		assertNull(PartitionMaintenance.monthOf(PartitionMaintenance.FUTURE));
+		assertNull(PartitionMaintenance.monthOf("p202613"));
+		assertNull(PartitionMaintenance.monthOf("p2026021"));
+		assertNull(PartitionMaintenance.monthOf(null));
+	}
+
+	@Test
+	void archiveTablesAreNamedAfterTheMonth() {
+		assertEquals("expenses_archive_202301", PartitionMaintenance.archiveName("expenses", "p202301"));
+	}
+}
@@ -0,0 +1,49 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RecurrenceRuleTest {
+
+	@Test
+	void monthlyRuleClampsToMonthEndAndSkipsAnchor() {
+		RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;INTERVAL=1");
+		LocalDate anchor = LocalDate.of(2026, 1, 31);
+
+		List<LocalDate> dates = rule.occurrences(anchor, anchor, LocalDate.of(2026, 4, 30));
+
+		assertEquals(List.of(LocalDate.of(2026, 2, 28), LocalDate.of(2026, 3, 31), LocalDate.of(2026, 4, 30)), dates);
+	}
+
+	@Test
+	void weeklyByDayHonoursCountFromAnchor() {
+		RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,TH;COUNT=4");
+		LocalDate anchor = LocalDate.of(2026, 10, 19); // Monday
+
+		List<LocalDate> dates = rule.occurrences(anchor, anchor, LocalDate.of(2026, 12, 31));
+
+		assertEquals(List.of(LocalDate.of(2026, 10, 22), LocalDate.of(2026, 10, 26), LocalDate.of(2026, 10, 29)), dates);
+	}
+
+	@Test
+	void resumesAfterAlreadyGeneratedDateAndStopsAtUntil() {
+		RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;INTERVAL=2;UNTIL=2026-10-10");
+		LocalDate anchor = LocalDate.of(2026, 10, 1);
+
+		List<LocalDate> dates = rule.occurrences(anchor, LocalDate.of(2026, 10, 5), LocalDate.of(2026, 10, 31));
+
+		assertEquals(List.of(LocalDate.of(2026, 10, 7), LocalDate.of(2026, 10, 9)), dates);
+	}
+
+	@Test
+	void rejectsUnsupportedRules() {
+		assertThrows(RuntimeException.class, () -> RecurrenceRule.parse("INTERVAL=2"));
+		assertThrows(RuntimeException.class, () -> RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=MO"));
+		assertThrows(RuntimeException.class, () -> RecurrenceRule.parse("FREQ=HOURLY"));
+	}
+}
@@ -0,0 +1,190 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.tasknest.entity.Expenses;
+import com.tasknest.entity.Task;
+import com.tasknest.repository.ExpensesRepository;
+import com.tasknest.repository.SchedulerLeaseRepository;
+import com.tasknest.repository.TaskRepository;
+
+/**
+ * The scheduler over stubbed repositories: only templates of users placed on
+ * the shard and not being moved get instances; two nodes sharing the lease
+ * table never work a bucket at the same time and hand every bucket back; and
+ * a bucket run again (a crash before generated-until was saved) against an
+ * H2 schema migrated by Flyway adds no duplicate instances.
+ */
+class RecurrenceSchedulerTest {
+
+	private final TaskRepository tasks = mock(TaskRepository.class);
+	private final ExpensesRepository expenses = mock(ExpensesRepository.class);
+	private final ShardRouter router = mock(ShardRouter.class);
+	private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+
+	@Test
+	void templatesOfMovingOrMovedUsersAreSkipped() {
+		when(router.placementOf("here@x.com")).thenReturn(new ShardRouter.Placement(0, false));
+		when(router.placementOf("moving@x.com")).thenReturn(new ShardRouter.Placement(0, true));
+		when(router.placementOf("moved@x.com")).thenReturn(new ShardRouter.Placement(1, false));
+		when(tasks.findRecurringTemplates(anyInt(), anyInt(), any())).thenReturn(List.of(
+				task(1L, "here@x.com"), task(2L, "moving@x.com"), task(3L, "moved@x.com")));
+		when(expenses.findRecurringTemplates(anyInt(), anyInt(), any())).thenReturn(List.of(
+				expense(4L, "moving@x.com"), expense(5L, "here@x.com")));
+
+		scheduler().materializePartition(0, 0);
+
+		verify(jdbc, times(2)).batchUpdate(any(String.class), anyList());
+		verify(jdbc).update(eq("UPDATE tasks SET recurrence_generated_until = ? WHERE id = ?"), any(), eq(1L));
+		verify(jdbc).update(eq("UPDATE expenses SET recurrence_generated_until = ? WHERE expense_id = ?"), any(), eq(5L));
+		verify(jdbc, never()).update(any(String.class), any(), eq(2L));
+		verify(jdbc, never()).update(any(String.class), any(), eq(3L));
+		verify(jdbc, never()).update(any(String.class), any(), eq(4L));
+	}
+
+	@Test
+	void twoNodesSplitTheBucketsAndReleaseThem() {
+		Map<String, String> owners = new HashMap<>();
+		SchedulerLeaseRepository leases = leases(owners);
+		List<String> worked = new ArrayList<>();
+		Set<Integer> inProgress = new HashSet<>();
+		RecurrenceScheduler[] nodes = new RecurrenceScheduler[2];
+		when(tasks.findRecurringTemplates(eq(8), anyInt(), any())).thenAnswer(call -> {
+			int partition = call.getArgument(1);
+			assertTrue(inProgress.add(partition), "bucket " + partition + " worked by two nodes at once");
+			worked.add(owners.get("recurrence-0-" + partition) + "/" + partition);
+			if (worked.size() == 1) {
+				// node-2 runs while node-1 is in its first bucket
+				nodes[1].run();
+			}
+			inProgress.remove(partition);
+			return List.of();
+		});
+		when(expenses.findRecurringTemplates(anyInt(), anyInt(), any())).thenReturn(List.of());
+		nodes[0] = scheduler(leases, "node-1", 1);
+		nodes[1] = scheduler(leases, "node-2", 1);
+
+		nodes[0].run();
+
+		assertEquals(7, worked.stream().filter(w -> w.startsWith("node-2/")).count());
+		assertEquals(8, worked.stream().filter(w -> w.startsWith("node-1/")).count());
+		// nobody keeps a bucket after its run
+		assertEquals(8, owners.size());
+		assertTrue(owners.values().stream().allMatch(owner -> owner == null), owners.toString());
+	}
+
+	@Test
+	void aBucketRunAgainAddsNoDuplicates() {
+		String url = "jdbc:h2:mem:recurrence-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+				+ "NON_KEYWORDS=MONTH,DAY,TIMESTAMP;DB_CLOSE_DELAY=-1";
+		Flyway.configure().dataSource(url, "sa", "").placeholders(Map.of("online_ddl", "")).load().migrate();
+		JdbcTemplate h2 = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+		h2.update("INSERT INTO tasks (id, user_email, title, completed, due_date, recurrence_rule) "
+				+ "VALUES (1, 'here@x.com', 'task 1', FALSE, CURRENT_DATE, 'FREQ=DAILY')");
+		when(router.placementOf("here@x.com")).thenReturn(new ShardRouter.Placement(0, false));
+		// generated-until never got saved, so the template comes back whole
+		when(tasks.findRecurringTemplates(anyInt(), anyInt(), any())).thenReturn(List.of(task(1L, "here@x.com")));
+		when(expenses.findRecurringTemplates(anyInt(), anyInt(), any())).thenReturn(List.of());
+		RecurrenceScheduler scheduler = new RecurrenceScheduler(tasks, expenses, mock(SchedulerLeaseRepository.class),
+				mock(ShardTemplate.class), router, h2, mock(ApplicationEventPublisher.class), "node-1", 8, 8, 30, 30,
+				500, 600);
+
+		scheduler.materializePartition(0, 1);
+		scheduler.materializePartition(0, 1);
+
+		assertEquals(30, h2.queryForObject("SELECT COUNT(*) FROM tasks WHERE recurrence_source_id = 1", Integer.class));
+		assertEquals(30, h2.queryForObject("SELECT COUNT(DISTINCT due_date) FROM tasks WHERE recurrence_source_id = 1",
+				Integer.class));
+	}
+
+	private RecurrenceScheduler scheduler() {
+		ShardTemplate shards = mock(ShardTemplate.class);
+		when(shards.shardCount()).thenReturn(2);
+		return new RecurrenceScheduler(tasks, expenses, mock(SchedulerLeaseRepository.class), shards, router, jdbc,
+				mock(ApplicationEventPublisher.class), "node-1", 8, 8, 30, 30, 500, 600);
+	}
+
+	@SuppressWarnings("unchecked")
+	private RecurrenceScheduler scheduler(SchedulerLeaseRepository leases, String node, int shardCount) {
+		ShardTemplate shards = mock(ShardTemplate.class);
+		when(shards.shardCount()).thenReturn(shardCount);
+		when(shards.onShard(anyInt(), any())).thenAnswer(call -> ((Supplier<Object>) call.getArgument(1)).get());
+		return new RecurrenceScheduler(tasks, expenses, leases, shards, router, jdbc,
+				mock(ApplicationEventPublisher.class), node, 8, 8, 30, 30, 500, 600);
+	}
+
+	// scheduler_lease as a map: lease name to owner, null when free; leases here never expire
+	private static SchedulerLeaseRepository leases(Map<String, String> owners) {
+		SchedulerLeaseRepository leases = mock(SchedulerLeaseRepository.class);
+		when(leases.createIfAbsent(anyString())).thenAnswer(call -> {
+			owners.putIfAbsent(call.getArgument(0), null);
+			return 1;
+		});
+		when(leases.tryAcquire(anyString(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+				.thenAnswer(call -> {
+					String owner = owners.get(call.<String>getArgument(0));
+					if (owner != null && !owner.equals(call.getArgument(1))) {
+						return 0;
+					}
+					owners.put(call.getArgument(0), call.getArgument(1));
+					return 1;
+				});
+		when(leases.release(anyString(), anyString())).thenAnswer(call -> {
+			boolean held = call.getArgument(1).equals(owners.get(call.<String>getArgument(0)));
+			if (held) {
+				owners.put(call.getArgument(0), null);
+			}
+			return held ? 1 : 0;
+		});
+		return leases;
+	}
+
+	private static Task task(Long id, String email) {
+		Task t = new Task();
+		t.setId(id);
+		t.setTitle("task " + id);
+		t.setUserEmail(email);
+		t.setDueDate(LocalDate.now());
+		t.setRecurrenceRule("FREQ=DAILY");
+		return t;
+	}
+
+	private static Expenses expense(Long id, String email) {
+		Expenses e = new Expenses();
+		e.setExpenseId(id);
+		e.setDescription("expense " + id);
+		e.setUserEmail(email);
+		e.setAmount(BigDecimal.TEN);
+		e.setPurchaseDate(LocalDate.now());
+		e.setRecurrenceRule("FREQ=DAILY");
+		return e;
+	}
+}
@@ -0,0 +1,224 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tasknest.entity.Task;
+import com.tasknest.repository.SchedulerLeaseRepository;
+import com.tasknest.repository.TaskRepository;
+
+/**
+ * The engine over stubbed repositories and a sink that fails or reaches
+ * nobody: such reminders stay unmarked, and a reload of the horizon keeps
+ * them on their backoff and given-up ones silent. Reminders of a user being
+ * moved are delivered but marked only after the move. Task writes reach the
+ * wheel only once their transaction commits.
+ */
+class ReminderServiceTest {
+
+	private final TaskRepository tasks = mock(TaskRepository.class);
+	private final SchedulerLeaseRepository leases = mock(SchedulerLeaseRepository.class);
+	private final ShardRouter router = mock(ShardRouter.class);
+	private final List<List<TaskReminder>> attempts = new ArrayList<>();
+	private boolean failing = true;
+	private boolean offline;
+
+	@BeforeEach
+	void setUp() {
+		when(router.placementOf(anyString())).thenReturn(new ShardRouter.Placement(0, false));
+		when(router.shardCount()).thenReturn(1);
+		when(leases.tryAcquire(anyString(), anyString(), any(), any())).thenReturn(1);
+		// due today: the fire time (the day before, lead-minutes ahead) has passed
+		when(tasks.findPendingReminders(any(), any())).thenReturn(List.of(task(1L), task(2L)));
+	}
+
+	@Test
+	void aReloadKeepsFailedRemindersOnTheirBackoff() {
+		ReminderService reminders = service(10);
+		reminders.refresh();
+		reminders.tick();
+		assertEquals(1, attempts.size());
+
+		reminders.refresh();
+		reminders.tick();
+		reminders.tick();
+		assertEquals(1, attempts.size(), "retried before its backoff");
+
+		// a new due date is a new reminder
+		Task moved = task(1L);
+		moved.setDueDate(LocalDate.now().plusDays(1));
+		reminders.onTaskSaved(moved);
+		failing = false;
+		reminders.tick();
+		assertEquals(List.of(0), attempts.get(1).stream().map(TaskReminder::attempt).toList());
+	}
+
+	@Test
+	void givenUpRemindersStayQuietAcrossReloads() {
+		ReminderService reminders = service(1);
+		reminders.refresh();
+		reminders.tick();
+		assertEquals(1, attempts.size());
+
+		failing = false;
+		reminders.refresh();
+		reminders.tick();
+		assertEquals(1, attempts.size());
+	}
+
+	@Test
+	void losingTheLeaseForgetsRetries() {
+		ReminderService reminders = service(10);
+		reminders.refresh();
+		reminders.tick();
+
+		when(leases.tryAcquire(anyString(), anyString(), any(), any())).thenReturn(0);
+		reminders.refresh();
+		when(leases.tryAcquire(anyString(), anyString(), any(), any())).thenReturn(1);
+		reminders.refresh();
+		reminders.tick();
+		assertEquals(2, attempts.size());
+		assertEquals(List.of(0, 0), attempts.get(1).stream().map(TaskReminder::attempt).toList());
+	}
+
+	@Test
+	void remindersThatReachedNobodyAreRetriedNotMarked() {
+		JdbcTemplate jdbc = mock(JdbcTemplate.class);
+		failing = false;
+		offline = true;
+		ReminderService reminders = service(10, jdbc);
+		reminders.refresh();
+		reminders.tick();
+		assertEquals(1, attempts.size());
+		verify(jdbc, never()).batchUpdate(anyString(), anyList());
+
+		// still on its backoff after a reload
+		reminders.refresh();
+		reminders.tick();
+		assertEquals(1, attempts.size());
+	}
+
+	@Test
+	void reachedRemindersAreMarked() {
+		JdbcTemplate jdbc = mock(JdbcTemplate.class);
+		failing = false;
+		ReminderService reminders = service(10, jdbc);
+		reminders.refresh();
+		reminders.tick();
+		verify(jdbc).batchUpdate(anyString(), anyList());
+	}
+
+	@Test
+	void remindersOfAMovingUserAreMarkedOnceTheMoveIsOver() {
+		JdbcTemplate jdbc = mock(JdbcTemplate.class);
+		failing = false;
+		when(router.placementOf(anyString())).thenReturn(new ShardRouter.Placement(0, true));
+		ReminderService reminders = service(10, jdbc);
+		reminders.refresh();
+		reminders.tick();
+		assertEquals(1, attempts.size());
+		verify(jdbc, never()).batchUpdate(anyString(), anyList());
+
+		// still unmarked in the database, but not sent again
+		reminders.refresh();
+		reminders.tick();
+		assertEquals(1, attempts.size());
+
+		when(router.placementOf(anyString())).thenReturn(new ShardRouter.Placement(1, false));
+		reminders.tick();
+		verify(jdbc).batchUpdate(anyString(), anyList());
+		reminders.tick();
+		verify(jdbc).batchUpdate(anyString(), anyList());
+		assertEquals(1, attempts.size());
+	}
+
+	@Test
+	void onlyCommittedTaskWritesScheduleReminders() {
+		when(tasks.findPendingReminders(any(), any())).thenReturn(List.of());
+		failing = false;
+		ReminderService reminders = service(10);
+		reminders.refresh();
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.register(Transactions.class);
+			context.registerBean(ReminderService.class, () -> reminders);
+			context.refresh();
+			TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+			transaction.executeWithoutResult(status -> {
+				context.publishEvent(ChangeEvent.created("a@x.com", ChangeEvent.TASKS, 3L, task(3L)));
+				status.setRollbackOnly();
+			});
+			reminders.tick();
+			assertEquals(List.of(), attempts);
+
+			transaction.executeWithoutResult(status ->
+					context.publishEvent(ChangeEvent.created("a@x.com", ChangeEvent.TASKS, 4L, task(4L))));
+			reminders.tick();
+			assertEquals(List.of(4L), attempts.get(0).stream().map(TaskReminder::taskId).toList());
+		}
+	}
+
+	@Configuration
+	@EnableTransactionManagement
+	static class Transactions {
+		@Bean
+		PlatformTransactionManager transactionManager() {
+			return new DataSourceTransactionManager(new DriverManagerDataSource("jdbc:h2:mem:reminders", "sa", ""));
+		}
+	}
+
+	private ReminderService service(int maxAttempts) {
+		return service(maxAttempts, mock(JdbcTemplate.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	private ReminderService service(int maxAttempts, JdbcTemplate jdbc) {
+		ReminderSink sink = batch -> {
+			attempts.add(List.copyOf(batch));
+			if (failing) {
+				throw new IllegalStateException("mail server down");
+			}
+			return offline ? batch : List.of();
+		};
+		ObjectProvider<ReminderSink> sinks = mock(ObjectProvider.class);
+		when(sinks.orderedStream()).thenAnswer(call -> Stream.of(sink));
+		ShardTemplate shards = new ShardTemplate(router, mock(PlatformTransactionManager.class),
+				new SimpleAsyncTaskExecutor());
+		return new ReminderService(tasks, leases, shards, router, jdbc, sinks, "node-1", 2, 900,
+				100, 0, maxAttempts, 900);
+	}
+
+	private static Task task(Long id) {
+		Task t = new Task();
+		t.setId(id);
+		t.setTitle("task " + id);
+		t.setUserEmail("a@x.com");
+		t.setDueDate(LocalDate.now());
+		return t;
+	}
+}
@@ -0,0 +1,80 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.tasknest.config.ShardRoutingDataSource;
+
+/**
+ * The startup id check over two in-memory shards: a primary with dense
+ * pre-sharding ids next to a new shard whose counter starts low.
+ */
+class ShardIdRangesTest {
+
+	private final JdbcTemplate[] databases = new JdbcTemplate[2];
+	private ShardIdRanges ranges;
+
+	@BeforeEach
+	void setUp() {
+		ShardRouter router = mock(ShardRouter.class);
+		when(router.isSharded()).thenReturn(true);
+		when(router.shardCount()).thenReturn(2);
+		DriverManagerDataSource[] shards = new DriverManagerDataSource[2];
+		for (int i = 0; i < 2; i++) {
+			shards[i] = new DriverManagerDataSource("jdbc:h2:mem:ids-" + System.nanoTime() + "-" + i + ";DB_CLOSE_DELAY=-1");
+			databases[i] = new JdbcTemplate(shards[i]);
+			for (var table : UserIdBackfill.CHILD_TABLES.entrySet()) {
+				databases[i].execute("CREATE TABLE " + table.getKey() + " (" + table.getValue() + " BIGINT PRIMARY KEY)");
+			}
+		}
+		JdbcTemplate routed = new JdbcTemplate(new ShardRoutingDataSource(List.of(shards)));
+		ranges = new ShardIdRanges(router,
+				new ShardTemplate(router, mock(PlatformTransactionManager.class), new SimpleAsyncTaskExecutor()), routed);
+	}
+
+	@Test
+	void densePrimaryIdsAheadOfANewShardAreReported() {
+		for (long id = 1; id <= 200; id++) {
+			databases[0].update("INSERT INTO tasks (id) VALUES (?)", id);
+		}
+		databases[1].update("INSERT INTO tasks (id) VALUES (?)", 2L);
+
+		List<String> problems = ranges.checkCollisions();
+
+		assertEquals(1, problems.size(), problems.toString());
+		// 194 = 2 + 3 * 64 is the highest id of shard 1's series on shard 0
+		assertTrue(problems.get(0).startsWith("tasks.id 194 on shard 0 is ahead of shard 1's next id 3"),
+				problems.get(0));
+	}
+
+	@Test
+	void shardsWithTheirOwnSeriesPass() {
+		databases[0].update("INSERT INTO expenses (expense_id) VALUES (1), (129)");
+		databases[1].update("INSERT INTO expenses (expense_id) VALUES (2), (66)");
+		// moved from shard 0 with its id
+		databases[1].update("INSERT INTO expenses (expense_id) VALUES (65)");
+
+		assertTrue(ranges.checkCollisions().isEmpty());
+	}
+
+	@Test
+	void seriesMustMatchTheShard() {
+		assertNull(ShardIdRanges.seriesProblem(0, 64, 1));
+		assertNull(ShardIdRanges.seriesProblem(3, 64, 4));
+		assertNotNull(ShardIdRanges.seriesProblem(1, 1, 1));
+		assertNotNull(ShardIdRanges.seriesProblem(1, 64, 1));
+	}
+}
@@ -0,0 +1,169 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.tasknest.config.ShardRoutingDataSource;
+import com.tasknest.config.ShardingProperties;
+
+/**
+ * Moves between two in-memory shards behind the real routing data source,
+ * with the directory mocked: a move copies every per-user table and the
+ * expense archives, ids unchanged, and a failed copy rolls back and leaves
+ * the user in place. Archive discovery and creation are stubbed.
+ */
+class ShardRebalancerTest {
+
+	private static final String EMAIL = "a@x.com";
+	private static final long USER = 7L;
+	private static final String ARCHIVE = "expenses_archive_202501";
+	// keyed by (user_id, collection) rather than a row id, set up on its own
+	private static final List<String> ROW_TABLES = ShardRebalancer.USER_TABLES.stream()
+			.filter(table -> !table.equals("collection_versions"))
+			.toList();
+
+	private final ShardRouter router = mock(ShardRouter.class);
+	private final PartitionMaintenance partitions = mock(PartitionMaintenance.class);
+	private final JdbcTemplate[] databases = new JdbcTemplate[2];
+	private ShardRebalancer rebalancer;
+
+	@BeforeEach
+	void setUp() {
+		when(router.shardCount()).thenReturn(2);
+		when(router.isSharded()).thenReturn(true);
+		when(router.load(EMAIL)).thenReturn(new ShardRouter.Placement(0, false));
+		UserIds userIds = mock(UserIds.class);
+		when(userIds.requireIdOf(EMAIL)).thenReturn(USER);
+
+		DriverManagerDataSource[] shards = new DriverManagerDataSource[2];
+		for (int i = 0; i < 2; i++) {
+			shards[i] = new DriverManagerDataSource(
+					"jdbc:h2:mem:rebalance-" + System.nanoTime() + "-" + i + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+			databases[i] = new JdbcTemplate(shards[i]);
+			for (String table : ROW_TABLES) {
+				databases[i].execute("CREATE TABLE " + table + " (" + UserIdBackfill.CHILD_TABLES.get(table)
+						+ " BIGINT PRIMARY KEY, user_email VARCHAR(100), user_id BIGINT, title VARCHAR(100))");
+			}
+			databases[i].execute("CREATE TABLE collection_versions (user_id BIGINT, user_email VARCHAR(100), "
+					+ "collection VARCHAR(20), version BIGINT, PRIMARY KEY (user_id, collection))");
+		}
+		databases[0].update("INSERT INTO collection_versions VALUES (?, ?, 'TASKS', 4), (8, 'b@x.com', 'TASKS', 2)",
+				USER, EMAIL);
+		// only the source has archived months so far
+		databases[0].execute("CREATE TABLE " + ARCHIVE + " (expense_id BIGINT PRIMARY KEY, user_email VARCHAR(100), "
+				+ "user_id BIGINT, title VARCHAR(100))");
+		databases[0].update("INSERT INTO " + ARCHIVE + " VALUES (3, ?, ?, 'archived'), (130, 'b@x.com', 8, 'not mine')",
+				EMAIL, USER);
+		when(partitions.archives("expenses")).thenReturn(List.of(ARCHIVE));
+		doAnswer(call -> {
+			databases[1].execute("CREATE TABLE IF NOT EXISTS " + ARCHIVE + " (expense_id BIGINT PRIMARY KEY, "
+					+ "user_email VARCHAR(100), user_id BIGINT, title VARCHAR(100))");
+			return null;
+		}).when(partitions).createArchive("expenses", ARCHIVE);
+		ShardRoutingDataSource routing = new ShardRoutingDataSource(List.of(shards));
+		ShardTemplate template = new ShardTemplate(router, new DataSourceTransactionManager(routing),
+				new SimpleAsyncTaskExecutor());
+		ShardingProperties properties = new ShardingProperties();
+		properties.setDirectoryCache(Duration.ZERO);
+		rebalancer = new ShardRebalancer(router, template, userIds, partitions, new JdbcTemplate(routing),
+				new DataSourceTransactionManager(routing), new TaskExecutorAdapter(Runnable::run), properties);
+
+		for (String table : ROW_TABLES) {
+			String id = UserIdBackfill.CHILD_TABLES.get(table);
+			databases[0].update("INSERT INTO " + table + " (" + id + ", user_email, user_id, title) VALUES (?, ?, ?, ?)",
+					1L, EMAIL, USER, "mine");
+			// not reached by the id backfill yet
+			databases[0].update("INSERT INTO " + table + " (" + id + ", user_email, user_id, title) VALUES (?, ?, ?, ?)",
+					65L, EMAIL, null, "mine too");
+			databases[0].update("INSERT INTO " + table + " (" + id + ", user_email, user_id, title) VALUES (?, ?, ?, ?)",
+					129L, "b@x.com", 8L, "someone else's");
+		}
+	}
+
+	@Test
+	void aMoveCopiesEveryTableAndDrainsTheSource() {
+		rebalancer.moveUser(EMAIL, 1);
+
+		InOrder directory = inOrder(router);
+		directory.verify(router).markMoving(EMAIL, 0);
+		directory.verify(router).place(EMAIL, 1);
+		assertEquals("DONE", lastMove().get("state"));
+		assertEquals(12, lastMove().get("rows"));
+		for (String table : ROW_TABLES) {
+			String id = UserIdBackfill.CHILD_TABLES.get(table);
+			assertEquals(List.of(1L, 65L), ids(1, table, id, USER), table);
+			assertEquals(List.of(), ids(0, table, id, USER), table);
+			assertEquals(List.of(129L), ids(0, table, id, 8L), table);
+		}
+		assertEquals(List.of(3L), ids(1, ARCHIVE, "expense_id", USER));
+		assertEquals(List.of(), ids(0, ARCHIVE, "expense_id", USER));
+		assertEquals(List.of(130L), ids(0, ARCHIVE, "expense_id", 8L));
+		// the counter travels too, so tags handed out before the move stay valid
+		assertEquals(4L, version(1, USER));
+		assertEquals(List.of(8L), databases[0].queryForList("SELECT user_id FROM collection_versions", Long.class));
+	}
+
+	@Test
+	void aFailedCopyRollsBackAndStaysOnTheSource() {
+		// the last table cannot take the rows, after the others were already inserted
+		databases[1].update("INSERT INTO tombstones (id, user_email, user_id, title) VALUES (65, 'c@x.com', 9, 'clash')");
+
+		rebalancer.moveUser(EMAIL, 1);
+
+		verify(router).markMoving(EMAIL, 0);
+		verify(router).place(EMAIL, 0);
+		verify(router, never()).place(EMAIL, 1);
+		assertEquals("FAILED", lastMove().get("state"));
+		for (String table : ROW_TABLES) {
+			String id = UserIdBackfill.CHILD_TABLES.get(table);
+			assertEquals(List.of(1L, 65L), ids(0, table, id, USER), table);
+			assertEquals(List.of(), ids(1, table, id, USER), table);
+		}
+		assertEquals(List.of(3L), ids(0, ARCHIVE, "expense_id", USER));
+		assertEquals(4L, version(0, USER));
+	}
+
+	@Test
+	void aUserAlreadyMovingIsNotMovedTwice() {
+		when(router.load(EMAIL)).thenReturn(new ShardRouter.Placement(0, true));
+
+		rebalancer.moveUser(EMAIL, 1);
+
+		assertEquals("FAILED", lastMove().get("state"));
+		verify(router, never()).markMoving(anyString(), anyInt());
+	}
+
+	private Map<?, ?> lastMove() {
+		return (Map<?, ?>) ((List<?>) rebalancer.status().get("moves")).get(0);
+	}
+
+	private long version(int shard, long userId) {
+		return databases[shard].queryForObject("SELECT version FROM collection_versions WHERE user_id = ?",
+				Long.class, userId);
+	}
+
+	private List<Long> ids(int shard, String table, String id, long userId) {
+		return databases[shard].queryForList(
+				"SELECT " + id + " FROM " + table + " WHERE user_id = ? ORDER BY " + id, Long.class, userId);
+	}
+}
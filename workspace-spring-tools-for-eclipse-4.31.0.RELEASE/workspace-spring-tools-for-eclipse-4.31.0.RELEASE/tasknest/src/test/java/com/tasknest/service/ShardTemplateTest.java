@@ -0,0 +1,92 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Routing over a mocked three-shard directory: locate walks the shards
+ * outside the caller's transaction, scatter keeps shard order, and writes of
+ * a moving user are refused.
+ */
+class ShardTemplateTest {
+
+	private final ShardRouter router = mock(ShardRouter.class);
+	private final PlatformTransactionManager transactions = mock(PlatformTransactionManager.class);
+	private ShardTemplate shards;
+
+	@BeforeEach
+	void setUp() {
+		when(router.isSharded()).thenReturn(true);
+		when(router.shardCount()).thenReturn(3);
+		shards = new ShardTemplate(router, transactions, new SimpleAsyncTaskExecutor());
+	}
+
+	@Test
+	void locateStopsAtTheShardHoldingTheRow() {
+		List<Integer> visited = new ArrayList<>();
+		Optional<String> found = shards.locate(() -> {
+			visited.add(ShardContext.current());
+			return ShardContext.current() == 1 ? Optional.of("row") : Optional.empty();
+		});
+
+		assertEquals(Optional.of("row"), found);
+		assertEquals(List.of(0, 1), visited);
+		// suspended around the lookup, so the caller's transaction can still bind to the owner's shard
+		verify(transactions).getTransaction(any());
+		assertEquals(ShardContext.HOME, ShardContext.current());
+	}
+
+	@Test
+	void locateMissesOnEveryShard() {
+		List<Integer> visited = new ArrayList<>();
+		Optional<String> found = shards.locate(() -> {
+			visited.add(ShardContext.current());
+			return Optional.empty();
+		});
+
+		assertTrue(found.isEmpty());
+		assertEquals(List.of(0, 1, 2), visited);
+	}
+
+	@Test
+	void scatterConcatenatesInShardOrder() {
+		List<Integer> result = shards.scatter(() -> List.of(ShardContext.current(), ShardContext.current() * 10));
+
+		assertEquals(List.of(0, 0, 1, 10, 2, 20), result);
+	}
+
+	@Test
+	void unshardedRunsInline() {
+		when(router.isSharded()).thenReturn(false);
+
+		assertEquals(Optional.of(0), shards.locate(() -> Optional.of(ShardContext.current())));
+		assertEquals(List.of(0), shards.scatter(() -> List.of(ShardContext.current())));
+		verify(transactions, never()).getTransaction(any());
+	}
+
+	@Test
+	void writesFollowThePlacementAndRefuseMovingUsers() {
+		when(router.placementOf("a@x.com")).thenReturn(new ShardRouter.Placement(2, false));
+		when(router.placementOf("b@x.com")).thenReturn(new ShardRouter.Placement(1, true));
+
+		assertEquals(2, shards.write("a@x.com", ShardContext::current));
+		assertThrows(RuntimeException.class, () -> shards.write("b@x.com", ShardContext::current));
+		// reads of a moving user still go to the old shard
+		assertEquals(1, shards.read("b@x.com", ShardContext::current));
+	}
+}
@@ -0,0 +1,106 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+	@Test
+	void concurrentCallersShareOneExecution() throws Exception {
+		SingleFlight<String, Integer> flight = new SingleFlight<>();
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(pool.submit(() -> flight.execute("a@x.com|2026-10", () -> {
+				executions.incrementAndGet();
+				await(release);
+				return 42;
+			})));
+		}
+		Thread.sleep(200);
+		release.countDown();
+
+		for (Future<Integer> result : results) {
+			assertEquals(42, result.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, executions.get());
+		pool.shutdown();
+	}
+
+	@Test
+	void failureIsNotCachedForLaterCallers() {
+		SingleFlight<String, Integer> flight = new SingleFlight<>();
+
+		assertThrows(IllegalStateException.class,
+				() -> flight.execute("k", () -> { throw new IllegalStateException("boom"); }));
+		assertEquals(7, flight.execute("k", () -> 7));
+	}
+
+	@Test
+	void waitersAreReleasedWhenTheLeaderThrowsAnError() throws Exception {
+		SingleFlight<String, Integer> flight = new SingleFlight<>();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+
+		Future<Integer> leader = pool.submit(() -> flight.execute("k", () -> {
+			started.countDown();
+			await(release);
+			throw new AssertionError("boom");
+		}));
+		await(started);
+		Future<Integer> waiter = pool.submit(() -> flight.execute("k", () -> 1));
+		Thread.sleep(200);
+		release.countDown();
+
+		ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(AssertionError.class, leaderFailure.getCause());
+		ExecutionException waiterFailure = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(AssertionError.class, waiterFailure.getCause());
+		pool.shutdown();
+	}
+
+	@Test
+	void checkedExceptionsReachWaitersToo() {
+		SingleFlight<String, Integer> flight = new SingleFlight<>();
+
+		Exception thrown = assertThrows(Exception.class, () -> flight.execute("k", SingleFlightTest::sneakyThrow));
+		assertInstanceOf(IOException.class, thrown);
+		assertEquals(3, flight.execute("k", () -> 3));
+	}
+
+	private static Integer sneakyThrow() {
+		SingleFlightTest.<RuntimeException>sneaky(new IOException("disk"));
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E extends Throwable> void sneaky(Throwable t) throws E {
+		throw (E) t;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.tasknest.entity.Budget;
+import com.tasknest.entity.Expenses;
+import com.tasknest.repository.BudgetRepository;
+import com.tasknest.repository.ExpensesRepository;
+
+/**
+ * SpendCache over stubbed repositories and versions: columns are reloaded
+ * when the user's expense version moves without an event on this node (a
+ * write elsewhere, an archived month), and not while it holds still.
+ */
+class SpendCacheTest {
+
+	private static final String EMAIL = "a@x.com";
+	private static final long USER = 7L;
+	private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+	private final ExpensesRepository expenses = mock(ExpensesRepository.class);
+	private final BudgetRepository budgets = mock(BudgetRepository.class);
+	private final ShardTemplate shards = mock(ShardTemplate.class);
+	private final CollectionVersions versions = mock(CollectionVersions.class);
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(shards.read(anyString(), any())).thenAnswer(call -> ((Supplier<Object>) call.getArgument(1)).get());
+		when(expenses.findByUserId(USER)).thenReturn(List.of(expense(1, "10.00"), expense(2, "5.00")));
+		when(budgets.findByUserId(USER)).thenReturn(List.of(budget("100.00")));
+		when(versions.current(EMAIL, ChangeEvent.EXPENSES)).thenReturn(2L);
+	}
+
+	@Test
+	void aMovedVersionReloadsTheColumns() {
+		SpendCache cache = cache(Duration.ZERO);
+		assertEquals(new BigDecimal("15.00"), spent(cache));
+
+		// the older row was archived by another node's maintenance run
+		when(expenses.findByUserId(USER)).thenReturn(List.of(expense(2, "5.00")));
+		when(versions.current(EMAIL, ChangeEvent.EXPENSES)).thenReturn(3L);
+		assertEquals(new BigDecimal("5.00"), spent(cache));
+		verify(expenses, times(2)).findByUserId(USER);
+	}
+
+	@Test
+	void anUnchangedVersionKeepsTheColumnsAndRereadsBudgets() {
+		SpendCache cache = cache(Duration.ZERO);
+		spent(cache);
+		when(budgets.findByUserId(USER)).thenReturn(List.of(budget("80.00")));
+
+		assertEquals(new BigDecimal("15.00"), spent(cache));
+		assertEquals(new BigDecimal("80.00"), cache.scan(EMAIL, USER, columns -> columns.budget("2026-03")).get());
+		verify(expenses, times(1)).findByUserId(USER);
+	}
+
+	@Test
+	void withinRecheckNothingIsQueried() {
+		SpendCache cache = cache(Duration.ofMinutes(1));
+		spent(cache);
+		when(versions.current(EMAIL, ChangeEvent.EXPENSES)).thenReturn(3L);
+
+		assertEquals(new BigDecimal("15.00"), spent(cache));
+		verify(versions, times(1)).current(EMAIL, ChangeEvent.EXPENSES);
+		verify(expenses, times(1)).findByUserId(USER);
+	}
+
+	private SpendCache cache(Duration recheck) {
+		return new SpendCache(expenses, budgets, shards, versions, DataSize.ofMegabytes(1), recheck,
+				Duration.ofMinutes(30));
+	}
+
+	private static BigDecimal spent(SpendCache cache) {
+		return (BigDecimal) cache.scan(EMAIL, USER, columns -> columns.totals(DAY.withDayOfMonth(1), DAY.withDayOfMonth(31))
+				.toStats(BigDecimal.ZERO).get("totalSpent")).get();
+	}
+
+	private static Expenses expense(long id, String amount) {
+		Expenses e = new Expenses();
+		e.setExpenseId(id);
+		e.setPurchaseDate(DAY.minusDays(id));
+		e.setCategory("food");
+		e.setAmount(new BigDecimal(amount));
+		return e;
+	}
+
+	private static Budget budget(String amount) {
+		Budget b = new Budget();
+		b.setMonth("2026-03");
+		b.setMonthlyBudget(new BigDecimal(amount));
+		return b;
+	}
+}
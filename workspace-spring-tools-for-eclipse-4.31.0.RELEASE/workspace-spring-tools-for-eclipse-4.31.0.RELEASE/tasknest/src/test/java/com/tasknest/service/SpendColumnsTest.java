@@ -0,0 +1,146 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.tasknest.entity.Budget;
+import com.tasknest.entity.Expenses;
+
+/**
+ * The columns against the rows they were built from: after random loads,
+ * inserts, moves and deletes, month stats and per-month category sums equal
+ * what the BigDecimal path computes over the same rows.
+ */
+class SpendColumnsTest {
+
+	private static final LocalDate FIRST = LocalDate.of(2025, 11, 1);
+	private static final String[] CATEGORIES = { "food", "grocery", "clothes", "rent", null };
+
+	@Test
+	void statsMatchTheRowsThroughRandomWrites() {
+		Random random = new Random(11);
+		for (int round = 0; round < 300; round++) {
+			Map<Long, Expenses> rows = new LinkedHashMap<>();
+			long nextId = 1;
+			for (int i = random.nextInt(200); i > 0; i--) {
+				rows.put(nextId, expense(nextId++, random));
+			}
+			SpendColumns columns = SpendColumns.of(new ArrayList<>(rows.values()), List.of());
+
+			for (int write = random.nextInt(100); write > 0; write--) {
+				int action = random.nextInt(3);
+				if (action == 0 || rows.isEmpty()) {
+					Expenses e = expense(nextId++, random);
+					rows.put(e.getExpenseId(), e);
+					assertTrue(columns.put(e.getExpenseId(), e.getPurchaseDate(), e.getCategory(), e.getAmount()));
+				} else {
+					long id = new ArrayList<>(rows.keySet()).get(random.nextInt(rows.size()));
+					if (action == 1) {
+						Expenses e = expense(id, random);
+						rows.put(id, e);
+						assertTrue(columns.put(id, e.getPurchaseDate(), e.getCategory(), e.getAmount()));
+					} else {
+						rows.remove(id);
+						columns.remove(id);
+					}
+				}
+			}
+
+			assertEquals(rows.size(), columns.size());
+			for (YearMonth month = YearMonth.from(FIRST); month.isBefore(YearMonth.from(FIRST).plusMonths(4));
+					month = month.plusMonths(1)) {
+				assertMonth(rows.values(), columns, month);
+			}
+			assertMonthSums(rows.values(), columns);
+		}
+	}
+
+	@Test
+	void amountsAreHeldAtTwoDecimalsLikeTheColumn() {
+		SpendColumns columns = SpendColumns.of(List.of(), List.of());
+		columns.put(1, FIRST, "food", new BigDecimal("5"));
+		columns.put(2, FIRST, "food", new BigDecimal("1.005"));
+
+		Map<String, Object> stats = columns.totals(FIRST, FIRST.plusDays(9)).toStats(BigDecimal.ZERO);
+		assertEquals(new BigDecimal("6.01"), stats.get("totalSpent"));
+		assertEquals(new BigDecimal("6.01"), stats.get("avgDailySpent"));
+	}
+
+	@Test
+	void unknownAmountsCannotBeCached() {
+		Expenses missing = new Expenses();
+		missing.setExpenseId(1L);
+		missing.setPurchaseDate(FIRST);
+		assertNull(SpendColumns.of(List.of(missing), List.of()));
+
+		SpendColumns columns = SpendColumns.of(List.of(), List.of());
+		assertFalse(columns.put(1, FIRST, "food", null));
+		assertFalse(columns.put(2, FIRST, "food", new BigDecimal("1E+30")));
+	}
+
+	@Test
+	void budgetsAreReportedPerMonth() {
+		Budget october = new Budget();
+		october.setMonth("2025-10");
+		october.setMonthlyBudget(new BigDecimal("100"));
+		SpendColumns columns = SpendColumns.of(List.of(), List.of(october));
+		columns.putBudget("2025-12", new BigDecimal("50.00"));
+
+		Map<String, BigDecimal> budgets = new TreeMap<>();
+		columns.forEachBudget(YearMonth.of(2025, 9), YearMonth.of(2025, 12), budgets::put);
+		assertEquals(Map.of("2025-10", new BigDecimal("100.00"), "2025-12", new BigDecimal("50.00")), budgets);
+		assertNull(columns.budget("2025-11"));
+	}
+
+	private static void assertMonth(Iterable<Expenses> rows, SpendColumns columns, YearMonth month) {
+		List<Expenses> inMonth = new ArrayList<>();
+		for (Expenses e : rows) {
+			if (YearMonth.from(e.getPurchaseDate()).equals(month)) {
+				inMonth.add(e);
+			}
+		}
+		BigDecimal budget = new BigDecimal("300.00");
+		Map<String, Object> expected = SpendTotals.bigDecimalStats(budget, inMonth);
+		Map<String, Object> actual = columns.totals(month.atDay(1), month.atEndOfMonth()).toStats(budget);
+
+		// rows come in day order rather than the query's, ties included the answer is the same
+		assertEquals(expected, actual, "stats of " + month);
+	}
+
+	private static void assertMonthSums(Iterable<Expenses> rows, SpendColumns columns) {
+		Map<String, Long> expected = new HashMap<>();
+		for (Expenses e : rows) {
+			expected.merge(YearMonth.from(e.getPurchaseDate()) + "/" + e.getCategory(),
+					e.getAmount().movePointRight(2).longValueExact(), Long::sum);
+		}
+		Map<String, Long> actual = new HashMap<>();
+		columns.forEachMonth(YearMonth.from(FIRST), YearMonth.from(FIRST).plusMonths(3),
+				(month, category, cents) -> assertNull(actual.put(month + "/" + category, cents)));
+		assertEquals(expected, actual);
+	}
+
+	// as read back from DECIMAL(15,2): always two decimals
+	private static Expenses expense(long id, Random random) {
+		Expenses e = new Expenses();
+		e.setExpenseId(id);
+		e.setPurchaseDate(FIRST.plusDays(random.nextInt(120)));
+		e.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+		e.setAmount(BigDecimal.valueOf(random.nextInt(400_00) - 50_00, 2));
+		return e;
+	}
+}
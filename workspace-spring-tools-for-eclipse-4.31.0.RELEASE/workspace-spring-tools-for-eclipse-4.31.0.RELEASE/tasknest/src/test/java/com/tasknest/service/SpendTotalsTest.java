@@ -0,0 +1,133 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.tasknest.entity.Expenses;
+
+/**
+ * Property checks: for random months of expenses the cents path returns
+ * exactly what the BigDecimal path returns, BigDecimal scales included.
+ */
+class SpendTotalsTest {
+
+	private static final YearMonth MONTH = YearMonth.of(2026, 2);
+	private static final String[] CATEGORIES = { "food", "grocery", "clothes", "rent", "transport", "fun", null };
+
+	@Test
+	void centAmountsMatchTheBigDecimalPath() {
+		forRandomMonths(1, random -> BigDecimal.valueOf(random.nextInt(50_000_00), 2));
+	}
+
+	@Test
+	void mixedScalesSignsAndZerosMatchTheBigDecimalPath() {
+		forRandomMonths(2, random -> switch (random.nextInt(5)) {
+			case 0 -> BigDecimal.valueOf(random.nextInt(1_000));
+			case 1 -> BigDecimal.valueOf(random.nextInt(10_000) - 5_000, 1);
+			case 2 -> new BigDecimal("1E+" + random.nextInt(4));
+			case 3 -> BigDecimal.ZERO.setScale(random.nextInt(3));
+			default -> BigDecimal.valueOf(random.nextInt(2_000_00) - 1_000_00, 2);
+		});
+	}
+
+	@Test
+	void tiedCategoriesPickTheSameWinner() {
+		forRandomMonths(3, random -> random.nextBoolean() ? new BigDecimal("5.00") : new BigDecimal("10.00"));
+	}
+
+	@Test
+	void aTieGoesToTheNameThatSortsFirstWhateverTheRowOrder() {
+		List<Expenses> expenses = new ArrayList<>(List.of(expense(MONTH.atDay(9), "rent", new BigDecimal("10.00")),
+				expense(MONTH.atDay(1), null, new BigDecimal("10.00")),
+				expense(MONTH.atDay(5), "food", new BigDecimal("4.00")),
+				expense(MONTH.atDay(2), "food", new BigDecimal("6.0")),
+				expense(MONTH.atDay(3), "clothes", new BigDecimal("9.99"))));
+		for (int shift = 0; shift < expenses.size(); shift++) {
+			Collections.rotate(expenses, 1);
+			assertEquals("food", SpendTotals.bigDecimalStats(BigDecimal.ZERO, expenses).get("mostSpentCategory"));
+			assertEquals("food", SpendTotals.monthlyStats(BigDecimal.ZERO, expenses, MONTH.atDay(1), MONTH.atEndOfMonth())
+					.get("mostSpentCategory"));
+		}
+	}
+
+	@Test
+	void amountsFinerThanACentFallBackToTheBigDecimalPath() {
+		forRandomMonths(4, random -> random.nextInt(20) == 0
+				? BigDecimal.valueOf(random.nextInt(100_000), 3)
+				: BigDecimal.valueOf(random.nextInt(100_000), 2));
+		assertFalse(new SpendTotals(MONTH.atDay(1), MONTH.atEndOfMonth())
+				.add(MONTH.atDay(1), "food", new BigDecimal("0.001")));
+	}
+
+	@Test
+	void totalsPastTheLongRangeFallBackToTheBigDecimalPath() {
+		BigDecimal huge = BigDecimal.valueOf(Long.MAX_VALUE / 2 + 1, 2);
+		List<Expenses> expenses = List.of(expense(MONTH.atDay(1), "rent", huge), expense(MONTH.atDay(2), "rent", huge),
+				expense(MONTH.atDay(3), "food", BigDecimal.ONE));
+
+		assertSame(new BigDecimal("1200.00"), expenses);
+		SpendTotals totals = new SpendTotals(MONTH.atDay(1), MONTH.atEndOfMonth());
+		assertEquals(true, totals.add(MONTH.atDay(1), "rent", huge));
+		assertFalse(totals.add(MONTH.atDay(2), "rent", huge));
+	}
+
+	@Test
+	void emptyMonthMatchesTheBigDecimalPath() {
+		assertSame(BigDecimal.ZERO, List.of());
+		assertSame(new BigDecimal("250.00"), List.of());
+	}
+
+	@Test
+	void halfUpDivisionMatchesBigDecimal() {
+		Random random = new Random(5);
+		for (int i = 0; i < 100_000; i++) {
+			long cents = random.nextLong() / (1 + random.nextInt(1 << 20));
+			long days = 1 + random.nextInt(31);
+			BigDecimal expected = BigDecimal.valueOf(cents, 2).divide(BigDecimal.valueOf(days), 2, RoundingMode.HALF_UP);
+			assertEquals(expected, BigDecimal.valueOf(SpendTotals.divideHalfUp(cents, days), 2), cents + " / " + days);
+		}
+	}
+
+	private static void forRandomMonths(long seed, Function<Random, BigDecimal> amounts) {
+		Random random = new Random(seed);
+		for (int month = 0; month < 2_000; month++) {
+			int rows = random.nextInt(4) == 0 ? random.nextInt(3) : random.nextInt(400);
+			int days = 1 + random.nextInt(MONTH.lengthOfMonth());
+			int categories = 1 + random.nextInt(CATEGORIES.length);
+			List<Expenses> expenses = new ArrayList<>(rows);
+			for (int i = 0; i < rows; i++) {
+				expenses.add(expense(MONTH.atDay(1 + random.nextInt(days)), CATEGORIES[random.nextInt(categories)],
+						amounts.apply(random)));
+			}
+			BigDecimal budget = random.nextBoolean() ? BigDecimal.ZERO : BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+			assertSame(budget, expenses);
+		}
+	}
+
+	private static void assertSame(BigDecimal budget, List<Expenses> expenses) {
+		Map<String, Object> expected = SpendTotals.bigDecimalStats(budget, expenses);
+		Map<String, Object> actual = SpendTotals.monthlyStats(budget, expenses, MONTH.atDay(1), MONTH.atEndOfMonth());
+		assertEquals(expected, actual, () -> "for " + expenses.size() + " expenses, budget " + budget);
+	}
+
+	private static Expenses expense(LocalDate day, String category, BigDecimal amount) {
+		Expenses e = new Expenses();
+		e.setPurchaseDate(day);
+		e.setCategory(category);
+		e.setAmount(amount);
+		return e;
+	}
+}
@@ -0,0 +1,169 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.tasknest.entity.Expenses;
+import com.tasknest.entity.Tombstone;
+import com.tasknest.repository.ExpensesRepository;
+import com.tasknest.repository.MoodTrackRepository;
+import com.tasknest.repository.TaskRepository;
+import com.tasknest.repository.TombstoneRepository;
+
+/**
+ * Delta sync over repositories backed by in-memory rows: upserts and
+ * tombstones after the token, an expense moved to another user, and tokens
+ * past the tombstone retention.
+ */
+class SyncServiceImplTest {
+
+	private static final String A = "a@x.com";
+	private static final String B = "b@x.com";
+
+	private final Map<Long, Expenses> expenseRows = new LinkedHashMap<>();
+	private final List<Tombstone> tombstoneRows = new ArrayList<>();
+
+	private final TaskRepository tasks = mock(TaskRepository.class);
+	private final ExpensesRepository expenses = mock(ExpensesRepository.class);
+	private final MoodTrackRepository moods = mock(MoodTrackRepository.class);
+	private final TombstoneRepository tombstones = mock(TombstoneRepository.class);
+	private final ShardRouter router = mock(ShardRouter.class);
+	private final UserIds userIds = mock(UserIds.class);
+	private ShardTemplate shards;
+	private SyncServiceImpl sync;
+
+	@BeforeEach
+	void setUp() {
+		when(router.placementOf(anyString())).thenReturn(new ShardRouter.Placement(0, false));
+		when(router.shardCount()).thenReturn(1);
+		when(userIds.idOf(A)).thenReturn(1L);
+		when(userIds.idOf(B)).thenReturn(2L);
+		when(userIds.requireIdOf(A)).thenReturn(1L);
+		when(userIds.requireIdOf(B)).thenReturn(2L);
+
+		when(expenses.findById(anyLong())).thenAnswer(call -> Optional.ofNullable(expenseRows.get(call.<Long>getArgument(0))));
+		when(expenses.save(any())).thenAnswer(call -> {
+			Expenses e = call.getArgument(0);
+			e.setUpdatedAt(LocalDateTime.now());
+			expenseRows.put(e.getExpenseId(), e);
+			return e;
+		});
+		when(expenses.findByUserIdAndUpdatedAtAfter(anyLong(), any())).thenAnswer(call -> expenseRows.values().stream()
+				.filter(e -> e.getUserId().equals(call.getArgument(0))
+						&& e.getUpdatedAt().isAfter(call.getArgument(1)))
+				.toList());
+		when(expenses.findByUserId(anyLong())).thenAnswer(call -> expenseRows.values().stream()
+				.filter(e -> e.getUserId().equals(call.getArgument(0))).toList());
+		when(tombstones.save(any())).thenAnswer(call -> {
+			tombstoneRows.add(call.getArgument(0));
+			return call.getArgument(0);
+		});
+		when(tombstones.findByUserIdAndDeletedAtAfter(anyLong(), any())).thenAnswer(call -> tombstoneRows.stream()
+				.filter(t -> t.getUserId().equals(call.getArgument(0))
+						&& t.getDeletedAt().isAfter(call.getArgument(1)))
+				.toList());
+
+		shards = new ShardTemplate(router, mock(PlatformTransactionManager.class), new SimpleAsyncTaskExecutor());
+		sync = new SyncServiceImpl(tasks, expenses, moods, tombstones, shards, userIds, 5, 30);
+	}
+
+	@Test
+	void deltaHasUpsertsAndTombstonesSinceTheToken() {
+		String token = sync.encode(LocalDateTime.now().minusMinutes(10));
+		put(expense(1L, 1L, A, LocalDateTime.now().minusHours(1)));
+		put(expense(2L, 1L, A, LocalDateTime.now().minusMinutes(1)));
+		tombstoneRows.add(new Tombstone(1L, A, ChangeEvent.EXPENSES, 3L, LocalDateTime.now().minusMinutes(2)));
+		tombstoneRows.add(new Tombstone(1L, A, ChangeEvent.TASKS, 9L, LocalDateTime.now().minusHours(2)));
+
+		Map<String, Object> delta = sync.changesSince(A, token);
+
+		assertEquals(false, delta.get("full"));
+		assertEquals(List.of(2L), ids(delta.get(ChangeEvent.EXPENSES)));
+		assertEquals(Map.of(ChangeEvent.TASKS, List.of(), ChangeEvent.EXPENSES, List.of(3L), ChangeEvent.MOODS, List.of()),
+				delta.get("deleted"));
+		// the next token starts where this call started
+		assertTrue(!sync.decode((String) delta.get("token")).isBefore(LocalDateTime.now().minusSeconds(5)));
+	}
+
+	@Test
+	void anExpenseMovedToAnotherUserIsDeletedForItsOldOwner() {
+		put(expense(1L, 1L, A, LocalDateTime.now().minusHours(1)));
+		String tokenA = sync.encode(LocalDateTime.now().minusMinutes(10));
+		String tokenB = sync.encode(LocalDateTime.now().minusMinutes(10));
+
+		ExpensesServiceImpl service = new ExpensesServiceImpl(expenses, tombstones, shards, router, userIds,
+				mock(ApplicationEventPublisher.class));
+		Expenses moved = expense(null, null, B, null);
+		service.updateExpense(1L, moved);
+
+		Map<String, Object> forA = sync.changesSince(A, tokenA);
+		assertEquals(List.of(), ids(forA.get(ChangeEvent.EXPENSES)));
+		assertEquals(List.of(1L), ((Map<?, ?>) forA.get("deleted")).get(ChangeEvent.EXPENSES));
+
+		Map<String, Object> forB = sync.changesSince(B, tokenB);
+		assertEquals(List.of(1L), ids(forB.get(ChangeEvent.EXPENSES)));
+		assertEquals(List.of(), ((Map<?, ?>) forB.get("deleted")).get(ChangeEvent.EXPENSES));
+	}
+
+	@Test
+	void tokensPastTheRetentionGetAFullSnapshot() {
+		put(expense(1L, 1L, A, LocalDateTime.now().minusDays(40)));
+		tombstoneRows.add(new Tombstone(1L, A, ChangeEvent.EXPENSES, 3L, LocalDateTime.now().minusDays(1)));
+
+		Map<String, Object> snapshot = sync.changesSince(A, sync.encode(LocalDateTime.now().minusDays(31)));
+
+		assertEquals(true, snapshot.get("full"));
+		assertEquals(List.of(1L), ids(snapshot.get(ChangeEvent.EXPENSES)));
+		// a snapshot replaces the client's copy, so it carries no deletes
+		assertEquals(List.of(), ((Map<?, ?>) snapshot.get("deleted")).get(ChangeEvent.EXPENSES));
+		verify(tombstones, never()).findByUserIdAndDeletedAtAfter(anyLong(), any());
+
+		assertEquals(true, sync.changesSince(A, "garbage").get("full"));
+		assertEquals(true, sync.changesSince(A, null).get("full"));
+	}
+
+	@Test
+	void unknownUsersHaveNothingToSync() {
+		when(userIds.idOf("nobody@x.com")).thenReturn(null);
+		Map<String, Object> delta = sync.changesSince("nobody@x.com", null);
+		assertEquals(List.of(), delta.get(ChangeEvent.EXPENSES));
+		verify(expenses, never()).findByUserId(anyLong());
+	}
+
+	private void put(Expenses e) {
+		expenseRows.put(e.getExpenseId(), e);
+	}
+
+	private static List<Long> ids(Object rows) {
+		return ((List<?>) rows).stream().map(row -> ((Expenses) row).getExpenseId()).toList();
+	}
+
+	private static Expenses expense(Long id, Long userId, String email, LocalDateTime updatedAt) {
+		Expenses e = new Expenses(id, "lunch", LocalDate.now(), new BigDecimal("12.50"), "food", email);
+		e.setUserId(userId);
+		e.setUpdatedAt(updatedAt);
+		return e;
+	}
+}
@@ -0,0 +1,28 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Test;
+
+class SyncTokenTest {
+
+	private final SyncServiceImpl sync = new SyncServiceImpl(null, null, null, null, null, null, 5, 30);
+
+	@Test
+	void tokenRoundTripsToTheMillisecond() {
+		LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+		assertEquals(now, sync.decode(sync.encode(now)));
+	}
+
+	@Test
+	void unreadableTokensMeanFullResync() {
+		assertNull(sync.decode(null));
+		assertNull(sync.decode(""));
+		assertNull(sync.decode("not a token"));
+		assertNull(sync.decode("djI6MTIz")); // "v2:123"
+	}
+}
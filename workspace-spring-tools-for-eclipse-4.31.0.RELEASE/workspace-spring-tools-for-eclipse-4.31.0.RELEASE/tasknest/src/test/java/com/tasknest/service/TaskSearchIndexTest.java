@@ -0,0 +1,70 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TaskSearchIndexTest {
+
+	private TaskSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new TaskSearchIndex();
+		index.put(1, "Buy groceries", "Home", "milk, eggs and bread");
+		index.put(2, "Quarterly report", "Work", "send the report to finance");
+		index.put(3, "Dentist appointment", "Health", null);
+		index.put(4, "Call the bank", "Finance", "ask about the report fee");
+	}
+
+	@Test
+	void titleMatchesOutrankDescriptionMatches() {
+		assertEquals(List.of(2L, 4L), index.search("report", 10));
+	}
+
+	@Test
+	void everyQueryTermMustMatch() {
+		assertEquals(List.of(4L), index.search("report bank", 10));
+		assertEquals(List.of(), index.search("report dentist", 10));
+	}
+
+	@Test
+	void unfinishedWordsMatchByPrefix() {
+		assertEquals(List.of(3L), index.search("denti", 10));
+		assertEquals(List.of(1L), index.search("groc", 10));
+	}
+
+	@Test
+	void typosAreTolerated() {
+		assertEquals(List.of(3L), index.search("dentsit", 10));
+		assertEquals(List.of(1L), index.search("grocereis", 10));
+		assertEquals(List.of(), index.search("mlk", 10)); // too short to guess
+	}
+
+	@Test
+	void accentsAndCaseAreIgnored() {
+		index.put(5, "Café visit", null, null);
+		assertEquals(List.of(5L), index.search("CAFE", 10));
+	}
+
+	@Test
+	void updatesAndRemovalsReplaceTheOldTerms() {
+		index.put(3, "Dentist moved", "Health", "now on friday");
+		assertEquals(List.of(), index.search("appointment", 10));
+		assertEquals(List.of(3L), index.search("friday", 10));
+
+		index.remove(3);
+		assertEquals(List.of(), index.search("dentist", 10));
+		assertEquals(3, index.size());
+	}
+
+	@Test
+	void editDistanceCountsTranspositionsOnce() {
+		assertEquals(1, TaskSearchIndex.editDistance("form", "from", 2));
+		assertEquals(2, TaskSearchIndex.editDistance("kitten", "sittin", 2));
+		assertEquals(3, TaskSearchIndex.editDistance("kitten", "sitting", 2));
+	}
+}
@@ -0,0 +1,125 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.tasknest.entity.Task;
+import com.tasknest.repository.TaskRepository;
+import com.tasknest.repository.TombstoneRepository;
+
+/**
+ * Updates of a recurring task template over stubbed repositories on a single
+ * shard: a new rule or due date only regenerates the future of the series.
+ * A token-authenticated caller only reaches their own tasks.
+ */
+class TaskServiceImplTest {
+
+	private static final String EMAIL = "a@x.com";
+	private static final LocalDate TODAY = LocalDate.now();
+
+	private final TaskRepository tasks = mock(TaskRepository.class);
+	private final ShardRouter router = mock(ShardRouter.class);
+	private final UserIds userIds = mock(UserIds.class);
+	private TaskServiceImpl service;
+
+	@BeforeEach
+	void setUp() {
+		when(router.placementOf(anyString())).thenReturn(new ShardRouter.Placement(0, false));
+		when(router.shardCount()).thenReturn(1);
+		when(userIds.requireIdOf(EMAIL)).thenReturn(7L);
+		when(tasks.save(any())).thenAnswer(call -> call.getArgument(0));
+		ShardTemplate shards = new ShardTemplate(router, mock(PlatformTransactionManager.class),
+				new SimpleAsyncTaskExecutor());
+		service = new TaskServiceImpl(tasks, mock(TombstoneRepository.class), shards, userIds,
+				mock(TaskSearchIndexes.class), mock(ApplicationEventPublisher.class));
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestUser.clear();
+	}
+
+	@Test
+	void anotherUsersTaskIsOffLimits() {
+		when(tasks.findById(1L)).thenReturn(Optional.of(template(TODAY, null)));
+		RequestUser.authenticate("eve@x.com", 9L);
+
+		assertThrows(NotOwnerException.class, () -> service.createTask(edit(TODAY, null)));
+		assertThrows(NotOwnerException.class, () -> service.updateTask(1L, edit(TODAY, null)));
+		assertThrows(NotOwnerException.class, () -> service.deleteTask(1L));
+		verify(tasks, never()).save(any());
+		verify(tasks, never()).deleteById(anyLong());
+
+		RequestUser.authenticate(EMAIL, 7L);
+		service.deleteTask(1L);
+		verify(tasks).deleteById(1L);
+	}
+
+	@Test
+	void aNewRuleRegeneratesOnlyAfterToday() {
+		when(tasks.findById(1L)).thenReturn(Optional.of(template(TODAY.minusMonths(3), "FREQ=DAILY")));
+
+		Task saved = service.updateTask(1L, edit(TODAY.minusMonths(3), "FREQ=WEEKLY"));
+
+		assertEquals(TODAY, saved.getRecurrenceGeneratedUntil());
+		verify(tasks).deletePendingInstances(1L, TODAY);
+	}
+
+	@Test
+	void aNewDueDateRegeneratesTheSeries() {
+		when(tasks.findById(1L)).thenReturn(Optional.of(template(TODAY.minusMonths(3), "FREQ=WEEKLY")));
+
+		Task saved = service.updateTask(1L, edit(TODAY.minusMonths(2), "FREQ=WEEKLY"));
+
+		assertEquals(TODAY, saved.getRecurrenceGeneratedUntil());
+		verify(tasks).deletePendingInstances(1L, TODAY);
+	}
+
+	@Test
+	void otherEditsKeepTheSeries() {
+		when(tasks.findById(1L)).thenReturn(Optional.of(template(TODAY.minusMonths(3), "FREQ=WEEKLY")));
+
+		Task saved = service.updateTask(1L, edit(TODAY.minusMonths(3), "FREQ=WEEKLY"));
+
+		assertEquals(TODAY.plusDays(30), saved.getRecurrenceGeneratedUntil());
+		verify(tasks, never()).deletePendingInstances(anyLong(), any());
+	}
+
+	private static Task template(LocalDate due, String rule) {
+		Task t = new Task();
+		t.setId(1L);
+		t.setTitle("standup");
+		t.setUserEmail(EMAIL);
+		t.setUserId(7L);
+		t.setDueDate(due);
+		t.setRecurrenceRule(rule);
+		t.setRecurrenceGeneratedUntil(TODAY.plusDays(30));
+		return t;
+	}
+
+	private static Task edit(LocalDate due, String rule) {
+		Task t = new Task();
+		t.setTitle("standup");
+		t.setUserEmail(EMAIL);
+		t.setDueDate(due);
+		t.setRecurrenceRule(rule);
+		return t;
+	}
+}
@@ -0,0 +1,61 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+	@Test
+	void firesOnlyWhenDeadlinePasses() {
+		TimingWheel<Long, String> wheel = new TimingWheel<>(1000, 8, 0);
+		wheel.schedule(1L, "soon", 3_500);
+		wheel.schedule(2L, "later", 20_000);
+
+		assertTrue(wheel.advance(2_999).isEmpty());
+		assertEquals(List.of("soon"), wheel.advance(4_000));
+		assertTrue(wheel.advance(19_000).isEmpty());
+		assertEquals(List.of("later"), wheel.advance(20_000));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void cascadesThroughOverflowLevels() {
+		TimingWheel<Long, String> wheel = new TimingWheel<>(1000, 4, 0);
+		// 4s per level-0 revolution, so these land two and three levels up
+		wheel.schedule(1L, "a", 10_000);
+		wheel.schedule(2L, "b", 70_000);
+
+		long fired = 0;
+		for (long now = 0; now <= 80_000; now += 1000) {
+			for (String value : wheel.advance(now)) {
+				fired++;
+				assertEquals(value.equals("a") ? 10_000 : 70_000, now);
+			}
+		}
+		assertEquals(2, fired);
+	}
+
+	@Test
+	void rescheduleAndCancelReplaceExistingEntry() {
+		TimingWheel<Long, String> wheel = new TimingWheel<>(1000, 8, 0);
+		wheel.schedule(1L, "v1", 5_000);
+		wheel.schedule(1L, "v2", 9_000);
+		wheel.schedule(2L, "gone", 5_000);
+		wheel.cancel(2L);
+
+		assertTrue(wheel.advance(6_000).isEmpty());
+		assertEquals(List.of("v2"), wheel.advance(9_000));
+	}
+
+	@Test
+	void pastDeadlinesFireOnNextAdvance() {
+		TimingWheel<Long, String> wheel = new TimingWheel<>(1000, 8, 10_000);
+		wheel.schedule(1L, "overdue", 1_000);
+
+		assertEquals(List.of("overdue"), wheel.advance(10_000));
+	}
+}
@@ -0,0 +1,55 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class TokenServiceTest {
+
+	private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+	private final TokenService tokens = new TokenService(SECRET, Duration.ofMinutes(15), Duration.ofDays(14));
+
+	@Test
+	void accessTokenRoundTrips() {
+		TokenService.TokenPair pair = tokens.issue(42, " Ann@Example.com ");
+		TokenService.Claims claims = tokens.verify(pair.accessToken(), TokenService.ACCESS);
+		assertEquals(42, claims.userId());
+		assertEquals("ann@example.com", claims.email());
+		assertEquals(900, pair.expiresIn());
+		assertNotEquals(claims.id(), tokens.verify(pair.refreshToken(), TokenService.REFRESH).id());
+	}
+
+	@Test
+	void tokensAreOnlyAcceptedForTheirOwnUse() {
+		TokenService.TokenPair pair = tokens.issue(42, "ann@example.com");
+		assertNull(tokens.verify(pair.accessToken(), TokenService.REFRESH));
+		assertNull(tokens.verify(pair.refreshToken(), TokenService.ACCESS));
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		String token = tokens.issue(42, "ann@example.com").accessToken();
+		String[] parts = token.split("\\.");
+		String forged = tokens.issue(7, "eve@example.com").accessToken().split("\\.")[1];
+		assertNull(tokens.verify(parts[0] + "." + forged + "." + parts[2], TokenService.ACCESS));
+		assertNull(tokens.verify(token + "x", TokenService.ACCESS));
+		assertNull(tokens.verify("not a token", TokenService.ACCESS));
+	}
+
+	@Test
+	void otherSecretIsRejected() {
+		TokenService other = new TokenService(SECRET.toUpperCase(), Duration.ofMinutes(15), Duration.ofDays(14));
+		assertNull(tokens.verify(other.issue(42, "ann@example.com").accessToken(), TokenService.ACCESS));
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		TokenService expired = new TokenService(SECRET, Duration.ofSeconds(-1), Duration.ofDays(14));
+		assertNull(expired.verify(expired.issue(42, "ann@example.com").accessToken(), TokenService.ACCESS));
+	}
+}
@@ -0,0 +1,89 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.tasknest.repository.SchedulerLeaseRepository;
+
+/**
+ * The whole contract step on MySQL, from the expanded schema (users keyed by
+ * email with a unique AUTO_INCREMENT id next to it) to users keyed by id.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UserIdBackfillMySqlTest {
+
+	@Container
+	private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	private JdbcTemplate jdbc;
+	private DriverManagerDataSource home;
+
+	@BeforeEach
+	void setUp() {
+		home = new DriverManagerDataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+		jdbc = new JdbcTemplate(home);
+		jdbc.execute("DROP TABLE IF EXISTS users");
+		jdbc.execute("CREATE TABLE users (email_id VARCHAR(255) NOT NULL, id BIGINT NOT NULL AUTO_INCREMENT, "
+				+ "deletion_requested_at DATETIME(6), PRIMARY KEY (email_id), UNIQUE KEY uk_users_id (id))");
+		jdbc.update("INSERT INTO users (email_id) VALUES ('a@x.com'), ('b@x.com')");
+		for (Map.Entry<String, String> table : UserIdBackfill.CHILD_TABLES.entrySet()) {
+			jdbc.execute("DROP TABLE IF EXISTS " + table.getKey());
+			jdbc.execute("CREATE TABLE " + table.getKey() + " (" + table.getValue() + " BIGINT NOT NULL AUTO_INCREMENT, "
+					+ "user_email VARCHAR(255) NOT NULL, user_id BIGINT, PRIMARY KEY (" + table.getValue() + "), "
+					+ "KEY idx_" + table.getKey() + "_user_email (user_email), KEY idx_" + table.getKey()
+					+ "_user_id (user_id))");
+			jdbc.update("INSERT INTO " + table.getKey() + " (user_email) VALUES ('a@x.com'), ('B@x.com'), ('ghost@x.com')");
+		}
+	}
+
+	@Test
+	void finalizeMovesTheUsersKeyAndDropsEmailIndexes() {
+		UserIdBackfill backfill = backfill();
+		backfill.sweep();
+		backfill.sweep();
+
+		assertEquals(List.of("id"), jdbc.queryForList("SELECT COLUMN_NAME FROM information_schema.KEY_COLUMN_USAGE "
+				+ "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'users' AND CONSTRAINT_NAME = 'PRIMARY'", String.class));
+		assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = "
+				+ "DATABASE() AND TABLE_NAME = 'users' AND COLUMN_NAME = 'email_id' AND NON_UNIQUE = 0", Integer.class));
+		for (String table : UserIdBackfill.CHILD_TABLES.keySet()) {
+			assertEquals("NO", jdbc.queryForObject("SELECT IS_NULLABLE FROM information_schema.COLUMNS WHERE "
+					+ "TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = 'user_id'", String.class, table));
+			assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.STATISTICS WHERE "
+					+ "TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = 'user_email'", Integer.class, table));
+			assertEquals(List.of(1L, 2L, UserIdBackfill.UNKNOWN_USER), jdbc.queryForList(
+					"SELECT user_id FROM " + table + " ORDER BY " + UserIdBackfill.CHILD_TABLES.get(table), Long.class));
+		}
+
+		// a rerun finds nothing to change
+		backfill().sweep();
+	}
+
+	private UserIdBackfill backfill() {
+		SchedulerLeaseRepository leases = mock(SchedulerLeaseRepository.class);
+		when(leases.tryAcquire(anyString(), anyString(), any(), any())).thenReturn(1);
+		ShardRouter router = mock(ShardRouter.class);
+		when(router.shardCount()).thenReturn(1);
+		ShardTemplate shards = new ShardTemplate(router, new DataSourceTransactionManager(home),
+				new SimpleAsyncTaskExecutor());
+		return new UserIdBackfill(new UserIds(home, Duration.ofMinutes(10)), shards, jdbc,
+				new DataSourceTransactionManager(home), leases, "node-1", 2, true, 600);
+	}
+}
@@ -0,0 +1,146 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.tasknest.repository.SchedulerLeaseRepository;
+
+/**
+ * Backfill and the child-table contract steps against an H2 database in
+ * MySQL mode: child rows with a nullable user_id and email-leading indexes.
+ * Moving the users primary key is MySQL syntax and covered by
+ * {@link UserIdBackfillMySqlTest}.
+ */
+class UserIdBackfillTest {
+
+	private final DriverManagerDataSource home = new DriverManagerDataSource(
+			"jdbc:h2:mem:backfill;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+	private final JdbcTemplate jdbc = new JdbcTemplate(home);
+	private final SchedulerLeaseRepository leases = mock(SchedulerLeaseRepository.class);
+
+	@BeforeEach
+	void setUp() {
+		jdbc.execute("DROP ALL OBJECTS");
+		jdbc.execute("CREATE TABLE users (id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, email_id VARCHAR(255) UNIQUE, "
+				+ "deletion_requested_at TIMESTAMP)");
+		jdbc.update("INSERT INTO users (email_id, id) VALUES ('a@x.com', 1), ('b@x.com', 2)");
+		jdbc.execute("CREATE TABLE collection_versions (user_id BIGINT, user_email VARCHAR(255), "
+				+ "collection VARCHAR(20), version BIGINT, PRIMARY KEY (user_id, collection))");
+		for (Map.Entry<String, String> table : UserIdBackfill.CHILD_TABLES.entrySet()) {
+			jdbc.execute("CREATE TABLE " + table.getKey() + " (" + table.getValue() + " BIGINT PRIMARY KEY, "
+					+ "user_email VARCHAR(255) NOT NULL, user_id BIGINT)");
+			jdbc.execute("CREATE INDEX idx_" + table.getKey() + "_user_email ON " + table.getKey() + " (user_email)");
+			jdbc.execute("CREATE INDEX idx_" + table.getKey() + "_user_id ON " + table.getKey() + " (user_id)");
+			long id = 1;
+			for (String email : new String[] { "a@x.com", "A@x.com ", "b@x.com", "a@x.com", "ghost@x.com" }) {
+				jdbc.update("INSERT INTO " + table.getKey() + " (" + table.getValue() + ", user_email) VALUES (?, ?)",
+						id++, email);
+			}
+		}
+		when(leases.tryAcquire(anyString(), anyString(), any(), any())).thenReturn(1);
+	}
+
+	@Test
+	void backfillStampsEveryRowInChunks() {
+		UserIdBackfill backfill = backfill(false);
+
+		assertEquals(25, backfill.backfill());
+
+		for (String table : UserIdBackfill.CHILD_TABLES.keySet()) {
+			assertEquals(List.of(1L, 1L, 2L, 1L, UserIdBackfill.UNKNOWN_USER), userIds(table), table);
+		}
+		// the stamped rows join their owners' lists, so cached tags must not match anymore
+		assertEquals(List.of(1L, 1L, 1L, 2L, 2L, 2L), jdbc.queryForList(
+				"SELECT user_id FROM collection_versions ORDER BY user_id, collection", Long.class));
+		// nothing left for the next sweep
+		assertEquals(0, backfill.backfill());
+	}
+
+	@Test
+	void rowsWrittenByOlderNodesAreSweptUp() {
+		UserIdBackfill backfill = backfill(false);
+		backfill.afterSingletonsInstantiated();
+
+		jdbc.update("INSERT INTO tasks (id, user_email) VALUES (6, 'b@x.com')");
+		backfill.sweep();
+
+		assertEquals(2L, jdbc.queryForObject("SELECT user_id FROM tasks WHERE id = 6", Long.class));
+		assertTrue(nullable("tasks"), "contract step without finalize");
+	}
+
+	@Test
+	void contractOnlyOnceNothingIsLeft() {
+		UserIdBackfill backfill = backfill(true);
+
+		// the first sweep still fills rows, so the schema stays as it is
+		backfill.sweep();
+		assertTrue(nullable("tasks"));
+
+		backfill.sweep();
+		for (String table : UserIdBackfill.CHILD_TABLES.keySet()) {
+			assertFalse(nullable(table), table);
+			assertEquals(List.of("IDX_" + table.toUpperCase() + "_USER_ID"), indexes(table), table);
+		}
+		// a rerun finds nothing to change
+		backfill(true).sweep();
+	}
+
+	private UserIdBackfill backfill(boolean finalizeSchema) {
+		ShardRouter router = mock(ShardRouter.class);
+		when(router.shardCount()).thenReturn(1);
+		ShardTemplate shards = new ShardTemplate(router, new DataSourceTransactionManager(home),
+				new SimpleAsyncTaskExecutor());
+		return new UserIdBackfill(new UserIds(home, Duration.ofMinutes(10)), shards, jdbc,
+				new DataSourceTransactionManager(home), leases, "node-1", 2, finalizeSchema, 600);
+	}
+
+	private List<Long> userIds(String table) {
+		return jdbc.queryForList("SELECT user_id FROM " + table + " ORDER BY " + UserIdBackfill.CHILD_TABLES.get(table),
+				Long.class);
+	}
+
+	private boolean nullable(String table) {
+		return jdbc.execute((ConnectionCallback<Boolean>) con -> {
+			try (ResultSet rs = con.getMetaData().getColumns(null, null, table.toUpperCase(), "USER_ID")) {
+				rs.next();
+				return rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable;
+			}
+		});
+	}
+
+	// secondary indexes, without the ones H2 creates for the primary key
+	private List<String> indexes(String table) {
+		return jdbc.execute((ConnectionCallback<List<String>>) con -> {
+			List<String> names = new ArrayList<>();
+			try (ResultSet rs = con.getMetaData().getIndexInfo(null, null, table.toUpperCase(), false, false)) {
+				while (rs.next()) {
+					String name = rs.getString("INDEX_NAME");
+					if (!name.startsWith("PRIMARY_KEY") && !names.contains(name)) {
+						names.add(name);
+					}
+				}
+			}
+			return names;
+		});
+	}
+}
@@ -0,0 +1,73 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Email to id lookups against an H2 users table: cached hits, uncached
+ * misses, accounts being deleted and the token shortcut.
+ */
+class UserIdsTest {
+
+	private final DriverManagerDataSource home = new DriverManagerDataSource("jdbc:h2:mem:user-ids;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+	private final JdbcTemplate jdbc = new JdbcTemplate(home);
+	private final UserIds userIds = new UserIds(home, Duration.ofMinutes(10));
+
+	@BeforeEach
+	void setUp() {
+		jdbc.execute("DROP ALL OBJECTS");
+		jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email_id VARCHAR(255), deletion_requested_at TIMESTAMP)");
+		jdbc.update("INSERT INTO users (id, email_id) VALUES (7, 'a@x.com')");
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestUser.clear();
+	}
+
+	@Test
+	void idsAreCachedPerNormalizedEmail() {
+		assertEquals(7L, userIds.idOf(" A@x.com "));
+
+		jdbc.update("DELETE FROM users");
+		assertEquals(7L, userIds.idOf("a@x.com"));
+
+		userIds.forget("a@x.com");
+		assertNull(userIds.idOf("a@x.com"));
+	}
+
+	@Test
+	void missesAreNotCached() {
+		assertNull(userIds.idOf("new@x.com"));
+
+		jdbc.update("INSERT INTO users (id, email_id) VALUES (8, 'new@x.com')");
+		assertEquals(8L, userIds.idOf("new@x.com"));
+	}
+
+	@Test
+	void writesNeedAnAccountThatIsNotBeingDeleted() {
+		assertEquals(7L, userIds.requireIdOf("a@x.com"));
+		assertThrows(RuntimeException.class, () -> userIds.requireIdOf("nobody@x.com"));
+		assertThrows(RuntimeException.class, () -> userIds.requireIdOf(" "));
+
+		jdbc.update("INSERT INTO users (id, email_id, deletion_requested_at) VALUES (9, 'gone@x.com', CURRENT_TIMESTAMP)");
+		assertThrows(RuntimeException.class, () -> userIds.requireIdOf("gone@x.com"));
+	}
+
+	@Test
+	void theTokenNamesTheCallersId() {
+		RequestUser.authenticate("me@x.com", 42L);
+
+		assertEquals(42L, userIds.idOf("Me@x.com"));
+		assertEquals(7L, userIds.idOf("a@x.com"));
+	}
+}
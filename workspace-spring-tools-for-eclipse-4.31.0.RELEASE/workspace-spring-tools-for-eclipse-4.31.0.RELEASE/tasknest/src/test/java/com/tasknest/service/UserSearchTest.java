@@ -0,0 +1,34 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class UserSearchTest {
+
+	@Test
+	void filtersAreNormalizedLikeTheGeneratedColumns() {
+		UserSearch search = new UserSearch(" Ada Lovelace ", "ADA", " Engineer", "Female", "@GMail.com", 18, 65);
+		assertEquals("ada lovelace", search.name());
+		assertEquals("ada", search.namePrefix());
+		assertEquals("engineer", search.profession());
+		assertEquals("female", search.gender());
+		assertEquals("gmail.com", search.emailDomain());
+	}
+
+	@Test
+	void blankFiltersMeanAny() {
+		UserSearch search = new UserSearch("", "  ", null, "\t", "@", null, null);
+		assertNull(search.name());
+		assertNull(search.namePrefix());
+		assertNull(search.gender());
+		assertNull(search.emailDomain());
+	}
+
+	@Test
+	void prefixWildcardsAreMatchedLiterally() {
+		assertEquals("50\\%\\_off\\\\%", UserSearch.likePrefix("50%_off\\"));
+		assertEquals("ada%", UserSearch.likePrefix("ada"));
+	}
+}
@@ -0,0 +1,41 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.tasknest.entity.User;
+import com.tasknest.repository.UserRepository;
+
+/**
+ * The legacy fixed lookups over a mocked repository: a blank value is
+ * rejected instead of listing every user.
+ */
+class UserServiceImplTest {
+
+	private final UserRepository users = mock(UserRepository.class);
+	private final UserServiceImpl service = new UserServiceImpl(users, mock(ShardRouter.class), mock(UserIds.class),
+			mock(AccountDeletionJob.class));
+
+	@Test
+	void blankLookupsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> service.getUsersByName(" "));
+		assertThrows(IllegalArgumentException.class, () -> service.getUsersByName(null));
+		assertThrows(IllegalArgumentException.class, () -> service.getUsersByProfession("\t"));
+		verifyNoInteractions(users);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void aValueIsLookedUp() {
+		service.getUsersByProfession("Engineer");
+
+		verify(users).findAll(any(Specification.class), any(Sort.class));
+	}
+}
@@ -0,0 +1,67 @@
+package com.tasknest.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.MessageBuilder;
+
+class WebSocketReminderSinkTest {
+
+	private final SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+	private final SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(mock(SubscribableChannel.class),
+			mock(MessageChannel.class), mock(SubscribableChannel.class), List.of("/topic"));
+	private WebSocketReminderSink sink;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		ObjectProvider<AbstractBrokerMessageHandler> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable()).thenReturn(broker);
+		sink = new WebSocketReminderSink(template, provider);
+	}
+
+	@Test
+	void onlySubscribedUsersAreReached() {
+		subscribe("/topic/users/online@x.com/reminders");
+		TaskReminder online = reminder(1L, "Online@x.com");
+		TaskReminder offline = reminder(2L, "offline@x.com");
+
+		List<TaskReminder> unreached = sink.deliver(List.of(online, offline));
+
+		assertEquals(List.of(offline), unreached);
+		verify(template).convertAndSend("/topic/users/online@x.com/reminders", (Object) online);
+		verify(template, never()).convertAndSend(eq("/topic/users/offline@x.com/reminders"), any(Object.class));
+	}
+
+	private void subscribe(String destination) {
+		SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+		headers.setSessionId("s1");
+		headers.setSubscriptionId("sub-1");
+		headers.setDestination(destination);
+		Message<byte[]> subscribe = MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+		broker.getSubscriptionRegistry().registerSubscription(subscribe);
+	}
+
+	private static TaskReminder reminder(Long taskId, String email) {
+		return new TaskReminder(taskId, email, "task " + taskId, LocalDate.now(), 0);
+	}
+}